@@ -16,6 +16,7 @@
 package com.impetus.client.cassandra;
 
 import java.io.UnsupportedEncodingException;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -24,12 +25,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
 
 import javassist.Modifier;
 
 import javax.persistence.PersistenceException;
 import javax.persistence.Transient;
 import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.Attribute.PersistentAttributeType;
 import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
 
@@ -46,6 +50,7 @@ import org.apache.cassandra.thrift.CounterColumn;
 import org.apache.cassandra.thrift.CounterSuperColumn;
 import org.apache.cassandra.thrift.CqlResult;
 import org.apache.cassandra.thrift.CqlRow;
+import org.apache.cassandra.thrift.Deletion;
 import org.apache.cassandra.thrift.IndexClause;
 import org.apache.cassandra.thrift.IndexExpression;
 import org.apache.cassandra.thrift.IndexType;
@@ -55,6 +60,7 @@ import org.apache.cassandra.thrift.KsDef;
 import org.apache.cassandra.thrift.Mutation;
 import org.apache.cassandra.thrift.NotFoundException;
 import org.apache.cassandra.thrift.SchemaDisagreementException;
+import org.apache.cassandra.thrift.SlicePredicate;
 import org.apache.cassandra.thrift.SuperColumn;
 import org.apache.cassandra.thrift.TimedOutException;
 import org.apache.cassandra.thrift.UnavailableException;
@@ -67,6 +73,7 @@ import org.scale7.cassandra.pelops.pool.IThriftPool.IPooledConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.client.cassandra.common.CQLStatementCache;
 import com.impetus.client.cassandra.common.CassandraConstants;
 import com.impetus.client.cassandra.common.CassandraUtilities;
 import com.impetus.client.cassandra.config.CassandraPropertyReader;
@@ -99,7 +106,9 @@ import com.impetus.kundera.metadata.model.TableGeneratorDiscriptor;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessorFactory;
+import com.impetus.kundera.persistence.api.BulkWriter;
 import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.service.SpeculativeReadExecutor.SpeculativeRetry;
 
 /**
  * Base Class for all Cassandra Clients Contains methods that are applicable to
@@ -107,7 +116,7 @@ import com.impetus.kundera.property.PropertyAccessorHelper;
  * 
  * @author amresh.singh
  */
-public abstract class CassandraClientBase extends ClientBase implements ClientPropertiesSetter
+public abstract class CassandraClientBase extends ClientBase implements ClientPropertiesSetter, BulkWriter
 {
 
     /** log for this class. */
@@ -138,6 +147,24 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
 
     protected CQLClient cqlClient;
 
+    /** Prepared statements, held per pooled connection. */
+    private static final CQLStatementCache statementCache = new CQLStatementCache();
+
+    /** CQL queries longer than this are sent compressed. */
+    private static final int COMPRESSION_THRESHOLD = 8 * 1024;
+
+    /** Number of row keys fetched with one multiget_slice call. */
+    private int multigetBatchSize = CassandraConstants.DEFAULT_MULTIGET_BATCH_SIZE;
+
+    /** Number of multiget_slice calls issued in parallel. */
+    private int multigetParallelism = 1;
+
+    /** Speculative retry of reads, none by default. */
+    private SpeculativeRetry speculativeRetry = SpeculativeRetry.NONE;
+
+    /** Deadline of reads in milliseconds, 0 for none. */
+    private long readTimeout;
+
     /**
      * constructor using fields.
      * 
@@ -151,6 +178,8 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         this.cqlClient = new CQLClient();
         setBatchSize(persistenceUnit, this.externalProperties);
         populateCqlVersion(externalProperties);
+        populateMultigetProperties(persistenceUnit, externalProperties);
+        populateReadProperties(persistenceUnit, externalProperties);
     }
 
     /**
@@ -754,6 +783,31 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
 
     }
 
+    /**
+     * Executes a CQL3 SELECT COUNT(*) query.
+     * 
+     * @param cqlQuery
+     *            count query
+     * @return count of matching rows
+     */
+    public long executeCountQuery(String cqlQuery)
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Executing cql query {}.", cqlQuery);
+        }
+        try
+        {
+            CqlResult result = executeCQLReadQuery(cqlQuery, true);
+            return ByteBuffer.wrap(result.getRows().get(0).getColumns().get(0).getValue()).getLong();
+        }
+        catch (Exception e)
+        {
+            log.error("Error while executing count query: {}, Caused by: . ", cqlQuery, e);
+            throw new KunderaException(e);
+        }
+    }
+
     public Map<String, Object> getExternalProperties()
     {
         return externalProperties;
@@ -937,6 +991,62 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         return insert_Query;
     }
 
+    /**
+     * Return parameterised insert statement for given entity. Column values
+     * are not inlined into statement, but collected into bound values.
+     * 
+     * @param entityMetadata
+     * @param entity
+     * @param rlHolders
+     * @param ttlColumns
+     *            TTL values for each columns
+     * @param boundValues
+     *            list to collect bound values in bind marker order.
+     * @return insert statement or null, if entity can not be inserted using a
+     *         prepared statement.
+     */
+    protected String createPreparedInsertQuery(EntityMetadata entityMetadata, Object entity,
+            List<RelationHolder> rlHolders, Object ttlColumns, List<Object> boundValues)
+    {
+        CQLTranslator translator = new CQLTranslator();
+        HashMap<TranslationType, String> translation = translator.prepareColumnsAndBindMarkers(entity,
+                entityMetadata, externalProperties, boundValues);
+        if (translation == null)
+        {
+            return null;
+        }
+
+        StringBuilder columnNameBuilder = new StringBuilder(translation.get(TranslationType.COLUMN));
+        StringBuilder columnValueBuilder = new StringBuilder(translation.get(TranslationType.VALUE));
+
+        for (RelationHolder rl : rlHolders)
+        {
+            if (rl.getRelationValue() != null)
+            {
+                columnNameBuilder.append(",");
+                columnValueBuilder.append(",");
+                translator.appendColumnName(columnNameBuilder, rl.getRelationName());
+                translator.appendBindMarker(columnValueBuilder, rl.getRelationValue().getClass(),
+                        rl.getRelationValue(), boundValues);
+            }
+        }
+
+        String insert_Query = StringUtils.replace(CQLTranslator.INSERT_QUERY, CQLTranslator.COLUMN_FAMILY, translator
+                .ensureCase(new StringBuilder(), entityMetadata.getTableName(), false).toString());
+        insert_Query = StringUtils.replace(insert_Query, CQLTranslator.COLUMN_VALUES, columnValueBuilder.toString());
+        insert_Query = StringUtils.replace(insert_Query, CQLTranslator.COLUMNS, columnNameBuilder.toString());
+
+        if (ttlColumns != null && ttlColumns instanceof Integer)
+        {
+            int ttl = ((Integer) ttlColumns).intValue();
+            if (ttl != 0)
+            {
+                insert_Query = insert_Query + " USING TTL " + ttl;
+            }
+        }
+        return insert_Query;
+    }
+
     /**
      * Return update query string for given entity intended for counter column
      * family.
@@ -1061,6 +1171,107 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         return consistencyLevel;
     }
 
+    /**
+     * Returns number of row keys fetched with one multiget_slice call.
+     * 
+     * @return the multiget batch size
+     */
+    public int getMultigetBatchSize()
+    {
+        return multigetBatchSize;
+    }
+
+    /**
+     * Sets number of row keys fetched with one multiget_slice call.
+     * 
+     * @param multigetBatchSize
+     *            the multiget batch size
+     */
+    public void setMultigetBatchSize(int multigetBatchSize)
+    {
+        if (multigetBatchSize <= 0)
+        {
+            throw new IllegalArgumentException(CassandraConstants.MULTIGET_BATCH_SIZE
+                    + " property must be numeric and > 0.");
+        }
+        this.multigetBatchSize = multigetBatchSize;
+    }
+
+    /**
+     * Returns number of multiget_slice calls issued in parallel.
+     * 
+     * @return the multiget parallelism
+     */
+    public int getMultigetParallelism()
+    {
+        return multigetParallelism;
+    }
+
+    /**
+     * Sets number of multiget_slice calls issued in parallel, 1 issues them
+     * one after another.
+     * 
+     * @param multigetParallelism
+     *            the multiget parallelism
+     */
+    public void setMultigetParallelism(int multigetParallelism)
+    {
+        if (multigetParallelism <= 0)
+        {
+            throw new IllegalArgumentException(CassandraConstants.MULTIGET_PARALLELISM
+                    + " property must be numeric and > 0.");
+        }
+        this.multigetParallelism = multigetParallelism;
+    }
+
+    /**
+     * Returns speculative retry setting of reads.
+     * 
+     * @return the speculative retry
+     */
+    public SpeculativeRetry getSpeculativeRetry()
+    {
+        return speculativeRetry;
+    }
+
+    /**
+     * Sets speculative retry of reads, one of "NONE", "&lt;n&gt;percentile" or
+     * "&lt;n&gt;ms".
+     * 
+     * @param speculativeRetry
+     *            the speculative retry
+     */
+    public void setSpeculativeRetry(String speculativeRetry)
+    {
+        this.speculativeRetry = SpeculativeRetry.valueOf(speculativeRetry);
+    }
+
+    /**
+     * Returns deadline of reads in milliseconds, 0 for none.
+     * 
+     * @return the read timeout
+     */
+    public long getReadTimeout()
+    {
+        return readTimeout;
+    }
+
+    /**
+     * Sets deadline of reads in milliseconds, 0 for none.
+     * 
+     * @param readTimeout
+     *            the read timeout
+     */
+    public void setReadTimeout(long readTimeout)
+    {
+        if (readTimeout < 0)
+        {
+            throw new IllegalArgumentException(PersistenceProperties.KUNDERA_READ_TIMEOUT
+                    + " property must be numeric and >= 0.");
+        }
+        this.readTimeout = readTimeout;
+    }
+
     /**
      * On delete query.
      * 
@@ -1091,6 +1302,93 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         return deleteQueryBuilder.toString();
     }
 
+    /**
+     * Deletes row for given primary key, using a prepared delete statement.
+     * 
+     * @param metadata
+     *            entity metadata.
+     * @param metaModel
+     *            meta model.
+     * @param keyObject
+     *            primary key.
+     */
+    protected void onPreparedDelete(EntityMetadata metadata, MetamodelImpl metaModel, Object keyObject)
+    {
+        Object pooledConnection = getConection();
+        try
+        {
+            onPreparedDelete(metadata, metaModel, keyObject, getConnection(pooledConnection));
+        }
+        catch (Exception e)
+        {
+            log.error("Error while deleting of column family {} for row key {}, Caused by: .", metadata.getTableName(),
+                    keyObject, e);
+            throw new KunderaException(e);
+        }
+        finally
+        {
+            releaseConnection(pooledConnection);
+        }
+    }
+
+    /**
+     * Deletes row for given primary key, using a prepared delete statement on
+     * given connection.
+     * 
+     * @param metadata
+     *            entity metadata.
+     * @param metaModel
+     *            meta model.
+     * @param keyObject
+     *            primary key.
+     * @param conn
+     *            cassandra connection.
+     */
+    protected void onPreparedDelete(EntityMetadata metadata, MetamodelImpl metaModel, Object keyObject,
+            Cassandra.Client conn) throws InvalidRequestException, UnavailableException, TimedOutException,
+            SchemaDisagreementException, TException
+    {
+        CQLTranslator translator = new CQLTranslator();
+        StringBuilder deleteQueryBuilder = new StringBuilder(StringUtils.replace(CQLTranslator.DELETE_QUERY,
+                CQLTranslator.COLUMN_FAMILY, translator.ensureCase(new StringBuilder(), metadata.getTableName(), false)
+                        .toString()));
+        deleteQueryBuilder.append(CQLTranslator.ADD_WHERE_CLAUSE);
+
+        List<Object> boundValues = new ArrayList<Object>();
+        if (metaModel.isEmbeddable(metadata.getIdAttribute().getBindableJavaType()))
+        {
+            EmbeddableType compoundKey = metaModel.embeddable(metadata.getIdAttribute().getBindableJavaType());
+            for (Field field : metadata.getIdAttribute().getBindableJavaType().getDeclaredFields())
+            {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())
+                        && !field.isAnnotationPresent(Transient.class))
+                {
+                    String columnName = ((AbstractAttribute) compoundKey.getAttribute(field.getName()))
+                            .getJPAColumnName();
+                    translator.ensureCase(deleteQueryBuilder, columnName, false).append(CQLTranslator.EQ_CLAUSE);
+                    translator.appendBindMarker(deleteQueryBuilder, field.getType(),
+                            PropertyAccessorHelper.getObject(keyObject, field), boundValues);
+                    deleteQueryBuilder.append(CQLTranslator.AND_CLAUSE);
+                }
+            }
+        }
+        else
+        {
+            translator.ensureCase(deleteQueryBuilder,
+                    CassandraUtilities.getIdColumnName(metadata, getExternalProperties()), false).append(
+                    CQLTranslator.EQ_CLAUSE);
+            translator.appendBindMarker(deleteQueryBuilder,
+                    ((AbstractAttribute) metadata.getIdAttribute()).getBindableJavaType(), keyObject, boundValues);
+            deleteQueryBuilder.append(CQLTranslator.AND_CLAUSE);
+        }
+
+        // strip last "AND" clause.
+        deleteQueryBuilder.delete(deleteQueryBuilder.lastIndexOf(CQLTranslator.AND_CLAUSE),
+                deleteQueryBuilder.length());
+
+        statementCache.execute(conn, deleteQueryBuilder.toString(), boundValues, consistencyLevel);
+    }
+
     /**
      * On where clause.
      * 
@@ -1270,6 +1568,14 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
      */
     protected abstract CassandraDataHandler getDataHandler();
 
+    /**
+     * Gets pool that runs multiget_slice calls issued in parallel. It is owned
+     * and shut down by client factory.
+     * 
+     * @return the multiget executor
+     */
+    public abstract ExecutorService getMultigetExecutor();
+
     /**
      * Delete.
      * 
@@ -1465,6 +1771,102 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         return recordsExecuted;
     }
 
+    /**
+     * Deletes rows with one CQL batch if cql3 is enabled, row by row
+     * otherwise.
+     */
+    @Override
+    public int deleteAll(EntityMetadata m, List<Object> entities)
+    {
+        if (!isCql3Enabled(m))
+        {
+            for (Object entity : entities)
+            {
+                delete(entity, PropertyAccessorHelper.getId(entity, m));
+            }
+            return entities.size();
+        }
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        StringBuilder batchQueryBuilder = new StringBuilder(StringUtils.replace(CQLTranslator.BATCH_QUERY,
+                CQLTranslator.STATEMENT, ""));
+        for (Object entity : entities)
+        {
+            batchQueryBuilder.append(onDeleteQuery(m, metaModel, PropertyAccessorHelper.getId(entity, m)));
+        }
+        batchQueryBuilder.append(CQLTranslator.APPLY_BATCH);
+        try
+        {
+            executeCQLQuery(batchQueryBuilder.toString(), true);
+        }
+        catch (Exception e)
+        {
+            log.error("Error while executing bulk delete on {}, Caused by: .", m.getTableName(), e);
+            throw new KunderaException(e);
+        }
+
+        for (Object entity : entities)
+        {
+            getIndexManager().remove(m, entity, PropertyAccessorHelper.getId(entity, m).toString());
+        }
+        return entities.size();
+    }
+
+    /**
+     * Rewrites rows with one CQL batch if cql3 is enabled, with one
+     * batch_mutate call otherwise. Entities already hold updated values.
+     */
+    @Override
+    public int updateAll(EntityMetadata m, List<Object> entities, Map<String, Object> values)
+    {
+        Object pooledConnection = null;
+        try
+        {
+            if (isCql3Enabled(m))
+            {
+                StringBuilder batchQueryBuilder = new StringBuilder(StringUtils.replace(CQLTranslator.BATCH_QUERY,
+                        CQLTranslator.STATEMENT, ""));
+                for (Object entity : entities)
+                {
+                    batchQueryBuilder.append(createInsertQuery(m, entity, null, new ArrayList<RelationHolder>(0),
+                            getTtlValues().get(m.getTableName())));
+                }
+                batchQueryBuilder.append(CQLTranslator.APPLY_BATCH);
+                executeCQLQuery(batchQueryBuilder.toString(), true);
+            }
+            else
+            {
+                Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
+                for (Object entity : entities)
+                {
+                    mutationMap = prepareMutation(m, entity, PropertyAccessorHelper.getId(entity, m),
+                            new ArrayList<RelationHolder>(0), mutationMap);
+                }
+                pooledConnection = getConection();
+                getConnection(pooledConnection).batch_mutate(mutationMap, consistencyLevel);
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("Error while executing bulk update on {}, Caused by: .", m.getTableName(), e);
+            throw new KunderaException(e);
+        }
+        finally
+        {
+            if (pooledConnection != null)
+            {
+                releaseConnection(pooledConnection);
+            }
+        }
+
+        for (Object entity : entities)
+        {
+            indexEntity(m, entity);
+        }
+        return entities.size();
+    }
+
     /**
      * Prepare mutation.
      * 
@@ -1503,7 +1905,7 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         {
             String columnFamily = entityMetadata.getTableName();
             tf = getDataHandler().toThriftRow(entity, id, entityMetadata, columnFamily,
-                    getTtlValues().get(columnFamily));
+                    getTtlValues().get(columnFamily), changedFields);
         }
         catch (Exception e)
         {
@@ -1572,6 +1974,16 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
                     mutationList.add(mut);
                 }
             }
+
+            // Populate deletion for columns which have become null
+            List<ByteBuffer> nullifiedColumns = getNullifiedColumns(entityMetadata, entity);
+            if (!nullifiedColumns.isEmpty())
+            {
+                Mutation mut = new Mutation();
+                mut.setDeletion(new Deletion().setTimestamp(System.currentTimeMillis()).setPredicate(
+                        new SlicePredicate().setColumn_names(nullifiedColumns)));
+                mutationList.add(mut);
+            }
         }
 
         // Create Mutation Map
@@ -1583,6 +1995,42 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         return mutationMap;
     }
 
+    /**
+     * Returns names of columns of changed attributes which have become null.
+     * Null values are not written, hence these columns need to be deleted
+     * when an update is restricted to changed attributes.
+     * 
+     * @param entityMetadata
+     *            the entity metadata
+     * @param entity
+     *            the entity
+     * @return column names, empty if entity is written as a whole.
+     */
+    protected List<ByteBuffer> getNullifiedColumns(EntityMetadata entityMetadata, Object entity)
+    {
+        List<ByteBuffer> columnNames = new ArrayList<ByteBuffer>();
+        if (changedFields == null)
+        {
+            return columnNames;
+        }
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        EntityType entityType = metaModel.entity(entityMetadata.getEntityClazz());
+        for (Object attribute : entityType.getAttributes())
+        {
+            Attribute column = (Attribute) attribute;
+            if (changedFields.contains(column.getName())
+                    && column.getPersistentAttributeType().equals(PersistentAttributeType.BASIC)
+                    && PropertyAccessorHelper.getObject(entity, (Field) column.getJavaMember()) == null)
+            {
+                columnNames.add(ByteBuffer.wrap(PropertyAccessorFactory.STRING.toBytes(((AbstractAttribute) column)
+                        .getJPAColumnName())));
+            }
+        }
+        return columnNames;
+    }
+
     /**
      * Check on batch limit.
      */
@@ -1641,7 +2089,11 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
     }
 
     /**
-     * Return the generated value of id.
+     * Return the generated value of id. Counter is read and incremented once
+     * per id, ids are not reserved in blocks through a
+     * {@link com.impetus.kundera.generator.TableIdAllocator}: thrift counter
+     * add doesn't return the incremented value, so clients reading it with a
+     * separate get could reserve the same block.
      * 
      * @param descriptor
      * @param pu
@@ -1715,28 +2167,64 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
     protected CqlResult executeCQLQuery(String cqlQuery, boolean isCql3Enabled) throws InvalidRequestException,
             UnavailableException, TimedOutException, SchemaDisagreementException, TException
     {
-        Cassandra.Client conn = null;
         Object pooledConnection = null;
         pooledConnection = getConection();
-        conn = getConnection(pooledConnection);
         try
         {
-            if (isCql3Enabled || isCql3Enabled())
-            {
-                return conn.execute_cql3_query(ByteBufferUtil.bytes(cqlQuery),
-                        org.apache.cassandra.thrift.Compression.NONE, consistencyLevel);
-            }
+            return executeCQLQuery(getConnection(pooledConnection), cqlQuery, isCql3Enabled);
+        }
+        finally
+        {
+            releaseConnection(pooledConnection);
+        }
+    }
 
-            if (log.isInfoEnabled())
+    /**
+     * Executes a CQL SELECT query. Clients may retry it speculatively and
+     * apply read timeout to it.
+     * 
+     * @param cqlQuery
+     * @param isCql3Enabled
+     * @return
+     * @throws Exception
+     */
+    protected CqlResult executeCQLReadQuery(String cqlQuery, boolean isCql3Enabled) throws Exception
+    {
+        return executeCQLQuery(cqlQuery, isCql3Enabled);
+    }
+
+    /**
+     * Executes query string over given connection.
+     * 
+     * @param conn
+     * @param cqlQuery
+     * @param isCql3Enabled
+     * @return
+     * @throws InvalidRequestException
+     * @throws UnavailableException
+     * @throws TimedOutException
+     * @throws SchemaDisagreementException
+     * @throws TException
+     */
+    protected CqlResult executeCQLQuery(Cassandra.Client conn, String cqlQuery, boolean isCql3Enabled)
+            throws InvalidRequestException, UnavailableException, TimedOutException, SchemaDisagreementException,
+            TException
+    {
+        if (isCql3Enabled || isCql3Enabled())
+        {
+            if (cqlQuery.length() > COMPRESSION_THRESHOLD)
             {
-                log.info("Executing cql query {}.", cqlQuery);
+                return conn.execute_cql3_query(compress(cqlQuery), Compression.GZIP, consistencyLevel);
             }
-            return conn.execute_cql_query(ByteBufferUtil.bytes(cqlQuery), org.apache.cassandra.thrift.Compression.NONE);
+            return conn.execute_cql3_query(ByteBufferUtil.bytes(cqlQuery),
+                    org.apache.cassandra.thrift.Compression.NONE, consistencyLevel);
         }
-        finally
+
+        if (log.isInfoEnabled())
         {
-            releaseConnection(pooledConnection);
+            log.info("Executing cql query {}.", cqlQuery);
         }
+        return conn.execute_cql_query(ByteBufferUtil.bytes(cqlQuery), org.apache.cassandra.thrift.Compression.NONE);
     }
 
     /**
@@ -1788,6 +2276,48 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         }
     }
 
+    private void populateMultigetProperties(String persistenceUnit, Map<String, Object> externalProperties)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+
+        String batch_Size = getProperty(puMetadata, externalProperties, CassandraConstants.MULTIGET_BATCH_SIZE);
+        if (!StringUtils.isBlank(batch_Size))
+        {
+            setMultigetBatchSize(Integer.valueOf(batch_Size.trim()));
+        }
+
+        String parallelism = getProperty(puMetadata, externalProperties, CassandraConstants.MULTIGET_PARALLELISM);
+        if (!StringUtils.isBlank(parallelism))
+        {
+            setMultigetParallelism(Integer.valueOf(parallelism.trim()));
+        }
+    }
+
+    private void populateReadProperties(String persistenceUnit, Map<String, Object> externalProperties)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+
+        setSpeculativeRetry(getProperty(puMetadata, externalProperties,
+                PersistenceProperties.KUNDERA_SPECULATIVE_RETRY));
+
+        String timeout = getProperty(puMetadata, externalProperties, PersistenceProperties.KUNDERA_READ_TIMEOUT);
+        if (!StringUtils.isBlank(timeout))
+        {
+            setReadTimeout(Long.valueOf(timeout.trim()));
+        }
+    }
+
+    private String getProperty(PersistenceUnitMetadata puMetadata, Map<String, Object> externalProperties,
+            String propertyName)
+    {
+        Object value = externalProperties != null ? externalProperties.get(propertyName) : null;
+        if (value == null && puMetadata != null)
+        {
+            value = puMetadata.getProperty(propertyName);
+        }
+        return value != null ? value.toString() : null;
+    }
+
     private void populateCqlVersion(Map<String, Object> externalProperties)
     {
         String cqlVersion = externalProperties != null ? (String) externalProperties
@@ -1834,6 +2364,39 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
                 + this.getClass().getSimpleName());
     }
 
+    /**
+     * Compresses query string, as expected by cassandra for
+     * {@link Compression#GZIP} (i.e. zlib deflate).
+     * 
+     * @param cqlQuery
+     *            cql query.
+     * @return compressed query bytes.
+     */
+    private ByteBuffer compress(String cqlQuery)
+    {
+        Deflater deflater = new Deflater();
+        try
+        {
+            deflater.setInput(cqlQuery.getBytes(Constants.CHARSET_UTF8));
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(cqlQuery.length() / 4);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished())
+            {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new KunderaException(e);
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
     protected abstract Object getConection();
 
     protected abstract void releaseConnection(Object conn);
@@ -1859,6 +2422,13 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
             }
             else
             {
+                List<Object> boundValues = new ArrayList<Object>();
+                query = createPreparedInsertQuery(entityMetadata, entity, rlHolders, ttlColumns, boundValues);
+                if (query != null)
+                {
+                    statementCache.execute(conn, query, boundValues, consistencyLevel);
+                    return;
+                }
                 query = createInsertQuery(entityMetadata, entity, conn, rlHolders, ttlColumns);
             }
             // conn.set_cql_version(getCqlVersion());
@@ -1887,7 +2457,8 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
                 {
                     log.info("Executing query {}.", cqlQuery);
                 }
-                result = executeCQLQuery(cqlQuery, isCql3Enabled);
+                result = StringUtils.startsWithIgnoreCase(cqlQuery.trim(), "SELECT") ? executeCQLReadQuery(cqlQuery,
+                        isCql3Enabled) : executeCQLQuery(cqlQuery, isCql3Enabled);
                 if (result != null && (result.getRows() != null || result.getRowsSize() > 0))
                 {
                     returnedEntities = new ArrayList<Object>(result.getRowsSize());
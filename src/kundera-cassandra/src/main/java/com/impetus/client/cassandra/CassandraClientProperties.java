@@ -90,6 +90,25 @@ class CassandraClientProperties
                     {
                         this.cassandraClientBase.setBatchSize(value.toString());
                     }
+                    else if (key.equals(CassandraConstants.MULTIGET_BATCH_SIZE)
+                            && !StringUtils.isBlank(value.toString()) && StringUtils.isNumeric(value.toString()))
+                    {
+                        this.cassandraClientBase.setMultigetBatchSize(Integer.valueOf(value.toString()));
+                    }
+                    else if (key.equals(CassandraConstants.MULTIGET_PARALLELISM)
+                            && !StringUtils.isBlank(value.toString()) && StringUtils.isNumeric(value.toString()))
+                    {
+                        this.cassandraClientBase.setMultigetParallelism(Integer.valueOf(value.toString()));
+                    }
+                    else if (key.equals(PersistenceProperties.KUNDERA_SPECULATIVE_RETRY))
+                    {
+                        this.cassandraClientBase.setSpeculativeRetry(value.toString());
+                    }
+                    else if (key.equals(PersistenceProperties.KUNDERA_READ_TIMEOUT)
+                            && !StringUtils.isBlank(value.toString()) && StringUtils.isNumeric(value.toString()))
+                    {
+                        this.cassandraClientBase.setReadTimeout(Long.valueOf(value.toString()));
+                    }
 
                     // Add more properties as needed
                 }
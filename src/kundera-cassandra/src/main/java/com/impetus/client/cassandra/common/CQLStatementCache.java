@@ -0,0 +1,274 @@
+/**
+ * Copyright 2013 Impetus Infotech.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.impetus.client.cassandra.common;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cassandra.db.marshal.AbstractType;
+import org.apache.cassandra.db.marshal.AsciiType;
+import org.apache.cassandra.db.marshal.BooleanType;
+import org.apache.cassandra.db.marshal.CounterColumnType;
+import org.apache.cassandra.db.marshal.DateType;
+import org.apache.cassandra.db.marshal.DecimalType;
+import org.apache.cassandra.db.marshal.DoubleType;
+import org.apache.cassandra.db.marshal.FloatType;
+import org.apache.cassandra.db.marshal.InetAddressType;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.IntegerType;
+import org.apache.cassandra.db.marshal.LexicalUUIDType;
+import org.apache.cassandra.db.marshal.LongType;
+import org.apache.cassandra.db.marshal.TimeUUIDType;
+import org.apache.cassandra.db.marshal.TypeParser;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.db.marshal.UUIDType;
+import org.apache.cassandra.exceptions.ConfigurationException;
+import org.apache.cassandra.exceptions.SyntaxException;
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.Compression;
+import org.apache.cassandra.thrift.ConsistencyLevel;
+import org.apache.cassandra.thrift.CqlPreparedResult;
+import org.apache.cassandra.thrift.CqlResult;
+import org.apache.cassandra.thrift.InvalidRequestException;
+import org.apache.cassandra.thrift.SchemaDisagreementException;
+import org.apache.cassandra.thrift.TimedOutException;
+import org.apache.cassandra.thrift.UnavailableException;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.kundera.property.PropertyAccessorHelper;
+
+/**
+ * Cache of CQL3 prepared statements. Prepared statement ids are only valid on
+ * the connection they were prepared with, so statements are held per pooled
+ * connection and keyed by statement template (i.e. statement shape: table,
+ * operation and column set). Values are bound as {@link ByteBuffer}s,
+ * converted to java type of the validators returned by cassandra on prepare
+ * and serialized by them.
+ */
+public final class CQLStatementCache
+{
+    /** The log. */
+    private static Logger log = LoggerFactory.getLogger(CQLStatementCache.class);
+
+    /** Java type of values of each validator, others are bound as bytes. */
+    private static final Map<Class<?>, Class<?>> javaTypes = new HashMap<Class<?>, Class<?>>();
+
+    static
+    {
+        javaTypes.put(UTF8Type.class, String.class);
+        javaTypes.put(AsciiType.class, String.class);
+        javaTypes.put(Int32Type.class, Integer.class);
+        javaTypes.put(LongType.class, Long.class);
+        javaTypes.put(CounterColumnType.class, Long.class);
+        javaTypes.put(IntegerType.class, BigInteger.class);
+        javaTypes.put(DecimalType.class, BigDecimal.class);
+        javaTypes.put(FloatType.class, Float.class);
+        javaTypes.put(DoubleType.class, Double.class);
+        javaTypes.put(BooleanType.class, Boolean.class);
+        javaTypes.put(DateType.class, Date.class);
+        javaTypes.put(UUIDType.class, UUID.class);
+        javaTypes.put(TimeUUIDType.class, UUID.class);
+        javaTypes.put(LexicalUUIDType.class, UUID.class);
+        javaTypes.put(InetAddressType.class, InetAddress.class);
+    }
+
+    private final Map<Cassandra.Client, Map<String, PreparedStatement>> statements = new WeakHashMap<Cassandra.Client, Map<String, PreparedStatement>>();
+
+    /**
+     * Executes given statement template with bound values, preparing it on
+     * given connection on first use.
+     *
+     * @param conn
+     *            cassandra connection.
+     * @param template
+     *            CQL3 statement with bind markers.
+     * @param boundValues
+     *            bound values, in bind marker order.
+     * @param consistencyLevel
+     *            consistency level.
+     * @return cql result.
+     */
+    public CqlResult execute(Cassandra.Client conn, String template, List<Object> boundValues,
+            ConsistencyLevel consistencyLevel) throws InvalidRequestException, UnavailableException,
+            TimedOutException, SchemaDisagreementException, TException
+    {
+        PreparedStatement statement = getStatement(conn, template);
+        try
+        {
+            return conn.execute_prepared_cql3_query(statement.itemId, statement.bind(boundValues), consistencyLevel);
+        }
+        catch (InvalidRequestException irex)
+        {
+            // Statement is unknown to server (e.g. after restart or eviction),
+            // prepare again and retry once.
+            if (!isUnknownStatement(irex, statement))
+            {
+                throw irex;
+            }
+            invalidate(conn, template);
+            statement = getStatement(conn, template);
+            return conn.execute_prepared_cql3_query(statement.itemId, statement.bind(boundValues), consistencyLevel);
+        }
+    }
+
+    /**
+     * Returns true, if server rejected given statement as not prepared, i.e.
+     * "Prepared query with ID &lt;id&gt; not found".
+     */
+    private boolean isUnknownStatement(InvalidRequestException irex, PreparedStatement statement)
+    {
+        String why = irex.getWhy();
+        return why != null && why.startsWith("Prepared query with ID " + statement.itemId + " not found");
+    }
+
+    /**
+     * Removes all statements prepared on given connection.
+     *
+     * @param conn
+     *            cassandra connection.
+     */
+    public void invalidate(Cassandra.Client conn)
+    {
+        synchronized (statements)
+        {
+            statements.remove(conn);
+        }
+    }
+
+    private void invalidate(Cassandra.Client conn, String template)
+    {
+        getStatements(conn).remove(template);
+    }
+
+    private PreparedStatement getStatement(Cassandra.Client conn, String template) throws InvalidRequestException,
+            TException
+    {
+        Map<String, PreparedStatement> prepared = getStatements(conn);
+        PreparedStatement statement = prepared.get(template);
+        if (statement == null)
+        {
+            if (log.isDebugEnabled())
+            {
+                log.debug("Preparing cql statement {}.", template);
+            }
+            statement = new PreparedStatement(conn.prepare_cql3_query(ByteBufferUtil.bytes(template),
+                    Compression.NONE));
+            prepared.put(template, statement);
+        }
+        return statement;
+    }
+
+    private Map<String, PreparedStatement> getStatements(Cassandra.Client conn)
+    {
+        synchronized (statements)
+        {
+            Map<String, PreparedStatement> prepared = statements.get(conn);
+            if (prepared == null)
+            {
+                prepared = new ConcurrentHashMap<String, PreparedStatement>();
+                statements.put(conn, prepared);
+            }
+            return prepared;
+        }
+    }
+
+    /**
+     * Prepared statement id and validators of its bind variables.
+     */
+    private static final class PreparedStatement
+    {
+        private final int itemId;
+
+        private final AbstractType<?>[] types;
+
+        /** Java types of bind variables, null for variables bound as bytes. */
+        private final Class<?>[] valueTypes;
+
+        private PreparedStatement(CqlPreparedResult result) throws InvalidRequestException
+        {
+            this.itemId = result.getItemId();
+            List<String> variableTypes = result.getVariable_types();
+            if (variableTypes == null || variableTypes.size() != result.getCount())
+            {
+                throw new InvalidRequestException("No variable types returned on prepare, cql3 is required.");
+            }
+            this.types = new AbstractType<?>[variableTypes.size()];
+            this.valueTypes = new Class<?>[variableTypes.size()];
+            for (int i = 0; i < types.length; i++)
+            {
+                try
+                {
+                    types[i] = TypeParser.parse(variableTypes.get(i));
+                    valueTypes[i] = javaTypes.get(types[i].getClass());
+                }
+                catch (SyntaxException e)
+                {
+                    throw new InvalidRequestException(e.getMessage());
+                }
+                catch (ConfigurationException e)
+                {
+                    throw new InvalidRequestException(e.getMessage());
+                }
+            }
+        }
+
+        private List<ByteBuffer> bind(List<Object> boundValues)
+        {
+            List<ByteBuffer> values = new ArrayList<ByteBuffer>(boundValues.size());
+            for (int i = 0; i < boundValues.size(); i++)
+            {
+                values.add(bind(types[i], valueTypes[i], boundValues.get(i)));
+            }
+            return values;
+        }
+
+        /**
+         * Serializes value by column's declared type. Values of a type other
+         * than column's java type (e.g. a short field in an int column) are
+         * converted through their string representation, which fails rather
+         * than storing a value that does not fit. Values of columns without a
+         * known java type (e.g. blobs) are serialized by their property
+         * accessor.
+         */
+        private ByteBuffer bind(AbstractType<?> type, Class<?> valueType, Object value)
+        {
+            if (valueType == null)
+            {
+                return ByteBuffer.wrap(PropertyAccessorHelper.getBytes(value));
+            }
+            Object converted = value;
+            if (!valueType.isInstance(value))
+            {
+                converted = String.class.equals(valueType) ? PropertyAccessorHelper.getString(value)
+                        : PropertyAccessorHelper.fromSourceToTargetClass(valueType, value.getClass(), value);
+            }
+            return ((AbstractType<Object>) type).decompose(converted);
+        }
+    }
+}
@@ -92,4 +92,12 @@ public interface CassandraConstants
     public static final String SOCKET_TIMEOUT = "socket.timeout";
 
     public static final String MAX_WAIT = "max.wait";
+
+    /** Number of row keys fetched with one multiget_slice call. */
+    public static final String MULTIGET_BATCH_SIZE = "multiget.batch.size";
+
+    /** Number of multiget_slice calls of one find issued in parallel. */
+    public static final String MULTIGET_PARALLELISM = "multiget.parallelism";
+
+    public static final int DEFAULT_MULTIGET_BATCH_SIZE = 100;
 }
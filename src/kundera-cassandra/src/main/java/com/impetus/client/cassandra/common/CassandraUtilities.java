@@ -22,6 +22,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.scale7.cassandra.pelops.Bytes;
@@ -36,6 +40,7 @@ import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.accessor.DateAccessor;
+import com.impetus.kundera.utils.KunderaThreadFactory;
 
 /**
  * Provides utilities methods
@@ -59,6 +64,41 @@ public class CassandraUtilities
         return keyspace;
     }
 
+    /**
+     * Creates pool to run multiget_slice calls issued in parallel. Number of
+     * threads is bounded by multiget parallelism of persistence unit, or by
+     * number of processors if that is higher. Idle threads are let to die.
+     * 
+     * @param persistenceUnit
+     *            persistence unit
+     * @param externalProperties
+     *            external properties
+     * @return multiget pool, to be shut down by client factory.
+     */
+    public static ExecutorService newMultigetExecutor(String persistenceUnit, Map<String, Object> externalProperties)
+    {
+        Object parallelism = externalProperties != null ? externalProperties
+                .get(CassandraConstants.MULTIGET_PARALLELISM) : null;
+        if (parallelism == null)
+        {
+            PersistenceUnitMetadata persistenceUnitMetadata = KunderaMetadata.INSTANCE.getApplicationMetadata()
+                    .getPersistenceUnitMetadata(persistenceUnit);
+            parallelism = persistenceUnitMetadata != null ? persistenceUnitMetadata
+                    .getProperty(CassandraConstants.MULTIGET_PARALLELISM) : null;
+        }
+
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        if (parallelism != null && StringUtils.isNumeric(parallelism.toString().trim()))
+        {
+            poolSize = Math.max(poolSize, Integer.parseInt(parallelism.toString().trim()));
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new KunderaThreadFactory(persistenceUnit + "-multiget"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     public static Bytes toBytes(Object value, Field f)
     {
         return toBytes(value, f.getType());
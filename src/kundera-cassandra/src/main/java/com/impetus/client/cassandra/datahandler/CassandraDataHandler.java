@@ -16,6 +16,7 @@
 package com.impetus.client.cassandra.datahandler;
 
 import java.util.List;
+import java.util.Set;
 
 import org.apache.cassandra.thrift.ConsistencyLevel;
 import org.apache.cassandra.thrift.SuperColumn;
@@ -118,4 +119,20 @@ public interface CassandraDataHandler
      * @throws Exception
      */
     ThriftRow toThriftRow(Object e, Object id, EntityMetadata m, String columnFamily, Object columnTTLs) throws Exception;
+
+    /**
+     * Converts entity to thrift row, restricted to columns of given attributes.
+     * 
+     * @param e
+     * @param id
+     * @param m
+     * @param columnFamily
+     * @param columnTTLs
+     * @param changedFields
+     *            attributes to be written, null for all of them.
+     * @return
+     * @throws Exception
+     */
+    ThriftRow toThriftRow(Object e, Object id, EntityMetadata m, String columnFamily, Object columnTTLs,
+            Set<String> changedFields) throws Exception;
 }
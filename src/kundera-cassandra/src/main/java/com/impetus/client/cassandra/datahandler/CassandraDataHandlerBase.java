@@ -20,6 +20,7 @@ import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +28,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.persistence.PersistenceException;
 import javax.persistence.metamodel.Attribute;
@@ -40,6 +45,7 @@ import org.apache.cassandra.db.marshal.ListType;
 import org.apache.cassandra.db.marshal.MapType;
 import org.apache.cassandra.db.marshal.SetType;
 import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.ColumnOrSuperColumn;
 import org.apache.cassandra.thrift.ConsistencyLevel;
 import org.apache.cassandra.thrift.CounterColumn;
 import org.apache.cassandra.thrift.CounterSuperColumn;
@@ -227,20 +233,132 @@ public abstract class CassandraDataHandlerBase
             ConsistencyLevel consistencyLevel, Object... rowIds) throws Exception
     {
         List<Object> entities = new ArrayList<Object>();
-        if (rowIds != null)
+        if (rowIds != null && rowIds.length > 0)
         {
+            // Rows are fetched in chunks of multiget batch size, one
+            // multiget_slice call per chunk.
+            int batchSize = clientBase.getMultigetBatchSize();
+            List<List<ByteBuffer>> chunks = new ArrayList<List<ByteBuffer>>();
+            List<ByteBuffer> chunk = null;
             for (Object rowKey : rowIds)
             {
-                Object e = fromThriftRow(clazz, m, rowKey, relationNames, isWrapReq, consistencyLevel);
+                if (chunk == null || chunk.size() == batchSize)
+                {
+                    chunk = new ArrayList<ByteBuffer>(Math.min(batchSize, rowIds.length));
+                    chunks.add(chunk);
+                }
+                chunk.add(ByteBuffer.wrap(PropertyAccessorHelper.toBytes(rowKey, m.getIdAttribute().getJavaType())));
+            }
+
+            List<Map<ByteBuffer, List<ColumnOrSuperColumn>>> results = multiget(m, chunks, consistencyLevel);
+            for (int i = 0; i < chunks.size(); i++)
+            {
+                populateEntities(m, relationNames, isWrapReq, chunks.get(i), results.get(i), entities);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Fetches given chunks of rows, with up to multiget parallelism chunks in
+     * flight at a time.
+     */
+    private List<Map<ByteBuffer, List<ColumnOrSuperColumn>>> multiget(final EntityMetadata m,
+            List<List<ByteBuffer>> chunks, final ConsistencyLevel consistencyLevel) throws Exception
+    {
+        List<Map<ByteBuffer, List<ColumnOrSuperColumn>>> results = new ArrayList<Map<ByteBuffer, List<ColumnOrSuperColumn>>>(
+                chunks.size());
+        int parallelism = Math.min(clientBase.getMultigetParallelism(), chunks.size());
+        if (parallelism <= 1)
+        {
+            for (List<ByteBuffer> chunk : chunks)
+            {
+                results.add(getColumnOrSuperColumnsFromRows(m, chunk, consistencyLevel, false));
+            }
+            return results;
+        }
+
+        ExecutorService executor = clientBase.getMultigetExecutor();
+        List<Future<Map<ByteBuffer, List<ColumnOrSuperColumn>>>> futures = new ArrayList<Future<Map<ByteBuffer, List<ColumnOrSuperColumn>>>>(
+                chunks.size());
+        try
+        {
+            for (int i = 0; i < chunks.size(); i++)
+            {
+                // Keep a window of parallelism calls in flight.
+                while (futures.size() < chunks.size() && futures.size() < i + parallelism)
+                {
+                    final List<ByteBuffer> chunk = chunks.get(futures.size());
+                    futures.add(executor.submit(new Callable<Map<ByteBuffer, List<ColumnOrSuperColumn>>>()
+                    {
+                        @Override
+                        public Map<ByteBuffer, List<ColumnOrSuperColumn>> call() throws Exception
+                        {
+                            return getColumnOrSuperColumnsFromRows(m, chunk, consistencyLevel, true);
+                        }
+                    }));
+                }
+                results.add(futures.get(i).get());
+            }
+        }
+        catch (ExecutionException eex)
+        {
+            for (Future<Map<ByteBuffer, List<ColumnOrSuperColumn>>> future : futures)
+            {
+                future.cancel(true);
+            }
+            throw eex.getCause() instanceof Exception ? (Exception) eex.getCause() : eex;
+        }
+        return results;
+    }
+
+    /**
+     * Populates entities from fetched rows, in order of row keys. Rows
+     * without columns are skipped.
+     */
+    private void populateEntities(EntityMetadata m, List<String> relationNames, boolean isWrapReq,
+            List<ByteBuffer> rowKeys, Map<ByteBuffer, List<ColumnOrSuperColumn>> rows, List<Object> entities)
+    {
+        for (ByteBuffer rowKey : rowKeys)
+        {
+            List<ColumnOrSuperColumn> columnOrSuperColumns = rows != null ? rows.get(rowKey) : null;
+            if (columnOrSuperColumns != null && !columnOrSuperColumns.isEmpty())
+            {
+                ThriftRow tr = new ThriftRow();
+                tr.setId(PropertyAccessorHelper.getObject(m.getIdAttribute().getJavaType(), rowKey.array()));
+                tr.setColumnFamilyName(m.getTableName());
+                tr = thriftTranslator.translateToThriftRow(
+                        Collections.singletonMap(rowKey, columnOrSuperColumns), m.isCounterColumnType(),
+                        m.getType(), tr);
+
+                Object e = populateEntity(tr, m, relationNames, isWrapReq);
                 if (e != null)
                 {
                     entities.add(e);
                 }
             }
         }
-        return entities;
     }
 
+    /**
+     * Fetches all columns of given rows with a single multiget_slice call.
+     * 
+     * @param m
+     *            the m
+     * @param rowKeys
+     *            the row keys
+     * @param consistencyLevel
+     *            the consistency level
+     * @param parallel
+     *            true if invoked in parallel with other calls of same find,
+     *            so it may be served by any host
+     * @return columns keyed by row key
+     * @throws Exception
+     *             the exception
+     */
+    protected abstract Map<ByteBuffer, List<ColumnOrSuperColumn>> getColumnOrSuperColumnsFromRows(EntityMetadata m,
+            List<ByteBuffer> rowKeys, ConsistencyLevel consistencyLevel, boolean parallel) throws Exception;
+
     /**
      * From thrift row.
      * 
@@ -366,6 +484,32 @@ public abstract class CassandraDataHandlerBase
      */
     public ThriftRow toThriftRow(Object e, Object id, EntityMetadata m, String columnFamily, Object columnTTLs)
             throws Exception
+    {
+        return toThriftRow(e, id, m, columnFamily, columnTTLs, null);
+    }
+
+    /**
+     * Helper method to convert @Entity to ThriftRow, holding columns of given
+     * attributes only. Discriminator column is always added.
+     * 
+     * @param e
+     *            the e
+     * @param id
+     *            the id
+     * @param m
+     *            the m
+     * @param columnFamily
+     *            the colmun family
+     * @param columnTTLs
+     *            column TTLs
+     * @param changedFields
+     *            attributes to be written, null for all of them.
+     * @return the base data accessor. thrift row
+     * @throws Exception
+     *             the exception
+     */
+    public ThriftRow toThriftRow(Object e, Object id, EntityMetadata m, String columnFamily, Object columnTTLs,
+            Set<String> changedFields) throws Exception
     {
         // timestamp to use in thrift column objects
         // long timestamp = System.currentTimeMillis();
@@ -377,7 +521,7 @@ public abstract class CassandraDataHandlerBase
 
         long timestamp = System.currentTimeMillis();
         // Add super columns to thrift row
-        onColumnOrSuperColumnThriftRow(tr, m, e, id, timestamp, columnTTLs);
+        onColumnOrSuperColumnThriftRow(tr, m, e, id, timestamp, columnTTLs, changedFields);
         return tr;
     }
 
@@ -1468,10 +1612,12 @@ public abstract class CassandraDataHandlerBase
      *            the timestamp2
      * @param columnTTLs
      *            TODO
+     * @param changedFields
+     *            attributes to be written, null for all of them.
      */
 
     private void onColumnOrSuperColumnThriftRow(ThriftRow tr, EntityMetadata m, Object e, Object id, long timestamp,
-            Object columnTTLs)
+            Object columnTTLs, Set<String> changedFields)
     {
 
         // Iterate through Super columns
@@ -1484,7 +1630,8 @@ public abstract class CassandraDataHandlerBase
         Set<Attribute> attributes = entityType.getAttributes();
         for (Attribute attribute : attributes)
         {
-            if (!attribute.getName().equals(m.getIdAttribute().getName()) && !attribute.isAssociation())
+            if (!attribute.getName().equals(m.getIdAttribute().getName()) && !attribute.isAssociation()
+                    && (changedFields == null || changedFields.contains(attribute.getName())))
             {
                 Field field = (Field) ((Attribute) attribute).getJavaMember();
                 byte[] name = PropertyAccessorFactory.STRING
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import javax.persistence.PersistenceException;
 
@@ -200,8 +201,7 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
                 metadata.getPersistenceUnit());
         if (isCql3Enabled(metadata))
         {
-            String deleteQuery = onDeleteQuery(metadata, metaModel, pKey);
-            executeQuery(deleteQuery, metadata.getEntityClazz(), null);
+            onPreparedDelete(metadata, metaModel, pKey);
         }
         else
         {
@@ -497,7 +497,8 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
             try
             {
                 String columnFamily = metadata.getTableName();
-                tf = dataHandler.toThriftRow(entity, id, metadata, columnFamily, getTtlValues().get(columnFamily));
+                tf = dataHandler.toThriftRow(entity, id, metadata, columnFamily, getTtlValues().get(columnFamily),
+                        changedFields);
             }
             catch (Exception e)
             {
@@ -562,6 +563,18 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
                                 Bytes.fromByteArray(sc.getName()), sc.getColumns());
                     }
                 }
+
+                List<ByteBuffer> nullifiedColumns = getNullifiedColumns(metadata, entity);
+                if (!nullifiedColumns.isEmpty())
+                {
+                    List<Bytes> columnNames = new ArrayList<Bytes>(nullifiedColumns.size());
+                    for (ByteBuffer columnName : nullifiedColumns)
+                    {
+                        columnNames.add(Bytes.fromByteBuffer(columnName));
+                    }
+                    mutator.deleteColumns(metadata.getTableName(),
+                            CassandraUtilities.toBytes(tf.getId(), tf.getId().getClass()), columnNames);
+                }
             }
 
             mutator.execute(getConsistencyLevel());
@@ -845,6 +858,17 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
         return dataHandler;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.client.cassandra.CassandraClientBase#getMultigetExecutor()
+     */
+    @Override
+    public ExecutorService getMultigetExecutor()
+    {
+        return clientFactory.getMultigetExecutor();
+    }
+
     protected IPooledConnection getConection()
     {
         return clientFactory.getConnection(pool);
@@ -22,6 +22,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 
 import org.scale7.cassandra.pelops.Cluster;
 import org.scale7.cassandra.pelops.Cluster.Node;
@@ -39,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Lists;
+import com.impetus.client.cassandra.common.CassandraUtilities;
 import com.impetus.client.cassandra.config.CassandraPropertyReader;
 import com.impetus.client.cassandra.query.CassandraEntityReader;
 import com.impetus.client.cassandra.schemamanager.CassandraSchemaManager;
@@ -69,6 +71,9 @@ public class PelopsClientFactory extends GenericClientFactory
 
     private HostConfiguration configuration;
 
+    /** Runs multiget_slice calls of all clients issued in parallel. */
+    private ExecutorService multigetExecutor;
+
     @Override
     public void initialize(Map<String, Object> externalProperty)
     {
@@ -167,6 +172,11 @@ public class PelopsClientFactory extends GenericClientFactory
             schemaManager.dropSchema();
         }
         schemaManager = null;
+        if (multigetExecutor != null)
+        {
+            multigetExecutor.shutdown();
+            multigetExecutor = null;
+        }
         // Pelops.shutdown();
         // Pelops.removePool(PelopsUtils.generatePoolName(getPersistenceUnit(),
         // externalProperties));
@@ -266,6 +276,19 @@ public class PelopsClientFactory extends GenericClientFactory
         throw new KunderaException("All hosts are down. please check servers manully.");
     }
 
+    /**
+     * Returns pool that runs multiget_slice calls of all clients issued in
+     * parallel, creating it on first use.
+     */
+    synchronized ExecutorService getMultigetExecutor()
+    {
+        if (multigetExecutor == null)
+        {
+            multigetExecutor = CassandraUtilities.newMultigetExecutor(getPersistenceUnit(), externalProperties);
+        }
+        return multigetExecutor;
+    }
+
     Mutator getMutator(IThriftPool pool)
     {
         IThriftPool iThriftPool = pool;
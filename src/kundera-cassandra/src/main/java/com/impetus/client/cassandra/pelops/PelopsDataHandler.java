@@ -75,6 +75,15 @@ final class PelopsDataHandler extends CassandraDataHandlerBase implements Cassan
         return populateEntity(tr, m, relationNames, isWrapReq);
     }
 
+    @Override
+    protected Map<ByteBuffer, List<ColumnOrSuperColumn>> getColumnOrSuperColumnsFromRows(EntityMetadata m,
+            List<ByteBuffer> rowKeys, ConsistencyLevel consistencyLevel, boolean parallel) throws Exception
+    {
+        // Pelops pool balances operations over all nodes.
+        return pelopsClient.getSelector().getColumnOrSuperColumnsFromRows(new ColumnParent(m.getTableName()),
+                rowKeys, Selector.newColumnsPredicateAll(true, 10000), consistencyLevel);
+    }
+
     /** Translation Methods */
 
     @Override
@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -61,6 +62,7 @@ import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.query.KunderaQuery;
+import com.impetus.kundera.query.KunderaQuery.AggregateClause;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.KunderaQuery.SortOrder;
 import com.impetus.kundera.query.KunderaQuery.SortOrdering;
@@ -276,8 +278,7 @@ public class CassQuery extends QueryImpl
             // convert to CQL and execute
             if (!isQueryConvertibleToCQL(kunderaQuery))
             {
-                List result = getResultList();
-                return result != null ? result.size() : 0;
+                return deleteOrUpdate(m, persistenceDelegeator.getClient(m));
             }
             else
             {
@@ -845,6 +846,43 @@ public class CassQuery extends QueryImpl
         }
     }
 
+    /**
+     * Pushes COUNT over entity down as CQL3 SELECT COUNT(*), other aggregates
+     * are streamed as CQL3 has no further aggregate functions.
+     */
+    @Override
+    protected List<Object> aggregate(EntityMetadata m, Client client)
+    {
+        List<AggregateClause> aggregates = getKunderaQuery().getAggregateClauses();
+        if (kunderaQuery.isNative() || !((CassandraClientBase) client).isCql3Enabled(m)
+                || !getKunderaQuery().getGroupingClauses().isEmpty() || aggregates.size() != 1
+                || aggregates.get(0).getColumnName() != null)
+        {
+            return super.aggregate(m, client);
+        }
+        externalProperties = ((CassandraClientBase) client).getExternalProperties();
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+
+        // count is bound by LIMIT, lift it.
+        int maxResults = maxResult;
+        boolean singleResult = isSingleResult;
+        maxResult = Integer.MAX_VALUE;
+        isSingleResult = false;
+        String cqlQuery;
+        try
+        {
+            cqlQuery = onQueryOverCQL3(m, client, metaModel, null);
+        }
+        finally
+        {
+            maxResult = maxResults;
+            isSingleResult = singleResult;
+        }
+        cqlQuery = StringUtils.replaceOnce(cqlQuery, "SELECT *", "SELECT COUNT(*)");
+        return Collections.<Object> singletonList(((CassandraClientBase) client).executeCountQuery(cqlQuery));
+    }
+
     @Override
     public void close()
     {
@@ -865,7 +903,17 @@ public class CassQuery extends QueryImpl
         }
 
         return new ResultIterator(this, m, persistenceDelegeator.getClient(m), this.getReader(),
-                getFetchSize() != null ? getFetchSize() : this.maxResult);
+                getIterationLimit());
+    }
+
+    /**
+     * Scrolling resumes from last row read, which is gone once deleted, so
+     * entities to be deleted or updated are loaded in full.
+     */
+    @Override
+    protected Iterator<Object> iterateForDeleteOrUpdate()
+    {
+        return null;
     }
 
     void setRelationalEntities(List enhanceEntities, Client client, EntityMetadata m)
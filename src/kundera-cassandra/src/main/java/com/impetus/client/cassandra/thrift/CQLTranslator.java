@@ -89,6 +89,8 @@ public final class CQLTranslator
 
     public static final String DELETE_QUERY = "DELETE FROM $COLUMNFAMILY";
 
+    public static final String BIND_MARKER = "?";
+
     public static final String COLUMN_FAMILY = "$COLUMNFAMILY";
 
     public static final String COLUMNS = "$COLUMNS";
@@ -175,7 +177,7 @@ public final class CQLTranslator
         StringBuilder columnBuilder = new StringBuilder();
 
         onTranslation(record, entityMetadata, type, metaModel, entityClazz, entityType, builder, columnBuilder,
-                externalProperties);
+                externalProperties, null);
 
         if (type.equals(TranslationType.ALL) || type.equals(TranslationType.VALUE))
         {
@@ -194,6 +196,55 @@ public final class CQLTranslator
         return parsedColumnOrColumnValue;
     }
 
+    /**
+     * Prepares column names and bind markers for a parameterised insert
+     * statement. Non null column values are not inlined, but collected (in
+     * bind marker order) into given list.
+     * 
+     * @param record
+     *            entity.
+     * @param entityMetadata
+     *            entity meta data
+     * @param externalProperties
+     * @param boundValues
+     *            list to collect bound values.
+     * @return Map containing translation type as key and string as translated
+     *         CQL string, or null if entity holds a collection column (these
+     *         are only supported as inlined values).
+     */
+    public HashMap<TranslationType, String> prepareColumnsAndBindMarkers(final Object record,
+            final EntityMetadata entityMetadata, Map<String, Object> externalProperties, List<Object> boundValues)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        Class entityClazz = entityMetadata.getEntityClazz();
+        EntityType entityType = metaModel.entity(entityClazz);
+
+        for (Object attribute : entityType.getAttributes())
+        {
+            Class javaType = ((Attribute) attribute).getJavaType();
+            if (Collection.class.isAssignableFrom(javaType) || Map.class.isAssignableFrom(javaType))
+            {
+                return null;
+            }
+        }
+
+        HashMap<TranslationType, String> parsedColumnOrColumnValue = new HashMap<CQLTranslator.TranslationType, String>();
+        StringBuilder builder = new StringBuilder();
+        StringBuilder columnBuilder = new StringBuilder();
+
+        onTranslation(record, entityMetadata, TranslationType.ALL, metaModel, entityClazz, entityType, builder,
+                columnBuilder, externalProperties, boundValues);
+
+        builder.deleteCharAt(builder.length() - 1);
+        columnBuilder.deleteCharAt(columnBuilder.length() - 1);
+
+        parsedColumnOrColumnValue.put(TranslationType.COLUMN, columnBuilder.toString());
+        parsedColumnOrColumnValue.put(TranslationType.VALUE, builder.toString());
+
+        return parsedColumnOrColumnValue;
+    }
+
     public static String getCQLType(String internalClazz)
     {
         return InternalToCQLMapper.getType(internalClazz);
@@ -281,7 +332,7 @@ public final class CQLTranslator
     
     private void onTranslation(final Object record, final EntityMetadata m, TranslationType type,
             MetamodelImpl metaModel, Class entityClazz, EntityType entityType, StringBuilder builder,
-            StringBuilder columnBuilder, Map<String, Object> externalProperties)
+            StringBuilder columnBuilder, Map<String, Object> externalProperties, List<Object> boundValues)
     {
         Set<Attribute> attributes = entityType.getAttributes();
         Iterator<Attribute> iterator = attributes.iterator();
@@ -305,7 +356,7 @@ public final class CQLTranslator
                         {
                             onTranslation(type, builder, columnBuilder,
                                     ((AbstractAttribute) (compoundKey.getAttribute(compositeColumn.getName())))
-                                            .getJPAColumnName(), compoundKeyObj, compositeColumn);
+                                            .getJPAColumnName(), compoundKeyObj, compositeColumn, boundValues);
                         }
                     }
                 }
@@ -321,7 +372,7 @@ public final class CQLTranslator
                         && m.getIdAttribute().getName().equals(attribute.getName()))
                 {
                     onTranslation(type, builder, columnBuilder,
-                            CassandraUtilities.getIdColumnName(m, externalProperties), record, field);
+                            CassandraUtilities.getIdColumnName(m, externalProperties), record, field, boundValues);
                 }
                 else if (!ReflectUtils.isTransientOrStatic(field))
                 {
@@ -331,17 +382,18 @@ public final class CQLTranslator
                     if (!attribute.isAssociation())
                     {
                         onTranslation(type, builder, columnBuilder, ((AbstractAttribute) attribute).getJPAColumnName(),
-                                record, field);
+                                record, field, boundValues);
                     }
                 }
             }
         }
         
         // on inherited columns.
-        onDiscriminatorColumn(builder,columnBuilder,entityType);
+        onDiscriminatorColumn(builder, columnBuilder, entityType, boundValues);
     }
 
-    private void onDiscriminatorColumn(StringBuilder builder, StringBuilder columnBuilder, EntityType entityType)
+    private void onDiscriminatorColumn(StringBuilder builder, StringBuilder columnBuilder, EntityType entityType,
+            List<Object> boundValues)
     {
         String discrColumn = ((AbstractManagedType)entityType).getDiscriminatorColumn();
         String discrValue = ((AbstractManagedType)entityType).getDiscriminatorValue();
@@ -349,7 +401,14 @@ public final class CQLTranslator
         // No need to check for empty or blank, as considering it as valid name for nosql!
         if(discrColumn != null && discrValue != null)
         {
-            appendValue(builder, String.class, discrValue, false);
+            if (boundValues != null)
+            {
+                appendBindMarker(builder, String.class, discrValue, boundValues);
+            }
+            else
+            {
+                appendValue(builder, String.class, discrValue, false);
+            }
             builder.append(",");
             appendColumnName(columnBuilder, discrColumn);
             columnBuilder.append(","); // because only key columns
@@ -476,14 +535,19 @@ public final class CQLTranslator
      *            value object.
      * @param column
      *            value column name.
+     * @param boundValues
+     *            bound values, if bind markers are to be appended instead of
+     *            values (null otherwise).
      */
     private void onTranslation(TranslationType type, StringBuilder builder, StringBuilder columnBuilder,
-            String columnName, Object record, Field column)
+            String columnName, Object record, Field column, List<Object> boundValues)
     {
         switch (type)
         {
         case ALL:
-            if (appendColumnValue(builder, record, column))
+            if (boundValues != null ? appendBindMarker(builder, column.getType(),
+                    PropertyAccessorHelper.getObject(record, column), boundValues) : appendColumnValue(builder,
+                    record, column))
             {
                 builder.append(",");
                 appendColumnName(columnBuilder, columnName);
@@ -524,6 +588,31 @@ public final class CQLTranslator
         return isPresent;
     }
 
+    /**
+     * Appends bind marker to builder object and collects given value, if value
+     * is not null.
+     * 
+     * @param builder
+     *            string builder.
+     * @param fieldClazz
+     *            field class.
+     * @param value
+     *            value to be bound.
+     * @param boundValues
+     *            bound values.
+     * @return true, if value is not null else false.
+     */
+    public boolean appendBindMarker(StringBuilder builder, Class fieldClazz, Object value, List<Object> boundValues)
+    {
+        if (value == null)
+        {
+            return false;
+        }
+        builder.append(BIND_MARKER);
+        boundValues.add(value);
+        return true;
+    }
+
     /**
      * Appends value to builder object for given class type
      * 
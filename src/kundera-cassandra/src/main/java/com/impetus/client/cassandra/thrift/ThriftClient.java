@@ -24,17 +24,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import javax.persistence.PersistenceException;
 
 import net.dataforte.cassandra.pool.ConnectionPool;
 
+import org.apache.cassandra.thrift.Cassandra;
 import org.apache.cassandra.thrift.Column;
 import org.apache.cassandra.thrift.ColumnOrSuperColumn;
 import org.apache.cassandra.thrift.ColumnParent;
 import org.apache.cassandra.thrift.ColumnPath;
 import org.apache.cassandra.thrift.CounterColumn;
 import org.apache.cassandra.thrift.CounterSuperColumn;
+import org.apache.cassandra.thrift.CqlResult;
 import org.apache.cassandra.thrift.IndexClause;
 import org.apache.cassandra.thrift.IndexExpression;
 import org.apache.cassandra.thrift.IndexOperator;
@@ -84,6 +87,7 @@ import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.property.PropertyAccessor;
 import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.service.SpeculativeReadExecutor;
 
 /**
  * Kundera Client implementation for Cassandra using Thrift library
@@ -138,7 +142,7 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
     @Override
     protected void onPersist(EntityMetadata entityMetadata, Object entity, Object id, List<RelationHolder> rlHolders)
     {
-        Connection conn = getConection();
+        Connection conn = getConnection(entityMetadata, id);
         try
         {
 
@@ -646,14 +650,13 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
         Connection conn = null;
         try
         {
-            conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
+            conn = getConnection(metadata, pKey);
             MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
                     metadata.getPersistenceUnit());
 
             if (isCql3Enabled(metadata))
             {
-                String deleteQuery = onDeleteQuery(metadata, metaModel, pKey);
-                executeQuery(deleteQuery, metadata.getEntityClazz(), null);
+                onPreparedDelete(metadata, metaModel, pKey, conn.getClient());
             }
             else
             {
@@ -701,6 +704,12 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
                     pKey, e);
             throw new KunderaException(e);
         }
+        catch (SchemaDisagreementException e)
+        {
+            log.error("Error while deleting of column family {} for row key {}, Caused by: .", metadata.getTableName(),
+                    pKey, e);
+            throw new KunderaException(e);
+        }
         finally
         {
             // PelopsUtils.releaseConnection(pool, conn);
@@ -850,15 +859,14 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
     }
 
     @Override
-    public List find(List<IndexClause> ixClause, EntityMetadata m, boolean isRelation, List<String> relations,
+    public List find(List<IndexClause> ixClause, final EntityMetadata m, boolean isRelation, List<String> relations,
             int maxResult, List<String> columns)
     {
         List<Object> entities = new ArrayList<Object>();
-        Connection conn = null;
         try
         {
             // ixClause can be 0,1 or more!
-            SlicePredicate slicePredicate = new SlicePredicate();
+            final SlicePredicate slicePredicate = new SlicePredicate();
 
             if (columns != null && !columns.isEmpty())
             {
@@ -880,7 +888,6 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
                 sliceRange.setCount(maxResult);
                 slicePredicate.setSlice_range(sliceRange);
             }
-            conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
 
             if (ixClause.isEmpty())
             {
@@ -891,16 +898,15 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
                 if (m.isCounterColumnType())
                 {
 
-                    List<KeySlice> ks = conn.getClient().get_range_slices(new ColumnParent(m.getTableName()),
-                            slicePredicate, keyRange, getConsistencyLevel());
+                    List<KeySlice> ks = getRangeSlices(new ColumnParent(m.getTableName()), slicePredicate, keyRange);
                     entities = onCounterColumn(m, isRelation, relations, ks);
 
                 }
                 else
                 {
 
-                    List<KeySlice> keySlices = conn.getClient().get_range_slices(new ColumnParent(m.getTableName()),
-                            slicePredicate, keyRange, getConsistencyLevel());
+                    List<KeySlice> keySlices = getRangeSlices(new ColumnParent(m.getTableName()), slicePredicate,
+                            keyRange);
 
                     if (m.getType().isSuperColumnFamilyMetadata())
                     {
@@ -921,10 +927,17 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
             else
             {
                 entities = new ArrayList<Object>();
-                for (IndexClause ix : ixClause)
+                for (final IndexClause ix : ixClause)
                 {
-                    List<KeySlice> keySlices = conn.getClient().get_indexed_slices(new ColumnParent(m.getTableName()),
-                            ix, slicePredicate, getConsistencyLevel());
+                    List<KeySlice> keySlices = executeRead("get_indexed_slices", pool, new ThriftRead<List<KeySlice>>()
+                    {
+                        @Override
+                        public List<KeySlice> execute(Cassandra.Client client) throws Exception
+                        {
+                            return client.get_indexed_slices(new ColumnParent(m.getTableName()), ix, slicePredicate,
+                                    getConsistencyLevel());
+                        }
+                    });
 
                     Map<Bytes, List<Column>> qResults = ThriftDataResultHelper.transformThriftResult(
                             ColumnFamilyType.COLUMN, keySlices, null);
@@ -955,10 +968,14 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
             log.error("Error during executing find of column family {}, Caused by: .", m.getTableName(), tex);
             throw new PersistenceException(tex);
         }
-        finally
+        catch (RuntimeException rex)
         {
-            // PelopsUtils.releaseConnection(pool, conn);
-            releaseConnection(conn);
+            throw rex;
+        }
+        catch (Exception ex)
+        {
+            log.error("Error during executing find of column family {}, Caused by: .", m.getTableName(), ex);
+            throw new PersistenceException(ex);
         }
         return entities;
     }
@@ -1007,12 +1024,7 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
             keyRange.setRow_filterIsSet(true);
         }
 
-        Connection conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
-
-        List<KeySlice> keys = conn.getClient().get_range_slices(cp, slicePredicate, keyRange, getConsistencyLevel());
-
-        // PelopsUtils.releaseConnection(pool, conn);
-        releaseConnection(conn);
+        List<KeySlice> keys = getRangeSlices(cp, slicePredicate, keyRange);
 
         List results = null;
         if (keys != null)
@@ -1040,15 +1052,150 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
         return dataHandler;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.client.cassandra.CassandraClientBase#getMultigetExecutor()
+     */
+    @Override
+    public ExecutorService getMultigetExecutor()
+    {
+        return clientFactory.getMultigetExecutor();
+    }
+
+    /**
+     * Fetches a page of rows with get_range_slices.
+     */
+    private List<KeySlice> getRangeSlices(final ColumnParent parent, final SlicePredicate predicate,
+            final KeyRange keyRange) throws Exception
+    {
+        return executeRead("get_range_slices", pool, new ThriftRead<List<KeySlice>>()
+        {
+            @Override
+            public List<KeySlice> execute(Cassandra.Client client) throws Exception
+            {
+                return client.get_range_slices(parent, predicate, keyRange, getConsistencyLevel());
+            }
+        });
+    }
+
+    @Override
+    protected CqlResult executeCQLReadQuery(final String cqlQuery, final boolean isCql3Enabled) throws Exception
+    {
+        return executeRead("execute_cql_query", pool, new ThriftRead<CqlResult>()
+        {
+            @Override
+            public CqlResult execute(Cassandra.Client client) throws Exception
+            {
+                return executeCQLQuery(client, cqlQuery, isCql3Enabled);
+            }
+        });
+    }
+
+    /**
+     * Executes an idempotent read over a connection of given pool, applying
+     * read timeout and speculative retry of this client. Speculative request
+     * goes to another host.
+     * 
+     * @param operation
+     *            name of thrift operation.
+     * @param primary
+     *            pool first request goes to.
+     * @param read
+     *            the read.
+     * @return result of read.
+     * @throws Exception
+     */
+    <T> T executeRead(String operation, final ConnectionPool primary, final ThriftRead<T> read) throws Exception
+    {
+        return clientFactory.getReadExecutor().execute(operation, new SpeculativeReadExecutor.Read<T>()
+        {
+            @Override
+            public T execute(boolean speculative) throws Exception
+            {
+                Connection conn = clientFactory.getConnection(speculative ? clientFactory.getAlternatePool(primary)
+                        : primary);
+                try
+                {
+                    return read.execute(conn.getClient());
+                }
+                finally
+                {
+                    releaseConnection(conn);
+                }
+            }
+        }, getSpeculativeRetry(), getReadTimeout(), clientFactory.hasAlternatePool());
+    }
+
+    /**
+     * A read over a thrift connection.
+     */
+    interface ThriftRead<T>
+    {
+        T execute(Cassandra.Client client) throws Exception;
+    }
+
     protected Connection getConection()
     {
         Connection connection = clientFactory.getConnection(pool);
         return connection;
     }
 
+    /**
+     * Returns pool of a replica of given row key where load balancing policy
+     * is token aware, of host this client is bound to otherwise.
+     */
+    ConnectionPool getPool(ByteBuffer rowKey)
+    {
+        ConnectionPool keyPool = clientFactory.getPoolForKey(rowKey);
+        return keyPool != null ? keyPool : pool;
+    }
+
+    /**
+     * Returns pool of host this client is bound to.
+     */
+    ConnectionPool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Returns pool chosen by load balancing policy, rather than pool of host
+     * this client is bound to.
+     */
+    ConnectionPool getPoolUsingPolicy()
+    {
+        return clientFactory.getPoolUsingPolicy();
+    }
+
+    /**
+     * Returns connection to a replica of given row key where load balancing
+     * policy is token aware, to host this client is bound to otherwise.
+     */
+    Connection getConnection(ByteBuffer rowKey)
+    {
+        return clientFactory.getConnection(getPool(rowKey));
+    }
+
+    /**
+     * Returns connection for an operation over a single row, composite keys
+     * are not routed.
+     */
+    private Connection getConnection(EntityMetadata metadata, Object id)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                metadata.getPersistenceUnit());
+        if (id == null || metaModel.isEmbeddable(metadata.getIdAttribute().getBindableJavaType()))
+        {
+            return getConection();
+        }
+        return getConnection(ByteBuffer.wrap(CassandraUtilities.toBytes(id, metadata.getIdAttribute().getJavaType())
+                .toByteArray()));
+    }
+
     protected void releaseConnection(Object conn)
     {
-        clientFactory.releaseConnection(((Connection) conn).getPool(), ((Connection) conn).getClient());
+        clientFactory.releaseConnection((Connection) conn);
     }
 
     @Override
@@ -15,13 +15,16 @@
  */
 package com.impetus.client.cassandra.thrift;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import net.dataforte.cassandra.pool.ConnectionPool;
 import net.dataforte.cassandra.pool.PoolConfiguration;
@@ -32,7 +35,7 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Lists;
+import com.impetus.client.cassandra.common.CassandraUtilities;
 import com.impetus.client.cassandra.config.CassandraPropertyReader;
 import com.impetus.client.cassandra.pelops.PelopsClientFactory;
 import com.impetus.client.cassandra.pelops.PelopsUtils;
@@ -52,8 +55,10 @@ import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.service.Host;
 import com.impetus.kundera.service.HostConfiguration;
+import com.impetus.kundera.service.SpeculativeReadExecutor;
 import com.impetus.kundera.service.policy.LeastActiveBalancingPolicy;
 import com.impetus.kundera.service.policy.RoundRobinBalancingPolicy;
+import com.impetus.kundera.utils.KunderaThreadFactory;
 
 /**
  * A factory of {@link ThriftClient} Currently it uses Pelops for Connection
@@ -69,6 +74,18 @@ public class ThriftClientFactory extends GenericClientFactory
 
     protected HostConfiguration configuration;
 
+    /** Keyspace pools are connected to. */
+    private String keyspace;
+
+    /** Executes reads of all clients with deadline and speculative retry. */
+    private final SpeculativeReadExecutor readExecutor = new SpeculativeReadExecutor();
+
+    /** Runs multiget_slice calls of all clients issued in parallel. */
+    private ExecutorService multigetExecutor;
+
+    /** Reloads token ring for latency aware policy, off read path. */
+    private ExecutorService ringRefresher;
+
     @Override
     public SchemaManager getSchemaManager(Map<String, Object> externalProperty)
     {
@@ -105,6 +122,20 @@ public class ThriftClientFactory extends GenericClientFactory
             schemaManager.dropSchema();
         }
         schemaManager = null;
+        if (multigetExecutor != null)
+        {
+            multigetExecutor.shutdown();
+            multigetExecutor = null;
+        }
+        readExecutor.shutdown();
+        synchronized (this)
+        {
+            if (ringRefresher != null)
+            {
+                ringRefresher.shutdownNow();
+                ringRefresher = null;
+            }
+        }
         externalProperties = null;
 
         for (Object connectionPool : hostPools.values())
@@ -149,6 +180,7 @@ public class ThriftClientFactory extends GenericClientFactory
         {
             keyspace = (String) props.get(PersistenceProperties.KUNDERA_KEYSPACE);
         }
+        this.keyspace = keyspace;
 
         for (Host host : ((CassandraHostConfiguration) configuration).getCassandraHosts())
         {
@@ -176,6 +208,76 @@ public class ThriftClientFactory extends GenericClientFactory
         return null;
     }
 
+    /**
+     * Returns pool of a replica of given row key if load balancing policy is
+     * token aware.
+     * 
+     * @param rowKey
+     *            row key.
+     * @return pool, null if policy is not token aware.
+     */
+    ConnectionPool getPoolForKey(ByteBuffer rowKey)
+    {
+        if (!(loadBalancingPolicy instanceof ThriftLatencyAwareBalancingPolicy) || hostPools.isEmpty())
+        {
+            return null;
+        }
+        ThriftLatencyAwareBalancingPolicy policy = (ThriftLatencyAwareBalancingPolicy) loadBalancingPolicy;
+        if (policy.isRingRefreshDue())
+        {
+            refreshRing(policy);
+        }
+        return (ConnectionPool) policy.getPool(hostPools.values(), rowKey);
+    }
+
+    /**
+     * Reloads token ring in background, keys are routed over previous ring
+     * (or by latency only, before first load) meanwhile.
+     * 
+     * @param policy
+     *            latency aware policy.
+     */
+    private synchronized void refreshRing(final ThriftLatencyAwareBalancingPolicy policy)
+    {
+        if (ringRefresher == null)
+        {
+            ringRefresher = Executors.newSingleThreadExecutor(new KunderaThreadFactory(getPersistenceUnit()
+                    + "-ring-refresh"));
+        }
+        try
+        {
+            ringRefresher.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    Connection connection = null;
+                    try
+                    {
+                        connection = getConnection(getPoolUsingPolicy());
+                        policy.refreshRing(connection.getClient(), keyspace);
+                    }
+                    catch (KunderaException e)
+                    {
+                        logger.warn("Error while refreshing ring of keyspace {}, Caused by: {}.", keyspace,
+                                e.getMessage());
+                    }
+                    finally
+                    {
+                        if (connection != null)
+                        {
+                            releaseConnection(connection);
+                        }
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.debug("Ring refresh skipped, factory is being destroyed.");
+        }
+    }
+
     @Override
     protected Client instantiateClient(String persistenceUnit)
     {
@@ -187,7 +289,7 @@ public class ThriftClientFactory extends GenericClientFactory
      * 
      * @return pool an the basis of LoadBalancing policy.
      */
-    private ConnectionPool getPoolUsingPolicy()
+    ConnectionPool getPoolUsingPolicy()
     {
         if (!hostPools.isEmpty())
         {
@@ -196,6 +298,47 @@ public class ThriftClientFactory extends GenericClientFactory
         throw new KunderaException("All hosts are down. please check servers manully.");
     }
 
+    /**
+     * Returns pool of another host than given pool's one, chosen by load
+     * balancing policy.
+     * 
+     * @param pool
+     *            pool to avoid.
+     * @return pool, given pool if there is no other.
+     */
+    ConnectionPool getAlternatePool(ConnectionPool pool)
+    {
+        List<Object> pools = new ArrayList<Object>(hostPools.values());
+        pools.remove(pool);
+        return pools.isEmpty() ? pool : (ConnectionPool) loadBalancingPolicy.getPool(pools);
+    }
+
+    /**
+     * @return true if reads can be speculatively retried on another host.
+     */
+    boolean hasAlternatePool()
+    {
+        return hostPools.size() > 1;
+    }
+
+    SpeculativeReadExecutor getReadExecutor()
+    {
+        return readExecutor;
+    }
+
+    /**
+     * Returns pool that runs multiget_slice calls of all clients issued in
+     * parallel, creating it on first use.
+     */
+    synchronized ExecutorService getMultigetExecutor()
+    {
+        if (multigetExecutor == null)
+        {
+            multigetExecutor = CassandraUtilities.newMultigetExecutor(getPersistenceUnit(), externalProperties);
+        }
+        return multigetExecutor;
+    }
+
     @Override
     public boolean isThreadSafe()
     {
@@ -211,7 +354,11 @@ public class ThriftClientFactory extends GenericClientFactory
     private ConnectionPool getNewPool(String host, int port)
     {
         CassandraHost cassandraHost = ((CassandraHostConfiguration) configuration).getCassandraHost(host, port);
-        hostPools.remove(cassandraHost);
+        Object pool = hostPools.remove(cassandraHost);
+        if (pool != null && loadBalancingPolicy instanceof ThriftLatencyAwareBalancingPolicy)
+        {
+            ((ThriftLatencyAwareBalancingPolicy) loadBalancingPolicy).onRemove((ConnectionPool) pool);
+        }
 
         if (cassandraHost.isRetryHost())
         {
@@ -235,12 +382,18 @@ public class ThriftClientFactory extends GenericClientFactory
             case LEASTACTIVE:
                 loadBalancingPolicy = new ThriftLeastActiveBalancingPolcy();
                 break;
+            case LATENCYAWARE:
+                loadBalancingPolicy = new ThriftLatencyAwareBalancingPolicy();
+                break;
             default:
                 loadBalancingPolicy = new RoundRobinBalancingPolicy();
                 break;
             }
         }
-        loadBalancingPolicy = new RoundRobinBalancingPolicy();
+        else
+        {
+            loadBalancingPolicy = new RoundRobinBalancingPolicy();
+        }
     }
 
     Connection getConnection(ConnectionPool pool)
@@ -260,6 +413,10 @@ public class ThriftClientFactory extends GenericClientFactory
                             .getPoolProperties().getPort());
                 }
 
+                if (loadBalancingPolicy instanceof ThriftLatencyAwareBalancingPolicy)
+                {
+                    ((ThriftLatencyAwareBalancingPolicy) loadBalancingPolicy).onCheckout(connectionPool);
+                }
                 return new Connection(client, connectionPool);
             }
             catch (TException te)
@@ -274,6 +431,19 @@ public class ThriftClientFactory extends GenericClientFactory
         throw new KunderaException("All hosts are down. please check servers manully.");
     }
 
+    void releaseConnection(Connection conn)
+    {
+        if (conn != null && loadBalancingPolicy instanceof ThriftLatencyAwareBalancingPolicy)
+        {
+            ((ThriftLatencyAwareBalancingPolicy) loadBalancingPolicy).onRelease(conn.getPool(), System.nanoTime()
+                    - conn.checkoutTime);
+        }
+        if (conn != null)
+        {
+            releaseConnection(conn.getPool(), conn.getClient());
+        }
+    }
+
     void releaseConnection(ConnectionPool pool, Cassandra.Client conn)
     {
         if (pool != null && conn != null)
@@ -325,6 +495,7 @@ public class ThriftClientFactory extends GenericClientFactory
      */
     private class ThriftLeastActiveBalancingPolcy extends LeastActiveBalancingPolicy
     {
+        private final Random random = new Random();
 
         /**
          * 
@@ -335,33 +506,26 @@ public class ThriftClientFactory extends GenericClientFactory
         @Override
         public Object getPool(Collection<Object> pools)
         {
-            List<Object> vals = Lists.newArrayList(pools);
-            Collections.shuffle(vals);
-            Collections.sort(vals, new ShufflingCompare());
-            Collections.reverse(vals);
-            Iterator<Object> iterator = vals.iterator();
-            Object concurrentConnectionPool = iterator.next();
-            return concurrentConnectionPool;
-        }
-
-        /**
-         * Compares two pool object on the basis of their maxActive connection.
-         * 
-         * @author Kuldeep Mishra
-         * 
-         */
-        private final class ShufflingCompare implements Comparator<Object>
-        {
-            public int compare(Object o1, Object o2)
+            // single pass, ties are broken at random (reservoir sampling).
+            Object selected = null;
+            int maxIdle = Integer.MIN_VALUE;
+            int ties = 0;
+            for (Object pool : pools)
             {
-                PoolConfiguration props1 = ((ConnectionPool) o1).getPoolProperties();
-                PoolConfiguration props2 = ((ConnectionPool) o2).getPoolProperties();
-
-                int activeConnections1 = ((ConnectionPool) o1).getActive();
-                int activeConnections2 = ((ConnectionPool) o2).getActive();
-
-                return (props1.getMaxActive() - activeConnections1) - (props2.getMaxActive() - activeConnections2);
+                int idle = ((ConnectionPool) pool).getPoolProperties().getMaxActive()
+                        - ((ConnectionPool) pool).getActive();
+                if (idle > maxIdle)
+                {
+                    selected = pool;
+                    maxIdle = idle;
+                    ties = 1;
+                }
+                else if (idle == maxIdle && random.nextInt(++ties) == 0)
+                {
+                    selected = pool;
+                }
             }
+            return selected;
         }
     }
 
@@ -377,6 +541,8 @@ public class ThriftClientFactory extends GenericClientFactory
 
         private ConnectionPool pool;
 
+        private final long checkoutTime = System.nanoTime();
+
         public Connection(org.apache.cassandra.thrift.Cassandra.Client client, ConnectionPool pool)
         {
             this.client = client;
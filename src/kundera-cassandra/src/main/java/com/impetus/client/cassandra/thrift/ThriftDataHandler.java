@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.cassandra.thrift.Cassandra;
 import org.apache.cassandra.thrift.ColumnOrSuperColumn;
 import org.apache.cassandra.thrift.ColumnParent;
 import org.apache.cassandra.thrift.ConsistencyLevel;
@@ -31,7 +32,7 @@ import org.scale7.cassandra.pelops.Bytes;
 
 import com.impetus.client.cassandra.datahandler.CassandraDataHandler;
 import com.impetus.client.cassandra.datahandler.CassandraDataHandlerBase;
-import com.impetus.client.cassandra.thrift.ThriftClientFactory.Connection;
+import com.impetus.client.cassandra.thrift.ThriftClient.ThriftRead;
 import com.impetus.kundera.db.DataRow;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.property.PropertyAccessorHelper;
@@ -64,33 +65,53 @@ public final class ThriftDataHandler extends CassandraDataHandlerBase implements
      * java.util.List, boolean, org.apache.cassandra.thrift.ConsistencyLevel)
      */
     @Override
-    public Object fromThriftRow(Class<?> clazz, EntityMetadata m, Object rowKey, List<String> relationNames,
-            boolean isWrapReq, ConsistencyLevel consistencyLevel) throws Exception
+    public Object fromThriftRow(Class<?> clazz, final EntityMetadata m, Object rowKey, List<String> relationNames,
+            boolean isWrapReq, final ConsistencyLevel consistencyLevel) throws Exception
     {
         // List<String> superColumnNames = m.getEmbeddedColumnFieldNames();
 
         Object e = null;
-        SlicePredicate predicate = new SlicePredicate();
+        final SlicePredicate predicate = new SlicePredicate();
         predicate.setSlice_range(new SliceRange(Bytes.EMPTY.getBytes(), Bytes.EMPTY.getBytes(), true, 10000));
 
-        ByteBuffer key = ByteBuffer.wrap(PropertyAccessorHelper.toBytes(rowKey, m.getIdAttribute().getJavaType()));
-        Connection conn = thriftClient.getConection();
-        try
-        {
-            List<ColumnOrSuperColumn> columnOrSuperColumns = conn.getClient().get_slice(key, new ColumnParent(
-                    m.getTableName()), predicate, consistencyLevel);
+        final ByteBuffer key = ByteBuffer.wrap(PropertyAccessorHelper.toBytes(rowKey, m.getIdAttribute()
+                .getJavaType()));
+        List<ColumnOrSuperColumn> columnOrSuperColumns = thriftClient.executeRead("get_slice",
+                thriftClient.getPool(key), new ThriftRead<List<ColumnOrSuperColumn>>()
+                {
+                    @Override
+                    public List<ColumnOrSuperColumn> execute(Cassandra.Client client) throws Exception
+                    {
+                        return client.get_slice(key, new ColumnParent(m.getTableName()), predicate, consistencyLevel);
+                    }
+                });
 
-            Map<ByteBuffer, List<ColumnOrSuperColumn>> thriftColumnOrSuperColumns = new HashMap<ByteBuffer, List<ColumnOrSuperColumn>>();
-            thriftColumnOrSuperColumns.put(key, columnOrSuperColumns);
-            e = populateEntityFromSlice(m, relationNames, isWrapReq, e, thriftColumnOrSuperColumns);
-        }
-        finally
-        {
-            thriftClient.releaseConnection(conn);
-        }
+        Map<ByteBuffer, List<ColumnOrSuperColumn>> thriftColumnOrSuperColumns = new HashMap<ByteBuffer, List<ColumnOrSuperColumn>>();
+        thriftColumnOrSuperColumns.put(key, columnOrSuperColumns);
+        e = populateEntityFromSlice(m, relationNames, isWrapReq, e, thriftColumnOrSuperColumns);
         return e;
     }
 
+    @Override
+    protected Map<ByteBuffer, List<ColumnOrSuperColumn>> getColumnOrSuperColumnsFromRows(final EntityMetadata m,
+            final List<ByteBuffer> rowKeys, final ConsistencyLevel consistencyLevel, boolean parallel)
+            throws Exception
+    {
+        final SlicePredicate predicate = new SlicePredicate();
+        predicate.setSlice_range(new SliceRange(Bytes.EMPTY.getBytes(), Bytes.EMPTY.getBytes(), true, 10000));
+
+        // Spread parallel calls over hosts.
+        return thriftClient.executeRead("multiget_slice", parallel ? thriftClient.getPoolUsingPolicy()
+                : thriftClient.getPool(), new ThriftRead<Map<ByteBuffer, List<ColumnOrSuperColumn>>>()
+        {
+            @Override
+            public Map<ByteBuffer, List<ColumnOrSuperColumn>> execute(Cassandra.Client client) throws Exception
+            {
+                return client.multiget_slice(rowKeys, new ColumnParent(m.getTableName()), predicate, consistencyLevel);
+            }
+        });
+    }
+
     @Override
     public <E> E fromThriftRow(Class<E> clazz, EntityMetadata m, DataRow<SuperColumn> tr) throws Exception
     {
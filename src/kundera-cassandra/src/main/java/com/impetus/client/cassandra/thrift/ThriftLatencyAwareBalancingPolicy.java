@@ -0,0 +1,402 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.thrift;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.dataforte.cassandra.pool.ConnectionPool;
+
+import org.apache.cassandra.dht.IPartitioner;
+import org.apache.cassandra.dht.Token;
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.TokenRange;
+import org.apache.cassandra.utils.FBUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.kundera.service.policy.LoadBalancingPolicy;
+
+/**
+ * Load balancing policy which keeps an exponentially weighted moving average
+ * of latency and a count of in flight requests per host, without locking.
+ * Operations over a single row key are routed to the least loaded replica
+ * owning key's token, as per ring described by
+ * {@link Cassandra.Client#describe_ring(String)}; all other operations, and
+ * keys whose replicas are not pooled, go to the least loaded host. Ring is
+ * reloaded by client factory in background, reads never wait for it.
+ * 
+ * Latency is measured from connection checkout to its release.
+ */
+public final class ThriftLatencyAwareBalancingPolicy implements LoadBalancingPolicy
+{
+    /** The logger. */
+    private static Logger logger = LoggerFactory.getLogger(ThriftLatencyAwareBalancingPolicy.class);
+
+    /** Weight of latest sample within moving average. */
+    private static final double ALPHA = 0.25;
+
+    /** Interval between ring refreshes, in milliseconds. */
+    private static final long RING_REFRESH_INTERVAL = 5 * 60 * 1000L;
+
+    private final ConcurrentMap<ConnectionPool, HostStats> stats = new ConcurrentHashMap<ConnectionPool, HostStats>();
+
+    private final AtomicLong nextRingRefresh = new AtomicLong();
+
+    private final Random random = new Random();
+
+    private volatile Ring ring;
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.kundera.service.policy.LoadBalancingPolicy#getPool(java.util
+     * .Collection)
+     */
+    @Override
+    public Object getPool(Collection<Object> pools)
+    {
+        return getPool(pools, null);
+    }
+
+    /**
+     * Returns least loaded pool among replicas of given row key, or among all
+     * pools if key is null or none of its replicas is pooled.
+     * 
+     * @param pools
+     *            host pools.
+     * @param rowKey
+     *            row key, may be null.
+     * @return pool object.
+     */
+    public Object getPool(Collection<Object> pools, ByteBuffer rowKey)
+    {
+        Set<String> replicas = rowKey != null && ring != null ? ring.getReplicas(rowKey) : null;
+        Object pool = leastLoaded(pools, replicas);
+        return pool != null ? pool : leastLoaded(pools, null);
+    }
+
+    /**
+     * Records checkout of a connection from given pool.
+     * 
+     * @param pool
+     *            connection pool.
+     */
+    public void onCheckout(ConnectionPool pool)
+    {
+        getStats(pool).inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records release of a connection checked out for given time.
+     * 
+     * @param pool
+     *            connection pool.
+     * @param latencyNanos
+     *            time since checkout.
+     */
+    public void onRelease(ConnectionPool pool, long latencyNanos)
+    {
+        HostStats hostStats = getStats(pool);
+        hostStats.inFlight.decrementAndGet();
+        hostStats.requests.incrementAndGet();
+        hostStats.addSample(latencyNanos);
+    }
+
+    /**
+     * Forgets statistics of a pool closed by client factory.
+     * 
+     * @param pool
+     *            connection pool.
+     */
+    public void onRemove(ConnectionPool pool)
+    {
+        stats.remove(pool);
+    }
+
+    /**
+     * Returns true to a single caller once ring refresh interval elapsed.
+     * 
+     * @return true, if caller should refresh ring.
+     */
+    public boolean isRingRefreshDue()
+    {
+        long next = nextRingRefresh.get();
+        long now = System.currentTimeMillis();
+        return now >= next && nextRingRefresh.compareAndSet(next, now + RING_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Reloads token ring of given keyspace. On failure previous ring is kept.
+     * 
+     * @param client
+     *            cassandra client.
+     * @param keyspace
+     *            keyspace.
+     */
+    public void refreshRing(Cassandra.Client client, String keyspace)
+    {
+        try
+        {
+            IPartitioner partitioner = FBUtilities.newPartitioner(client.describe_partitioner());
+            ring = new Ring(partitioner, client.describe_ring(keyspace));
+        }
+        catch (Exception e)
+        {
+            logger.warn("Error while describing ring of keyspace {}, routing by latency only, Caused by: {}.",
+                    keyspace, e.getMessage());
+        }
+    }
+
+    /**
+     * @return true, if token ring has been loaded.
+     */
+    boolean isRingLoaded()
+    {
+        return ring != null;
+    }
+
+    /**
+     * Returns statistics per host, keyed by host:port.
+     * 
+     * @return host statistics.
+     */
+    public Map<String, HostStats> getHostStats()
+    {
+        Map<String, HostStats> hostStats = new HashMap<String, HostStats>();
+        for (Map.Entry<ConnectionPool, HostStats> entry : stats.entrySet())
+        {
+            hostStats.put(entry.getValue().host + ":" + entry.getKey().getPoolProperties().getPort(),
+                    entry.getValue());
+        }
+        return Collections.unmodifiableMap(hostStats);
+    }
+
+    /**
+     * Single pass over pools, ties are broken at random (reservoir sampling).
+     */
+    private Object leastLoaded(Collection<Object> pools, Set<String> replicas)
+    {
+        Object selected = null;
+        double minScore = Double.MAX_VALUE;
+        int ties = 0;
+        for (Object pool : pools)
+        {
+            HostStats hostStats = getStats((ConnectionPool) pool);
+            if (replicas != null && !replicas.contains(hostStats.address))
+            {
+                continue;
+            }
+            double score = hostStats.getScore();
+            if (score < minScore)
+            {
+                selected = pool;
+                minScore = score;
+                ties = 1;
+            }
+            else if (score == minScore && random.nextInt(++ties) == 0)
+            {
+                selected = pool;
+            }
+        }
+        return selected;
+    }
+
+    private HostStats getStats(ConnectionPool pool)
+    {
+        HostStats hostStats = stats.get(pool);
+        if (hostStats == null)
+        {
+            HostStats newStats = new HostStats(pool.getPoolProperties().getHost());
+            hostStats = stats.putIfAbsent(pool, newStats);
+            if (hostStats == null)
+            {
+                hostStats = newStats;
+            }
+        }
+        return hostStats;
+    }
+
+    /**
+     * Load statistics of a host.
+     */
+    public static final class HostStats
+    {
+        private final String host;
+
+        /** resolved address, as reported by describe_ring. */
+        private final String address;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicLong requests = new AtomicLong();
+
+        /** moving average of latency in nanoseconds, as double bits. */
+        private final AtomicLong latency = new AtomicLong(Double.doubleToLongBits(-1));
+
+        private HostStats(String host)
+        {
+            this.host = host;
+            String resolved = host;
+            try
+            {
+                resolved = InetAddress.getByName(host).getHostAddress();
+            }
+            catch (UnknownHostException e)
+            {
+                logger.warn("Unable to resolve host {}, it will not be chosen as replica.", host);
+            }
+            this.address = resolved;
+        }
+
+        private void addSample(long latencyNanos)
+        {
+            while (true)
+            {
+                long current = latency.get();
+                double average = Double.longBitsToDouble(current);
+                double updated = average < 0 ? latencyNanos : average + ALPHA * (latencyNanos - average);
+                if (latency.compareAndSet(current, Double.doubleToLongBits(updated)))
+                {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Expected wait, hosts not yet measured score zero so that they get
+         * sampled.
+         */
+        private double getScore()
+        {
+            double average = Double.longBitsToDouble(latency.get());
+            return average < 0 ? 0 : average * (inFlight.get() + 1);
+        }
+
+        /**
+         * @return moving average of latency in milliseconds, -1 if no request
+         *         completed yet.
+         */
+        public double getLatencyMillis()
+        {
+            double average = Double.longBitsToDouble(latency.get());
+            return average < 0 ? -1 : average / 1000000;
+        }
+
+        /**
+         * @return number of connections currently checked out.
+         */
+        public int getInFlight()
+        {
+            return inFlight.get();
+        }
+
+        /**
+         * @return number of completed requests.
+         */
+        public long getRequests()
+        {
+            return requests.get();
+        }
+
+        @Override
+        public String toString()
+        {
+            return host + "[latency=" + getLatencyMillis() + "ms, inFlight=" + getInFlight() + ", requests="
+                    + getRequests() + "]";
+        }
+    }
+
+    /**
+     * Immutable token ring, ranges sorted by end token.
+     */
+    private static final class Ring
+    {
+        private final IPartitioner partitioner;
+
+        private final Token[] endTokens;
+
+        private final List<Set<String>> replicas;
+
+        private Ring(IPartitioner partitioner, List<TokenRange> tokenRanges)
+        {
+            this.partitioner = partitioner;
+            final Token.TokenFactory tokenFactory = partitioner.getTokenFactory();
+            List<TokenRange> ranges = new ArrayList<TokenRange>(tokenRanges);
+            Collections.sort(ranges, new Comparator<TokenRange>()
+            {
+                @Override
+                public int compare(TokenRange r1, TokenRange r2)
+                {
+                    return tokenFactory.fromString(r1.getEnd_token()).compareTo(
+                            tokenFactory.fromString(r2.getEnd_token()));
+                }
+            });
+
+            endTokens = new Token[ranges.size()];
+            replicas = new ArrayList<Set<String>>(ranges.size());
+            for (int i = 0; i < endTokens.length; i++)
+            {
+                TokenRange range = ranges.get(i);
+                endTokens[i] = tokenFactory.fromString(range.getEnd_token());
+                Set<String> endpoints = new HashSet<String>();
+                for (int j = 0; j < range.getEndpointsSize(); j++)
+                {
+                    // rpc address is reported as 0.0.0.0 if bound to all
+                    // interfaces.
+                    String rpcEndpoint = range.getRpc_endpointsSize() > j ? range.getRpc_endpoints().get(j) : null;
+                    endpoints.add(rpcEndpoint != null && !"0.0.0.0".equals(rpcEndpoint) ? rpcEndpoint : range
+                            .getEndpoints().get(j));
+                }
+                replicas.add(endpoints);
+            }
+        }
+
+        /**
+         * Ranges are (start, end], token past last end wraps to first range.
+         */
+        private Set<String> getReplicas(ByteBuffer rowKey)
+        {
+            if (endTokens.length == 0)
+            {
+                return null;
+            }
+            int index = Arrays.binarySearch(endTokens, partitioner.getToken(rowKey));
+            if (index < 0)
+            {
+                index = -index - 1;
+            }
+            return replicas.get(index < endTokens.length ? index : 0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.apache.cassandra.db.marshal.DoubleType;
+import org.apache.cassandra.db.marshal.FloatType;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.Compression;
+import org.apache.cassandra.thrift.ConsistencyLevel;
+import org.apache.cassandra.thrift.CqlResult;
+import org.apache.cassandra.thrift.CqlRow;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.persistence.CassandraCli;
+
+/**
+ * junit for {@link CQLStatementCache}.
+ */
+public class CQLStatementCacheTest
+{
+    private static final String KEYSPACE = "KunderaExamples";
+
+    private static final String INSERT = "INSERT INTO bindtest (id, name, age, rating, score) VALUES (?, ?, ?, ?, ?)";
+
+    private CQLStatementCache cache = new CQLStatementCache();
+
+    private Cassandra.Client client;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        CassandraCli.cassandraSetUp();
+        CassandraCli.createKeySpace(KEYSPACE);
+        client = CassandraCli.getClient();
+        client.set_keyspace(KEYSPACE);
+        CassandraCli
+                .executeCqlQuery("CREATE TABLE bindtest (id text PRIMARY KEY, name text, age int, rating float, score double)");
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        cache.invalidate(client);
+        CassandraCli.dropKeySpace(KEYSPACE);
+    }
+
+    @Test
+    public void testBindByDeclaredType() throws Exception
+    {
+        List<Object> values = new ArrayList<Object>();
+        values.add("1");
+        values.add(5);
+        values.add((short) 7);
+        values.add(2);
+        values.add(1.5f);
+        cache.execute(client, INSERT, values, ConsistencyLevel.ONE);
+
+        // Executed again over statement prepared before.
+        values.set(0, "2");
+        cache.execute(client, INSERT, values, ConsistencyLevel.ONE);
+
+        for (String id : new String[] { "1", "2" })
+        {
+            List<Column> columns = select(id);
+            Assert.assertEquals("5", UTF8Type.instance.compose(columns.get(0).bufferForValue()));
+            Assert.assertEquals(Integer.valueOf(7), Int32Type.instance.compose(columns.get(1).bufferForValue()));
+            Assert.assertEquals(2.0f, FloatType.instance.compose(columns.get(2).bufferForValue()));
+            Assert.assertEquals(1.5, DoubleType.instance.compose(columns.get(3).bufferForValue()));
+        }
+    }
+
+    @Test
+    public void testBindValueOutOfRange() throws Exception
+    {
+        List<Object> values = new ArrayList<Object>();
+        values.add("1");
+        values.add("vivek");
+        values.add(Long.MAX_VALUE);
+        values.add(1.0f);
+        values.add(1.0);
+        try
+        {
+            cache.execute(client, INSERT, values, ConsistencyLevel.ONE);
+            Assert.fail("Should have failed for a long that does not fit an int column");
+        }
+        catch (RuntimeException rex)
+        {
+            // expected.
+        }
+        Assert.assertTrue(select("1").isEmpty());
+    }
+
+    private List<Column> select(String id) throws Exception
+    {
+        CqlResult result = client.execute_cql3_query(
+                ByteBufferUtil.bytes("SELECT name, age, rating, score FROM bindtest WHERE id = '" + id + "'"),
+                Compression.NONE, ConsistencyLevel.ONE);
+        List<Column> columns = new ArrayList<Column>();
+        for (CqlRow row : result.getRows())
+        {
+            columns.addAll(row.getColumns());
+        }
+        return columns;
+    }
+}
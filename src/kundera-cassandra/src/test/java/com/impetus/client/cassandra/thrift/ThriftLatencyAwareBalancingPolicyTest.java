@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.thrift;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import net.dataforte.cassandra.pool.ConnectionPool;
+import net.dataforte.cassandra.pool.PoolConfiguration;
+import net.dataforte.cassandra.pool.PoolProperties;
+
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.persistence.CassandraCli;
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.loader.GenericClientFactory;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+
+/**
+ * Test case for {@link ThriftLatencyAwareBalancingPolicy}.
+ */
+public class ThriftLatencyAwareBalancingPolicyTest
+{
+    private static final String SEC_IDX_CASSANDRA_TEST = "secIdxCassandraTest";
+
+    private static final String KEYSPACE = "KunderaExamples";
+
+    private static final long MILLIS = 1000000L;
+
+    private ThriftLatencyAwareBalancingPolicy policy;
+
+    /** Pool to embedded node, a replica of every key. */
+    private ConnectionPool replica;
+
+    /** Pool to a host which is not part of ring. */
+    private ConnectionPool other;
+
+    private List<Object> pools;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        CassandraCli.cassandraSetUp();
+        CassandraCli.createKeySpace(KEYSPACE);
+        policy = new ThriftLatencyAwareBalancingPolicy();
+        replica = createPool("127.0.0.1");
+        other = createPool("127.0.0.2");
+        pools = new ArrayList<Object>();
+        pools.add(replica);
+        pools.add(other);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        replica.close(true);
+        other.close(true);
+        CassandraCli.dropKeySpace(KEYSPACE);
+    }
+
+    @Test
+    public void testLeastLoaded()
+    {
+        // Hosts not yet measured are sampled first.
+        policy.onCheckout(replica);
+        policy.onRelease(replica, 10 * MILLIS);
+        Assert.assertSame(other, policy.getPool(pools));
+
+        policy.onCheckout(other);
+        policy.onRelease(other, MILLIS);
+        Assert.assertSame(other, policy.getPool(pools));
+
+        // Faster host with too many requests in flight is passed over.
+        for (int i = 0; i < 10; i++)
+        {
+            policy.onCheckout(other);
+        }
+        Assert.assertSame(replica, policy.getPool(pools));
+
+        Map<String, ThriftLatencyAwareBalancingPolicy.HostStats> hostStats = policy.getHostStats();
+        Assert.assertEquals(2, hostStats.size());
+        Assert.assertEquals(10, hostStats.get("127.0.0.2:9160").getInFlight());
+        Assert.assertEquals(1, hostStats.get("127.0.0.2:9160").getRequests());
+        Assert.assertEquals(10.0, hostStats.get("127.0.0.1:9160").getLatencyMillis());
+
+        policy.onRemove(other);
+        Assert.assertEquals(1, policy.getHostStats().size());
+        Assert.assertNull(policy.getHostStats().get("127.0.0.2:9160"));
+    }
+
+    @Test
+    public void testRingRefreshDue()
+    {
+        Assert.assertTrue(policy.isRingRefreshDue());
+        Assert.assertFalse(policy.isRingRefreshDue());
+    }
+
+    @Test
+    public void testRefreshRing()
+    {
+        ByteBuffer rowKey = ByteBufferUtil.bytes("1");
+        policy.onCheckout(replica);
+        policy.onRelease(replica, 10 * MILLIS);
+
+        // Without ring, keys go to the least loaded host.
+        Assert.assertFalse(policy.isRingLoaded());
+        Assert.assertSame(other, policy.getPool(pools, rowKey));
+
+        // Once ring is loaded, keys go to their replica.
+        policy.refreshRing(CassandraCli.getClient(), KEYSPACE);
+        Assert.assertTrue(policy.isRingLoaded());
+        Assert.assertSame(replica, policy.getPool(pools, rowKey));
+        Assert.assertSame(other, policy.getPool(pools, null));
+
+        // Failed refresh keeps previous ring.
+        policy.refreshRing(CassandraCli.getClient(), "missingKeyspace");
+        Assert.assertTrue(policy.isRingLoaded());
+        Assert.assertSame(replica, policy.getPool(pools, rowKey));
+
+        // Key with no pooled replica falls back to the least loaded host.
+        Collection<Object> others = new ArrayList<Object>();
+        others.add(other);
+        Assert.assertSame(other, policy.getPool(others, rowKey));
+    }
+
+    @Test
+    public void testBackgroundRingRefresh() throws Exception
+    {
+        Map<String, String> propertyMap = new HashMap<String, String>();
+        propertyMap.put(PersistenceProperties.KUNDERA_DDL_AUTO_PREPARE, "create");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(SEC_IDX_CASSANDRA_TEST, propertyMap);
+        EntityManager em = emf.createEntityManager();
+        try
+        {
+            Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+            ThriftClient client = (ThriftClient) clients.get(SEC_IDX_CASSANDRA_TEST);
+            Field field = ThriftClient.class.getDeclaredField("clientFactory");
+            field.setAccessible(true);
+            ThriftClientFactory clientFactory = (ThriftClientFactory) field.get(client);
+            clientFactory.initializeLoadBalancer("LATENCYAWARE");
+            Field policyField = GenericClientFactory.class.getDeclaredField("loadBalancingPolicy");
+            policyField.setAccessible(true);
+            ThriftLatencyAwareBalancingPolicy latencyAware = (ThriftLatencyAwareBalancingPolicy) policyField
+                    .get(clientFactory);
+
+            // First key is routed right away, ring is loaded meanwhile.
+            Assert.assertNotNull(clientFactory.getPoolForKey(ByteBufferUtil.bytes("1")));
+            for (int i = 0; i < 100 && !isRefreshed(latencyAware); i++)
+            {
+                Thread.sleep(100);
+            }
+            Assert.assertTrue(latencyAware.isRingLoaded());
+
+            // Connection used for refresh is released.
+            Assert.assertTrue(isRefreshed(latencyAware));
+            Assert.assertNotNull(clientFactory.getPoolForKey(ByteBufferUtil.bytes("1")));
+        }
+        finally
+        {
+            em.close();
+            emf.close();
+        }
+    }
+
+    private boolean isRefreshed(ThriftLatencyAwareBalancingPolicy latencyAware)
+    {
+        long requests = 0;
+        for (ThriftLatencyAwareBalancingPolicy.HostStats stats : latencyAware.getHostStats().values())
+        {
+            if (stats.getInFlight() != 0)
+            {
+                return false;
+            }
+            requests += stats.getRequests();
+        }
+        return latencyAware.isRingLoaded() && requests > 0;
+    }
+
+    private ConnectionPool createPool(String host) throws Exception
+    {
+        PoolConfiguration prop = new PoolProperties();
+        prop.setHost(host);
+        prop.setPort(9160);
+        prop.setKeySpace(KEYSPACE);
+        prop.setInitialSize(0);
+        return new ConnectionPool(prop);
+    }
+}
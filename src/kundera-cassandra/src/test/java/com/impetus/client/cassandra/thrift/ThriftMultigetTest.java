@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.thrift;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.crud.PersonCassandra;
+import com.impetus.client.persistence.CassandraCli;
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+
+/**
+ * Test case for multi row reads of {@link ThriftClient}, fetched in chunks of
+ * multiget batch size.
+ */
+public class ThriftMultigetTest
+{
+    private static final String SEC_IDX_CASSANDRA_TEST = "secIdxCassandraTest";
+
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    private ThriftClient client;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        CassandraCli.cassandraSetUp();
+        CassandraCli.createKeySpace("KunderaExamples");
+        Map<String, String> propertyMap = new HashMap<String, String>();
+        propertyMap.put(PersistenceProperties.KUNDERA_DDL_AUTO_PREPARE, "create");
+        emf = Persistence.createEntityManagerFactory(SEC_IDX_CASSANDRA_TEST, propertyMap);
+        em = emf.createEntityManager();
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        client = (ThriftClient) clients.get(SEC_IDX_CASSANDRA_TEST);
+
+        for (int i = 1; i <= 7; i++)
+        {
+            PersonCassandra person = new PersonCassandra();
+            person.setPersonId("" + i);
+            person.setPersonName("vivek" + i);
+            person.setAge(10 + i);
+            em.persist(person);
+        }
+        em.clear();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if (em != null)
+        {
+            em.close();
+        }
+        if (emf != null)
+        {
+            emf.close();
+        }
+        CassandraCli.dropKeySpace("KunderaExamples");
+    }
+
+    @Test
+    public void testFindAllInParallelChunks()
+    {
+        client.setMultigetBatchSize(2);
+        client.setMultigetParallelism(3);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) client.getMultigetExecutor();
+        long taskCount = executor.getTaskCount();
+
+        // 8 keys in chunks of 2 are fetched with 4 multiget_slice calls.
+        List<PersonCassandra> persons = client.findAll(PersonCassandra.class, null, "7", "3", "missing", "1", "6",
+                "2", "5", "4");
+        Assert.assertEquals(4, executor.getTaskCount() - taskCount);
+        assertPersons(persons, "7", "3", "1", "6", "2", "5", "4");
+
+        em.close();
+        em = null;
+        emf.close();
+        emf = null;
+        Assert.assertTrue(executor.isShutdown());
+    }
+
+    @Test
+    public void testFindAllInSequentialChunks()
+    {
+        client.setMultigetBatchSize(3);
+        client.setMultigetParallelism(1);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) client.getMultigetExecutor();
+        long taskCount = executor.getTaskCount();
+
+        List<PersonCassandra> persons = client.findAll(PersonCassandra.class, null, "2", "missing", "6", "4", "1",
+                "7");
+        Assert.assertEquals(0, executor.getTaskCount() - taskCount);
+        assertPersons(persons, "2", "6", "4", "1", "7");
+
+        // Parallelism above number of chunks falls back to sequential calls.
+        client.setMultigetBatchSize(100);
+        client.setMultigetParallelism(3);
+        persons = client.findAll(PersonCassandra.class, null, "5", "3");
+        Assert.assertEquals(0, executor.getTaskCount() - taskCount);
+        assertPersons(persons, "5", "3");
+    }
+
+    private void assertPersons(List<PersonCassandra> persons, String... ids)
+    {
+        Assert.assertNotNull(persons);
+        Assert.assertEquals(ids.length, persons.size());
+        for (int i = 0; i < ids.length; i++)
+        {
+            PersonCassandra person = persons.get(i);
+            Assert.assertEquals(ids[i], person.getPersonId());
+            Assert.assertEquals("vivek" + ids[i], person.getPersonName());
+            Assert.assertEquals(new Integer(10 + Integer.parseInt(ids[i])), person.getAge());
+        }
+    }
+}
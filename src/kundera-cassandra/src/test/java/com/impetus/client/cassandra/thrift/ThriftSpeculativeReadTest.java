@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.thrift;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import net.dataforte.cassandra.pool.ConnectionPool;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.cassandra.service.CassandraHost;
+import com.impetus.client.cassandra.thrift.ThriftClient.ThriftRead;
+import com.impetus.client.persistence.CassandraCli;
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.loader.GenericClientFactory;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+
+/**
+ * Test case for speculative reads of {@link ThriftClient}, whose second
+ * request goes to another host.
+ */
+public class ThriftSpeculativeReadTest
+{
+    private static final String SEC_IDX_CASSANDRA_TEST = "secIdxCassandraTest";
+
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    private ThriftClient client;
+
+    private ThriftClientFactory clientFactory;
+
+    private ThriftLatencyAwareBalancingPolicy policy;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        CassandraCli.cassandraSetUp();
+        CassandraCli.createKeySpace("KunderaExamples");
+        emf = Persistence.createEntityManagerFactory(SEC_IDX_CASSANDRA_TEST);
+        em = emf.createEntityManager();
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        client = (ThriftClient) clients.get(SEC_IDX_CASSANDRA_TEST);
+
+        Field field = ThriftClient.class.getDeclaredField("clientFactory");
+        field.setAccessible(true);
+        clientFactory = (ThriftClientFactory) field.get(client);
+        clientFactory.initializeLoadBalancer("LATENCYAWARE");
+        Field policyField = GenericClientFactory.class.getDeclaredField("loadBalancingPolicy");
+        policyField.setAccessible(true);
+        policy = (ThriftLatencyAwareBalancingPolicy) policyField.get(clientFactory);
+
+        // Same node under another name, so that factory pools two hosts.
+        Assert.assertTrue(clientFactory.addCassandraHost(new CassandraHost("127.0.0.1", 9160)));
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if (em != null)
+        {
+            em.close();
+        }
+        if (emf != null)
+        {
+            emf.close();
+        }
+        CassandraCli.dropKeySpace("KunderaExamples");
+    }
+
+    @Test
+    public void testAlternatePool()
+    {
+        ConnectionPool primary = client.getPool();
+        Assert.assertTrue(clientFactory.hasAlternatePool());
+        ConnectionPool alternate = clientFactory.getAlternatePool(primary);
+        Assert.assertNotSame(primary, alternate);
+        Assert.assertSame(primary, clientFactory.getAlternatePool(alternate));
+    }
+
+    @Test
+    public void testSpeculativeRead() throws Exception
+    {
+        ConnectionPool primary = client.getPool();
+        ConnectionPool alternate = clientFactory.getAlternatePool(primary);
+        client.setSpeculativeRetry("10ms");
+
+        final AtomicInteger attempts = new AtomicInteger();
+        String result = client.executeRead("describe_cluster_name", primary, new ThriftRead<String>()
+        {
+            @Override
+            public String execute(Cassandra.Client cassandraClient) throws Exception
+            {
+                if (attempts.incrementAndGet() == 1)
+                {
+                    // first request is slow, it is cancelled once second one
+                    // answers.
+                    Thread.sleep(5000);
+                    return "first";
+                }
+                cassandraClient.describe_cluster_name();
+                return "speculative";
+            }
+        });
+        Assert.assertEquals("speculative", result);
+        Assert.assertEquals(2, attempts.get());
+
+        // Each host got one request and both connections are released.
+        ThriftLatencyAwareBalancingPolicy.HostStats primaryStats = getStats(primary);
+        ThriftLatencyAwareBalancingPolicy.HostStats alternateStats = getStats(alternate);
+        for (int i = 0; i < 50 && primaryStats.getInFlight() > 0; i++)
+        {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(0, primaryStats.getInFlight());
+        Assert.assertEquals(1, primaryStats.getRequests());
+        Assert.assertEquals(0, alternateStats.getInFlight());
+        Assert.assertEquals(1, alternateStats.getRequests());
+    }
+
+    @Test
+    public void testReadWithoutSpeculation() throws Exception
+    {
+        ConnectionPool primary = client.getPool();
+        client.setReadTimeout(10000);
+
+        String clusterName = client.executeRead("describe_cluster_name", primary, new ThriftRead<String>()
+        {
+            @Override
+            public String execute(Cassandra.Client cassandraClient) throws Exception
+            {
+                return cassandraClient.describe_cluster_name();
+            }
+        });
+        Assert.assertNotNull(clusterName);
+        Assert.assertEquals(0, getStats(primary).getInFlight());
+        Assert.assertEquals(1, getStats(primary).getRequests());
+    }
+
+    private ThriftLatencyAwareBalancingPolicy.HostStats getStats(ConnectionPool pool)
+    {
+        return policy.getHostStats().get(
+                pool.getPoolProperties().getHost() + ":" + pool.getPoolProperties().getPort());
+    }
+}
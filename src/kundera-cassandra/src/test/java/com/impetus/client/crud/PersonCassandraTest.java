@@ -56,6 +56,8 @@ import com.impetus.client.crud.PersonCassandra.Day;
 import com.impetus.client.persistence.CassandraCli;
 import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.PropertyAccessorHelper;
@@ -300,6 +302,87 @@ public class PersonCassandraTest extends BaseTest
         assertOnMerge(em, "PersonCassandra", PersonCassandra.class, "vivek", "newvivek", "personName");
     }
 
+    /**
+     * Bulk update and delete through thrift client's BulkWriter methods.
+     */
+    @Test
+    public void onBulkWriteCassandra()
+    {
+        em.persist(prepareData("1", 10));
+        em.persist(prepareData("2", 20));
+        em.persist(prepareData("3", 15));
+        em.clear();
+
+        Map<String, Client> clientMap = (Map<String, Client>) em.getDelegate();
+        ThriftClient tc = (ThriftClient) clientMap.get(SEC_IDX_CASSANDRA_TEST);
+        EntityMetadata m = KunderaMetadataManager.getEntityMetadata(PersonCassandra.class);
+
+        List<Object> entities = new ArrayList<Object>();
+        for (String id : new String[] { "1", "2" })
+        {
+            PersonCassandra p = findById(PersonCassandra.class, id, em);
+            p.setAge(30);
+            entities.add(p);
+        }
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("AGE", 30);
+        Assert.assertEquals(2, tc.updateAll(m, entities, values));
+
+        em.clear();
+        PersonCassandra p1 = findById(PersonCassandra.class, "1", em);
+        PersonCassandra p2 = findById(PersonCassandra.class, "2", em);
+        PersonCassandra p3 = findById(PersonCassandra.class, "3", em);
+        Assert.assertEquals(new Integer(30), p1.getAge());
+        Assert.assertEquals(new Integer(30), p2.getAge());
+        Assert.assertEquals(new Integer(15), p3.getAge());
+        Assert.assertEquals("vivek", p1.getPersonName());
+        Assert.assertEquals("vivek", p2.getPersonName());
+
+        Assert.assertEquals(2, tc.deleteAll(m, entities));
+
+        em.clear();
+        Assert.assertNull(findById(PersonCassandra.class, "1", em));
+        Assert.assertNull(findById(PersonCassandra.class, "2", em));
+        Assert.assertNotNull(findById(PersonCassandra.class, "3", em));
+    }
+
+    /**
+     * On merge cassandra, only columns of changed fields are written.
+     * 
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void onPartialMergeCassandra() throws Exception
+    {
+        Object p1 = prepareData("1", 10);
+        em.persist(p1);
+        em.clear();
+        col.put("1", p1);
+
+        PersonCassandra p = findById(PersonCassandra.class, "1", em);
+
+        // concurrent update of another field.
+        EntityManager em2 = emf.createEntityManager();
+        PersonCassandra other = findById(PersonCassandra.class, "1", em2);
+        other.setDay(Day.FRIDAY);
+        em2.merge(other);
+        em2.close();
+
+        p.setAge(20);
+        p.setMonth(null);
+        em.merge(p);
+        em.clear();
+
+        PersonCassandra found = findById(PersonCassandra.class, "1", em);
+        Assert.assertEquals(new Integer(20), found.getAge());
+        // nulled field is deleted.
+        Assert.assertNull(found.getMonth());
+        // unchanged fields are not overwritten.
+        Assert.assertEquals(Day.FRIDAY, found.getDay());
+        Assert.assertEquals("vivek", found.getPersonName());
+    }
+
     @Test
     public void onDeleteThenInsertCassandra() throws Exception
     {
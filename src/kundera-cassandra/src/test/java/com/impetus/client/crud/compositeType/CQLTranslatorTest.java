@@ -15,7 +15,10 @@
  ******************************************************************************/
 package com.impetus.client.crud.compositeType;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.persistence.EntityManagerFactory;
@@ -83,6 +86,32 @@ public class CQLTranslatorTest
 //        Assert.assertEquals(columnAsCsv, translatedSql);
     }
     
+    @Test
+    public void testPrepareColumnsAndBindMarkers()
+    {
+        CQLTranslator translator = new CQLTranslator();
+        UUID timeLineId = UUID.randomUUID();
+        Date currentDate = new Date();
+        CassandraCompoundKey key = new CassandraCompoundKey("mevivs", 1, timeLineId);
+        CassandraPrimeUser user = new CassandraPrimeUser(key);
+        user.setTweetBody("my first tweet");
+        user.setTweetDate(currentDate);
+        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(CassandraPrimeUser.class);
+        List<Object> boundValues = new ArrayList<Object>();
+        Map<TranslationType, String> translation = translator.prepareColumnsAndBindMarkers(user, entityMetadata,
+                null, boundValues);
+
+        String columns = translation.get(TranslationType.COLUMN);
+        String markers = translation.get(TranslationType.VALUE);
+        Assert.assertFalse(StringUtils.contains(markers, "mevivs"));
+        Assert.assertEquals(boundValues.size(), StringUtils.countMatches(markers, CQLTranslator.BIND_MARKER));
+        Assert.assertEquals(boundValues.size(), StringUtils.split(columns, ",").length);
+        Assert.assertTrue(boundValues.contains("mevivs"));
+        Assert.assertTrue(boundValues.contains(timeLineId));
+        Assert.assertTrue(boundValues.contains("my first tweet"));
+        Assert.assertTrue(boundValues.contains(currentDate));
+    }
+
     @Test
     public void testGetKeyword()
     {
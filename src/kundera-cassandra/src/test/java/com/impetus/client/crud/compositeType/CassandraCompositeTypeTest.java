@@ -350,6 +350,39 @@ public class CassandraCompositeTypeTest
         Assert.assertEquals(2, results.size());
     }
     
+    @Test
+    public void onPreparedStatementRoundTrip()
+    {
+        emf = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT);
+        EntityManager em = emf.createEntityManager();
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        Client client = clients.get(PERSISTENCE_UNIT);
+        ((CassandraClientBase) client).setCqlVersion(CassandraConstants.CQL_VERSION_3_0);
+
+        UUID timeLineId = UUID.randomUUID();
+        // second insert is executed with statement prepared by first one.
+        for (int tweetId = 1; tweetId <= 2; tweetId++)
+        {
+            CassandraPrimeUser user = new CassandraPrimeUser(new CassandraCompoundKey("mevivs", tweetId, timeLineId));
+            user.setTweetBody("tweet " + tweetId);
+            user.setTweetDate(new Date(currentDate.getTime() + tweetId));
+            user.setNickName(CassandraPrimeUser.NickName.VM);
+            em.persist(user);
+        }
+        em.clear();
+
+        for (int tweetId = 1; tweetId <= 2; tweetId++)
+        {
+            CassandraPrimeUser result = em.find(CassandraPrimeUser.class, new CassandraCompoundKey("mevivs",
+                    tweetId, timeLineId));
+            Assert.assertNotNull(result);
+            Assert.assertEquals("tweet " + tweetId, result.getTweetBody());
+            Assert.assertEquals(currentDate.getTime() + tweetId, result.getTweetDate().getTime());
+            Assert.assertEquals(CassandraPrimeUser.NickName.VM, result.getNickName());
+        }
+        em.close();
+    }
+
     @Test
     public void onOrderBYClause()
     {
@@ -90,4 +90,56 @@ public interface PersistenceProperties
     public static final String KUNDERA_TRANSACTION_RESOURCE = "kundera.transaction.resource.class";
 
     public static final String KUNDERA_INDEXER_CLASS = "kundera.indexer.class";
+
+    /**
+     * Entities found are returned without making a copy of managed instance,
+     * only meant for read only persistence contexts.
+     */
+    public static final String KUNDERA_SKIP_COPY_ON_READ = "kundera.skip.copy.on.read";
+
+    /** Maximum number of parsed JPQL queries cached per factory, 0 disables. */
+    public static final String KUNDERA_QUERY_PLAN_CACHE_SIZE = "kundera.query.plan.cache.size";
+
+    /**
+     * Number of unary associations of query results resolved with one find
+     * call per target entity, 0 (default) fetches each association by itself.
+     */
+    public static final String KUNDERA_BATCH_FETCH_SIZE = "kundera.batch.fetch.size";
+
+    /**
+     * Indexing mode, "sync" (default) to index within each write or "async"
+     * to queue index operations for a background worker.
+     */
+    public static final String KUNDERA_INDEXING_MODE = "kundera.indexing.mode";
+
+    /** Maximum number of index operations queued in async indexing mode. */
+    public static final String KUNDERA_INDEXING_QUEUE_SIZE = "kundera.indexing.queue.size";
+
+    /**
+     * Durability of async indexing, "commit" (default) waits for queued index
+     * operations on commit, "eventual" doesn't.
+     */
+    public static final String KUNDERA_INDEXING_DURABILITY = "kundera.indexing.durability";
+
+    /**
+     * Speculative retry of idempotent reads, "NONE" (default), "&lt;n&gt;percentile"
+     * to issue a second request once a read takes longer than given
+     * percentile of recent reads, or "&lt;n&gt;ms" for a fixed delay.
+     */
+    public static final String KUNDERA_SPECULATIVE_RETRY = "kundera.speculative.retry";
+
+    /** Deadline of each read in milliseconds, 0 (default) for none. */
+    public static final String KUNDERA_READ_TIMEOUT = "kundera.read.timeout";
+
+    /**
+     * Whether entities are read from build time META-INF/kundera/entities.idx
+     * indexes where present, "true" (default) or "false" to always scan.
+     */
+    public static final String KUNDERA_ENTITY_INDEX = "kundera.entity.index";
+
+    /**
+     * Number of jars scanned in parallel for entities, number of processors
+     * by default, 1 to scan sequentially.
+     */
+    public static final String KUNDERA_SCAN_THREADS = "kundera.scan.threads";
 }
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.utils.ObjectUtils;
+
+/**
+ * Read-through/write-through second level cache for entities annotated with
+ * {@link javax.persistence.Cacheable}. Each entity class is held in its own
+ * region, named after the entity class, so eviction settings can be given per
+ * entity in cache provider configuration (e.g. a named cache in ehcache.xml).
+ * Entities are copied in and out of the cache, so cached state is never shared
+ * with a persistence context.
+ */
+public class SecondLevelCache implements javax.persistence.Cache
+{
+    /** The log. */
+    private static Logger log = LoggerFactory.getLogger(SecondLevelCache.class);
+
+    private final CacheProvider cacheProvider;
+
+    private final boolean enabled;
+
+    private final Map<Class<?>, Cache> regions = new ConcurrentHashMap<Class<?>, Cache>();
+
+    private final ConcurrentMap<Class<?>, RegionStatistics> statistics =
+            new ConcurrentHashMap<Class<?>, RegionStatistics>();
+
+    /**
+     * Instantiates second level cache on top of given cache provider.
+     *
+     * @param cacheProvider
+     *            cache provider.
+     */
+    public SecondLevelCache(CacheProvider cacheProvider)
+    {
+        this.cacheProvider = cacheProvider;
+        this.enabled = cacheProvider != null && !(cacheProvider instanceof NonOperationalCacheProvider);
+    }
+
+    /**
+     * Returns true, if entities of given metadata are held in this cache.
+     * Entities holding relations are not cached, as their associations are
+     * registered in persistence context only while being found through
+     * {@link com.impetus.kundera.graph.Node#find()}.
+     *
+     * @param metadata
+     *            entity metadata.
+     * @return true, if entity is cacheable and a cache provider is configured.
+     */
+    public boolean isCacheable(EntityMetadata metadata)
+    {
+        return enabled && metadata != null && metadata.isCacheable()
+                && (metadata.getRelationNames() == null || metadata.getRelationNames().isEmpty())
+                && !metadata.isRelationViaJoinTable();
+    }
+
+    /**
+     * Returns copy of cached entity for given class and primary key.
+     *
+     * @param entityClass
+     *            entity class.
+     * @param primaryKey
+     *            primary key.
+     * @return cached entity or null, if not found.
+     */
+    public Object get(Class<?> entityClass, Object primaryKey)
+    {
+        Cache region = getRegion(entityClass);
+        Object cached = region != null ? region.get(primaryKey) : null;
+        RegionStatistics stats = getStatistics(entityClass);
+        if (cached == null)
+        {
+            stats.misses.incrementAndGet();
+            return null;
+        }
+        stats.hits.incrementAndGet();
+        return ObjectUtils.deepCopy(cached);
+    }
+
+    /**
+     * Puts copy of given entity into cache.
+     *
+     * @param entityClass
+     *            entity class.
+     * @param primaryKey
+     *            primary key.
+     * @param entity
+     *            entity to cache.
+     */
+    public void put(Class<?> entityClass, Object primaryKey, Object entity)
+    {
+        Cache region = getRegion(entityClass);
+        if (region != null && primaryKey != null && entity != null)
+        {
+            region.put(primaryKey, ObjectUtils.deepCopy(entity));
+        }
+    }
+
+    @Override
+    public boolean contains(Class cls, Object primaryKey)
+    {
+        Cache region = getRegion(cls);
+        return region != null && region.get(primaryKey) != null;
+    }
+
+    @Override
+    public void evict(Class cls, Object primaryKey)
+    {
+        Cache region = getRegion(cls);
+        if (region != null && primaryKey != null)
+        {
+            region.evict(cls, primaryKey);
+            getStatistics(cls).evictions.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void evict(Class cls)
+    {
+        Cache region = getRegion(cls);
+        if (region != null)
+        {
+            region.evictAll();
+        }
+    }
+
+    @Override
+    public void evictAll()
+    {
+        for (Cache region : regions.values())
+        {
+            region.evictAll();
+        }
+    }
+
+    /**
+     * Returns hit/miss statistics of given entity region.
+     *
+     * @param entityClass
+     *            entity class.
+     * @return region statistics.
+     */
+    public RegionStatistics getStatistics(Class<?> entityClass)
+    {
+        RegionStatistics stats = statistics.get(entityClass);
+        if (stats == null)
+        {
+            stats = new RegionStatistics();
+            RegionStatistics existing = statistics.putIfAbsent(entityClass, stats);
+            if (existing != null)
+            {
+                stats = existing;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Releases all regions.
+     */
+    public void shutdown()
+    {
+        regions.clear();
+        statistics.clear();
+    }
+
+    private Cache getRegion(Class<?> entityClass)
+    {
+        if (!enabled || entityClass == null)
+        {
+            return null;
+        }
+        Cache region = regions.get(entityClass);
+        if (region == null)
+        {
+            EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(entityClass);
+            if (!isCacheable(metadata))
+            {
+                return null;
+            }
+            synchronized (regions)
+            {
+                region = regions.get(entityClass);
+                if (region == null)
+                {
+                    if (log.isDebugEnabled())
+                    {
+                        log.debug("Creating second level cache region for {}.", entityClass.getName());
+                    }
+                    region = (Cache) cacheProvider.createCache(entityClass.getName());
+                    regions.put(entityClass, region);
+                }
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Hit/miss counters of a cache region.
+     */
+    public static final class RegionStatistics
+    {
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        private final AtomicLong evictions = new AtomicLong();
+
+        public long getHitCount()
+        {
+            return hits.get();
+        }
+
+        public long getMissCount()
+        {
+            return misses.get();
+        }
+
+        public long getEvictionCount()
+        {
+            return evictions.get();
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder builder = new StringBuilder();
+            builder.append("RegionStatistics [hits=");
+            builder.append(hits);
+            builder.append(", misses=");
+            builder.append(misses);
+            builder.append(", evictions=");
+            builder.append(evictions);
+            builder.append("]");
+            return builder.toString();
+        }
+    }
+}
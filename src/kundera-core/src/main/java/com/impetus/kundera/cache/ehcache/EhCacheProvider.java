@@ -19,6 +19,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.Cache;
 
@@ -47,8 +48,8 @@ public class EhCacheProvider implements CacheProvider
     /** The manager. */
     private CacheManager manager;
 
-    /** The cache. */
-    private Cache cache;
+    /** Caches created so far, by name. */
+    private Map<String, Cache> caches = new ConcurrentHashMap<String, Cache>();
 
     /** The Constant NET_SF_EHCACHE_CONFIGURATION_RESOURCE_NAME. */
     private static final String NET_SF_EHCACHE_CONFIGURATION_RESOURCE_NAME = "net.sf.ehcache.configurationResourceName";
@@ -234,8 +235,9 @@ public class EhCacheProvider implements CacheProvider
                 }
             }
 
-            this.cache = new EhCacheWrapper(cache);
-            return this.cache;
+            Cache wrapper = new EhCacheWrapper(cache);
+            caches.put(name, wrapper);
+            return wrapper;
         }
         catch (net.sf.ehcache.CacheException e)
         {
@@ -252,12 +254,13 @@ public class EhCacheProvider implements CacheProvider
     @Override
     public Cache getCache(String cacheName) throws CacheException
     {
-        if (this.cache == null)
+        Cache cache = caches.get(cacheName);
+        if (cache == null)
         {
-            this.cache = createCache(cacheName);
+            cache = createCache(cacheName);
         }
 
-        return this.cache;
+        return cache;
     }
 
     /* @see com.impetus.kundera.cache.CacheProvider#shutdown() */
@@ -274,7 +277,7 @@ public class EhCacheProvider implements CacheProvider
             manager.shutdown();
             manager = null;
         }
-        cache = null;
+        caches.clear();
     }
 
     /**
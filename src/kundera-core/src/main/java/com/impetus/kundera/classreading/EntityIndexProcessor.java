@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.classreading;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.persistence.Entity;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.impetus.kundera.Constants;
+
+/**
+ * Annotation processor writing names of {@link Entity} classes compiled
+ * together to {@link #ENTITY_INDEX}, so that they are found at startup
+ * without scanning class files. Registered as a service of kundera-core, it
+ * runs with javac wherever kundera-core is on compile class path, unless
+ * annotation processing is disabled with -proc:none.
+ * 
+ * @see EntityScanner
+ */
+@SupportedAnnotationTypes("javax.persistence.Entity")
+public class EntityIndexProcessor extends AbstractProcessor
+{
+    /**
+     * Index of entity classes of a jar or class directory, one binary class
+     * name per line. Fat jars should append, rather than overwrite, indexes of
+     * merged jars.
+     */
+    public static final String ENTITY_INDEX = "META-INF/kundera/entities.idx";
+
+    /** Entity classes, sorted so that index is reproducible. */
+    private final Set<String> entities = new TreeSet<String>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv)
+    {
+        super.init(processingEnv);
+        readIndex();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Entity.class))
+        {
+            if (element.getKind() == ElementKind.CLASS)
+            {
+                entities.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+            }
+        }
+
+        if (roundEnv.processingOver() && !entities.isEmpty())
+        {
+            writeIndex();
+        }
+        // other processors may process entities too.
+        return false;
+    }
+
+    /**
+     * Keeps entities of an index left by a previous, possibly incremental,
+     * compilation which are still entities.
+     */
+    private void readIndex()
+    {
+        try
+        {
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ENTITY_INDEX);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(index.openInputStream(),
+                    Constants.CHARSET_UTF8));
+            try
+            {
+                String className;
+                while ((className = reader.readLine()) != null)
+                {
+                    className = className.trim();
+                    TypeElement type = className.isEmpty() || className.startsWith("#") ? null : processingEnv
+                            .getElementUtils().getTypeElement(className.replace('$', '.'));
+                    if (type != null && type.getAnnotation(Entity.class) != null)
+                    {
+                        entities.add(className);
+                    }
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (IOException ioex)
+        {
+            // no previous index.
+        }
+        catch (IllegalArgumentException iaex)
+        {
+            // no previous index.
+        }
+    }
+
+    private void writeIndex()
+    {
+        try
+        {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    ENTITY_INDEX);
+            Writer writer = index.openWriter();
+            try
+            {
+                for (String className : entities)
+                {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        catch (IOException ioex)
+        {
+            // entities will be found by scanning class files.
+            processingEnv.getMessager().printMessage(Kind.WARNING,
+                    "Unable to write " + ENTITY_INDEX + ", Caused by: " + ioex.getMessage());
+        }
+    }
+}
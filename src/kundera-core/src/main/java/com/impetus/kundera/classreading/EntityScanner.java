@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.classreading;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.ByteStreams;
+import com.impetus.kundera.Constants;
+import com.impetus.kundera.utils.KunderaThreadFactory;
+
+/**
+ * Finds classes annotated with valid annotations of a {@link Reader} in jars
+ * and class directories. Entity index written by {@link EntityIndexProcessor}
+ * is read where present. Other resources are scanned, one jar per thread,
+ * and only class files referring to a valid annotation are parsed.
+ * 
+ * @see EntityIndexProcessor#ENTITY_INDEX
+ */
+public class EntityScanner
+{
+    /** The log. */
+    private static Logger log = LoggerFactory.getLogger(EntityScanner.class);
+
+    private final Reader reader;
+
+    private final boolean useIndex;
+
+    private final int threads;
+
+    /** Descriptors of valid annotations, as found in constant pools. */
+    private List<byte[]> descriptors;
+
+    /**
+     * @param reader
+     *            reader, holding valid annotations and filter.
+     * @param useIndex
+     *            false to scan resources even if indexed.
+     * @param threads
+     *            number of resources scanned in parallel.
+     */
+    public EntityScanner(Reader reader, boolean useIndex, int threads)
+    {
+        this.reader = reader;
+        this.useIndex = useIndex;
+        this.threads = threads;
+    }
+
+    /**
+     * Finds annotated classes of given resources.
+     * 
+     * @param resources
+     *            jars, class directories or class files.
+     * @return names of annotated classes, in order of resources.
+     * @throws IOException
+     */
+    public List<String> findEntities(URL[] resources) throws IOException
+    {
+        List<List<String>> found = new ArrayList<List<String>>(resources.length);
+        List<Integer> unindexed = new ArrayList<Integer>();
+        for (URL resource : resources)
+        {
+            List<String> indexed = useIndex ? readIndex(resource) : null;
+            if (indexed == null)
+            {
+                unindexed.add(found.size());
+            }
+            else if (log.isDebugEnabled())
+            {
+                log.debug("Read {} entities from index of {}.", indexed.size(), resource);
+            }
+            found.add(indexed);
+        }
+
+        if (threads <= 1 || unindexed.size() <= 1)
+        {
+            for (Integer i : unindexed)
+            {
+                found.set(i, scan(resources[i]));
+            }
+        }
+        else
+        {
+            scanInParallel(resources, unindexed, found);
+        }
+
+        List<String> entities = new ArrayList<String>();
+        for (List<String> resourceEntities : found)
+        {
+            entities.addAll(resourceEntities);
+        }
+        return entities;
+    }
+
+    private void scanInParallel(final URL[] resources, List<Integer> unindexed, List<List<String>> found)
+            throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, unindexed.size()),
+                new KunderaThreadFactory(EntityScanner.class.getName()));
+        try
+        {
+            List<Future<List<String>>> scans = new ArrayList<Future<List<String>>>(unindexed.size());
+            for (final Integer i : unindexed)
+            {
+                scans.add(executor.submit(new Callable<List<String>>()
+                {
+                    @Override
+                    public List<String> call() throws IOException
+                    {
+                        return scan(resources[i]);
+                    }
+                }));
+            }
+            for (int i = 0; i < scans.size(); i++)
+            {
+                found.set(unindexed.get(i), scans.get(i).get());
+            }
+        }
+        catch (InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new ResourceReadingException("Interrupted while scanning entities", iex);
+        }
+        catch (ExecutionException eex)
+        {
+            if (eex.getCause() instanceof IOException)
+            {
+                throw (IOException) eex.getCause();
+            }
+            if (eex.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) eex.getCause();
+            }
+            throw new ResourceReadingException(eex.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Scans class files of given resource.
+     */
+    private List<String> scan(URL resource) throws IOException
+    {
+        List<String> entities = new ArrayList<String>();
+        ResourceIterator itr = reader.getResourceIterator(resource, reader.getFilter());
+        InputStream is = null;
+        while ((is = itr.next()) != null)
+        {
+            String className = getEntityClassName(is);
+            if (className != null)
+            {
+                entities.add(className);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Returns name of class of given class file if annotated with a valid
+     * annotation of reader. Stream is closed.
+     * 
+     * @param bits
+     *            class file.
+     * @return class name, null if class is not annotated.
+     * @throws IOException
+     */
+    public String getEntityClassName(InputStream bits) throws IOException
+    {
+        try
+        {
+            byte[] bytes = ByteStreams.toByteArray(bits);
+            if (!refersToValidAnnotation(bytes))
+            {
+                return null;
+            }
+
+            ClassFile cf = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes)));
+            List<String> annotations = new ArrayList<String>();
+            reader.accumulateAnnotations(annotations,
+                    (AnnotationsAttribute) cf.getAttribute(AnnotationsAttribute.visibleTag));
+            reader.accumulateAnnotations(annotations,
+                    (AnnotationsAttribute) cf.getAttribute(AnnotationsAttribute.invisibleTag));
+            for (String validAnn : reader.getValidAnnotations())
+            {
+                if (annotations.contains(validAnn))
+                {
+                    return cf.getName();
+                }
+            }
+            return null;
+        }
+        finally
+        {
+            bits.close();
+        }
+    }
+
+    /**
+     * Annotation types of a class are in its constant pool, so classes not
+     * containing descriptor of any valid annotation needn't be parsed.
+     */
+    private boolean refersToValidAnnotation(byte[] bytes)
+    {
+        for (byte[] descriptor : getDescriptors())
+        {
+            if (indexOf(bytes, descriptor) >= 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized List<byte[]> getDescriptors()
+    {
+        if (descriptors == null)
+        {
+            descriptors = new ArrayList<byte[]>();
+            for (String validAnn : reader.getValidAnnotations())
+            {
+                descriptors.add(("L" + validAnn.replace('.', '/') + ";").getBytes());
+            }
+        }
+        return descriptors;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target)
+    {
+        outer: for (int i = 0; i <= bytes.length - target.length; i++)
+        {
+            for (int j = 0; j < target.length; j++)
+            {
+                if (bytes[i + j] != target[j])
+                {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads entity index of given jar or class directory.
+     * 
+     * @return indexed classes, null if resource is not indexed.
+     */
+    private List<String> readIndex(URL resource)
+    {
+        String url = resource.toString();
+        if (url.endsWith(".class"))
+        {
+            return null;
+        }
+
+        InputStream is = null;
+        try
+        {
+            URL index;
+            if (url.endsWith("!/"))
+            {
+                index = new URL(url + EntityIndexProcessor.ENTITY_INDEX);
+            }
+            else if (url.endsWith("/"))
+            {
+                index = new URL(resource, EntityIndexProcessor.ENTITY_INDEX);
+            }
+            else
+            {
+                index = new URL("jar:" + url + "!/" + EntityIndexProcessor.ENTITY_INDEX);
+            }
+            URLConnection connection = index.openConnection();
+            // don't keep jar open.
+            connection.setUseCaches(false);
+            is = connection.getInputStream();
+
+            // indexes appended into a fat jar may repeat entities.
+            Set<String> entities = new LinkedHashSet<String>();
+            BufferedReader lines = new BufferedReader(new InputStreamReader(is, Constants.CHARSET_UTF8));
+            String className;
+            while ((className = lines.readLine()) != null)
+            {
+                className = className.trim();
+                if (!className.isEmpty() && !className.startsWith("#"))
+                {
+                    entities.add(className);
+                }
+            }
+            return new ArrayList<String>(entities);
+        }
+        catch (IOException ioex)
+        {
+            // not indexed.
+            return null;
+        }
+        finally
+        {
+            if (is != null)
+            {
+                try
+                {
+                    is.close();
+                }
+                catch (IOException ioex)
+                {
+                    log.warn("Error while closing entity index of {}, Caused by: {}.", resource, ioex.getMessage());
+                }
+            }
+        }
+    }
+}
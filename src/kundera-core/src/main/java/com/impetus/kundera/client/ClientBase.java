@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.impetus.kundera.db.RelationHolder;
 import com.impetus.kundera.graph.Node;
@@ -50,6 +51,12 @@ public abstract class ClientBase
     protected String persistenceUnit;
 
     protected boolean isUpdate;
+
+    /**
+     * Attributes changed by the update being persisted, null if entity is to
+     * be written as a whole. See {@link Node#getChangedFields()}.
+     */
+    protected Set<String> changedFields;
     
     protected ClientMetadata clientMetadata;
 
@@ -84,8 +91,16 @@ public abstract class ClientBase
         Object id = node.getEntityId();
         EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
         isUpdate = node.isUpdate();
+        changedFields = isUpdate ? node.getChangedFields() : null;
         List<RelationHolder> relationHolders = getRelationHolders(node);
-        /* id = */onPersist(metadata, entity, id, relationHolders);
+        try
+        {
+            /* id = */onPersist(metadata, entity, id, relationHolders);
+        }
+        finally
+        {
+            changedFields = null;
+        }
         id = PropertyAccessorHelper.getId(entity, metadata);
         node.setEntityId(id);
         indexNode(node, metadata);
@@ -204,6 +219,24 @@ public abstract class ClientBase
         }
     }
 
+    /**
+     * Re-indexes an entity updated without an object graph, e.g. by a bulk
+     * update.
+     * 
+     * @param entityMetadata
+     *            entity metadata.
+     * @param entity
+     *            updated entity.
+     */
+    protected void indexEntity(EntityMetadata entityMetadata, Object entity)
+    {
+        if (indexManager != null && !MetadataUtils.useSecondryIndex(getClientMetadata()))
+        {
+            indexManager.update(entityMetadata, entity, PropertyAccessorHelper.getId(entity, entityMetadata),
+                    entityMetadata.getEntityClazz());
+        }
+    }
+
     /**
      * Method to be implemented by inherited classes. On receiving persist event
      * specific client need to implement this method.
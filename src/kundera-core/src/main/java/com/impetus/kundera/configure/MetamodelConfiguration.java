@@ -15,8 +15,6 @@
  ******************************************************************************/
 package com.impetus.kundera.configure;
 
-import java.io.BufferedInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
@@ -28,9 +26,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javassist.bytecode.AnnotationsAttribute;
-import javassist.bytecode.ClassFile;
-
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Table;
@@ -42,8 +37,8 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.classreading.ClasspathReader;
+import com.impetus.kundera.classreading.EntityScanner;
 import com.impetus.kundera.classreading.Reader;
-import com.impetus.kundera.classreading.ResourceIterator;
 import com.impetus.kundera.loader.MetamodelLoaderException;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.MetadataBuilder;
@@ -129,6 +124,8 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
         URL[] resources = null;
         String client = null;
         List<URL> managedURLs = null;
+        PersistenceUnitMetadata puMetadata = null;
+        Map<String, Object> externalProperties = null;
         if (persistentUnitMetadataMap == null || persistentUnitMetadataMap.isEmpty())
         {
             log.error("It is necessary to load Persistence Unit metadata  for persistence unit " + persistenceUnit
@@ -138,11 +135,11 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
         }
         else
         {
-            PersistenceUnitMetadata puMetadata = persistentUnitMetadataMap.get(persistenceUnit);
+            puMetadata = persistentUnitMetadataMap.get(persistenceUnit);
             classesToScan = puMetadata.getManagedClassNames();
             managedURLs = puMetadata.getManagedURLs();
-            Map<String, Object> externalProperties = KunderaCoreUtils.getExternalProperties(persistenceUnit,
-                    externalPropertyMap, persistenceUnits);
+            externalProperties = KunderaCoreUtils.getExternalProperties(persistenceUnit, externalPropertyMap,
+                    persistenceUnits);
 
             client = externalProperties != null ? (String) externalProperties
                     .get(PersistenceProperties.KUNDERA_CLIENT_FACTORY) : null;
@@ -205,6 +202,8 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
 
         // All entities to load should be annotated with @Entity
         reader.addValidAnnotations(Entity.class.getName());
+        EntityScanner scanner = new EntityScanner(reader, isEntityIndexEnabled(puMetadata, externalProperties),
+                getScanThreads(puMetadata, externalProperties));
 
         Metamodel metamodel = appMetadata.getMetamodel(persistenceUnit);
         if (metamodel == null)
@@ -219,25 +218,21 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
         List<Class<?>> classes = new ArrayList<Class<?>>();
         if (resources != null && resources.length > 0)
         {
-            for (URL resource : resources)
+            try
             {
-                try
+                // Entities are found in parallel, their metadata is built one
+                // by one.
+                for (String className : scanner.findEntities(resources))
                 {
-                    ResourceIterator itr = reader.getResourceIterator(resource, reader.getFilter());
-
-                    InputStream is = null;
-                    while ((is = itr.next()) != null)
-                    {
-                        classes.addAll(scanClassAndPutMetadata(is, reader, entityMetadataMap, entityNameToClassMap,
-                                persistenceUnit, client, puToClazzMap, entityNameToKeyDiscriptorMap));
-                    }
+                    classes.addAll(loadClassAndPutMetadata(className, entityMetadataMap, entityNameToClassMap,
+                            persistenceUnit, client, puToClazzMap, entityNameToKeyDiscriptorMap));
                 }
-                catch (IOException e)
-                {
-                    log.error("Error while retreiving and storing entity metadata. Details:", e);
-                    throw new MetamodelLoaderException("Error while retreiving and storing entity metadata");
+            }
+            catch (IOException e)
+            {
+                log.error("Error while retreiving and storing entity metadata. Details:", e);
+                throw new MetamodelLoaderException("Error while retreiving and storing entity metadata");
 
-                }
             }
         }
         else if (iStreams != null)
@@ -248,7 +243,7 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
                 {
                     try
                     {
-                        classes.addAll(scanClassAndPutMetadata(is, reader, entityMetadataMap, entityNameToClassMap,
+                        classes.addAll(scanClassAndPutMetadata(is, scanner, entityMetadataMap, entityNameToClassMap,
                                 persistenceUnit, client, puToClazzMap, entityNameToKeyDiscriptorMap));
                     }
                     finally
@@ -321,8 +316,8 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
      * 
      * @param bits
      *            the bits
-     * @param reader
-     *            the reader
+     * @param scanner
+     *            the entity scanner
      * @param entityMetadataMap
      *            the entity metadata map
      * @param entityNameToClassMap
@@ -333,106 +328,130 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
-    private List<Class<?>> scanClassAndPutMetadata(InputStream bits, Reader reader,
+    private List<Class<?>> scanClassAndPutMetadata(InputStream bits, EntityScanner scanner,
             Map<String, EntityMetadata> entityMetadataMap, Map<String, Class<?>> entityNameToClassMap,
             String persistenceUnit, String client, Map<String, List<String>> clazzToPuMap,
             Map<String, IdDiscriptor> entityNameToKeyDiscriptorMap) throws IOException
     {
-        DataInputStream dstream = new DataInputStream(new BufferedInputStream(bits));
-        ClassFile cf = null;
-        String className = null;
-        
+        String className = scanner.getEntityClassName(bits);
+        if (className == null)
+        {
+            return new ArrayList<Class<?>>();
+        }
+        return loadClassAndPutMetadata(className, entityMetadataMap, entityNameToClassMap, persistenceUnit, client,
+                clazzToPuMap, entityNameToKeyDiscriptorMap);
+    }
+
+    /**
+     * Load entity class and put metadata.
+     * 
+     * @param className
+     *            name of entity class
+     * @param entityMetadataMap
+     *            the entity metadata map
+     * @param entityNameToClassMap
+     *            the entity name to class map
+     * @param keyDiscriptor
+     * @param persistence
+     *            unit the persistence unit.
+     */
+    private List<Class<?>> loadClassAndPutMetadata(String className, Map<String, EntityMetadata> entityMetadataMap,
+            Map<String, Class<?>> entityNameToClassMap, String persistenceUnit, String client,
+            Map<String, List<String>> clazzToPuMap, Map<String, IdDiscriptor> entityNameToKeyDiscriptorMap)
+    {
         List<Class<?>> classes = new ArrayList<Class<?>>();
 
         try
         {
-            cf = new ClassFile(dstream);
+            // Class<?> clazz =
+            // Thread.currentThread().getContextClassLoader().loadClass(className);
 
-            className = cf.getName();
-            
-            List<String> annotations = new ArrayList<String>();
+            Class<?> clazz = this.getClass().getClassLoader().loadClass(className);
 
-            reader.accumulateAnnotations(annotations,
-                    (AnnotationsAttribute) cf.getAttribute(AnnotationsAttribute.visibleTag));
-            reader.accumulateAnnotations(annotations,
-                    (AnnotationsAttribute) cf.getAttribute(AnnotationsAttribute.invisibleTag));
+            //get the name of entity to be used for entity to class map if or not annotated with name 
+            String entityName = getEntityName(clazz); 
+                
 
-            // iterate through all valid annotations
-            for (String validAnn : reader.getValidAnnotations())
+            if ((entityNameToClassMap.containsKey(entityName)
+                    && !entityNameToClassMap.get(entityName).getName().equals(clazz.getName())))
+            {
+                throw new MetamodelLoaderException("Name conflict between classes "
+                        + entityNameToClassMap.get(entityName).getName() + " and " + clazz.getName()
+                        + ". Make sure no two entity classes with the same name "
+                        + " are specified for persistence unit " + persistenceUnit);
+            } 
+            entityNameToClassMap.put(entityName, clazz);
+           
+
+            EntityMetadata metadata = entityMetadataMap.get(clazz);
+            if (null == metadata)
             {
-                // check if the current class has one?
-                if (annotations.contains(validAnn))
+                log.debug("Metadata not found in cache for " + clazz.getName());
+                // double check locking.
+                synchronized (clazz)
                 {
-                    // Class<?> clazz =
-                    // Thread.currentThread().getContextClassLoader().loadClass(className);
-                    
-                    Class<?> clazz = this.getClass().getClassLoader().loadClass(className);
-                    
-                    //get the name of entity to be used for entity to class map if or not annotated with name 
-                    String entityName = getEntityName(clazz); 
-                        
-
-                    if ((entityNameToClassMap.containsKey(entityName)
-                            && !entityNameToClassMap.get(entityName).getName().equals(clazz.getName())))
-                    {
-                        throw new MetamodelLoaderException("Name conflict between classes "
-                                + entityNameToClassMap.get(entityName).getName() + " and " + clazz.getName()
-                                + ". Make sure no two entity classes with the same name "
-                                + " are specified for persistence unit " + persistenceUnit);
-                    } 
-                    entityNameToClassMap.put(entityName, clazz);
-                   
-
-                    EntityMetadata metadata = entityMetadataMap.get(clazz);
                     if (null == metadata)
                     {
-                        log.debug("Metadata not found in cache for " + clazz.getName());
-                        // double check locking.
-                        synchronized (clazz)
+                        MetadataBuilder metadataBuilder = new MetadataBuilder(persistenceUnit, client,
+                                KunderaCoreUtils.getExternalProperties(persistenceUnit, externalPropertyMap,
+                                        persistenceUnits));
+                        metadata = metadataBuilder.buildEntityMetadata(clazz);
+
+                        // in case entity's pu does not belong to parse
+                        // persistence unit, it will be null.
+                        if (metadata != null)
                         {
-                            if (null == metadata)
-                            {
-                                MetadataBuilder metadataBuilder = new MetadataBuilder(persistenceUnit, client,
-                                        KunderaCoreUtils.getExternalProperties(persistenceUnit, externalPropertyMap,
-                                                persistenceUnits));
-                                metadata = metadataBuilder.buildEntityMetadata(clazz);
-
-                                // in case entity's pu does not belong to parse
-                                // persistence unit, it will be null.
-                                if (metadata != null)
-                                {
-                                    entityMetadataMap.put(clazz.getName(), metadata);
-                                    mapClazztoPu(clazz, persistenceUnit, clazzToPuMap);
-                                    processGeneratedValueAnnotation(clazz, persistenceUnit, metadata,
-                                            entityNameToKeyDiscriptorMap);
-                                }
-                            }
+                            entityMetadataMap.put(clazz.getName(), metadata);
+                            mapClazztoPu(clazz, persistenceUnit, clazzToPuMap);
+                            processGeneratedValueAnnotation(clazz, persistenceUnit, metadata,
+                                    entityNameToKeyDiscriptorMap);
                         }
                     }
-
-                    // TODO :
-                    onValidateClientProperties(classes, clazz, persistenceUnit);
                 }
             }
+
+            // TODO :
+            onValidateClientProperties(classes, clazz, persistenceUnit);
         }
         catch (ClassNotFoundException e)
         {
             log.error("Class " + className + " not found, it won't be loaded as entity");
         }
-        finally
-        {
-            if (dstream != null)
-            {
-                dstream.close();
-            }
-            if (bits != null)
-            {
-                bits.close();
-            }
-        }
 
         return classes;
     }
+
+    /**
+     * Returns whether entity indexes are read instead of scanning indexed
+     * resources, true unless disabled.
+     */
+    private boolean isEntityIndexEnabled(PersistenceUnitMetadata puMetadata, Map<String, Object> externalProperties)
+    {
+        String entityIndex = getProperty(puMetadata, externalProperties, PersistenceProperties.KUNDERA_ENTITY_INDEX);
+        return entityIndex == null || Boolean.parseBoolean(entityIndex.trim());
+    }
+
+    /**
+     * Returns number of resources scanned in parallel, number of processors
+     * unless configured.
+     */
+    private int getScanThreads(PersistenceUnitMetadata puMetadata, Map<String, Object> externalProperties)
+    {
+        String scanThreads = getProperty(puMetadata, externalProperties, PersistenceProperties.KUNDERA_SCAN_THREADS);
+        return StringUtils.isBlank(scanThreads) ? Runtime.getRuntime().availableProcessors() : Integer
+                .parseInt(scanThreads.trim());
+    }
+
+    private String getProperty(PersistenceUnitMetadata puMetadata, Map<String, Object> externalProperties,
+            String name)
+    {
+        Object value = externalProperties != null ? externalProperties.get(name) : null;
+        if (value == null && puMetadata != null)
+        {
+            value = puMetadata.getProperty(name);
+        }
+        return value != null ? value.toString() : null;
+    }
     
     /**
      * @param clazz
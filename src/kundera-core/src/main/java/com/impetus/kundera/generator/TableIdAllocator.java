@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.generator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.impetus.kundera.metadata.model.TableGeneratorDiscriptor;
+
+/**
+ * Hi/lo allocator for {@link javax.persistence.TableGenerator} ids. A single
+ * increment of the generator's counter (the "hi" value) reserves a block of
+ * {@link TableGeneratorDiscriptor#getAllocationSize()} ids, which are then
+ * handed out from memory without locking. Only the thread exhausting a block
+ * synchronizes to reserve the next one.
+ */
+public final class TableIdAllocator
+{
+    /**
+     * Reserves blocks of ids in the underlying datastore.
+     */
+    public interface BlockSource
+    {
+        /**
+         * Increments generator counter by one and returns the incremented
+         * value. Increment and read must be one atomic operation of the
+         * datastore (e.g. HBase incrementColumnValue), otherwise concurrent
+         * allocators, possibly in other JVMs, may reserve the same block.
+         *
+         * @return number of reserved block, starting from 1.
+         */
+        long reserveBlock();
+    }
+
+    private final long initialValue;
+
+    private final int allocationSize;
+
+    private final AtomicReference<Block> current = new AtomicReference<Block>(new Block(0, 0));
+
+    /**
+     * Instantiates allocator for given table generator.
+     *
+     * @param discriptor
+     *            table generator discriptor.
+     */
+    public TableIdAllocator(TableGeneratorDiscriptor discriptor)
+    {
+        this.initialValue = discriptor.getInitialValue();
+        this.allocationSize = discriptor.getAllocationSize() > 0 ? discriptor.getAllocationSize() : 1;
+    }
+
+    /**
+     * Returns next id, reserving a new block through given source if current
+     * block is exhausted.
+     *
+     * @param source
+     *            block source.
+     * @return generated id.
+     */
+    public long next(BlockSource source)
+    {
+        while (true)
+        {
+            Block block = current.get();
+            long id = block.next.getAndIncrement();
+            if (id < block.end)
+            {
+                return id;
+            }
+
+            synchronized (this)
+            {
+                if (current.get() == block)
+                {
+                    long start = initialValue + (source.reserveBlock() - 1) * allocationSize;
+                    current.set(new Block(start, start + allocationSize));
+                }
+            }
+        }
+    }
+
+    /**
+     * Range of reserved ids, end exclusive.
+     */
+    private static final class Block
+    {
+        private final AtomicLong next;
+
+        private final long end;
+
+        private Block(long start, long end)
+        {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.graph;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.metadata.model.Relation;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.proxy.KunderaProxy;
+import com.impetus.kundera.proxy.ProxyHelper;
+import com.impetus.kundera.utils.DeepEquals;
+
+/**
+ * Computes attribute level change set of an entity against its last known
+ * state (a snapshot), so that an update needs to write changed columns only.
+ * Associated entities are not walked into, they are dirty checked by their
+ * own nodes.
+ */
+public final class DirtyChecker
+{
+    private DirtyChecker()
+    {
+    }
+
+    /**
+     * Returns names of attributes whose values differ between given entity and
+     * its snapshot. Id and association attributes are not compared.
+     *
+     * @param m
+     *            entity metadata.
+     * @param snapshot
+     *            last known state of entity.
+     * @param entity
+     *            entity.
+     * @return names of changed attributes, empty if nothing changed or null if
+     *         entity can't be compared with given snapshot.
+     */
+    public static Set<String> getChangedAttributes(EntityMetadata m, Object snapshot, Object entity)
+    {
+        if (!snapshot.getClass().equals(entity.getClass()))
+        {
+            return null;
+        }
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        EntityType entityType = metaModel.entity(entity.getClass());
+
+        Set<String> changed = new HashSet<String>();
+        for (Object attribute : entityType.getAttributes())
+        {
+            Attribute column = (Attribute) attribute;
+            if (!column.isAssociation() && !column.equals(m.getIdAttribute()))
+            {
+                Field field = (Field) column.getJavaMember();
+                if (!isEqual(PropertyAccessorHelper.getObject(snapshot, field),
+                        PropertyAccessorHelper.getObject(entity, field)))
+                {
+                    changed.add(column.getName());
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns true if any association of given entity refers to other entities
+     * than the ones referred by its snapshot. Lazy proxies which are left
+     * untouched on both sides are considered unchanged.
+     *
+     * @param m
+     *            entity metadata.
+     * @param snapshot
+     *            last known state of entity.
+     * @param entity
+     *            entity.
+     * @return true, if associations have changed.
+     */
+    public static boolean isRelationChanged(EntityMetadata m, Object snapshot, Object entity)
+    {
+        for (Relation relation : m.getRelations())
+        {
+            Field field = relation.getProperty();
+            Object before = PropertyAccessorHelper.getObject(snapshot, field);
+            Object after = PropertyAccessorHelper.getObject(entity, field);
+
+            if (before == after)
+            {
+                continue;
+            }
+            else if (before == null || after == null)
+            {
+                return true;
+            }
+            else if (ProxyHelper.isProxyCollection(before) || ProxyHelper.isProxyCollection(after))
+            {
+                if (!(ProxyHelper.isProxyCollection(before) && ProxyHelper.isProxyCollection(after)))
+                {
+                    return true;
+                }
+            }
+            else if (after instanceof Collection)
+            {
+                if (!getReferenceKeys((Collection) before).equals(getReferenceKeys((Collection) after)))
+                {
+                    return true;
+                }
+            }
+            else if (after instanceof Map)
+            {
+                if (!DeepEquals.deepEquals(before, after))
+                {
+                    return true;
+                }
+            }
+            else if (!isEqual(getReferenceKey(before), getReferenceKey(after)))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Object> getReferenceKeys(Collection references)
+    {
+        Set<Object> keys = new HashSet<Object>();
+        for (Object reference : references)
+        {
+            keys.add(getReferenceKey(reference));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a key identifying referred entity, its id if available.
+     */
+    private static Object getReferenceKey(Object reference)
+    {
+        if (reference instanceof KunderaProxy)
+        {
+            return ((KunderaProxy) reference).getKunderaLazyInitializer().getIdentifier();
+        }
+        EntityMetadata metadata = reference != null ? KunderaMetadataManager.getEntityMetadata(reference.getClass())
+                : null;
+        return metadata != null ? PropertyAccessorHelper.getId(reference, metadata) : reference;
+    }
+
+    private static boolean isEqual(Object before, Object after)
+    {
+        if (before == after)
+        {
+            return true;
+        }
+        else if (before == null || after == null)
+        {
+            return false;
+        }
+        return before.equals(after) || DeepEquals.deepEquals(before, after);
+    }
+}
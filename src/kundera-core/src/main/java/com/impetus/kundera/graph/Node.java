@@ -17,6 +17,7 @@ package com.impetus.kundera.graph;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.PostLoad;
 import javax.persistence.PostPersist;
@@ -81,6 +82,10 @@ public class Node implements NodeStateContext
     // Whether this node for update.
     private boolean isUpdate;
 
+    // Attributes changed since node data was last loaded or flushed, null if
+    // not known.
+    private Set<String> changedFields;
+
     /*
      * Depth of this node in the tree Head node has a depth of 1 and so on.
      */
@@ -506,6 +511,28 @@ public class Node implements NodeStateContext
         onPostEvent(metadata, EntityEvent.FIND);
     }
 
+    /**
+     * Sets entity data fetched in bulk or from second level cache (bypassing
+     * {@link #find()}) into this node, registers it with persistence cache and
+     * fires PostLoad event.
+     * 
+     * @param nodeData
+     *            entity fetched from database.
+     */
+    public void onBulkFind(Object nodeData)
+    {
+        this.data = nodeData;
+        getPersistenceCache().getMainCache().processNodeMapping(this);
+
+        // This node is fresh and hence NOT dirty
+        this.dirty = false;
+        // One time set as required for rollback.
+        setOriginalNode(clone());
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(this.getDataClass());
+        onPostEvent(metadata, EntityEvent.FIND);
+    }
+
     @Override
     public void getReference()
     {
@@ -533,6 +560,7 @@ public class Node implements NodeStateContext
             getCurrentNodeState().handleFlush(this);
             handlePostEvent();
             this.isProcessed = true;
+            this.changedFields = null;
         }
 
         // Update Link value for all nodes attached to this one
@@ -638,6 +666,27 @@ public class Node implements NodeStateContext
         this.isUpdate = isUpdate;
     }
 
+    /**
+     * Returns names of attributes changed since node data was last loaded or
+     * flushed. Clients may restrict an update to these attributes.
+     * 
+     * @return changed attributes, or null if not known and entity is to be
+     *         written as a whole.
+     */
+    public Set<String> getChangedFields()
+    {
+        return changedFields;
+    }
+
+    /**
+     * @param changedFields
+     *            the changedFields to set
+     */
+    public void setChangedFields(Set<String> changedFields)
+    {
+        this.changedFields = changedFields;
+    }
+
     @Override
     public Node clone()
     {
@@ -668,6 +717,13 @@ public class Node implements NodeStateContext
 
         if (isUpdate)
         {
+            // Callbacks may change any attribute, hence entity is to be
+            // written as a whole.
+            if (metadata.getCallbackMethods(PreUpdate.class) != null
+                    && !metadata.getCallbackMethods(PreUpdate.class).isEmpty())
+            {
+                this.changedFields = null;
+            }
             onPreEvent(metadata, EntityEvent.UPDATE);
         }
         else if (this.isInState(RemovedState.class))
@@ -17,6 +17,7 @@ package com.impetus.kundera.graph;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -41,7 +42,6 @@ import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.proxy.KunderaProxy;
 import com.impetus.kundera.proxy.ProxyHelper;
 import com.impetus.kundera.proxy.collection.ProxyCollection;
-import com.impetus.kundera.utils.DeepEquals;
 
 /**
  * Responsible for generating {@link ObjectGraph} of nodes from a given entity
@@ -148,13 +148,28 @@ public class ObjectGraphBuilder
         {
             node = nodeInPersistenceCache;
 
-            // Determine whether this node is dirty based on comparison between
-            // Node data and entity data
-            // If dirty, set the entity data into node and mark it as dirty
-            if (!DeepEquals.deepEquals(node.getData(), entity))
+            // Determine whether this node is dirty based on attribute wise
+            // comparison between last known state of node and entity data. If
+            // dirty, set the entity data into node and mark it as dirty,
+            // keeping track of changed attributes
+            Set<String> changedFields = getChangedFields(node, entity, entityMetadata);
+            if (changedFields == null || !changedFields.isEmpty())
             {
+                // Accumulate with changes not flushed yet.
+                if (node.isDirty() && changedFields != null)
+                {
+                    if (node.getChangedFields() != null)
+                    {
+                        changedFields.addAll(node.getChangedFields());
+                    }
+                    else
+                    {
+                        changedFields = null;
+                    }
+                }
                 node.setData(entity);
                 node.setDirty(true);
+                node.setChangedFields(changedFields);
             }
             else if (node.isProcessed())
             {
@@ -230,6 +245,40 @@ public class ObjectGraphBuilder
         return node;
     }
 
+    /**
+     * Returns attributes of given entity changed with respect to last known
+     * state of its node, which is node data if entity is a different instance
+     * or else the copy taken when it was loaded.
+     * 
+     * @return names of changed attributes, null if all of them need to be
+     *         written (e.g. associations have changed).
+     */
+    private Set<String> getChangedFields(Node node, Object entity, EntityMetadata entityMetadata)
+    {
+        Object snapshot = node.getData();
+        if (snapshot == null)
+        {
+            return null;
+        }
+        else if (snapshot == entity)
+        {
+            if (node.getOriginalNode() == null || node.getOriginalNode().getData() == null)
+            {
+                // No copy to compare with, same instance is treated as
+                // unchanged.
+                return Collections.<String> emptySet();
+            }
+            snapshot = node.getOriginalNode().getData();
+        }
+
+        Set<String> changedFields = DirtyChecker.getChangedAttributes(entityMetadata, snapshot, entity);
+        if (changedFields != null && DirtyChecker.isRelationChanged(entityMetadata, snapshot, entity))
+        {
+            changedFields = null;
+        }
+        return changedFields;
+    }
+
     private NodeState getChildNodeState(EntityMetadata metadata, Object childObj)
     {
         Object childId = PropertyAccessorHelper.getId(childObj, metadata);
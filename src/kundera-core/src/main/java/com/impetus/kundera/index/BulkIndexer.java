@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.index;
+
+/**
+ * {@link Indexer} able to group index and unindex calls into bulk requests.
+ * Used by {@link IndexManager} in asynchronous indexing mode, calls made
+ * between {@link #beginBulk()} and {@link #endBulk()} on the same thread may
+ * be buffered and sent together.
+ */
+public interface BulkIndexer extends Indexer
+{
+    /**
+     * Starts buffering index and unindex calls of current thread.
+     */
+    void beginBulk();
+
+    /**
+     * Sends index and unindex calls buffered since {@link #beginBulk()}.
+     * 
+     * @throws IndexingException
+     *             if any of the buffered calls failed.
+     */
+    void endBulk();
+}
@@ -279,7 +279,8 @@ public abstract class DocumentIndexer implements com.impetus.kundera.index.lucen
             document.add(luceneField);
 
             // index namespace for unique deletion
-            luceneField = new Field(KUNDERA_ID_FIELD, getKunderaId(metadata, id), Field.Store.YES, Field.Index.ANALYZED); // adding
+            luceneField = new Field(KUNDERA_ID_FIELD, getKunderaId(metadata, id), Field.Store.YES,
+                    Field.Index.NOT_ANALYZED); // adding
             // class
             // namespace
             // Field.Store.YES/*, Field.Index.ANALYZED_NO_NORMS*/);
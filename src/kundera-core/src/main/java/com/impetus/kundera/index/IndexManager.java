@@ -34,11 +34,17 @@ import com.impetus.kundera.metadata.model.PropertyIndex;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.utils.ObjectUtils;
 
 /**
  * Manager responsible to co-ordinate with an Indexer. It is bound with
  * EntityManager.
  * 
+ * In asynchronous mode, index operations are queued and applied by a
+ * background worker; entities are copied when an operation is queued, so
+ * later changes made by caller don't reach index.
+ * {@link #flush()} waits for operations queued so far.
+ * 
  * @author animesh.kumar
  */
 public class IndexManager
@@ -47,6 +53,12 @@ public class IndexManager
     /** The indexer. */
     private Indexer indexer;
 
+    /** Queue of pending index operations, null in synchronous mode. */
+    private IndexQueue queue;
+
+    /** Whether index operations should be flushed on commit. */
+    private boolean flushOnCommit;
+
     /**
      * The Constructor.
      * 
@@ -59,6 +71,28 @@ public class IndexManager
         this.indexer = indexer;
     }
 
+    /**
+     * Creates manager applying index operations asynchronously.
+     * 
+     * @param indexer
+     *            the indexer
+     * @param queueSize
+     *            maximum number of pending index operations, callers wait
+     *            beyond it.
+     * @param flushOnCommit
+     *            true to wait for index operations on commit, false for
+     *            eventually consistent indexes.
+     */
+    public IndexManager(Indexer indexer, int queueSize, boolean flushOnCommit)
+    {
+        this(indexer);
+        if (indexer != null)
+        {
+            this.queue = new IndexQueue(indexer, queueSize);
+            this.flushOnCommit = flushOnCommit;
+        }
+    }
+
     /**
      * @return the indexer
      */
@@ -67,6 +101,14 @@ public class IndexManager
         return indexer;
     }
 
+    /**
+     * @return true, if pending index operations are to be flushed on commit.
+     */
+    public boolean isFlushOnCommit()
+    {
+        return queue != null && flushOnCommit;
+    }
+
     /**
      * Removes an object from Index.
      * 
@@ -77,18 +119,31 @@ public class IndexManager
      * @param key
      *            the key
      */
-    public final void remove(EntityMetadata metadata, Object entity, String key)
+    public final void remove(final EntityMetadata metadata, final Object entity, final String key)
     {
         if (indexer != null)
         {
-            if (indexer.getClass().isAssignableFrom(LuceneIndexer.class))
+            final Object snapshot = snapshot(entity);
+            submit(new Runnable()
             {
-                ((com.impetus.kundera.index.lucene.Indexer) indexer).unindex(metadata, key);
-            }
-            else
-            {
-                indexer.unIndex(metadata.getEntityClazz(), entity);
-            }
+                @Override
+                public void run()
+                {
+                    onRemove(metadata, snapshot, key);
+                }
+            });
+        }
+    }
+
+    private void onRemove(EntityMetadata metadata, Object entity, String key)
+    {
+        if (indexer.getClass().isAssignableFrom(LuceneIndexer.class))
+        {
+            ((com.impetus.kundera.index.lucene.Indexer) indexer).unindex(metadata, key);
+        }
+        else
+        {
+            indexer.unIndex(metadata.getEntityClazz(), entity);
         }
     }
 
@@ -100,7 +155,24 @@ public class IndexManager
      * @param entity
      *            the entity
      */
-    public final void update(EntityMetadata metadata, Object entity, Object parentId, Class<?> clazz)
+    public final void update(final EntityMetadata metadata, final Object entity, final Object parentId,
+            final Class<?> clazz)
+    {
+        if (indexer != null)
+        {
+            final Object snapshot = snapshot(entity);
+            submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    onUpdate(metadata, snapshot, parentId, clazz);
+                }
+            });
+        }
+    }
+
+    private void onUpdate(EntityMetadata metadata, Object entity, Object parentId, Class<?> clazz)
     {
         try
         {
@@ -110,9 +182,14 @@ public class IndexManager
                 {
                     Object id = PropertyAccessorHelper.getId(entity, metadata);
 
-                    boolean documentExists = ((com.impetus.kundera.index.lucene.Indexer) indexer)
-                            .entityExistsInIndex(entity.getClass());
-                    if (documentExists)
+                    if (queue != null)
+                    {
+                        // Buffered delete applies to documents added before
+                        // it only, no need to look up and commit in between.
+                        ((com.impetus.kundera.index.lucene.Indexer) indexer).unindex(metadata, id);
+                    }
+                    else if (((com.impetus.kundera.index.lucene.Indexer) indexer).entityExistsInIndex(entity
+                            .getClass()))
                     {
                         ((com.impetus.kundera.index.lucene.Indexer) indexer).unindex(metadata, id);
                         ((com.impetus.kundera.index.lucene.Indexer) indexer).flush();
@@ -208,11 +285,19 @@ public class IndexManager
      * @param entity
      *            the entity
      */
-    public final void write(EntityMetadata metadata, Object entity)
+    public final void write(final EntityMetadata metadata, final Object entity)
     {
         if (indexer != null)
         {
-            ((com.impetus.kundera.index.lucene.Indexer) indexer).index(metadata, entity);
+            final Object snapshot = snapshot(entity);
+            submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    ((com.impetus.kundera.index.lucene.Indexer) indexer).index(metadata, snapshot);
+                }
+            });
         }
     }
 
@@ -228,12 +313,51 @@ public class IndexManager
      * @param clazz
      *            class name
      */
-    public final void write(EntityMetadata metadata, Object entity, String parentId, Class<?> clazz)
+    public final void write(final EntityMetadata metadata, final Object entity, final String parentId,
+            final Class<?> clazz)
     {
         if (indexer != null)
         {
+            final Object snapshot = snapshot(entity);
+            submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    ((com.impetus.kundera.index.lucene.Indexer) indexer).index(metadata, snapshot, parentId, clazz);
+                }
+            });
+        }
+    }
 
-            ((com.impetus.kundera.index.lucene.Indexer) indexer).index(metadata, entity, parentId, clazz);
+    /**
+     * Copies entity to be indexed by a queued operation, entity itself is
+     * used in synchronous mode.
+     * 
+     * @param entity
+     *            the entity
+     * @return entity, or its copy.
+     */
+    private Object snapshot(Object entity)
+    {
+        return queue != null && entity != null ? ObjectUtils.deepCopy(entity) : entity;
+    }
+
+    /**
+     * Applies index operation, queuing it in asynchronous mode.
+     * 
+     * @param operation
+     *            index operation.
+     */
+    private void submit(Runnable operation)
+    {
+        if (queue != null)
+        {
+            queue.add(operation);
+        }
+        else
+        {
+            operation.run();
         }
     }
 
@@ -371,13 +495,17 @@ public class IndexManager
     }
 
     /**
-     * Flushes out the indexes, keeping RAM directory open.
+     * Flushes out the indexes, keeping RAM directory open. In asynchronous
+     * mode, waits until index operations queued so far are applied.
+     * 
+     * @throws IndexingException
+     *             if a queued index operation failed.
      */
     public void flush() throws IndexingException
     {
-        if (indexer != null)
+        if (queue != null)
         {
-//            ((Indexer) indexer).close();
+            queue.flush();
         }
     }
 
@@ -388,6 +516,10 @@ public class IndexManager
     {
         if (indexer != null)
         {
+            if (queue != null)
+            {
+                queue.close();
+            }
             indexer.close();
         }
     }
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of index operations applied by a single background worker,
+ * in submission order. Whatever is queued when worker wakes up is applied as
+ * one batch, as a bulk request for a {@link BulkIndexer}. Submitting blocks
+ * while queue is full. Flushing threads are released even if worker stops,
+ * with the failure that stopped it.
+ */
+final class IndexQueue
+{
+    /** the log used by this class. */
+    private static Logger log = LoggerFactory.getLogger(IndexQueue.class);
+
+    private final Indexer indexer;
+
+    private final BlockingQueue<Runnable> queue;
+
+    private final Thread worker;
+
+    private volatile boolean closed;
+
+    /** First failure since last flush, reported to flushing thread. */
+    private volatile RuntimeException failure;
+
+    IndexQueue(Indexer indexer, int capacity)
+    {
+        this.indexer = indexer;
+        this.queue = new ArrayBlockingQueue<Runnable>(capacity);
+        this.worker = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                drain();
+            }
+        }, "kundera-index-worker");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues an index operation, waiting for space if queue is full.
+     * 
+     * @param operation
+     *            index operation.
+     */
+    void add(Runnable operation)
+    {
+        if (closed)
+        {
+            throw new IndexingException("Index queue is closed, can't accept index operations");
+        }
+        try
+        {
+            queue.put(operation);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IndexingException("Interrupted while queuing index operation", e);
+        }
+    }
+
+    /**
+     * Waits until all operations queued so far are applied.
+     * 
+     * @throws IndexingException
+     *             if any operation failed since last flush.
+     */
+    void flush()
+    {
+        if (closed)
+        {
+            return;
+        }
+        Barrier barrier = new Barrier();
+        add(barrier);
+        barrier.await(worker);
+
+        RuntimeException e = failure;
+        if (e != null)
+        {
+            failure = null;
+            throw e instanceof IndexingException ? e : new IndexingException("Error while applying index operation",
+                    e);
+        }
+    }
+
+    /**
+     * Applies pending operations and stops worker.
+     */
+    void close()
+    {
+        if (!closed)
+        {
+            try
+            {
+                flush();
+            }
+            finally
+            {
+                closed = true;
+                worker.interrupt();
+            }
+        }
+    }
+
+    private void drain()
+    {
+        List<Runnable> batch = new ArrayList<Runnable>();
+        try
+        {
+            while (!closed)
+            {
+                try
+                {
+                    batch.add(queue.take());
+                }
+                catch (InterruptedException e)
+                {
+                    break;
+                }
+                queue.drainTo(batch);
+                apply(batch);
+                batch.clear();
+            }
+        }
+        catch (Error e)
+        {
+            onFailure(new IndexingException("Index worker stopped", e));
+            throw e;
+        }
+        finally
+        {
+            release(batch);
+        }
+    }
+
+    /**
+     * Releases flushing threads waiting on operations left unapplied by a
+     * stopped worker.
+     */
+    private void release(List<Runnable> batch)
+    {
+        queue.drainTo(batch);
+        for (Runnable operation : batch)
+        {
+            if (operation instanceof Barrier)
+            {
+                operation.run();
+            }
+            else if (failure == null)
+            {
+                failure = new IndexingException("Index queue closed before operation was applied");
+            }
+        }
+    }
+
+    private void apply(List<Runnable> batch)
+    {
+        boolean bulk = false;
+        for (Runnable operation : batch)
+        {
+            if (operation instanceof Barrier)
+            {
+                // Flushing thread must see everything before the barrier.
+                if (bulk)
+                {
+                    endBulk();
+                    bulk = false;
+                }
+                operation.run();
+            }
+            else
+            {
+                if (!bulk && indexer instanceof BulkIndexer)
+                {
+                    ((BulkIndexer) indexer).beginBulk();
+                    bulk = true;
+                }
+                try
+                {
+                    operation.run();
+                }
+                catch (RuntimeException e)
+                {
+                    onFailure(e);
+                }
+            }
+        }
+        if (bulk)
+        {
+            endBulk();
+        }
+    }
+
+    private void endBulk()
+    {
+        try
+        {
+            ((BulkIndexer) indexer).endBulk();
+        }
+        catch (RuntimeException e)
+        {
+            onFailure(e);
+        }
+    }
+
+    private void onFailure(RuntimeException e)
+    {
+        log.error("Error while applying index operation, Caused by: ", e);
+        if (failure == null)
+        {
+            failure = e;
+        }
+    }
+
+    /**
+     * Marker operation releasing a flushing thread once reached.
+     */
+    private static final class Barrier implements Runnable
+    {
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void run()
+        {
+            latch.countDown();
+        }
+
+        /**
+         * Waits until barrier is reached, or worker is found stopped.
+         */
+        void await(Thread worker)
+        {
+            try
+            {
+                while (!latch.await(1, TimeUnit.SECONDS))
+                {
+                    if (!worker.isAlive() && latch.getCount() > 0)
+                    {
+                        throw new IndexingException("Index worker stopped before applying index operations");
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IndexingException("Interrupted while flushing index operations", e);
+            }
+        }
+    }
+}
@@ -18,10 +18,15 @@ package com.impetus.kundera.index;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
@@ -29,20 +34,24 @@ import javax.persistence.metamodel.EntityType;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LogDocMergePolicy;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,11 +66,13 @@ import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 
 /**
- * Provides indexing functionality using lucene library.
+ * Provides indexing functionality using lucene library. Documents indexed
+ * within a bulk are added together, once bulk ends or an unindex call needs
+ * them in index.
  * 
  * @author amresh.singh
  */
-public class LuceneIndexer extends DocumentIndexer
+public class LuceneIndexer extends DocumentIndexer implements BulkIndexer
 {
 
     /** log for this class. */
@@ -70,24 +81,30 @@ public class LuceneIndexer extends DocumentIndexer
     /** The w. */
     private static IndexWriter w;
 
-    /** The reader. */
-    private static IndexReader reader;
+    /** Near real time searcher manager, opened on index writer. */
+    private static SearcherManager searcherManager;
 
     /** The index. */
     private static Directory index;
 
-    /** The is initialized. */
-    private static boolean isInitialized;
-
     /** The indexer. */
     private static LuceneIndexer indexer;
 
     /** The ready for commit. */
-    private static boolean readyForCommit;
+    private static volatile boolean readyForCommit;
+
+    /** Changes not yet visible to searcher manager. */
+    private static volatile boolean readyForRefresh;
 
     /** The lucene dir path. */
     private static String luceneDirPath;
 
+    /** Index holds documents with an analyzed Kundera id field. */
+    private static volatile boolean analyzedIdField;
+
+    /** Documents buffered by bulk of current thread, null out of bulk. */
+    private static final ThreadLocal<List<Document>> bulk = new ThreadLocal<List<Document>>();
+
     /**
      * Instantiates a new lucene indexer.
      * 
@@ -114,21 +131,23 @@ public class LuceneIndexer extends DocumentIndexer
             {
                 index = new RAMDirectory();
             }
-            /*
-             * FSDirectory.open(getIndexDirectory( ))
-             */
-            // isInitialized
-            /* writer */
             IndexWriterConfig indexWriterConfig = new IndexWriterConfig(Version.LUCENE_34, analyzer);
             LogDocMergePolicy logDocMergePolicy = new LogDocMergePolicy();
             logDocMergePolicy.setMergeFactor(1000);
             indexWriterConfig.setMergePolicy(logDocMergePolicy);
             w = new IndexWriter(index, indexWriterConfig);
-            /* reader = */
-            // w.setMergePolicy(new LogDocMergePolicy());
-            // w.setMergeFactor(1);
-            // w.setMergeFactor(1000);
             w.getConfig().setRAMBufferSizeMB(32);
+
+            // Searchers are opened on writer, so uncommitted changes are
+            // visible without a commit per search.
+            searcherManager = new SearcherManager(w, true, null);
+
+            analyzedIdField = hasAnalyzedIdField();
+            if (analyzedIdField)
+            {
+                log.warn("Lucene index {} was written by an older version, entities are unindexed by query until "
+                        + "it is rebuilt.", luceneDirPath);
+            }
         }
         catch (Exception e)
         {
@@ -167,40 +186,6 @@ public class LuceneIndexer extends DocumentIndexer
         return w;
     }
 
-    /**
-     * Returns default index reader.
-     * 
-     * @return index reader.
-     */
-    private IndexReader getIndexReader()
-    {
-        flushInternal();
-
-        if (reader == null)
-        {
-            try
-            {
-                if (!isInitialized)
-                {
-                    Directory sourceDir = FSDirectory.open(getIndexDirectory());
-                    copy(sourceDir, index);
-                    isInitialized = true;
-                }
-                reader = IndexReader.open(index/* , true */);
-            }
-            catch (IndexNotFoundException infex)
-            {
-                log.warn("No index found in given directory, caused by:", infex.getMessage());
-            }
-            catch (Exception e)
-            {
-                log.error("Error while instantiating LuceneIndexer, Caused by :.", e);
-                throw new LuceneIndexingException(e);
-            }
-        }
-        return reader;
-    }
-
     /**
      * Creates a Lucene index directory if it does not exist.
      * 
@@ -229,45 +214,16 @@ public class LuceneIndexer extends DocumentIndexer
     {
         if (log.isDebugEnabled())
             log.debug("Unindexing @Entity[" + metadata.getEntityClazz().getName() + "] for key:" + id);
+        // documents buffered before must be deleted too.
+        addBulk();
         try
         {
-            QueryParser qp = new QueryParser(Version.LUCENE_34, DEFAULT_SEARCHABLE_FIELD, new StandardAnalyzer(
-                    Version.LUCENE_34));
-
-            qp.setLowercaseExpandedTerms(false);
-            qp.setAllowLeadingWildcard(true);
-
-            String luceneQuery = "+"
-                    + ENTITY_CLASS_FIELD
-                    + ":"
-                    + QueryParser.escape(metadata.getEntityClazz().getCanonicalName().toLowerCase())
-                    + " AND +"
-                    + getCannonicalPropertyName(QueryParser.escape(metadata.getEntityClazz().getSimpleName()),
-                            QueryParser.escape(((AbstractAttribute) metadata.getIdAttribute()).getJPAColumnName()))
-                    + ":" + QueryParser.escape(id.toString());
-
-            /* String indexName, Query query, boolean autoCommit */
-            // w.deleteDocuments(new Term(KUNDERA_ID_FIELD,
-            // getKunderaId(metadata, id)));
-
-            // qp.set
-
-            Query q = qp.parse(luceneQuery);
-
-            w.deleteDocuments(q);
-            w.commit();
-            w.close();
-            IndexWriterConfig indexWriterConfig = new IndexWriterConfig(Version.LUCENE_34, analyzer);
-            LogDocMergePolicy logDocMergePolicy = new LogDocMergePolicy();
-            logDocMergePolicy.setMergeFactor(1000);
-            indexWriterConfig.setMergePolicy(logDocMergePolicy);
-            w = new IndexWriter(index, indexWriterConfig);
-            /* reader = */
-            // w.setMergePolicy(new LogDocMergePolicy());
-            // w.setMergeFactor(1);
-            // w.setMergeFactor(1000);
-            w.getConfig().setRAMBufferSizeMB(32);
-            // flushInternal();
+            w.deleteDocuments(new Term(KUNDERA_ID_FIELD, getKunderaId(metadata, id)));
+            if (analyzedIdField)
+            {
+                w.deleteDocuments(getIdQuery(metadata, id));
+            }
+            onCommit();
         }
         catch (Exception e)
         {
@@ -276,12 +232,61 @@ public class LuceneIndexer extends DocumentIndexer
         }
     }
 
-    @SuppressWarnings("deprecation")
+    /**
+     * Returns true, if index was written before Kundera id field was indexed
+     * NOT_ANALYZED. Terms of such an index don't match whole Kundera ids.
+     */
+    private boolean hasAnalyzedIdField() throws IOException
+    {
+        IndexSearcher searcher = searcherManager.acquire();
+        try
+        {
+            IndexReader reader = searcher.getIndexReader();
+            Bits liveDocs = MultiFields.getLiveDocs(reader);
+            for (int i = 0; i < reader.maxDoc(); i++)
+            {
+                if (liveDocs == null || liveDocs.get(i))
+                {
+                    String kunderaId = reader.document(i).get(KUNDERA_ID_FIELD);
+                    if (kunderaId != null)
+                    {
+                        return reader.docFreq(new Term(KUNDERA_ID_FIELD, kunderaId)) == 0;
+                    }
+                }
+            }
+            return false;
+        }
+        finally
+        {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Returns query matching document of given entity by its id field, used
+     * to unindex documents with an analyzed Kundera id field.
+     */
+    private Query getIdQuery(EntityMetadata metadata, Object id) throws Exception
+    {
+        QueryParser qp = new QueryParser(Version.LUCENE_34, DEFAULT_SEARCHABLE_FIELD, new StandardAnalyzer(
+                Version.LUCENE_34));
+        qp.setLowercaseExpandedTerms(false);
+        qp.setAllowLeadingWildcard(true);
+
+        String luceneQuery = "+"
+                + ENTITY_CLASS_FIELD
+                + ":"
+                + QueryParser.escape(metadata.getEntityClazz().getCanonicalName().toLowerCase())
+                + " AND +"
+                + getCannonicalPropertyName(QueryParser.escape(metadata.getEntityClazz().getSimpleName()),
+                        QueryParser.escape(((AbstractAttribute) metadata.getIdAttribute()).getJPAColumnName()))
+                + ":" + QueryParser.escape(id.toString());
+        return qp.parse(luceneQuery);
+    }
+
     @Override
     public final Map<String, Object> search(String luceneQuery, int start, int count, boolean fetchRelation)
     {
-
-        reader = getIndexReader();
         if (Constants.INVALID == count)
         {
             count = 100;
@@ -293,14 +298,7 @@ public class LuceneIndexer extends DocumentIndexer
         // Set<String> entityIds = new HashSet<String>();
         Map<String, Object> indexCol = new HashMap<String, Object>();
 
-        if (reader == null)
-        {
-            return indexCol;
-            // throw new
-            // LuceneIndexingException("Index reader is not initialized!");
-        }
-
-        IndexSearcher searcher = new IndexSearcher(reader);
+        IndexSearcher searcher = acquireSearcher();
         QueryParser qp = new QueryParser(Version.LUCENE_34, DEFAULT_SEARCHABLE_FIELD, new StandardAnalyzer(
                 Version.LUCENE_34));
 
@@ -334,11 +332,50 @@ public class LuceneIndexer extends DocumentIndexer
             log.error("Error while parsing Lucene Query {} ", luceneQuery, e);
             throw new LuceneIndexingException(e);
         }
+        finally
+        {
+            releaseSearcher(searcher);
+        }
 
-        reader = null;
         return indexCol;
     }
 
+    /**
+     * Returns searcher on latest index state, refreshing near real time
+     * reader if index has been changed since last refresh.
+     * 
+     * @return index searcher, to be released after use.
+     */
+    private IndexSearcher acquireSearcher()
+    {
+        try
+        {
+            if (readyForRefresh)
+            {
+                readyForRefresh = false;
+                searcherManager.maybeRefresh();
+            }
+            return searcherManager.acquire();
+        }
+        catch (IOException e)
+        {
+            log.error("Error while opening index searcher, Caused by :.", e);
+            throw new LuceneIndexingException(e);
+        }
+    }
+
+    private void releaseSearcher(IndexSearcher searcher)
+    {
+        try
+        {
+            searcherManager.release(searcher);
+        }
+        catch (IOException e)
+        {
+            log.warn("Error while releasing index searcher, Caused by :.", e);
+        }
+    }
+
     /**
      * Indexes document in file system using lucene.
      * 
@@ -352,6 +389,13 @@ public class LuceneIndexer extends DocumentIndexer
         if (log.isDebugEnabled())
             log.debug("Indexing document: " + document + " for in file system using Lucene");
 
+        List<Document> documents = bulk.get();
+        if (documents != null)
+        {
+            documents.add(document);
+            return;
+        }
+
         IndexWriter w = getIndexWriter();
         try
         {
@@ -368,62 +412,85 @@ public class LuceneIndexer extends DocumentIndexer
         }
     }
 
-    /**
-     * Flush internal.
-     */
-    private void flushInternal()
+    @Override
+    public void beginBulk()
+    {
+        bulk.set(new ArrayList<Document>());
+    }
+
+    @Override
+    public void endBulk()
     {
         try
         {
-            if (w != null && readyForCommit)
-            {
-                // w.optimize();
-                w.commit();
-                copy(index, FSDirectory.open(getIndexDirectory()));
-                readyForCommit = false;
-                reader = null;
-                isInitialized = false;
-            }
+            addBulk();
         }
+        finally
+        {
+            bulk.remove();
+        }
+    }
 
-        catch (Exception e)
+    /**
+     * Adds documents buffered by bulk of current thread in one call.
+     */
+    private void addBulk()
+    {
+        List<Document> documents = bulk.get();
+        if (documents != null && !documents.isEmpty())
         {
-            log.error("Error while Flushing Lucene Indexes, Caused by: ", e);
-            throw new LuceneIndexingException("Error while Flushing Lucene Indexes", e);
+            try
+            {
+                getIndexWriter().addDocuments(documents);
+                onCommit();
+            }
+            catch (Exception e)
+            {
+                log.error("Error while indexing " + documents.size() + " documents into Lucene, Caused by: ", e);
+                throw new LuceneIndexingException("Error while indexing " + documents.size()
+                        + " documents into Lucene.", e);
+            }
+            finally
+            {
+                documents.clear();
+            }
         }
     }
 
     /**
-     * Close of transaction.
+     * Commits pending changes and persists them into file system directory.
      */
-    public void close()
+    private synchronized void flushInternal()
     {
         try
         {
             if (w != null && readyForCommit)
             {
+                readyForCommit = false;
                 w.commit();
-                copy(index, FSDirectory.open(getIndexDirectory()));
+                persist(index, FSDirectory.open(getIndexDirectory()));
             }
         }
 
         catch (Exception e)
         {
-            log.error("Error while closing lucene indexes, Caused by: ", e);
-            throw new LuceneIndexingException("Error while closing lucene indexes.", e);
+            log.error("Error while Flushing Lucene Indexes, Caused by: ", e);
+            throw new LuceneIndexingException("Error while Flushing Lucene Indexes", e);
         }
     }
 
+    /**
+     * Close of transaction.
+     */
+    public void close()
+    {
+        flushInternal();
+    }
+
     @Override
     public void flush()
     {
-        /*
-         * if (w != null) {
-         * 
-         * try { w.commit(); // w.close(); // index.copy(index,
-         * FSDirectory.open(getIndexDirectory()), false); } catch
-         * (CorruptIndexException e) { } catch (IOException e) { } }
-         */
+        flushInternal();
     }
 
     @Override
@@ -601,23 +668,8 @@ public class LuceneIndexer extends DocumentIndexer
      */
     private void onCommit()
     {
-        // TODO: Sadly this required to keep lucene happy, in case of indexing
-        // and searching with same entityManager.
-        // Other alternative would be to issue flush on each search
-        // try
-        // {
-        // w.commit();
-        isInitialized = true;
         readyForCommit = true;
-        // }
-        // catch (CorruptIndexException e)
-        // {
-        // throw new IndexingException(e.getMessage());
-        // }
-        // catch (IOException e)
-        // {
-        // throw new IndexingException(e.getMessage());
-        // }
+        readyForRefresh = true;
     }
 
     @Override
@@ -638,11 +690,50 @@ public class LuceneIndexer extends DocumentIndexer
         throw new UnsupportedOperationException("Method not supported");
     }
 
-    private void copy(Directory src, Directory to) throws IOException
+    /**
+     * Incrementally copies committed index into given directory. Lucene index
+     * files are write once, so only files missing in target are copied
+     * (segments files last), and files no longer referenced are removed.
+     * 
+     * @param src
+     *            source directory.
+     * @param to
+     *            target directory.
+     * @throws IOException
+     */
+    private void persist(Directory src, Directory to) throws IOException
     {
-        for (String file : src.listAll())
+        String[] files = src.listAll();
+        Set<String> current = new HashSet<String>(Arrays.asList(files));
+        List<String> segmentFiles = new ArrayList<String>();
+        for (String file : files)
+        {
+            if (file.startsWith(IndexFileNames.SEGMENTS))
+            {
+                segmentFiles.add(file);
+            }
+            else if (!to.fileExists(file))
+            {
+                src.copy(to, file, file, IOContext.DEFAULT);
+            }
+        }
+        for (String file : segmentFiles)
+        {
+            if (IndexFileNames.SEGMENTS_GEN.equals(file) || !to.fileExists(file))
+            {
+                if (to.fileExists(file))
+                {
+                    to.deleteFile(file);
+                }
+                src.copy(to, file, file, IOContext.DEFAULT);
+            }
+        }
+        for (String file : to.listAll())
         {
-            src.copy(to, file, file, IOContext.DEFAULT);
+            if (!current.contains(file) && !IndexWriter.WRITE_LOCK_NAME.equals(file))
+            {
+                to.deleteFile(file);
+            }
         }
     }
 
@@ -31,11 +31,13 @@ import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.configure.PropertyReader;
 import com.impetus.kundera.configure.schema.api.SchemaManager;
+import com.impetus.kundera.generator.TableIdAllocator;
 import com.impetus.kundera.index.IndexManager;
 import com.impetus.kundera.index.Indexer;
 import com.impetus.kundera.index.LuceneIndexer;
 import com.impetus.kundera.metadata.model.ClientMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.TableGeneratorDiscriptor;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.service.Host;
 import com.impetus.kundera.service.policy.LoadBalancingPolicy;
@@ -54,6 +56,9 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
     /** The logger. */
     private static Logger logger = LoggerFactory.getLogger(GenericClientFactory.class);
 
+    /** Default maximum number of queued index operations, in async mode. */
+    private static final int DEFAULT_INDEXING_QUEUE_SIZE = 1000;
+
     /** The client. */
     private Client client;
 
@@ -92,6 +97,9 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
      */
     protected ClientMetadata clientMetadata;
 
+    /** Holds one id allocator per table generator, shared by all clients */
+    private ConcurrentMap<String, TableIdAllocator> tableIdAllocators = new ConcurrentHashMap<String, TableIdAllocator>();
+
     /**
      * Load.
      * 
@@ -151,8 +159,9 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
             clientMetadata.setLuceneIndexDir(luceneDirectoryPath);
 
             // Set Index Manager
-            indexManager = new IndexManager(LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_CURRENT),
-                    luceneDirectoryPath));
+            indexManager = createIndexManager(
+                    LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_CURRENT), luceneDirectoryPath),
+                    puProperties);
         }
         else if (indexerClass != null)
         {
@@ -160,7 +169,7 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
             {
                 Class<?> indexerClazz = Class.forName(indexerClass);
                 Indexer indexer = (Indexer) indexerClazz.newInstance();
-                indexManager = new IndexManager(indexer);
+                indexManager = createIndexManager(indexer, puProperties);
                 clientMetadata.setIndexImplementor(indexerClass);
             }
             catch (Exception cnfex)
@@ -179,6 +188,41 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
 //        }
     }
 
+    /**
+     * Creates index manager over given indexer, applying index operations
+     * asynchronously if configured so.
+     * 
+     * @param indexer
+     *            the indexer
+     * @param puProperties
+     *            external properties
+     * @return index manager
+     */
+    private IndexManager createIndexManager(Indexer indexer, Map<String, Object> puProperties)
+    {
+        String mode = getIndexingProperty(puProperties, PersistenceProperties.KUNDERA_INDEXING_MODE);
+        if (!"async".equalsIgnoreCase(mode))
+        {
+            return new IndexManager(indexer);
+        }
+
+        String queueSize = getIndexingProperty(puProperties, PersistenceProperties.KUNDERA_INDEXING_QUEUE_SIZE);
+        String durability = getIndexingProperty(puProperties, PersistenceProperties.KUNDERA_INDEXING_DURABILITY);
+        return new IndexManager(indexer, queueSize != null ? Integer.parseInt(queueSize)
+                : DEFAULT_INDEXING_QUEUE_SIZE, !"eventual".equalsIgnoreCase(durability));
+    }
+
+    private String getIndexingProperty(Map<String, Object> puProperties, String name)
+    {
+        String value = puProperties != null ? (String) puProperties.get(name) : null;
+        if (value == null)
+        {
+            value = KunderaMetadata.INSTANCE.getApplicationMetadata().getPersistenceUnitMetadata(persistenceUnit)
+                    .getProperty(name);
+        }
+        return value;
+    }
+
     /**
      * Initialize client.
      * 
@@ -306,6 +350,32 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
         }
         externalProperties = null;
         hostPools.clear();
+        tableIdAllocators.clear();
+    }
+
+    /**
+     * Returns id allocator for given table generator, shared by all clients
+     * created by this factory.
+     * 
+     * @param discriptor
+     *            table generator discriptor.
+     * @return table id allocator.
+     */
+    public TableIdAllocator getTableIdAllocator(TableGeneratorDiscriptor discriptor)
+    {
+        String key = discriptor.getSchema() + "." + discriptor.getTable() + "." + discriptor.getPkColumnValue() + "."
+                + discriptor.getValueColumnName();
+        TableIdAllocator allocator = tableIdAllocators.get(key);
+        if (allocator == null)
+        {
+            allocator = new TableIdAllocator(discriptor);
+            TableIdAllocator existing = tableIdAllocators.putIfAbsent(key, allocator);
+            if (existing != null)
+            {
+                allocator = existing;
+            }
+        }
+        return allocator;
     }
 
     protected abstract void initializeLoadBalancer(String loadBalancingPolicyName);
@@ -317,7 +387,7 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
 
     protected enum LoadBalancer
     {
-        ROUNDROBIN, LEASTACTIVE;
+        ROUNDROBIN, LEASTACTIVE, LATENCYAWARE;
 
         public static LoadBalancer getValue(String loadBalancename)
         {
@@ -329,6 +399,10 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
             {
                 return LEASTACTIVE;
             }
+            else if (loadBalancename != null && loadBalancename.equalsIgnoreCase(LATENCYAWARE.name()))
+            {
+                return LATENCYAWARE;
+            }
             else
             {
                 logger.info("Using default load balancer {} . " + ROUNDROBIN.name());
@@ -590,6 +590,22 @@ public class MetadataUtils
         return !(Constants.NEO4J_CLIENT_FACTORY.equalsIgnoreCase(clientFactoryName) || Constants.RDBMS_CLIENT_FACTORY
                 .equalsIgnoreCase(clientFactoryName));
     }
+
+    /**
+     * Checks whether persistence unit is mapped to a graph database client,
+     * able to traverse relations within a query.
+     * 
+     * @param persistenceUnit
+     *            the persistence unit
+     * @return true, if client is a graph database client.
+     */
+    public static boolean isGraphClient(final String persistenceUnit)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+        String clientFactoryName = puMetadata != null ? puMetadata
+                .getProperty(PersistenceProperties.KUNDERA_CLIENT_FACTORY) : null;
+        return Constants.NEO4J_CLIENT_FACTORY.equalsIgnoreCase(clientFactoryName);
+    }
     
     /**
      * Index based search has to be optional, ideally need to register a callback in case index persistence/search etc is optional.
@@ -17,6 +17,7 @@ package com.impetus.kundera.metadata.model;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -285,6 +286,16 @@ public class ApplicationMetadata
         return wrapper != null ? wrapper.isNativeQuery() : false;
     }
 
+    /**
+     * Returns names of all named/native queries.
+     * 
+     * @return query names.
+     */
+    public Set<String> getQueryNames()
+    {
+        return namedNativeQueries != null ? namedNativeQueries.keySet() : new HashSet<String>();
+    }
+
     public Class getMappedClass(String name)
     {
         QueryWrapper wrapper = namedNativeQueries != null ? namedNativeQueries.get(name) : null;
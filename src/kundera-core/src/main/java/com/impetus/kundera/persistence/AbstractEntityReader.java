@@ -18,7 +18,9 @@ package com.impetus.kundera.persistence;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,12 +30,14 @@ import javax.persistence.FetchType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.MetadataUtils;
 import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.metadata.model.Relation;
 import com.impetus.kundera.metadata.model.Relation.ForeignKey;
 import com.impetus.kundera.persistence.context.PersistenceCacheManager;
@@ -41,6 +45,7 @@ import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.proxy.ProxyHelper;
 import com.impetus.kundera.utils.KunderaCoreUtils;
+import com.impetus.kundera.utils.ObjectUtils;
 
 /**
  * The Class AbstractEntityReader.
@@ -58,6 +63,14 @@ public class AbstractEntityReader
 
     private AssociationBuilder associationBuilder;
 
+    /**
+     * Batch fetched unary associations of entities being populated by current
+     * thread, keyed by target entity class and (string) key. Reader instances
+     * are shared, so these can not be held in an instance field.
+     */
+    private static final ThreadLocal<Map<Class<?>, Map<String, Object>>> batchFetched =
+            new ThreadLocal<Map<Class<?>, Map<String, Object>>>();
+
     /**
      * Retrieves an entity from ID
      * 
@@ -361,9 +374,19 @@ public class AbstractEntityReader
 
         if ((relationValue != null && relation.isUnary()) || (relation.isJoinedByPrimaryKey()))
         {
-            // Call it
-            Object relationEntity = pd.getClient(targetEntityMetadata).find(relation.getTargetEntity(),
-                    relationValue != null ? relationValue : entityId);
+            Object key = relationValue != null ? relationValue : entityId;
+            Map<String, Object> fetched = batchFetched.get() != null ? batchFetched.get().get(
+                    relation.getTargetEntity()) : null;
+            Object relationEntity;
+            if (fetched != null && fetched.containsKey(String.valueOf(key)))
+            {
+                relationEntity = copyOf(fetched.get(String.valueOf(key)), targetEntityMetadata);
+            }
+            else
+            {
+                // Call it
+                relationEntity = pd.getClient(targetEntityMetadata).find(relation.getTargetEntity(), key);
+            }
             if (relationEntity != null)
             {
                 relationalEntities.add(relationEntity);
@@ -409,6 +432,174 @@ public class AbstractEntityReader
 
     }
 
+    /**
+     * Returns populated entities along with all relational values, unary
+     * associations are batch fetched if
+     * {@link PersistenceProperties#KUNDERA_BATCH_FETCH_SIZE} is set.
+     * 
+     * @param entities
+     * @param m
+     * @param pd
+     * @param lazilyLoaded
+     * @return
+     */
+    public List<Object> recursivelyFindEntities(List<EnhanceEntity> entities, EntityMetadata m,
+            PersistenceDelegator pd, boolean lazilyLoaded)
+    {
+        int batchSize = getBatchFetchSize(m);
+        boolean batchFetch = batchSize > 0 && entities.size() > 1 && batchFetched.get() == null;
+        if (batchFetch)
+        {
+            batchFetched.set(batchFetchRelations(entities, m, pd, lazilyLoaded, batchSize));
+        }
+        try
+        {
+            List<Object> result = new ArrayList<Object>(entities.size());
+            for (EnhanceEntity ee : entities)
+            {
+                result.add(recursivelyFindEntities(ee.getEntity(), ee.getRelations(), m, pd, lazilyLoaded));
+            }
+            return result;
+        }
+        finally
+        {
+            if (batchFetch)
+            {
+                batchFetched.remove();
+            }
+        }
+    }
+
+    /**
+     * Fetches unary associations of given entities, with one findAll call per
+     * target entity for each batch of keys. Associations not found are held
+     * as null, so they are not looked up again one by one.
+     * 
+     * @param entities
+     *            enhance entities.
+     * @param m
+     *            entity metadata.
+     * @param pd
+     *            persistence delegator.
+     * @param lazilyLoaded
+     *            true if invoked over lazily fetched object.
+     * @param batchSize
+     *            maximum number of keys per findAll call.
+     * @return fetched associations, keyed by target entity class and key.
+     */
+    private Map<Class<?>, Map<String, Object>> batchFetchRelations(List<EnhanceEntity> entities, EntityMetadata m,
+            PersistenceDelegator pd, boolean lazilyLoaded, int batchSize)
+    {
+        Map<Class<?>, Map<String, Object>> fetched = new HashMap<Class<?>, Map<String, Object>>();
+        for (Relation relation : m.getRelations())
+        {
+            if (!relation.isUnary() || (!lazilyLoaded && relation.getFetchType().equals(FetchType.LAZY)))
+            {
+                continue;
+            }
+
+            Set<Object> keys = new LinkedHashSet<Object>();
+            for (EnhanceEntity ee : entities)
+            {
+                Object relationalObject = PropertyAccessorHelper.getObject(ee.getEntity(), relation.getProperty());
+                if (KunderaCoreUtils.isEmptyOrNull(relationalObject)
+                        || ProxyHelper.isProxyOrCollection(relationalObject))
+                {
+                    Object relationValue = ee.getRelations() != null ? ee.getRelations().get(
+                            relation.getJoinColumnName()) : null;
+                    Object key = relationValue != null ? relationValue : relation.isJoinedByPrimaryKey() ? ee
+                            .getEntityId() : null;
+                    if (key != null)
+                    {
+                        keys.add(key);
+                    }
+                }
+            }
+
+            if (keys.size() > 1)
+            {
+                EntityMetadata targetEntityMetadata = KunderaMetadataManager.getEntityMetadata(relation
+                        .getTargetEntity());
+                Map<String, Object> targets = fetched.get(relation.getTargetEntity());
+                if (targets == null)
+                {
+                    targets = new HashMap<String, Object>();
+                    fetched.put(relation.getTargetEntity(), targets);
+                }
+                batchFetch(pd.getClient(targetEntityMetadata), targetEntityMetadata, new ArrayList<Object>(keys),
+                        batchSize, targets);
+            }
+        }
+        return fetched;
+    }
+
+    private void batchFetch(Client client, EntityMetadata targetEntityMetadata, List<Object> keys, int batchSize,
+            Map<String, Object> targets)
+    {
+        for (int from = 0; from < keys.size(); from += batchSize)
+        {
+            List<Object> batch = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            List found = client.findAll(targetEntityMetadata.getEntityClazz(), null, batch.toArray());
+            if (found == null)
+            {
+                // Client does not support findAll, fetch one by one.
+                for (Object key : batch)
+                {
+                    targets.put(String.valueOf(key), client.find(targetEntityMetadata.getEntityClazz(), key));
+                }
+                continue;
+            }
+            for (Object key : batch)
+            {
+                targets.put(String.valueOf(key), null);
+            }
+            for (Object relationEntity : found)
+            {
+                if (relationEntity != null)
+                {
+                    targets.put(String.valueOf(getId(getEntity(relationEntity), targetEntityMetadata)),
+                            relationEntity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns copy of batch fetched association, as same association may be
+     * shared by more than one entity.
+     */
+    private Object copyOf(Object relationEntity, EntityMetadata targetEntityMetadata)
+    {
+        if (relationEntity == null)
+        {
+            return null;
+        }
+        Object entity = ObjectUtils.deepCopy(getEntity(relationEntity));
+        return relationEntity instanceof EnhanceEntity ? new EnhanceEntity(entity, getId(entity,
+                targetEntityMetadata), ((EnhanceEntity) relationEntity).getRelations()) : entity;
+    }
+
+    /**
+     * Returns configured batch fetch size for persistence unit of given
+     * entity.
+     */
+    private int getBatchFetchSize(EntityMetadata m)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(m.getPersistenceUnit());
+        String batchSize = puMetadata != null ? puMetadata.getProperty(PersistenceProperties.KUNDERA_BATCH_FETCH_SIZE)
+                : null;
+        try
+        {
+            return batchSize != null ? Integer.parseInt(batchSize.trim()) : 0;
+        }
+        catch (NumberFormatException nfe)
+        {
+            log.warn("Invalid value {} for {}, batch fetching is disabled.", batchSize,
+                    PersistenceProperties.KUNDERA_BATCH_FETCH_SIZE);
+            return 0;
+        }
+    }
+
     /**
      * Returns wrapped relations.
      * 
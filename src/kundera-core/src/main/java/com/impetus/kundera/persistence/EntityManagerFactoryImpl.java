@@ -41,11 +41,13 @@ import com.impetus.kundera.PersistenceUtilHelper;
 import com.impetus.kundera.cache.CacheException;
 import com.impetus.kundera.cache.CacheProvider;
 import com.impetus.kundera.cache.NonOperationalCacheProvider;
+import com.impetus.kundera.cache.SecondLevelCache;
 import com.impetus.kundera.client.ClientResolverException;
 import com.impetus.kundera.configure.ClientMetadataBuilder;
 import com.impetus.kundera.loader.ClientFactory;
 import com.impetus.kundera.loader.ClientLifeCycleManager;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.query.QueryPlanCache;
 
 /**
  * Implementation class for {@link EntityManagerFactory}
@@ -87,6 +89,12 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
     /** ClientFactory map holds one clientfactory for one persistence unit */
     private Map<String, ClientFactory> clientFactories = new ConcurrentHashMap<String, ClientFactory>();
 
+    /** Second level cache of cacheable entities. */
+    private SecondLevelCache secondLevelCache;
+
+    /** Parsed JPQL queries shared by entity managers of this factory. */
+    private QueryPlanCache queryPlanCache;
+
     /**
      * Use this if you want to construct this directly.
      * 
@@ -115,6 +123,10 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
         // Initialize L2 cache
         this.cacheProvider = initSecondLevelCache();
         this.cacheProvider.createCache(Constants.KUNDERA_SECONDARY_CACHE_NAME);
+        this.secondLevelCache = new SecondLevelCache(this.cacheProvider);
+
+        // Initialize query plan cache and pre-compile named queries
+        this.queryPlanCache = initQueryPlanCache();
 
         // Invoke Client Loaders
         // logger.info("Loading Client(s) For Persistence Unit(s) " +
@@ -164,6 +176,10 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
             closed = true;
 
             // Shut cache provider down
+            if (secondLevelCache != null)
+            {
+                secondLevelCache.shutdown();
+            }
             if (cacheProvider != null)
             {
                 cacheProvider.shutdown();
@@ -174,6 +190,10 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
                 ((ClientLifeCycleManager) clientFactories.get(pu)).destroy();
 //                KunderaMetadata.INSTANCE.unloadKunderaMetadata(pu);
             }
+            if (queryPlanCache != null)
+            {
+                queryPlanCache.clear();
+            }
             this.persistenceUnits = null;
             this.properties = null;
             clientFactories.clear();
@@ -312,7 +332,7 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
     {
         if (isOpen())
         {
-            return cacheProvider.getCache(Constants.KUNDERA_SECONDARY_CACHE_NAME);
+            return secondLevelCache;
         }
         throw new IllegalStateException("entity manager factory has been closed");
     }
@@ -390,6 +410,64 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
         return cacheProvider;
     }
 
+    /**
+     * Initializes query plan cache, sized as per
+     * {@link PersistenceProperties#KUNDERA_QUERY_PLAN_CACHE_SIZE}.
+     * 
+     * @return query plan cache or null, if disabled.
+     */
+    private QueryPlanCache initQueryPlanCache()
+    {
+        int size = QueryPlanCache.DEFAULT_SIZE;
+        Object cacheSize = getProperties().get(PersistenceProperties.KUNDERA_QUERY_PLAN_CACHE_SIZE);
+        if (cacheSize == null)
+        {
+            cacheSize = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnits[0]).getProperty(
+                    PersistenceProperties.KUNDERA_QUERY_PLAN_CACHE_SIZE);
+        }
+        if (cacheSize != null)
+        {
+            try
+            {
+                size = Integer.parseInt(cacheSize.toString().trim());
+            }
+            catch (NumberFormatException nfe)
+            {
+                logger.warn("Invalid value {} for {}, using default {}.", new Object[] { cacheSize,
+                        PersistenceProperties.KUNDERA_QUERY_PLAN_CACHE_SIZE, QueryPlanCache.DEFAULT_SIZE });
+            }
+        }
+
+        if (size <= 0)
+        {
+            return null;
+        }
+
+        QueryPlanCache planCache = new QueryPlanCache(size);
+        planCache.precompileNamedQueries(persistenceUnits);
+        return planCache;
+    }
+
+    /**
+     * Returns second level cache of this factory.
+     * 
+     * @return second level cache.
+     */
+    SecondLevelCache getSecondLevelCache()
+    {
+        return secondLevelCache;
+    }
+
+    /**
+     * Returns query plan cache of this factory.
+     * 
+     * @return query plan cache, null if disabled.
+     */
+    QueryPlanCache getQueryPlanCache()
+    {
+        return queryPlanCache;
+    }
+
     /**
      * Gets the persistence units.
      * 
@@ -130,6 +130,8 @@ public class EntityManagerImpl implements EntityManager, ResourceManager
         this.persistenceCache.setPersistenceContextType(persistenceContextType);
 
         this.persistenceDelegator = new PersistenceDelegator(this.persistenceCache);
+        this.persistenceDelegator.setQueryPlanCache(((EntityManagerFactoryImpl) this.factory).getQueryPlanCache());
+        this.persistenceDelegator.setSecondLevelCache(((EntityManagerFactoryImpl) this.factory).getSecondLevelCache());
 
         for (String pu : ((EntityManagerFactoryImpl) this.factory).getPersistenceUnits())
         {
@@ -73,6 +73,24 @@ public interface EntityReader
     Object recursivelyFindEntities(Object entity, Map<String, Object> relationsMap, EntityMetadata m,
             PersistenceDelegator pd, boolean lazilyLoaded);
 
+    /**
+     * Returns populated entities along with all relational values. If batch
+     * fetching is enabled, unary associations of all given entities are
+     * fetched in batches before entities are populated.
+     * 
+     * @param entities
+     *            enhance entities.
+     * @param m
+     *            entity meta data
+     * @param pd
+     *            persistence delegator.
+     * @param lazilyLoaded
+     *            true if invoked over lazily fetched object.
+     * @return populated entities.
+     */
+    List<Object> recursivelyFindEntities(List<EnhanceEntity> entities, EntityMetadata m, PersistenceDelegator pd,
+            boolean lazilyLoaded);
+
     /**
      * Find by id.
      * 
@@ -20,7 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.kundera.KunderaException;
 import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.cache.SecondLevelCache;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientPropertiesSetter;
 import com.impetus.kundera.client.ClientResolverException;
@@ -41,6 +42,7 @@ import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.graph.ObjectGraph;
 import com.impetus.kundera.graph.ObjectGraphBuilder;
 import com.impetus.kundera.graph.ObjectGraphUtils;
+import com.impetus.kundera.index.IndexManager;
 import com.impetus.kundera.lifecycle.states.ManagedState;
 import com.impetus.kundera.lifecycle.states.RemovedState;
 import com.impetus.kundera.lifecycle.states.TransientState;
@@ -58,7 +60,9 @@ import com.impetus.kundera.persistence.context.PersistenceCache;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData.OPERATION;
 import com.impetus.kundera.persistence.event.EntityEventDispatcher;
+import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.proxy.LazyInitializerFactory;
+import com.impetus.kundera.query.QueryPlanCache;
 import com.impetus.kundera.query.QueryResolver;
 import com.impetus.kundera.utils.ObjectUtils;
 
@@ -100,6 +104,15 @@ public final class PersistenceDelegator
 
     private Coordinator coordinator;
 
+    private boolean skipCopyOnRead;
+
+    /** Copy on read setting of each persistence unit, resolved once. */
+    private final Map<String, Boolean> puSkipCopyOnRead = new HashMap<String, Boolean>();
+
+    private QueryPlanCache queryPlanCache;
+
+    private SecondLevelCache secondLevelCache;
+
     /**
      * Instantiates a new persistence delegator.
      * 
@@ -232,19 +245,33 @@ public final class PersistenceDelegator
         // if node is not in persistence cache or is dirty, fetch from database
         if (node == null || node.isDirty())
         {
-            node = new Node(nodeId, entityClass, new ManagedState(), getPersistenceCache(), primaryKey);
-            node.setClient(getClient(entityMetadata));
-            // TODO ManagedState.java require serious attention.
-            node.setPersistenceDelegator(this);
-
-            try
+            Object cached = isSecondLevelCacheable(entityMetadata) ? secondLevelCache.get(entityClass, primaryKey)
+                    : null;
+            if (cached != null)
             {
-                lock.readLock().lock();
-                node.find();
+                node = onFoundNode(entityClass, primaryKey, getClient(entityMetadata), cached);
             }
-            finally
+            else
             {
-                lock.readLock().unlock();
+                node = new Node(nodeId, entityClass, new ManagedState(), getPersistenceCache(), primaryKey);
+                node.setClient(getClient(entityMetadata));
+                // TODO ManagedState.java require serious attention.
+                node.setPersistenceDelegator(this);
+
+                try
+                {
+                    lock.readLock().lock();
+                    node.find();
+                }
+                finally
+                {
+                    lock.readLock().unlock();
+                }
+
+                if (node.getData() != null && isSecondLevelCacheable(entityMetadata))
+                {
+                    secondLevelCache.put(entityClass, primaryKey, node.getData());
+                }
             }
         }
         Object nodeData = node.getData();
@@ -254,16 +281,18 @@ public final class PersistenceDelegator
         }
         else
         {
-            E e = (E) ObjectUtils.deepCopy(nodeData);
-            
-            onSetProxyOwners(entityMetadata,e);
-            return e;
+            return onFoundEntity(entityMetadata, (E) nodeData);
         }
 
     }
 
     /**
-     * Retrieves a {@link List} of Entities for given Primary Keys
+     * Retrieves a {@link List} of Entities for given Primary Keys. Keys already
+     * present in persistence cache are served from there, rest of them are
+     * fetched from database in a single {@link Client#findAll} call.
+     * Entities holding relations are still loaded one by one via
+     * {@link PersistenceDelegator#find(Class, Object)}, as association
+     * resolution is done by {@link EntityReader} per entity.
      * 
      * @param entityClass
      *            Entity Class
@@ -272,7 +301,6 @@ public final class PersistenceDelegator
      * @see {@link PersistenceDelegator#find(Class, Object)}
      * @return List of found entities
      */
-    // TODO Is it possible to pass all primary keys directly to database client.
     public <E> List<E> find(Class<E> entityClass, Object... primaryKeys)
     {
         List<E> entities = new ArrayList<E>();
@@ -280,16 +308,165 @@ public final class PersistenceDelegator
         {
             return entities;
         }
-        Set pKeys = new HashSet(Arrays.asList(primaryKeys));
+        Set pKeys = new LinkedHashSet(Arrays.asList(primaryKeys));
+
+        EntityMetadata entityMetadata = getMetadata(entityClass);
+        if (pKeys.size() <= 1 || !isBulkFindApplicable(entityMetadata))
+        {
+            for (Object primaryKey : pKeys)
+            {
+                E e = find(entityClass, primaryKey);
+                if (e != null)
+                    entities.add(e);
+            }
+            return entities;
+        }
+
+        MainCache mainCache = (MainCache) getPersistenceCache().getMainCache();
+        Client client = getClient(entityMetadata);
+        boolean isSecondLevelCacheable = isSecondLevelCacheable(entityMetadata);
+        List<Object> missingKeys = new ArrayList<Object>();
         for (Object primaryKey : pKeys)
         {
-            E e = find(entityClass, primaryKey);
-            if (e != null)
-                entities.add(e);
+            if (primaryKey == null)
+            {
+                throw new IllegalArgumentException("PrimaryKey value must not be null for object you want to find.");
+            }
+            Node node = mainCache.getNodeFromCache(ObjectGraphUtils.getNodeId(primaryKey, entityClass));
+            if (node == null || node.isDirty())
+            {
+                Object cached = isSecondLevelCacheable ? secondLevelCache.get(entityClass, primaryKey) : null;
+                if (cached != null)
+                {
+                    node = onFoundNode(entityClass, primaryKey, client, cached);
+                    entities.add(onFoundEntity(entityMetadata, (E) node.getData()));
+                }
+                else
+                {
+                    missingKeys.add(primaryKey);
+                }
+            }
+            else if (node.getData() != null)
+            {
+                entities.add(onFoundEntity(entityMetadata, (E) node.getData()));
+            }
+        }
+
+        if (!missingKeys.isEmpty())
+        {
+            List<E> results = null;
+            try
+            {
+                lock.readLock().lock();
+                results = client.findAll(entityClass, null, missingKeys.toArray());
+            }
+            finally
+            {
+                lock.readLock().unlock();
+            }
+
+            if (results == null)
+            {
+                // Client doesn't support bulk fetch, load one by one.
+                for (Object primaryKey : missingKeys)
+                {
+                    E e = find(entityClass, primaryKey);
+                    if (e != null)
+                        entities.add(e);
+                }
+            }
+            else
+            {
+                for (E result : results)
+                {
+                    if (result == null)
+                    {
+                        continue;
+                    }
+                    Object primaryKey = PropertyAccessorHelper.getId(result, entityMetadata);
+                    if (isSecondLevelCacheable)
+                    {
+                        secondLevelCache.put(entityClass, primaryKey, result);
+                    }
+                    Node node = onFoundNode(entityClass, primaryKey, client, result);
+                    entities.add(onFoundEntity(entityMetadata, (E) node.getData()));
+                }
+            }
         }
         return entities;
     }
 
+    /**
+     * Registers entity found outside of {@link Node#find()} (in bulk or from
+     * second level cache) as a managed node.
+     */
+    private Node onFoundNode(Class<?> entityClass, Object primaryKey, Client client, Object entity)
+    {
+        Node node = new Node(ObjectGraphUtils.getNodeId(primaryKey, entityClass), entityClass, new ManagedState(),
+                getPersistenceCache(), primaryKey);
+        node.setClient(client);
+        node.setPersistenceDelegator(this);
+        node.onBulkFind(entity);
+        return node;
+    }
+
+    /**
+     * Returns true, if entities of given metadata are held in second level
+     * cache.
+     */
+    private boolean isSecondLevelCacheable(EntityMetadata entityMetadata)
+    {
+        return secondLevelCache != null && secondLevelCache.isCacheable(entityMetadata);
+    }
+
+    /**
+     * Returns true, if entities of given metadata can be fetched in bulk, i.e.
+     * entity holds no relation (not even via join table).
+     * 
+     * @param entityMetadata
+     *            entity metadata.
+     * @return true, if bulk fetch is applicable.
+     */
+    private boolean isBulkFindApplicable(EntityMetadata entityMetadata)
+    {
+        return (entityMetadata.getRelationNames() == null || entityMetadata.getRelationNames().isEmpty())
+                && !entityMetadata.isRelationViaJoinTable();
+    }
+
+    /**
+     * Returns a detached copy of managed entity data with proxy owners set.
+     * Copy is skipped, if persistence context is marked as read only via
+     * {@link PersistenceProperties#KUNDERA_SKIP_COPY_ON_READ}.
+     */
+    private <E> E onFoundEntity(EntityMetadata entityMetadata, E nodeData)
+    {
+        E e = isSkipCopyOnRead(entityMetadata) ? nodeData : (E) ObjectUtils.deepCopy(nodeData);
+        onSetProxyOwners(entityMetadata, e);
+        return e;
+    }
+
+    /**
+     * Returns true, if copy on read is disabled either for this entity manager
+     * or for persistence unit of given entity.
+     */
+    private boolean isSkipCopyOnRead(EntityMetadata entityMetadata)
+    {
+        if (skipCopyOnRead)
+        {
+            return true;
+        }
+        String persistenceUnit = entityMetadata.getPersistenceUnit();
+        Boolean skip = puSkipCopyOnRead.get(persistenceUnit);
+        if (skip == null)
+        {
+            PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+            skip = puMetadata != null
+                    && Boolean.parseBoolean(puMetadata.getProperty(PersistenceProperties.KUNDERA_SKIP_COPY_ON_READ));
+            puSkipCopyOnRead.put(persistenceUnit, skip);
+        }
+        return skip;
+    }
+
     /**
      * Retrieves {@link List} of entities for a given {@link Map} of embedded
      * column values. Purpose of this method is to provide functionality of
@@ -397,6 +574,12 @@ public final class PersistenceDelegator
                     EntityMetadata metadata = getMetadata(node.getDataClass());
                     node.setClient(getClient(metadata));
 
+                    // Cached copy is stale from now on.
+                    if (isSecondLevelCacheable(metadata))
+                    {
+                        secondLevelCache.evict(node.getDataClass(), node.getEntityId());
+                    }
+
                     // if batch size is defined.
                     if ((node.getClient() instanceof Batcher) && ((Batcher) (node.getClient())).getBatchSize() > 0)
                     {
@@ -424,6 +607,11 @@ public final class PersistenceDelegator
                 flushJoinTableData();
                 // performed,
             }
+
+            if (!isTransactionInProgress)
+            {
+                flushIndexes();
+            }
         }
     }
 
@@ -488,6 +676,53 @@ public final class PersistenceDelegator
         }
     }
 
+    /**
+     * Synchronizes persistence context and second level cache with a bulk
+     * delete or update applied directly to datastore.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param entity
+     *            entity deleted or updated.
+     * @param removed
+     *            true, if entity has been deleted.
+     */
+    public void onBulkWrite(EntityMetadata m, Object entity, boolean removed)
+    {
+        if (isSecondLevelCacheable(m))
+        {
+            secondLevelCache.evict(m.getEntityClazz(), PropertyAccessorHelper.getId(entity, m));
+        }
+        if (removed)
+        {
+            detach(entity);
+        }
+    }
+
+    /**
+     * Synchronizes persistence context and second level cache with a bulk
+     * delete or update applied directly to datastore, without loading rows
+     * written. Any entity of given type may be stale, so they are all evicted
+     * and detached.
+     * 
+     * @param m
+     *            entity metadata.
+     */
+    public void onBulkWrite(EntityMetadata m)
+    {
+        if (isSecondLevelCacheable(m))
+        {
+            secondLevelCache.evict(m.getEntityClazz());
+        }
+        for (Node node : new ArrayList<Node>(getPersistenceCache().getMainCache().getAllNodes()))
+        {
+            if (m.getEntityClazz().equals(node.getDataClass()))
+            {
+                node.detach();
+            }
+        }
+    }
+
     /**
      * Gets the client.
      * 
@@ -545,7 +780,8 @@ public final class PersistenceDelegator
     
     private Query getQueryInstance(String jpaQuery, boolean isNative, Class mappedClass)
     {
-        Query query = new QueryResolver().getQueryImplementation(jpaQuery, this,mappedClass,isNative);
+        Query query = new QueryResolver(queryPlanCache).getQueryImplementation(jpaQuery, this, mappedClass,
+                isNative);
         return query;
     }
     /**
@@ -720,6 +956,7 @@ public final class PersistenceDelegator
         execute();
         flushManager.commit();
         flushManager.clearFlushStack();
+        flushIndexes();
         isTransactionInProgress = false;
         enableFlush = false;
     }
@@ -735,6 +972,7 @@ public final class PersistenceDelegator
         enableFlush = false;
         flushManager.commit();
         flushManager.clearFlushStack();
+        flushIndexes();
     }
 
     void rollback()
@@ -755,6 +993,11 @@ public final class PersistenceDelegator
     {
         if (properties != null && !properties.isEmpty())
         {
+            if (properties.containsKey(PersistenceProperties.KUNDERA_SKIP_COPY_ON_READ))
+            {
+                skipCopyOnRead = Boolean.parseBoolean(String.valueOf(properties
+                        .get(PersistenceProperties.KUNDERA_SKIP_COPY_ON_READ)));
+            }
             Map<String, Client> clientMap = getDelegate();
             if (clientMap != null && !clientMap.isEmpty())
             {
@@ -795,6 +1038,29 @@ public final class PersistenceDelegator
         }
     }
 
+    /**
+     * Sets parsed query cache shared across entity managers of a factory.
+     * 
+     * @param queryPlanCache
+     *            query plan cache, null to parse each query.
+     */
+    void setQueryPlanCache(QueryPlanCache queryPlanCache)
+    {
+        this.queryPlanCache = queryPlanCache;
+    }
+
+    /**
+     * Sets second level cache shared across entity managers of a factory.
+     * 
+     * @param secondLevelCache
+     *            second level cache.
+     */
+    void setSecondLevelCache(SecondLevelCache secondLevelCache)
+    {
+        this.secondLevelCache = secondLevelCache;
+        this.flushManager.setSecondLevelCache(secondLevelCache);
+    }
+
     /**
      * Returns map of client as delegate to entity manager.
      * 
@@ -826,6 +1092,25 @@ public final class PersistenceDelegator
         }
     }
 
+    /**
+     * Waits for index operations queued by clients indexing asynchronously,
+     * unless index durability is eventual.
+     */
+    private void flushIndexes()
+    {
+        if (clientMap != null)
+        {
+            for (Client client : clientMap.values())
+            {
+                IndexManager indexManager = client.getIndexManager();
+                if (indexManager != null && indexManager.isFlushOnCommit())
+                {
+                    indexManager.flush();
+                }
+            }
+        }
+    }
+
     /**
      * On flushing join table data
      */
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.persistence.api;
+
+import java.util.List;
+import java.util.Map;
+
+import com.impetus.kundera.metadata.model.EntityMetadata;
+
+/**
+ * API to apply JPQL bulk DELETE/UPDATE on many rows with one datastore call,
+ * bypassing persistence context and lifecycle callbacks as per JPA bulk
+ * operation semantics. Only used for entities without relations.
+ */
+public interface BulkWriter
+{
+
+    /**
+     * Deletes rows of given entities, along with their index entries.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param entities
+     *            entities to delete.
+     * @return number of rows deleted.
+     */
+    int deleteAll(EntityMetadata m, List<Object> entities);
+
+    /**
+     * Sets given column values on rows of given entities, along with their
+     * index entries. Entities already hold new values.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param entities
+     *            entities to update.
+     * @param values
+     *            new values of basic attributes, keyed by column name.
+     * @return number of rows updated.
+     */
+    int updateAll(EntityMetadata m, List<Object> entities, Map<String, Object> values);
+}
@@ -29,6 +29,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.kundera.cache.SecondLevelCache;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.graph.NodeLink;
@@ -72,6 +73,9 @@ public class FlushManager
     /** The Constant log. */
     private static final Logger log = LoggerFactory.getLogger(FlushManager.class);
 
+    /** Second level cache, invalidated on commit and rollback. */
+    private SecondLevelCache secondLevelCache;
+
     /**
      * Instantiates a new flush manager.
      */
@@ -373,6 +377,7 @@ public class FlushManager
                 {
                     EventLog event = iter.next();
                     Node node = event.getNode();
+                    evictFromSecondLevelCache(node);
                     if (node.isProcessed())
                     {
                         // One time set as required for rollback.
@@ -414,6 +419,7 @@ public class FlushManager
                 {
                     EventLog event = iter.next();
                     Node node = event.getNode();
+                    evictFromSecondLevelCache(node);
                     Class clazz = node.getDataClass();
                     EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(clazz);
                     Client client = delegator.getClient(metadata);
@@ -449,6 +455,34 @@ public class FlushManager
         eventCol = null;
     }
 
+    /**
+     * Sets second level cache to be invalidated for committed/rolled back
+     * nodes.
+     * 
+     * @param secondLevelCache
+     *            second level cache.
+     */
+    public void setSecondLevelCache(SecondLevelCache secondLevelCache)
+    {
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    /**
+     * Evicts entity held by given node from second level cache, if
+     * applicable.
+     * 
+     * @param node
+     *            data node.
+     */
+    private void evictFromSecondLevelCache(Node node)
+    {
+        if (secondLevelCache != null && node.getDataClass() != null
+                && secondLevelCache.isCacheable(KunderaMetadataManager.getEntityMetadata(node.getDataClass())))
+        {
+            secondLevelCache.evict(node.getDataClass(), node.getEntityId());
+        }
+    }
+
     /**
      * Adds the join table data into map.
      * 
@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.query;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.ClassUtils;
+
+import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.query.KunderaQuery.AggregateClause;
+import com.impetus.kundera.query.KunderaQuery.AggregateFunction;
+
+/**
+ * Streaming evaluator of aggregate queries. Entities are folded into one
+ * running accumulator per group as they are read, so memory is bound by
+ * number of groups and not by number of entities. Used by {@link QueryImpl}
+ * wherever aggregates can not be pushed down to the data store.
+ */
+public final class Aggregator
+{
+    /** Select items. */
+    private final List<AggregateClause> aggregates;
+
+    /** Grouped attributes. */
+    private final List<AggregateClause> groupings;
+
+    /** Accumulators per group key, in encounter order. */
+    private final Map<List<Object>, Accumulator[]> groups = new LinkedHashMap<List<Object>, Accumulator[]>();
+
+    /**
+     * Instantiates a new aggregator.
+     * 
+     * @param kunderaQuery
+     *            aggregate query.
+     */
+    public Aggregator(KunderaQuery kunderaQuery)
+    {
+        this.aggregates = kunderaQuery.getAggregateClauses();
+        this.groupings = kunderaQuery.getGroupingClauses();
+    }
+
+    /**
+     * Folds all entities of given iterator.
+     * 
+     * @param entities
+     *            entity iterator
+     * @return this aggregator
+     */
+    public Aggregator addAll(Iterator<?> entities)
+    {
+        while (entities.hasNext())
+        {
+            add(entities.next());
+        }
+        return this;
+    }
+
+    /**
+     * Folds an entity into accumulators of its group.
+     * 
+     * @param entity
+     *            entity
+     */
+    public void add(Object entity)
+    {
+        if (entity == null)
+        {
+            return;
+        }
+        List<Object> key = new ArrayList<Object>(groupings.size());
+        for (AggregateClause grouping : groupings)
+        {
+            key.add(PropertyAccessorHelper.getObject(entity, grouping.getField()));
+        }
+
+        Accumulator[] accumulators = groups.get(key);
+        if (accumulators == null)
+        {
+            accumulators = newAccumulators();
+            groups.put(key, accumulators);
+        }
+
+        for (int i = 0; i < accumulators.length; i++)
+        {
+            AggregateClause aggregate = aggregates.get(i);
+            if (aggregate.getFunction() != null)
+            {
+                accumulators[i].add(aggregate.getField() != null ? PropertyAccessorHelper.getObject(entity,
+                        aggregate.getField()) : entity);
+            }
+        }
+    }
+
+    private Accumulator[] newAccumulators()
+    {
+        Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        for (int i = 0; i < accumulators.length; i++)
+        {
+            accumulators[i] = new Accumulator(aggregates.get(i).getFunction());
+        }
+        return accumulators;
+    }
+
+    /**
+     * Returns one result per group, a single value if query selects one item
+     * else an Object[] in select order. Ungrouped query always returns one
+     * result, as in SQL.
+     * 
+     * @return aggregate results
+     */
+    public List<Object> getResults()
+    {
+        if (groups.isEmpty() && groupings.isEmpty())
+        {
+            groups.put(Collections.<Object> emptyList(), newAccumulators());
+        }
+
+        List<Object[]> rows = new ArrayList<Object[]>(groups.size());
+        for (Map.Entry<List<Object>, Accumulator[]> group : groups.entrySet())
+        {
+            Object[] row = new Object[aggregates.size()];
+            for (int i = 0; i < row.length; i++)
+            {
+                AggregateClause aggregate = aggregates.get(i);
+                row[i] = aggregate.getFunction() != null ? group.getValue()[i].getResult() : group.getKey().get(
+                        groupings.indexOf(aggregate));
+            }
+            rows.add(row);
+        }
+        return toResultList(rows);
+    }
+
+    /**
+     * Converts rows to query results, unwrapping single item rows.
+     * 
+     * @param rows
+     *            rows in select order
+     * @return query results
+     */
+    public static List<Object> toResultList(List<Object[]> rows)
+    {
+        List<Object> results = new ArrayList<Object>(rows.size());
+        for (Object[] row : rows)
+        {
+            results.add(row.length == 1 ? row[0] : row);
+        }
+        return results;
+    }
+
+    /**
+     * Converts a value computed by data store to JPA result type of given
+     * item, i.e. Long for COUNT, Double for AVG, Long/Double/BigInteger/
+     * BigDecimal for SUM and attribute type otherwise.
+     * 
+     * @param aggregate
+     *            select item
+     * @param value
+     *            store value
+     * @return result value
+     */
+    public static Object toResultValue(AggregateClause aggregate, Object value)
+    {
+        if (value == null)
+        {
+            return aggregate.getFunction() == AggregateFunction.COUNT ? Long.valueOf(0) : null;
+        }
+        if (aggregate.getFunction() == AggregateFunction.COUNT)
+        {
+            return ((Number) value).longValue();
+        }
+        if (aggregate.getFunction() == AggregateFunction.AVG)
+        {
+            return ((Number) value).doubleValue();
+        }
+        if (aggregate.getFunction() == AggregateFunction.SUM)
+        {
+            return sum(null, toSumType(aggregate.getJavaType(), (Number) value));
+        }
+        Class<?> type = ClassUtils.primitiveToWrapper(aggregate.getJavaType());
+        if (type.isInstance(value))
+        {
+            return value;
+        }
+        // e.g. MIN/MAX over int attribute computed as double by data store.
+        if (value instanceof Number && Number.class.isAssignableFrom(type))
+        {
+            return toNumberType(type, (Number) value);
+        }
+        return PropertyAccessorHelper.fromSourceToTargetClass(aggregate.getJavaType(), value.getClass(), value);
+    }
+
+    /**
+     * Converts a number to given wrapper type.
+     */
+    private static Number toNumberType(Class<?> type, Number value)
+    {
+        if (Integer.class.equals(type))
+        {
+            return value.intValue();
+        }
+        if (Long.class.equals(type))
+        {
+            return value.longValue();
+        }
+        if (Short.class.equals(type))
+        {
+            return value.shortValue();
+        }
+        if (Byte.class.equals(type))
+        {
+            return value.byteValue();
+        }
+        if (Float.class.equals(type))
+        {
+            return value.floatValue();
+        }
+        if (Double.class.equals(type))
+        {
+            return value.doubleValue();
+        }
+        if (BigDecimal.class.equals(type))
+        {
+            return new BigDecimal(value.toString());
+        }
+        if (BigInteger.class.equals(type))
+        {
+            return new BigDecimal(value.toString()).toBigInteger();
+        }
+        return value;
+    }
+
+    /**
+     * Converts a number to SUM result type of attribute type.
+     */
+    private static Number toSumType(Class<?> javaType, Number value)
+    {
+        Class<?> type = ClassUtils.primitiveToWrapper(javaType);
+        if (BigDecimal.class.equals(type))
+        {
+            return value instanceof BigDecimal ? value : new BigDecimal(value.toString());
+        }
+        if (BigInteger.class.equals(type))
+        {
+            return value instanceof BigInteger ? value : new BigDecimal(value.toString()).toBigInteger();
+        }
+        if (Double.class.equals(type) || Float.class.equals(type))
+        {
+            return value.doubleValue();
+        }
+        return value.longValue();
+    }
+
+    /**
+     * Adds a value to running sum, result has type of JPA SUM over value type.
+     */
+    private static Number sum(Number total, Number value)
+    {
+        if (value instanceof BigDecimal)
+        {
+            return total != null ? ((BigDecimal) total).add((BigDecimal) value) : value;
+        }
+        if (value instanceof BigInteger)
+        {
+            return total != null ? ((BigInteger) total).add((BigInteger) value) : value;
+        }
+        if (value instanceof Double || value instanceof Float)
+        {
+            return (total != null ? total.doubleValue() : 0) + value.doubleValue();
+        }
+        return (total != null ? total.longValue() : 0) + value.longValue();
+    }
+
+    /**
+     * Running state of one aggregate function.
+     */
+    private static final class Accumulator
+    {
+        private final AggregateFunction function;
+
+        private long count;
+
+        /** running sum or extreme. */
+        private Object value;
+
+        private Accumulator(AggregateFunction function)
+        {
+            this.function = function;
+        }
+
+        private void add(Object value)
+        {
+            if (value == null || function == null)
+            {
+                return;
+            }
+            count++;
+            switch (function)
+            {
+            case SUM:
+            case AVG:
+                this.value = sum((Number) this.value, (Number) value);
+                break;
+            case MIN:
+                if (this.value == null || compare(value, this.value) < 0)
+                {
+                    this.value = value;
+                }
+                break;
+            case MAX:
+                if (this.value == null || compare(value, this.value) > 0)
+                {
+                    this.value = value;
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        private Object getResult()
+        {
+            switch (function)
+            {
+            case COUNT:
+                return count;
+            case AVG:
+                return count > 0 ? ((Number) value).doubleValue() / count : null;
+            default:
+                return value;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static int compare(Object o1, Object o2)
+        {
+            return ((Comparable<Object>) o1).compareTo(o2);
+        }
+    }
+}
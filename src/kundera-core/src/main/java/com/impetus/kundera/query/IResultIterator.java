@@ -23,6 +23,9 @@ import java.util.List;
  * 
  * Iterator interface extends {@link Iterator}. Databases(e.g. Cassandra,HBase etc) implementation to implement {@link IResultIterator} 
  * for pagination/scrolling support. 
+ * 
+ * An iterator returns at most fetch size entities if fetch size is set on query, else at most max results entities
+ * (see {@link QueryImpl#getIterationLimit()}). Number of entities fetched per round trip is up to implementation.
  *
  */
 public interface IResultIterator<E> extends Iterator<E>
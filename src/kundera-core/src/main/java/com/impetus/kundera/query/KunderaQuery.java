@@ -15,10 +15,12 @@
  ******************************************************************************/
 package com.impetus.kundera.query;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +36,7 @@ import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.Metamodel;
 
+import org.apache.commons.lang.ClassUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.slf4j.Logger;
@@ -112,6 +115,12 @@ public class KunderaQuery
 
     private TypedParameter typedParameter;
 
+    /** Aggregate expressions and grouped attributes of select clause. */
+    private List<AggregateClause> aggregateClauses = new ArrayList<AggregateClause>();
+
+    /** Grouped attributes of GROUP BY clause. */
+    private List<AggregateClause> groupingClauses = new ArrayList<AggregateClause>();
+
     boolean isNativeQuery;
 
     /**
@@ -132,6 +141,54 @@ public class KunderaQuery
      */
     public void setGrouping(String groupingClause)
     {
+        StringTokenizer tokenizer = new StringTokenizer(groupingClause, ",");
+        while (tokenizer.hasMoreTokens())
+        {
+            groupingClauses.add(new AggregateClause(null, tokenizer.nextToken().trim()));
+        }
+    }
+
+    /**
+     * Adds an item of an aggregate select clause.
+     * 
+     * @param function
+     *            aggregate function, or null for a grouped attribute.
+     * @param property
+     *            alias or alias qualified attribute name.
+     */
+    public void addAggregateClause(AggregateFunction function, String property)
+    {
+        aggregateClauses.add(new AggregateClause(function, property.trim()));
+    }
+
+    /**
+     * Gets the aggregate select clause, in select order.
+     * 
+     * @return aggregate clauses
+     */
+    public List<AggregateClause> getAggregateClauses()
+    {
+        return aggregateClauses;
+    }
+
+    /**
+     * Gets the grouped attributes, in GROUP BY order.
+     * 
+     * @return grouping clauses
+     */
+    public List<AggregateClause> getGroupingClauses()
+    {
+        return groupingClauses;
+    }
+
+    /**
+     * Method to check if query selects aggregates or groups its result.
+     * 
+     * @return true, if query is an aggregate query.
+     */
+    public boolean isAggregated()
+    {
+        return !aggregateClauses.isEmpty();
     }
 
     /**
@@ -344,6 +401,50 @@ public class KunderaQuery
         initEntityClass();
         initFilter();
         initUpdateClause();
+        initAggregateClauses();
+    }
+
+    /**
+     * Resolves aggregated and grouped attributes and verifies that every non
+     * aggregated select item is grouped.
+     */
+    private void initAggregateClauses()
+    {
+        if (aggregateClauses.isEmpty() && groupingClauses.isEmpty())
+        {
+            return;
+        }
+
+        // select p.a from P p group by p.a, selected attributes are grouped.
+        if (aggregateClauses.isEmpty())
+        {
+            if (isAliasOnly())
+            {
+                throw new JPQLParseException("Bad query format: " + entityAlias
+                        + " must be an aggregate or a grouped attribute");
+            }
+            for (int i = 1; i < result.length; i++)
+            {
+                aggregateClauses.add(new AggregateClause(null, entityAlias + "." + result[i].trim()));
+            }
+            result = new String[] { entityAlias };
+        }
+
+        EntityType entityType = KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(getPersistenceUnit())
+                .entity(entityClass);
+        for (AggregateClause clause : groupingClauses)
+        {
+            clause.init(entityType);
+        }
+        for (AggregateClause clause : aggregateClauses)
+        {
+            clause.init(entityType);
+            if (clause.getFunction() == null && !groupingClauses.contains(clause))
+            {
+                throw new JPQLParseException("Bad query format: " + clause.getProperty()
+                        + " must be an aggregate or a grouped attribute");
+            }
+        }
     }
 
     /**
@@ -506,6 +607,13 @@ public class KunderaQuery
                     {
                         columnName = property;
                     }
+                    // or over attribute of related entity, for clients able
+                    // to traverse relations(i.e. graph databases).
+                    else if (metadata.getRelation(property.substring(0, property.indexOf("."))) != null
+                            && MetadataUtils.isGraphClient(persistenceUnit))
+                    {
+                        columnName = property;
+                    }
                 }
 
                 String condition = tokens.get(1);
@@ -793,6 +901,172 @@ public class KunderaQuery
         return filtersQueue;
     }
 
+    /**
+     * Aggregate functions of select clause.
+     */
+    public enum AggregateFunction
+    {
+        /** The COUNT. */
+        COUNT,
+        /** The SUM. */
+        SUM,
+        /** The MIN. */
+        MIN,
+        /** The MAX. */
+        MAX,
+        /** The AVG. */
+        AVG;
+    }
+
+    /**
+     * Item of an aggregate query, an aggregate function over an attribute
+     * (entity alias for COUNT) or a grouped attribute.
+     */
+    public final class AggregateClause
+    {
+        /** aggregate function, null for grouped attribute. */
+        private AggregateFunction function;
+
+        /** alias or alias qualified attribute name. */
+        private String property;
+
+        /** resolved attribute, null for entity alias. */
+        private AbstractAttribute attribute;
+
+        /**
+         * Instantiates a new aggregate clause.
+         * 
+         * @param function
+         *            the function
+         * @param property
+         *            the property
+         */
+        public AggregateClause(AggregateFunction function, String property)
+        {
+            this.function = function;
+            this.property = property;
+        }
+
+        private void init(EntityType entityType)
+        {
+            if (property.equals(entityAlias))
+            {
+                if (function != AggregateFunction.COUNT)
+                {
+                    throw new JPQLParseException("Bad query format: " + this + ", only COUNT applies to " + entityAlias);
+                }
+                return;
+            }
+            if (!property.startsWith(entityAlias + "."))
+            {
+                throw new QueryHandlerException("bad query format with invalid alias:" + property);
+            }
+            String fieldName = property.substring((entityAlias + ".").length());
+            try
+            {
+                attribute = (AbstractAttribute) entityType.getAttribute(fieldName);
+            }
+            catch (IllegalArgumentException iaex)
+            {
+                throw new JPQLParseException("No attribute found by name: " + fieldName + " in " + this);
+            }
+            if (attribute.isAssociation()
+                    || attribute.getPersistentAttributeType().equals(Attribute.PersistentAttributeType.EMBEDDED)
+                    || attribute.isCollection())
+            {
+                throw new JPQLParseException("Bad query format: " + this + ", only basic attributes are aggregated");
+            }
+            if ((function == AggregateFunction.SUM || function == AggregateFunction.AVG)
+                    && !Number.class.isAssignableFrom(ClassUtils.primitiveToWrapper(getJavaType())))
+            {
+                throw new JPQLParseException("Bad query format: " + this + ", " + function
+                        + " applies to numeric attributes only");
+            }
+        }
+
+        /**
+         * Gets the function.
+         * 
+         * @return aggregate function, null for grouped attribute
+         */
+        public AggregateFunction getFunction()
+        {
+            return function;
+        }
+
+        /**
+         * Gets the property.
+         * 
+         * @return alias or alias qualified attribute name
+         */
+        public String getProperty()
+        {
+            return property;
+        }
+
+        /**
+         * Gets the column name.
+         * 
+         * @return JPA column name, null for COUNT over entity alias
+         */
+        public String getColumnName()
+        {
+            return attribute != null ? attribute.getJPAColumnName() : null;
+        }
+
+        /**
+         * Gets the field.
+         * 
+         * @return attribute field, null for COUNT over entity alias
+         */
+        public Field getField()
+        {
+            return attribute != null ? (Field) attribute.getJavaMember() : null;
+        }
+
+        /**
+         * Gets the java type.
+         * 
+         * @return attribute java type, null for COUNT over entity alias
+         */
+        public Class<?> getJavaType()
+        {
+            return attribute != null ? attribute.getBindableJavaType() : null;
+        }
+
+        /* (non-Javadoc)
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof AggregateClause))
+            {
+                return false;
+            }
+            AggregateClause other = (AggregateClause) obj;
+            return function == other.function && property.equals(other.property);
+        }
+
+        /* (non-Javadoc)
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode()
+        {
+            return new HashCodeBuilder().append(function).append(property).toHashCode();
+        }
+
+        /* (non-Javadoc)
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString()
+        {
+            return function != null ? function + "(" + property + ")" : property;
+        }
+    }
+
     // class to keep hold of a where clause predicate
     /**
      * The Class FilterClause.
@@ -928,6 +1202,79 @@ public class KunderaQuery
 
     }
 
+    /**
+     * Returns a copy of this parsed query, sharing immutable parse results
+     * (entity, ordering, JPA parameters) but holding its own filter and update
+     * clauses, so that parameters can be bound to it independently.
+     * 
+     * @return copy of parsed query.
+     */
+    KunderaQuery copy()
+    {
+        KunderaQuery copy = new KunderaQuery();
+        copy.result = result;
+        copy.from = from;
+        copy.filter = filter;
+        copy.ordering = ordering;
+        copy.entityName = entityName;
+        copy.entityAlias = entityAlias;
+        copy.entityClass = entityClass;
+        copy.sortOrders = sortOrders;
+        copy.persistenceUnit = persistenceUnit;
+        copy.isDeleteUpdate = isDeleteUpdate;
+        copy.isNativeQuery = isNativeQuery;
+        copy.aggregateClauses = aggregateClauses;
+        copy.groupingClauses = groupingClauses;
+
+        Map<Object, Object> copiedClauses = new IdentityHashMap<Object, Object>();
+        for (Object clause : filtersQueue)
+        {
+            if (clause instanceof FilterClause)
+            {
+                FilterClause filterClause = (FilterClause) clause;
+                FilterClause copiedClause = copy.new FilterClause(filterClause.property, filterClause.condition, null);
+                copiedClause.value = filterClause.value;
+                copiedClauses.put(filterClause, copiedClause);
+                copy.filtersQueue.add(copiedClause);
+            }
+            else
+            {
+                copy.filtersQueue.add(clause);
+            }
+        }
+
+        for (UpdateClause updateClause : updateClauseQueue)
+        {
+            UpdateClause copiedClause = copy.new UpdateClause(updateClause.property, null);
+            copiedClause.value = updateClause.value;
+            copiedClauses.put(updateClause, copiedClause);
+            copy.updateClauseQueue.add(copiedClause);
+        }
+
+        if (typedParameter != null)
+        {
+            copy.typedParameter = copy.new TypedParameter(typedParameter.type);
+            copy.typedParameter.jpaParameters = typedParameter.jpaParameters;
+            if (typedParameter.parameters != null)
+            {
+                for (Map.Entry<String, FilterClause> entry : typedParameter.parameters.entrySet())
+                {
+                    copy.typedParameter.addParameters(entry.getKey(),
+                            (FilterClause) copiedClauses.get(entry.getValue()));
+                }
+            }
+            if (typedParameter.updateParameters != null)
+            {
+                for (Map.Entry<String, UpdateClause> entry : typedParameter.updateParameters.entrySet())
+                {
+                    copy.typedParameter.addParameters(entry.getKey(),
+                            (UpdateClause) copiedClauses.get(entry.getValue()));
+                }
+            }
+        }
+        return copy;
+    }
+
     /* @see java.lang.Object#clone() */
     /*
      * (non-Javadoc)
@@ -16,6 +16,10 @@
 package com.impetus.kundera.query;
 
 import java.util.StringTokenizer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.impetus.kundera.query.KunderaQuery.AggregateFunction;
 
 /**
  * Parser for handling JPQL Single-String queries. Takes a JPQLQuery and the
@@ -37,6 +41,13 @@ import java.util.StringTokenizer;
  */
 public class KunderaQueryParser
 {
+    /** Aggregate function call within select clause. */
+    private static final Pattern AGGREGATE_FUNCTION_PATTERN = Pattern.compile("\\b(COUNT|SUM|MIN|MAX|AVG)\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Aggregate expression, e.g. SUM(p.salary). */
+    private static final Pattern AGGREGATE_EXPRESSION_PATTERN = Pattern.compile(
+            "(COUNT|SUM|MIN|MAX|AVG)\\s*\\(\\s*([^()\\s]+)\\s*\\)", Pattern.CASE_INSENSITIVE);
 
     /** The JPQL query to populate. */
     private KunderaQuery query;
@@ -106,8 +117,6 @@ public class KunderaQueryParser
         /** The tokenizer. */
         private Parser tokenizer;
 
-        // Temporary variable since grouping clause is made up of GROUP BY ...
-        // HAVING ...
         /** The grouping clause. */
         private String groupingClause;
 
@@ -227,7 +236,11 @@ public class KunderaQueryParser
             String[] result = null;
             int count = 0;
             // content may be empty
-            if (content.length() > 0)
+            if (content.length() > 0 && AGGREGATE_FUNCTION_PATTERN.matcher(content).find())
+            {
+                compileAggregateResult(content);
+            }
+            else if (content.length() > 0)
             {
                 StringTokenizer stringTokenizer = new StringTokenizer(content, ",");
                 result = new String[stringTokenizer.countTokens() + 1];
@@ -263,6 +276,46 @@ public class KunderaQueryParser
             }
         }
 
+        /**
+         * Compile select clause made up of aggregate expressions and grouped
+         * attributes. Result is set to entity alias, as aggregates are
+         * computed over entities.
+         * 
+         * @param content
+         *            select clause
+         */
+        private void compileAggregateResult(String content)
+        {
+            String alias = null;
+            StringTokenizer stringTokenizer = new StringTokenizer(content, ",");
+            while (stringTokenizer.hasMoreTokens())
+            {
+                String item = stringTokenizer.nextToken().trim();
+                Matcher matcher = AGGREGATE_EXPRESSION_PATTERN.matcher(item);
+                AggregateFunction function = null;
+                String property = item;
+                if (matcher.matches())
+                {
+                    function = AggregateFunction.valueOf(matcher.group(1).toUpperCase());
+                    property = matcher.group(2);
+                }
+                else if (AGGREGATE_FUNCTION_PATTERN.matcher(item).find() || property.indexOf(".") <= 0)
+                {
+                    throw new JPQLParseException("Bad query format: " + item
+                            + " must be an aggregate or a grouped attribute");
+                }
+
+                String itemAlias = property.indexOf(".") > 0 ? property.substring(0, property.indexOf(".")) : property;
+                if (alias != null && !alias.equals(itemAlias))
+                {
+                    throw new JPQLParseException("Bad query format");
+                }
+                alias = itemAlias;
+                query.addAggregateClause(function, property);
+            }
+            query.setResult(alias);
+        }
+
         /**
          * Compile from.
          */
@@ -374,14 +427,7 @@ public class KunderaQueryParser
             {
                 throw new JPQLParseException("keyword without value: HAVING");
             }
-            if (groupingClause != null)
-            {
-                groupingClause = groupingClause.trim() + content;
-            }
-            else
-            {
-                groupingClause = content;
-            }
+            throw new JPQLParseException("HAVING is not supported: " + content);
         }
 
         /**
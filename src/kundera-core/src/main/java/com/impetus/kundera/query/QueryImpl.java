@@ -57,6 +57,8 @@ import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.metadata.model.type.DefaultEntityType;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.persistence.api.BulkWriter;
+import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.KunderaQuery.UpdateClause;
@@ -82,6 +84,9 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
     /** The log. */
     private static Logger log = LoggerFactory.getLogger(QueryImpl.class);
 
+    /** Maximum number of rows deleted/updated with one bulk call. */
+    private static final int BULK_WRITE_SIZE = 1000;
+
     private Set<Parameter<?>> parameters;
 
     private Map<String, Object> hints = new HashMap<String, Object>();
@@ -146,6 +151,12 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
         EntityMetadata m = getEntityMetadata();
         Client client = persistenceDelegeator.getClient(m);
 
+        if (kunderaQuery.isAggregated())
+        {
+            results = aggregate(m, client);
+            return results.size() > maxResult ? results.subList(0, maxResult) : results;
+        }
+
         handlePostEvent(m);
         
         if (!m.isRelationViaJoinTable() && (m.getRelationNames() == null || (m.getRelationNames().isEmpty())))
@@ -188,25 +199,19 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
         // if it contain a relation means it is a child
         // if it does not then it means it is a parent.
         List<Object> result = null;
-        if (enhanceEntities != null)
+        if (enhanceEntities != null && !enhanceEntities.isEmpty())
         {
+            List<EnhanceEntity> ees = new ArrayList<EnhanceEntity>(enhanceEntities.size());
             for (Object e : enhanceEntities)
             {
-                if (result == null)
-                {
-                    result = new ArrayList<Object>(enhanceEntities.size());
-                }
-
                 if (!(e instanceof EnhanceEntity))
                 {
                     e = new EnhanceEntity(e, PropertyAccessorHelper.getId(e, m), null);
                 }
-
-                EnhanceEntity ee = (EnhanceEntity) e;
-
-                result.add(getReader().recursivelyFindEntities(ee.getEntity(), ee.getRelations(), m,
-                        persistenceDelegeator,false));
+                ees.add((EnhanceEntity) e);
             }
+
+            result = getReader().recursivelyFindEntities(ees, m, persistenceDelegeator, false);
         }
 
         return result;
@@ -447,6 +452,54 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
 
     protected abstract List<Object> recursivelyPopulateEntities(EntityMetadata m, Client client);
 
+    /**
+     * Evaluates an aggregate query. Entities are streamed through
+     * {@link #iterate()} into an {@link Aggregator}, or loaded in full where
+     * iteration is not supported. Queries able to compute aggregates within
+     * data store override it and fall back to it for unsupported cases.
+     * 
+     * @param m
+     *            entity metadata
+     * @param client
+     *            the client
+     * @return one result per group
+     */
+    protected List<Object> aggregate(EntityMetadata m, Client client)
+    {
+        // max results limits groups, not entities being aggregated, so all
+        // matching entities are iterated over.
+        int maxResults = maxResult;
+        Integer fetchSize = getFetchSize();
+        setFetchSize(null);
+        maxResult = Integer.MAX_VALUE;
+        try
+        {
+            Iterator<Object> entities = null;
+            try
+            {
+                entities = iterate();
+            }
+            catch (UnsupportedOperationException e)
+            {
+                log.debug("Iteration not supported for query {}, aggregating over loaded entities.", query);
+            }
+
+            if (entities == null)
+            {
+                List<Object> loaded = !m.isRelationViaJoinTable()
+                        && (m.getRelationNames() == null || (m.getRelationNames().isEmpty())) ? populateEntities(m,
+                        client) : recursivelyPopulateEntities(m, client);
+                entities = loaded != null ? loaded.iterator() : new ArrayList<Object>().iterator();
+            }
+            return new Aggregator(kunderaQuery).addAll(entities).getResults();
+        }
+        finally
+        {
+            maxResult = maxResults;
+            setFetchSize(fetchSize);
+        }
+    }
+
     /**
      * Method returns entity reader.
      * 
@@ -487,6 +540,81 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
         return m;
     }
 
+    /**
+     * Deletes or updates all entities matching query. Entities are streamed
+     * through {@link #iterate()} and written page by page, or loaded in full
+     * where iteration is not supported. Queries able to delete or update
+     * within data store override {@link #onExecuteUpdate()} and fall back to
+     * it for unsupported cases.
+     * 
+     * @param m
+     *            entity metadata
+     * @param client
+     *            the client
+     * @return number of entities deleted or updated.
+     */
+    protected int deleteOrUpdate(EntityMetadata m, Client client)
+    {
+        // bulk delete/update applies to all matching entities, whatever max
+        // results is.
+        int maxResults = maxResult;
+        Integer fetchSize = getFetchSize();
+        setFetchSize(null);
+        maxResult = Integer.MAX_VALUE;
+        try
+        {
+            Iterator<Object> entities = null;
+            try
+            {
+                entities = iterateForDeleteOrUpdate();
+            }
+            catch (UnsupportedOperationException e)
+            {
+                log.debug("Iteration not supported for query {}, deleting/updating loaded entities.", query);
+            }
+
+            if (entities == null)
+            {
+                List<Object> loaded = !m.isRelationViaJoinTable()
+                        && (m.getRelationNames() == null || (m.getRelationNames().isEmpty())) ? populateEntities(m,
+                        client) : recursivelyPopulateEntities(m, client);
+                entities = loaded != null ? loaded.iterator() : new ArrayList<Object>().iterator();
+            }
+
+            int count = 0;
+            List<Object> page = new ArrayList<Object>(BULK_WRITE_SIZE);
+            while (entities.hasNext())
+            {
+                page.add(entities.next());
+                if (page.size() == BULK_WRITE_SIZE)
+                {
+                    onDeleteOrUpdate(page);
+                    count += page.size();
+                    page.clear();
+                }
+            }
+            onDeleteOrUpdate(page);
+            return count + page.size();
+        }
+        finally
+        {
+            maxResult = maxResults;
+            setFetchSize(fetchSize);
+        }
+    }
+
+    /**
+     * Returns iterator over entities to be deleted or updated, by default
+     * {@link #iterate()}. Queries whose iteration can not resume once rows
+     * read are deleted return null, to load entities in full.
+     * 
+     * @return iterator, or null.
+     */
+    protected Iterator<Object> iterateForDeleteOrUpdate()
+    {
+        return iterate();
+    }
+
     /**
      * Performs delete or update based on query.
      * 
@@ -498,7 +626,13 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
 
         if (results != null)
         {
-            if (!kunderaQuery.isUpdateClause())
+            EntityMetadata m = getEntityMetadata();
+            Client client = persistenceDelegeator.getClient(m);
+            if (client instanceof BulkWriter && isBulkWritable(m))
+            {
+                onBulkDeleteOrUpdate(results, m, (BulkWriter) client);
+            }
+            else if (!kunderaQuery.isUpdateClause())
             {
                 // then case of delete
                 for (Object result : results)
@@ -535,7 +669,6 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
                             {
                                 PropertyAccessorHelper.set(result, (Field) attribute.getJavaMember(), c.getValue());
                             }
-                            persistenceDelegeator.merge(result);
                         }
                         catch (IllegalArgumentException iax)
                         {
@@ -544,9 +677,132 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
                             throw new QueryHandlerException("Error while executing query: " + iax);
                         }
                     }
+                    // merged once, with all update clauses applied.
+                    persistenceDelegeator.merge(result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true, if delete/update on given entity can be applied in bulk,
+     * i.e. entity holds no relation or counter and only basic attributes are
+     * updated.
+     * 
+     * @param m
+     *            entity metadata.
+     * @return true, if bulk writable.
+     */
+    protected boolean isBulkWritable(EntityMetadata m)
+    {
+        if (m.isRelationViaJoinTable() || (m.getRelationNames() != null && !m.getRelationNames().isEmpty())
+                || m.isCounterColumnType())
+        {
+            return false;
+        }
+
+        EntityType entityType = KunderaMetadata.INSTANCE.getApplicationMetadata()
+                .getMetamodel(m.getPersistenceUnit()).entity(m.getEntityClazz());
+        for (UpdateClause c : kunderaQuery.getUpdateClauseQueue())
+        {
+            Attribute attribute;
+            try
+            {
+                attribute = entityType.getAttribute(c.getProperty());
+            }
+            catch (IllegalArgumentException iax)
+            {
+                // reported by per entity update.
+                return false;
+            }
+            if (!Attribute.PersistentAttributeType.BASIC.equals(attribute.getPersistentAttributeType())
+                    || attribute.equals(m.getIdAttribute()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes or updates query results with bulk calls on client, in chunks of
+     * {@link #BULK_WRITE_SIZE}.
+     * 
+     * @param results
+     *            list of objects to be updated/deleted.
+     * @param m
+     *            entity metadata.
+     * @param writer
+     *            client able to write in bulk.
+     */
+    private void onBulkDeleteOrUpdate(List results, EntityMetadata m, BulkWriter writer)
+    {
+        if (results.isEmpty())
+        {
+            return;
+        }
+
+        Map<String, Object> values = null;
+        if (kunderaQuery.isUpdateClause())
+        {
+            values = getUpdateValues(m);
+            EntityType entityType = KunderaMetadata.INSTANCE.getApplicationMetadata()
+                    .getMetamodel(m.getPersistenceUnit()).entity(m.getEntityClazz());
+            for (UpdateClause c : kunderaQuery.getUpdateClauseQueue())
+            {
+                Attribute attribute = entityType.getAttribute(c.getProperty());
+                Object value = values.get(((AbstractAttribute) attribute).getJPAColumnName());
+                for (Object result : results)
+                {
+                    PropertyAccessorHelper.set(result, (Field) attribute.getJavaMember(), value);
                 }
             }
         }
+
+        for (int from = 0; from < results.size(); from += BULK_WRITE_SIZE)
+        {
+            List<Object> chunk = results.subList(from, Math.min(from + BULK_WRITE_SIZE, results.size()));
+            if (values == null)
+            {
+                writer.deleteAll(m, chunk);
+            }
+            else
+            {
+                writer.updateAll(m, chunk, values);
+            }
+            for (Object result : chunk)
+            {
+                persistenceDelegeator.onBulkWrite(m, result, values == null);
+            }
+        }
+    }
+
+    /**
+     * Returns values set by update clause, converted to attribute types and
+     * keyed by column name.
+     * 
+     * @param m
+     *            entity metadata.
+     * @return new values of updated attributes.
+     */
+    protected Map<String, Object> getUpdateValues(EntityMetadata m)
+    {
+        EntityType entityType = KunderaMetadata.INSTANCE.getApplicationMetadata()
+                .getMetamodel(m.getPersistenceUnit()).entity(m.getEntityClazz());
+        Map<String, Object> values = new HashMap<String, Object>();
+        for (UpdateClause c : kunderaQuery.getUpdateClauseQueue())
+        {
+            Attribute attribute = entityType.getAttribute(c.getProperty());
+            Field field = (Field) attribute.getJavaMember();
+            Object value = c.getValue();
+            if (value instanceof String)
+            {
+                value = PropertyAccessorFactory.getPropertyAccessor(field).fromString(field.getType(),
+                        value.toString());
+            }
+            values.put(((AbstractAttribute) attribute).getJPAColumnName(), value);
+        }
+        return values;
     }
 
     /************************* Methods from {@link Query} interface *******************************/
@@ -1096,6 +1352,18 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
         return this.fetchSize;
     }
 
+    /**
+     * Returns maximum number of entities returned by {@link #iterate()}, which
+     * is fetch size if set, else max results. Iterators may fetch entities in
+     * pages of any size, but never return more than this.
+     * 
+     * @return iteration limit.
+     */
+    protected int getIterationLimit()
+    {
+        return fetchSize != null ? fetchSize : maxResult;
+    }
+
     public abstract void close();
     
     public abstract <E> Iterator<E> iterate();
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.impetus.kundera.metadata.model.ApplicationMetadata;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+
+/**
+ * Bounded cache of parsed JPQL queries, one per entity manager factory.
+ * Cached {@link KunderaQuery} instances are never handed out directly, each
+ * lookup returns a copy holding its own parameter bindings.
+ */
+public final class QueryPlanCache
+{
+    /** The log. */
+    private static Logger log = LoggerFactory.getLogger(QueryPlanCache.class);
+
+    /** Default number of parsed queries held. */
+    public static final int DEFAULT_SIZE = 256;
+
+    private final Cache<String, KunderaQuery> plans;
+
+    /**
+     * Instantiates query plan cache.
+     *
+     * @param maxSize
+     *            maximum number of parsed queries held.
+     */
+    public QueryPlanCache(int maxSize)
+    {
+        this.plans = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns parsed query for given JPQL, parsing and caching it on first
+     * access.
+     *
+     * @param jpql
+     *            JPQL query.
+     * @return parsed query, ready for parameter binding.
+     */
+    public KunderaQuery getQuery(String jpql)
+    {
+        KunderaQuery plan = plans.getIfPresent(jpql);
+        if (plan == null)
+        {
+            plan = parse(jpql);
+            plans.put(jpql, plan);
+        }
+        return plan.copy();
+    }
+
+    /**
+     * Parses and caches all named (non native) queries mapped to given
+     * persistence units.
+     *
+     * @param persistenceUnits
+     *            persistence units of entity manager factory.
+     */
+    public void precompileNamedQueries(String[] persistenceUnits)
+    {
+        ApplicationMetadata appMetadata = KunderaMetadata.INSTANCE.getApplicationMetadata();
+        Set<String> queryNames = appMetadata.getQueryNames();
+        List<String> pus = Arrays.asList(persistenceUnits);
+        for (String queryName : queryNames)
+        {
+            if (!appMetadata.isNative(queryName))
+            {
+                String jpql = appMetadata.getQuery(queryName);
+                try
+                {
+                    KunderaQuery plan = parse(jpql);
+                    if (pus.contains(plan.getPersistenceUnit()))
+                    {
+                        plans.put(jpql, plan);
+                    }
+                }
+                catch (RuntimeException e)
+                {
+                    // Query will be parsed (and error reported) on first use.
+                    if (log.isDebugEnabled())
+                    {
+                        log.debug("Skipping pre-compilation of named query {}, Caused by: {}.", queryName,
+                                e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns number of parsed queries held.
+     *
+     * @return size of cache.
+     */
+    public long size()
+    {
+        return plans.size();
+    }
+
+    /**
+     * Removes all parsed queries.
+     */
+    public void clear()
+    {
+        plans.invalidateAll();
+    }
+
+    private KunderaQuery parse(String jpql)
+    {
+        KunderaQuery kunderaQuery = new KunderaQuery();
+        KunderaQueryParser parser = new KunderaQueryParser(kunderaQuery, jpql);
+        parser.parse();
+        kunderaQuery.postParsingInit();
+        return kunderaQuery;
+    }
+}
@@ -42,6 +42,25 @@ public class QueryResolver
     /** The log. */
     private static Logger log = LoggerFactory.getLogger(QueryResolver.class);
 
+    /** Parsed query cache, may be null. */
+    private final QueryPlanCache queryPlanCache;
+
+    public QueryResolver()
+    {
+        this(null);
+    }
+
+    /**
+     * Instantiates query resolver, reusing parsed queries from given cache.
+     * 
+     * @param queryPlanCache
+     *            query plan cache, null to parse each query.
+     */
+    public QueryResolver(QueryPlanCache queryPlanCache)
+    {
+        this.queryPlanCache = queryPlanCache;
+    }
+
     /**
      * Gets the query implementation.
      * 
@@ -60,7 +79,7 @@ public class QueryResolver
         {
             throw new QueryHandlerException("Query String should not be null ");
         }
-        KunderaQuery kunderaQuery = new KunderaQuery();
+        KunderaQuery kunderaQuery = null;
         ApplicationMetadata appMetadata = KunderaMetadata.INSTANCE.getApplicationMetadata();
         String mappedQuery = appMetadata.getQuery(jpaQuery);
 
@@ -74,12 +93,20 @@ public class QueryResolver
         // In case of named native query
         if (!isNative)
         {
-            KunderaQueryParser parser = new KunderaQueryParser(kunderaQuery, mappedQuery != null ? mappedQuery
-                    : jpaQuery);
+            String jpql = mappedQuery != null ? mappedQuery : jpaQuery;
+            if (queryPlanCache != null)
+            {
+                kunderaQuery = queryPlanCache.getQuery(jpql);
+            }
+            else
+            {
+                kunderaQuery = new KunderaQuery();
+                KunderaQueryParser parser = new KunderaQueryParser(kunderaQuery, jpql);
 
-            parser.parse();
+                parser.parse();
 
-            kunderaQuery.postParsingInit();
+                kunderaQuery.postParsingInit();
+            }
             // pu = kunderaQuery.getPersistenceUnit();
             m = kunderaQuery.getEntityMetadata();
         }
@@ -94,6 +121,7 @@ public class QueryResolver
 
             // pu = appMetadata.getMappedPersistenceUnit(mappedClass).get(0);
             
+            kunderaQuery = new KunderaQuery();
             kunderaQuery.isNativeQuery = true;
             m = KunderaMetadataManager.getEntityMetadata(mappedClass);
 
@@ -0,0 +1,419 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.utils.KunderaThreadFactory;
+
+/**
+ * Executes idempotent reads with an optional deadline and speculative retry:
+ * if a read has not completed within its speculation delay, a second request
+ * is issued and whichever answers first is taken. Speculation delay is either
+ * fixed or a percentile of latencies recently observed for the same
+ * operation. Shared by all clients of a factory.
+ * 
+ * Reads run on a bounded pool: requests abandoned on deadline or lost to their
+ * speculative twin keep running until their connection answers or times out,
+ * so they hold at most as many connections as pool has threads. Once pool is
+ * exhausted, speculation is skipped and reads run on caller's thread.
+ * 
+ * @see PersistenceProperties#KUNDERA_SPECULATIVE_RETRY
+ * @see PersistenceProperties#KUNDERA_READ_TIMEOUT
+ */
+public final class SpeculativeReadExecutor
+{
+    /** The logger. */
+    private static Logger logger = LoggerFactory.getLogger(SpeculativeReadExecutor.class);
+
+    /** Default bound of reads running on pool, abandoned ones included. */
+    public static final int DEFAULT_MAX_THREADS = 64;
+
+    /** Number of latencies kept per operation. */
+    private static final int SAMPLES = 1024;
+
+    /** Percentiles are not computed before these many latencies are known. */
+    private static final int MIN_SAMPLES = 100;
+
+    /** Number of latencies added between two percentile computations. */
+    private static final int REFRESH_INTERVAL = 64;
+
+    /** Runs reads executed with a deadline or speculation. */
+    private final ExecutorService executor;
+
+    private final ConcurrentMap<String, LatencySamples> latencies = new ConcurrentHashMap<String, LatencySamples>();
+
+    /**
+     * Creates an executor running at most {@link #DEFAULT_MAX_THREADS} reads.
+     */
+    public SpeculativeReadExecutor()
+    {
+        this(DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * Creates an executor running at most given number of reads, idle threads
+     * are released after a minute.
+     * 
+     * @param maxThreads
+     *            bound of reads running on pool.
+     */
+    public SpeculativeReadExecutor(int maxThreads)
+    {
+        executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                new KunderaThreadFactory(SpeculativeReadExecutor.class.getName()));
+    }
+
+    /**
+     * A read, executed once or twice if speculated.
+     */
+    public interface Read<T>
+    {
+        /**
+         * @param speculative
+         *            true for second request, which should go to another host
+         *            than first one.
+         * @return read result.
+         * @throws Exception
+         */
+        T execute(boolean speculative) throws Exception;
+    }
+
+    /**
+     * Executes given read. Read is executed by caller if neither speculation
+     * nor deadline apply, or if pool is exhausted.
+     * 
+     * @param operation
+     *            name of operation, latencies are tracked per operation.
+     * @param read
+     *            read to execute.
+     * @param retry
+     *            speculative retry setting.
+     * @param timeoutMillis
+     *            deadline of read in milliseconds, 0 for none.
+     * @param speculate
+     *            false if there is nowhere else to send second request.
+     * @return result of first successful request.
+     * @throws TimeoutException
+     *             if no request completed within deadline.
+     * @throws Exception
+     *             failure of last failed request.
+     */
+    public <T> T execute(String operation, Read<T> read, SpeculativeRetry retry, long timeoutMillis,
+            boolean speculate) throws Exception
+    {
+        if (!retry.isEnabled() && timeoutMillis <= 0)
+        {
+            return read.execute(false);
+        }
+
+        LatencySamples samples = getSamples(operation);
+        long start = System.nanoTime();
+        long timeout = timeoutMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        long delay = speculate ? retry.getDelay(samples) : -1;
+        if (timeout > 0 && delay >= timeout)
+        {
+            delay = -1;
+        }
+
+        CompletionService<T> completion = new ExecutorCompletionService<T>(executor);
+        List<Future<T>> attempts = new ArrayList<Future<T>>(2);
+        try
+        {
+            attempts.add(completion.submit(newAttempt(read, false, samples)));
+        }
+        catch (RejectedExecutionException reex)
+        {
+            logger.debug("Read pool exhausted, executing {} without deadline on caller's thread.", operation);
+            return newAttempt(read, false, samples).call();
+        }
+        try
+        {
+            Exception failure = null;
+            int pending = 1;
+            while (pending > 0)
+            {
+                long elapsed = System.nanoTime() - start;
+                Future<T> done;
+                if (delay >= 0 && attempts.size() == 1)
+                {
+                    done = completion.poll(delay - elapsed, TimeUnit.NANOSECONDS);
+                    if (done == null)
+                    {
+                        try
+                        {
+                            attempts.add(completion.submit(newAttempt(read, true, samples)));
+                            pending++;
+                        }
+                        catch (RejectedExecutionException reex)
+                        {
+                            logger.debug("Read pool exhausted, {} is not retried speculatively.", operation);
+                            delay = -1;
+                        }
+                        continue;
+                    }
+                }
+                else if (timeout > 0)
+                {
+                    done = completion.poll(timeout - elapsed, TimeUnit.NANOSECONDS);
+                    if (done == null)
+                    {
+                        throw new TimeoutException("Read " + operation + " did not complete within " + timeoutMillis
+                                + " ms.");
+                    }
+                }
+                else
+                {
+                    done = completion.take();
+                }
+
+                pending--;
+                try
+                {
+                    return done.get();
+                }
+                catch (ExecutionException eex)
+                {
+                    failure = eex.getCause() instanceof Exception ? (Exception) eex.getCause() : eex;
+                }
+            }
+            throw failure;
+        }
+        finally
+        {
+            // Requests still running release their connections on completion,
+            // their number is bounded by pool size.
+            for (Future<T> attempt : attempts)
+            {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting reads, reads still running complete on their own.
+     */
+    public void shutdown()
+    {
+        executor.shutdown();
+    }
+
+    private <T> Callable<T> newAttempt(final Read<T> read, final boolean speculative, final LatencySamples samples)
+    {
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                long start = System.nanoTime();
+                T result = read.execute(speculative);
+                samples.add(System.nanoTime() - start);
+                return result;
+            }
+        };
+    }
+
+    private LatencySamples getSamples(String operation)
+    {
+        LatencySamples samples = latencies.get(operation);
+        if (samples == null)
+        {
+            LatencySamples newSamples = new LatencySamples();
+            samples = latencies.putIfAbsent(operation, newSamples);
+            if (samples == null)
+            {
+                samples = newSamples;
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Returns given percentile of latencies recently observed for given
+     * operation.
+     * 
+     * @param operation
+     *            operation name.
+     * @param percentile
+     *            percentile, in (0, 100].
+     * @return latency in nanoseconds, -1 if not enough latencies are known.
+     */
+    public long getLatency(String operation, double percentile)
+    {
+        return getSamples(operation).percentile(percentile);
+    }
+
+    /**
+     * Latest latencies of an operation, overwritten in a ring.
+     */
+    private static final class LatencySamples
+    {
+        private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong sortedAt = new AtomicLong(-REFRESH_INTERVAL);
+
+        /** Sorted copy of samples, refreshed every refresh interval. */
+        private volatile long[] sorted;
+
+        void add(long nanos)
+        {
+            samples.set((int) (count.getAndIncrement() % SAMPLES), nanos);
+        }
+
+        long percentile(double percentile)
+        {
+            long n = count.get();
+            if (n < MIN_SAMPLES)
+            {
+                return -1;
+            }
+            long last = sortedAt.get();
+            if (n - last >= REFRESH_INTERVAL && sortedAt.compareAndSet(last, n))
+            {
+                long[] copy = new long[(int) Math.min(n, SAMPLES)];
+                for (int i = 0; i < copy.length; i++)
+                {
+                    copy[i] = samples.get(i);
+                }
+                Arrays.sort(copy);
+                sorted = copy;
+            }
+
+            long[] current = sorted;
+            if (current == null)
+            {
+                return -1;
+            }
+            int index = (int) Math.ceil(percentile / 100 * current.length) - 1;
+            return current[Math.max(0, Math.min(current.length - 1, index))];
+        }
+    }
+
+    /**
+     * Speculative retry setting, parsed from "NONE", "&lt;n&gt;percentile" or
+     * "&lt;n&gt;ms".
+     */
+    public static final class SpeculativeRetry
+    {
+        public static final SpeculativeRetry NONE = new SpeculativeRetry(0, -1);
+
+        private static final String PERCENTILE = "percentile";
+
+        private static final String MILLIS = "ms";
+
+        private final double percentile;
+
+        private final long delay;
+
+        private SpeculativeRetry(double percentile, long delay)
+        {
+            this.percentile = percentile;
+            this.delay = delay;
+        }
+
+        /**
+         * Parses given setting.
+         * 
+         * @param value
+         *            setting, null or blank for {@link #NONE}.
+         * @return speculative retry.
+         * @throws IllegalArgumentException
+         *             if setting is malformed.
+         */
+        public static SpeculativeRetry valueOf(String value)
+        {
+            String retry = value != null ? value.trim().toLowerCase() : null;
+            if (StringUtils.isBlank(retry) || "none".equals(retry))
+            {
+                return NONE;
+            }
+            try
+            {
+                if (retry.endsWith(PERCENTILE))
+                {
+                    double percentile = Double.parseDouble(StringUtils.removeEnd(retry, PERCENTILE).trim());
+                    if (percentile > 0 && percentile <= 100)
+                    {
+                        return new SpeculativeRetry(percentile, -1);
+                    }
+                }
+                else if (retry.endsWith(MILLIS))
+                {
+                    long millis = Long.parseLong(StringUtils.removeEnd(retry, MILLIS).trim());
+                    if (millis >= 0)
+                    {
+                        return new SpeculativeRetry(0, TimeUnit.MILLISECONDS.toNanos(millis));
+                    }
+                }
+            }
+            catch (NumberFormatException nfex)
+            {
+                // reported below.
+            }
+            throw new IllegalArgumentException(PersistenceProperties.KUNDERA_SPECULATIVE_RETRY
+                    + " must be NONE, <n>percentile or <n>ms, but was " + value + ".");
+        }
+
+        public boolean isEnabled()
+        {
+            return percentile > 0 || delay >= 0;
+        }
+
+        /**
+         * @return speculation delay in nanoseconds, -1 if not known yet or
+         *         disabled.
+         */
+        long getDelay(LatencySamples samples)
+        {
+            return percentile > 0 ? samples.percentile(percentile) : delay;
+        }
+
+        @Override
+        public String toString()
+        {
+            if (percentile > 0)
+            {
+                return (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String
+                        .valueOf(percentile)) + PERCENTILE;
+            }
+            return delay >= 0 ? TimeUnit.NANOSECONDS.toMillis(delay) + MILLIS : "NONE";
+        }
+    }
+}
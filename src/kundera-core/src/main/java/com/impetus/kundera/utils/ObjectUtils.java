@@ -18,6 +18,10 @@ package com.impetus.kundera.utils;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,6 +29,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.ElementCollection;
 import javax.persistence.Embedded;
@@ -60,9 +66,17 @@ public class ObjectUtils
     /** The log. */
     private static Logger log = LoggerFactory.getLogger(ObjectUtils.class);
 
+    /** Types whose instances are immutable and hence shared instead of copied. */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.asList(new Class<?>[] {
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class }));
+
+    /** Per entity class copy plan, computed once from metamodel. */
+    private static final ConcurrentMap<Class<?>, CopyPlan> copyPlans = new ConcurrentHashMap<Class<?>, CopyPlan>();
+
     public static final Object deepCopy(Object source)
     {
-        Map<Object, Object> copiedObjectMap = new HashMap<Object, Object>();
+        Map<Class<?>, Map<Object, Object>> copiedObjectMap = new HashMap<Class<?>, Map<Object, Object>>();
 
         Object target = deepCopyUsingMetadata(source, copiedObjectMap);
 
@@ -78,7 +92,7 @@ public class ObjectUtils
      *            TODO
      * @return
      */
-    private static Object deepCopyUsingMetadata(Object source, Map<Object, Object> copiedObjectMap)
+    private static Object deepCopyUsingMetadata(Object source, Map<Class<?>, Map<Object, Object>> copiedObjectMap)
     {
         Object target = null;
         try
@@ -87,29 +101,31 @@ public class ObjectUtils
                 return null;
 
             Class<?> sourceObjectClass = source.getClass();
-            EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(sourceObjectClass);
-            if (metadata == null)
+            CopyPlan plan = getCopyPlan(sourceObjectClass);
+            if (plan == null)
             {
 
                 return source;
             }
 
-            MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
-                    metadata.getPersistenceUnit());
-
-            EntityType entityType = metaModel.entity(sourceObjectClass);
+            EntityMetadata metadata = plan.metadata;
+            MetamodelImpl metaModel = plan.metaModel;
 
             // May break for mapped super class.
 
             Object id = null;
-            if (metadata.getRelations() != null && !metadata.getRelations().isEmpty())
+            Map<Object, Object> copiedObjectsOfClass = null;
+            if (plan.hasRelations)
             {
                 id = PropertyAccessorHelper.getId(source, metadata);
 
-                StringBuilder keyBuilder = new StringBuilder(sourceObjectClass.getName());
-                keyBuilder.append("#");
-                keyBuilder.append(id);
-                Object copiedObjectInMap = copiedObjectMap.get(keyBuilder.toString());
+                copiedObjectsOfClass = copiedObjectMap.get(sourceObjectClass);
+                if (copiedObjectsOfClass == null)
+                {
+                    copiedObjectsOfClass = new HashMap<Object, Object>();
+                    copiedObjectMap.put(sourceObjectClass, copiedObjectsOfClass);
+                }
+                Object copiedObjectInMap = id != null ? copiedObjectsOfClass.get(id) : null;
                 if (copiedObjectInMap != null)
                 {
                     return copiedObjectInMap;
@@ -119,158 +135,154 @@ public class ObjectUtils
 
             target = sourceObjectClass.newInstance();
 
-            Iterator<Attribute> iter = entityType.getAttributes().iterator();
-            while (iter.hasNext())
+            // Basic attributes are copied using pre-resolved accessors.
+            for (int i = 0; i < plan.basicFields.length; i++)
             {
-                Attribute attrib = iter.next();
+                Field columnField = plan.basicFields[i];
+                Object value = columnField.get(source);
+                if (value != null && !plan.basicFieldImmutable[i])
+                {
+                    value = plan.basicFieldAccessors[i].getCopy(value);
+                }
+                columnField.set(target, value);
+            }
 
+            for (Attribute attrib : plan.embeddedAttributes)
+            {
                 Field columnField = (Field) attrib.getJavaMember();
-                if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.EMBEDDED)
-                        || attrib.getPersistentAttributeType().equals(PersistentAttributeType.ELEMENT_COLLECTION))
-                {
-                    EmbeddableType embeddedColumn = metaModel.embeddable(((AbstractAttribute) attrib)
-                            .getBindableJavaType());                   
-                    
+                EmbeddableType embeddedColumn = metaModel.embeddable(((AbstractAttribute) attrib)
+                        .getBindableJavaType());                   
+                
 
-                    Object sourceEmbeddedObj = PropertyAccessorHelper.getObject(source, columnField);
-                    if (sourceEmbeddedObj != null)
+                Object sourceEmbeddedObj = PropertyAccessorHelper.getObject(source, columnField);
+                if (sourceEmbeddedObj != null)
+                {
+                    if (columnField.getAnnotation(Embedded.class) != null)
                     {
-                        if (columnField.getAnnotation(Embedded.class) != null)
-                        {
-                            // Copy embedded objects
-                            Class<?> embeddedColumnClass = columnField.getType();
-                            Object targetEmbeddedObj = embeddedColumnClass.newInstance();
+                        // Copy embedded objects
+                        Class<?> embeddedColumnClass = columnField.getType();
+                        Object targetEmbeddedObj = embeddedColumnClass.newInstance();
 
-                            Set<Attribute> columns = embeddedColumn.getAttributes();
-                            for (Attribute column : columns)
-                            {
-
-                                PropertyAccessorHelper.set(
-                                        targetEmbeddedObj,
-                                        (Field) column.getJavaMember(),
-                                        PropertyAccessorHelper.getObjectCopy(sourceEmbeddedObj,
-                                                (Field) column.getJavaMember()));
-                            }
+                        Set<Attribute> columns = embeddedColumn.getAttributes();
+                        for (Attribute column : columns)
+                        {
 
-                            PropertyAccessorHelper.set(target, columnField, targetEmbeddedObj);
+                            PropertyAccessorHelper.set(
+                                    targetEmbeddedObj,
+                                    (Field) column.getJavaMember(),
+                                    PropertyAccessorHelper.getObjectCopy(sourceEmbeddedObj,
+                                            (Field) column.getJavaMember()));
                         }
-                        else if (columnField.getAnnotation(ElementCollection.class) != null)
+
+                        PropertyAccessorHelper.set(target, columnField, targetEmbeddedObj);
+                    }
+                    else if (columnField.getAnnotation(ElementCollection.class) != null)
+                    {
+                        Class<?> ecDeclaredClass = columnField.getType();
+                        Class<?> actualEcObjectClass = sourceEmbeddedObj.getClass();
+                        
+                        Object targetCollectionObject;                                
+                        targetCollectionObject = actualEcObjectClass.newInstance();
+                        
+                        // Copy element collections for List and Set
+                        if (sourceEmbeddedObj instanceof Collection)
                         {
-                            Class<?> ecDeclaredClass = columnField.getType();
-                            Class<?> actualEcObjectClass = sourceEmbeddedObj.getClass();
-                            
-                            Object targetCollectionObject;                                
-                            targetCollectionObject = actualEcObjectClass.newInstance();
                             
-                            // Copy element collections for List and Set
-                            if (sourceEmbeddedObj instanceof Collection)
-                            {
-                                
-                                Class<?> genericClass = PropertyAccessorHelper.getGenericClass(columnField);                              
+                            Class<?> genericClass = PropertyAccessorHelper.getGenericClass(columnField);                              
 
-                                for (Object sourceEcObj : (Collection) sourceEmbeddedObj)
+                            for (Object sourceEcObj : (Collection) sourceEmbeddedObj)
+                            {
+                                Object targetEcObj = null;                                    
+                                if(PersistenceType.BASIC.equals(embeddedColumn.getPersistenceType()))
                                 {
-                                    Object targetEcObj = null;                                    
-                                    if(PersistenceType.BASIC.equals(embeddedColumn.getPersistenceType()))
+                                    PropertyAccessor accessor = PropertyAccessorFactory.getPropertyAccessor(sourceEcObj.getClass());
+                                    if(accessor != null)
                                     {
-                                        PropertyAccessor accessor = PropertyAccessorFactory.getPropertyAccessor(sourceEcObj.getClass());
-                                        if(accessor != null)
-                                        {
-                                            targetEcObj = accessor.getCopy(sourceEcObj);
-                                        }
+                                        targetEcObj = accessor.getCopy(sourceEcObj);
                                     }
+                                }
+                                
+                                else if (PersistenceType.EMBEDDABLE.equals(embeddedColumn.getPersistenceType()))
+                                {
+                                    targetEcObj = genericClass.newInstance();
                                     
-                                    else if (PersistenceType.EMBEDDABLE.equals(embeddedColumn.getPersistenceType()))
+                                    for (Field f : genericClass.getDeclaredFields())
                                     {
-                                        targetEcObj = genericClass.newInstance();
-                                        
-                                        for (Field f : genericClass.getDeclaredFields())
+                                        if (f != null && !Modifier.isStatic(f.getModifiers()))
                                         {
-                                            if (f != null && !Modifier.isStatic(f.getModifiers()))
-                                            {
-                                                PropertyAccessorHelper.set(targetEcObj, f,
-                                                        PropertyAccessorHelper.getObjectCopy(sourceEcObj, f));
-                                            }                                            
-                                        }      
-                                        
-                                    }    
+                                            PropertyAccessorHelper.set(targetEcObj, f,
+                                                    PropertyAccessorHelper.getObjectCopy(sourceEcObj, f));
+                                        }                                            
+                                    }      
                                     
-                                    if (List.class.isAssignableFrom(ecDeclaredClass))
-                                    {
-                                        Method m = actualEcObjectClass.getMethod("add", Object.class);
-                                        m.invoke(targetCollectionObject, targetEcObj);
-                                        
-                                    }
-                                    else if (Set.class.isAssignableFrom(ecDeclaredClass))
-                                    {
-                                        Method m = actualEcObjectClass.getMethod("add", Object.class);
-                                        m.invoke(targetCollectionObject, targetEcObj);
-                                    }
-
-                                }
+                                }    
                                 
+                                if (List.class.isAssignableFrom(ecDeclaredClass))
+                                {
+                                    Method m = actualEcObjectClass.getMethod("add", Object.class);
+                                    m.invoke(targetCollectionObject, targetEcObj);
+                                    
+                                }
+                                else if (Set.class.isAssignableFrom(ecDeclaredClass))
+                                {
+                                    Method m = actualEcObjectClass.getMethod("add", Object.class);
+                                    m.invoke(targetCollectionObject, targetEcObj);
+                                }
+
                             }
                             
-                            //Copy element collection for Map
-                            else if(sourceEmbeddedObj instanceof Map)
-                            {                               
-                                
-                                for (Object sourceKey : ((Map) sourceEmbeddedObj).keySet())
+                        }
+                        
+                        //Copy element collection for Map
+                        else if(sourceEmbeddedObj instanceof Map)
+                        {                               
+                            
+                            for (Object sourceKey : ((Map) sourceEmbeddedObj).keySet())
+                            {
+                                Object targetKey = null;  
+                                Object targetValue = null; 
+                                if(PersistenceType.BASIC.equals(embeddedColumn.getPersistenceType()))
                                 {
-                                    Object targetKey = null;  
-                                    Object targetValue = null; 
-                                    if(PersistenceType.BASIC.equals(embeddedColumn.getPersistenceType()))
+                                    //Create copy of map key
+                                    PropertyAccessor keyAccessor = PropertyAccessorFactory.getPropertyAccessor(sourceKey.getClass());
+                                    if(keyAccessor != null)
                                     {
-                                        //Create copy of map key
-                                        PropertyAccessor keyAccessor = PropertyAccessorFactory.getPropertyAccessor(sourceKey.getClass());
-                                        if(keyAccessor != null)
-                                        {
-                                            targetKey = keyAccessor.getCopy(sourceKey);
-                                        }
-                                        
-                                        //Create copy of map value
-                                        Object sourceValue = ((Map) sourceEmbeddedObj).get(sourceKey);
-                                        PropertyAccessor valueAccessor = PropertyAccessorFactory.getPropertyAccessor(sourceValue.getClass());
-                                        if(valueAccessor != null)
-                                        {
-                                            targetValue = valueAccessor.getCopy(sourceValue);
-                                        }
-                                        
-                                        if (Map.class.isAssignableFrom(ecDeclaredClass))
-                                        {
-                                            Method m = actualEcObjectClass.getMethod("put", new Class[]{Object.class, Object.class});
-                                            m.invoke(targetCollectionObject, new Object[]{targetKey, targetValue});
-                                        }
+                                        targetKey = keyAccessor.getCopy(sourceKey);
                                     }
-                                }                                                            
-                            }
-                            
-                            PropertyAccessorHelper.set(target, columnField, targetCollectionObject);
-                            
-                        }
-                        else if (columnField.getAnnotation(javax.persistence.Column.class) != null)
-                        {
-                            // Copy columns
-                            PropertyAccessorHelper.set(target, columnField, sourceEmbeddedObj);
+                                    
+                                    //Create copy of map value
+                                    Object sourceValue = ((Map) sourceEmbeddedObj).get(sourceKey);
+                                    PropertyAccessor valueAccessor = PropertyAccessorFactory.getPropertyAccessor(sourceValue.getClass());
+                                    if(valueAccessor != null)
+                                    {
+                                        targetValue = valueAccessor.getCopy(sourceValue);
+                                    }
+                                    
+                                    if (Map.class.isAssignableFrom(ecDeclaredClass))
+                                    {
+                                        Method m = actualEcObjectClass.getMethod("put", new Class[]{Object.class, Object.class});
+                                        m.invoke(targetCollectionObject, new Object[]{targetKey, targetValue});
+                                    }
+                                }
+                            }                                                            
                         }
+                        
+                        PropertyAccessorHelper.set(target, columnField, targetCollectionObject);
+                        
+                    }
+                    else if (columnField.getAnnotation(javax.persistence.Column.class) != null)
+                    {
+                        // Copy columns
+                        PropertyAccessorHelper.set(target, columnField, sourceEmbeddedObj);
                     }
-
                 }
-                else if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.BASIC))
-                {
 
-                    PropertyAccessorHelper.set(target, columnField,
-                            PropertyAccessorHelper.getObjectCopy(source, columnField));
-                }
             }
 
             // Put this object into copied object map
             if (id != null)
             {
-                StringBuilder keyBuilder = new StringBuilder(sourceObjectClass.getName());
-                keyBuilder.append("#");
-                keyBuilder.append(id);
-                copiedObjectMap.put(keyBuilder.toString(), target);
+                copiedObjectsOfClass.put(id, target);
             }
             // Copy Relationships recursively
             for (Relation relation : metadata.getRelations())
@@ -367,7 +379,8 @@ public class ObjectUtils
         return target;
     }
 
-    private static Object searchInCacheThenCopy(Map<Object, Object> copiedObjectMap, Object sourceObject)
+    private static Object searchInCacheThenCopy(Map<Class<?>, Map<Object, Object>> copiedObjectMap,
+            Object sourceObject)
     {
         Object copyTargetRelObj = null;
         /*
@@ -382,6 +395,95 @@ public class ObjectUtils
         return copyTargetRelObj;
     }
 
+    /**
+     * Returns copy plan for given entity class, building it from metamodel on
+     * first access.
+     * 
+     * @param entityClass
+     *            entity class.
+     * @return copy plan or null, if given class is not an entity.
+     */
+    private static CopyPlan getCopyPlan(Class<?> entityClass)
+    {
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(entityClass);
+        if (metadata == null)
+        {
+            return null;
+        }
+        CopyPlan plan = copyPlans.get(entityClass);
+
+        // Rebuild plan if metamodel has been reloaded since.
+        if (plan == null || plan.metadata != metadata)
+        {
+            plan = new CopyPlan(metadata);
+            copyPlans.put(entityClass, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Attributes of an entity class resolved once from metamodel, so that deep
+     * copy doesn't need to walk metamodel and look up accessors per field on
+     * each invocation.
+     */
+    private static final class CopyPlan
+    {
+        private final EntityMetadata metadata;
+
+        private final MetamodelImpl metaModel;
+
+        private final boolean hasRelations;
+
+        private final Field[] basicFields;
+
+        private final PropertyAccessor[] basicFieldAccessors;
+
+        private final boolean[] basicFieldImmutable;
+
+        private final List<Attribute> embeddedAttributes = new ArrayList<Attribute>();
+
+        private CopyPlan(EntityMetadata metadata)
+        {
+            this.metadata = metadata;
+            this.metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                    metadata.getPersistenceUnit());
+            this.hasRelations = metadata.getRelations() != null && !metadata.getRelations().isEmpty();
+
+            EntityType entityType = metaModel.entity(metadata.getEntityClazz());
+            List<Field> fields = new ArrayList<Field>();
+            Iterator<Attribute> iter = entityType.getAttributes().iterator();
+            while (iter.hasNext())
+            {
+                Attribute attrib = iter.next();
+                if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.EMBEDDED)
+                        || attrib.getPersistentAttributeType().equals(PersistentAttributeType.ELEMENT_COLLECTION))
+                {
+                    embeddedAttributes.add(attrib);
+                }
+                else if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.BASIC))
+                {
+                    Field field = (Field) attrib.getJavaMember();
+                    if (!field.isAccessible())
+                    {
+                        field.setAccessible(true);
+                    }
+                    fields.add(field);
+                }
+            }
+
+            this.basicFields = fields.toArray(new Field[fields.size()]);
+            this.basicFieldAccessors = new PropertyAccessor[basicFields.length];
+            this.basicFieldImmutable = new boolean[basicFields.length];
+            for (int i = 0; i < basicFields.length; i++)
+            {
+                Class<?> fieldType = basicFields[i].getType();
+                basicFieldAccessors[i] = PropertyAccessorFactory.getPropertyAccessor(basicFields[i]);
+                basicFieldImmutable[i] = fieldType.isPrimitive() || fieldType.isEnum()
+                        || IMMUTABLE_TYPES.contains(fieldType);
+            }
+        }
+    }
+
     /**
      * Gets the field instance.
      * 
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.cache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.entity.PersonnelDTO;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.persistence.event.AddressEntity;
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+
+/**
+ * junit for {@link SecondLevelCache}.
+ */
+public class SecondLevelCacheTest
+{
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        emf = Persistence.createEntityManagerFactory("kunderatest");
+        KunderaMetadataManager.getEntityMetadata(PersonnelDTO.class).setCacheable(true);
+        em = emf.createEntityManager();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KunderaMetadataManager.getEntityMetadata(PersonnelDTO.class).setCacheable(false);
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void testReadThroughAndInvalidation()
+    {
+        SecondLevelCache cache = (SecondLevelCache) emf.getCache();
+        Assert.assertNotNull(cache);
+
+        PersonnelDTO dto = new PersonnelDTO("l2", "Amresh", "Singh");
+        em.persist(dto);
+        em.clear();
+
+        // Miss, read from database and put into cache.
+        PersonnelDTO found = em.find(PersonnelDTO.class, "l2");
+        Assert.assertNotNull(found);
+        Assert.assertTrue(cache.contains(PersonnelDTO.class, "l2"));
+        Assert.assertEquals(1, cache.getStatistics(PersonnelDTO.class).getMissCount());
+
+        // Hit, served from cache in a new persistence context.
+        EntityManager em2 = emf.createEntityManager();
+        found = em2.find(PersonnelDTO.class, "l2");
+        Assert.assertNotNull(found);
+        Assert.assertEquals("Amresh", found.getFirstName());
+        Assert.assertEquals(1, cache.getStatistics(PersonnelDTO.class).getHitCount());
+
+        // Merge invalidates cached copy.
+        found.setFirstName("Vivek");
+        em2.merge(found);
+        Assert.assertFalse(cache.contains(PersonnelDTO.class, "l2"));
+        em2.close();
+
+        em.clear();
+        found = em.find(PersonnelDTO.class, "l2");
+        Assert.assertTrue(cache.contains(PersonnelDTO.class, "l2"));
+
+        // Remove invalidates cached copy.
+        em.remove(found);
+        Assert.assertFalse(cache.contains(PersonnelDTO.class, "l2"));
+
+        cache.evictAll();
+    }
+
+    @Test
+    public void testNonCacheableEntity()
+    {
+        KunderaMetadataManager.getEntityMetadata(PersonnelDTO.class).setCacheable(false);
+        SecondLevelCache cache = (SecondLevelCache) emf.getCache();
+
+        PersonnelDTO dto = new PersonnelDTO("l2nc", "Amresh", "Singh");
+        em.persist(dto);
+        em.clear();
+        Assert.assertNotNull(em.find(PersonnelDTO.class, "l2nc"));
+        Assert.assertFalse(cache.contains(PersonnelDTO.class, "l2nc"));
+    }
+
+    @Test
+    public void testEntityWithRelations()
+    {
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(AddressEntity.class);
+        metadata.setCacheable(true);
+        try
+        {
+            SecondLevelCache cache = (SecondLevelCache) emf.getCache();
+            // associations wouldn't be registered in persistence context
+            // when served from cache.
+            Assert.assertFalse(cache.isCacheable(metadata));
+            Assert.assertTrue(cache.isCacheable(KunderaMetadataManager.getEntityMetadata(PersonnelDTO.class)));
+        }
+        finally
+        {
+            metadata.setCacheable(false);
+        }
+    }
+}
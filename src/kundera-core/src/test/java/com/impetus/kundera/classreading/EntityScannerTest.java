@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.classreading;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.impetus.kundera.query.Person;
+
+/**
+ * Test case for {@link EntityScanner}.
+ */
+public class EntityScannerTest
+{
+    private Reader reader;
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        reader = new ClasspathReader();
+        reader.addValidAnnotations(javax.persistence.Entity.class.getName());
+        dir = Files.createTempDir();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        delete(dir);
+    }
+
+    @Test
+    public void testGetEntityClassName() throws Exception
+    {
+        EntityScanner scanner = new EntityScanner(reader, true, 1);
+        Assert.assertEquals(Person.class.getName(), scanner.getEntityClassName(classFile(Person.class)));
+        Assert.assertNull(scanner.getEntityClassName(classFile(EntityScannerTest.class)));
+    }
+
+    @Test
+    public void testFindEntitiesFromIndex() throws Exception
+    {
+        File index = new File(dir, EntityIndexProcessor.ENTITY_INDEX);
+        index.getParentFile().mkdirs();
+        Files.write("# indexed entities\ncom.impetus.Foo\n\ncom.impetus.Bar\ncom.impetus.Foo\n".getBytes(), index);
+
+        URL[] resources = { dir.toURI().toURL() };
+        Assert.assertEquals(Arrays.asList("com.impetus.Foo", "com.impetus.Bar"), new EntityScanner(reader, true, 1)
+                .findEntities(resources));
+
+        // index disabled, scanned directory has no classes.
+        Assert.assertTrue(new EntityScanner(reader, false, 1).findEntities(resources).isEmpty());
+    }
+
+    @Test
+    public void testFindEntitiesInParallel() throws Exception
+    {
+        URL[] resources = { jar("first.jar", EntityScannerTest.class, Person.class),
+                jar("second.jar", Person.class), jar("third.jar", EntityScannerTest.class) };
+
+        List<String> entities = new EntityScanner(reader, true, 4).findEntities(resources);
+        Assert.assertEquals(Arrays.asList(Person.class.getName(), Person.class.getName()), entities);
+        Assert.assertEquals(entities, new EntityScanner(reader, true, 1).findEntities(resources));
+    }
+
+    private void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private InputStream classFile(Class<?> clazz)
+    {
+        return clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+    }
+
+    private URL jar(String name, Class<?>... classes) throws Exception
+    {
+        File jar = new File(dir, name);
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+        try
+        {
+            for (Class<?> clazz : classes)
+            {
+                out.putNextEntry(new ZipEntry(clazz.getName().replace('.', '/') + ".class"));
+                InputStream in = classFile(clazz);
+                try
+                {
+                    ByteStreams.copy(in, out);
+                }
+                finally
+                {
+                    in.close();
+                }
+                out.closeEntry();
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+        return jar.toURI().toURL();
+    }
+}
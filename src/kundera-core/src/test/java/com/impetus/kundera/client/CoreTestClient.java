@@ -15,16 +15,28 @@ import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.SequenceGeneratorDiscriptor;
 import com.impetus.kundera.metadata.model.TableGeneratorDiscriptor;
 import com.impetus.kundera.persistence.EntityReader;
+import com.impetus.kundera.persistence.api.BulkWriter;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
+import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.query.CoreTestEntityReader;
 import com.impetus.kundera.query.LuceneQuery;
 
 public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, AutoGenerator, TableGenerator,
-        SequenceGenerator, IdentityGenerator, ClientPropertiesSetter
+        SequenceGenerator, IdentityGenerator, ClientPropertiesSetter, BulkWriter
 {
 
     private static int idCount;
 
+    private int bulkDeletes;
+
+    private int bulkUpdates;
+
+    private int finds;
+
+    private int findAlls;
+
+    private boolean findAllSupported = true;
+
     public CoreTestClient(IndexManager indexManager, String persistenceUnit)
     {
         this.indexManager = indexManager;
@@ -60,6 +72,12 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
 
     @Override
     public Object find(Class entityClass, Object key)
+    {
+        finds++;
+        return read(entityClass, key);
+    }
+
+    private Object read(Class entityClass, Object key)
     {
         EntityMetadata m = KunderaMetadataManager.getEntityMetadata(entityClass);
         DummySchema schema = DummyDatabase.INSTANCE.getSchema(m.getSchema());
@@ -93,10 +111,15 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
     @Override
     public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... keys)
     {
+        findAlls++;
+        if (!findAllSupported)
+        {
+            return null;
+        }
         List results = new ArrayList();
         for (Object key : keys)
         {
-            Object result = find(entityClass, key);
+            Object result = read(entityClass, key);
             if (result != null)
             {
                 results.add(result);
@@ -243,6 +266,68 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
     public void setIndexManager(IndexManager im){
         this.indexManager = im;
     }
+
+    @Override
+    public int deleteAll(EntityMetadata m, List<Object> entities)
+    {
+        bulkDeletes++;
+        for (Object entity : entities)
+        {
+            delete(entity, PropertyAccessorHelper.getId(entity, m));
+        }
+        return entities.size();
+    }
+
+    @Override
+    public int updateAll(EntityMetadata m, List<Object> entities, Map<String, Object> values)
+    {
+        bulkUpdates++;
+        for (Object entity : entities)
+        {
+            onPersist(m, entity, PropertyAccessorHelper.getId(entity, m), null);
+        }
+        return entities.size();
+    }
+
+    /**
+     * @return number of bulk delete calls.
+     */
+    public int getBulkDeletes()
+    {
+        return bulkDeletes;
+    }
+
+    /**
+     * @return number of bulk update calls.
+     */
+    public int getBulkUpdates()
+    {
+        return bulkUpdates;
+    }
+
+    /**
+     * @return number of find by id calls.
+     */
+    public int getFinds()
+    {
+        return finds;
+    }
+
+    /**
+     * @return number of findAll calls.
+     */
+    public int getFindAlls()
+    {
+        return findAlls;
+    }
+
+    /**
+     * Makes findAll return null, as clients without findAll support do.
+     */
+    public void setFindAllSupported(boolean findAllSupported)
+    {
+        this.findAllSupported = findAllSupported;
+    }
     
     
 
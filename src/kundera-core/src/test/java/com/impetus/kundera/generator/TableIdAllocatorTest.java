@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.generator;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.impetus.kundera.metadata.model.TableGeneratorDiscriptor;
+
+/**
+ * junit for {@link TableIdAllocator}.
+ */
+public class TableIdAllocatorTest
+{
+    private final AtomicLong counter = new AtomicLong();
+
+    private final TableIdAllocator.BlockSource source = new TableIdAllocator.BlockSource()
+    {
+        @Override
+        public long reserveBlock()
+        {
+            return counter.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void testBlockAllocation()
+    {
+        // default discriptor, initial value 1 and allocation size 50.
+        TableIdAllocator allocator = new TableIdAllocator(new TableGeneratorDiscriptor("KunderaTest", "seq"));
+        for (long i = 1; i <= 120; i++)
+        {
+            Assert.assertEquals(i, allocator.next(source));
+        }
+        Assert.assertEquals(3, counter.get());
+    }
+
+    @Test
+    public void testConcurrentAllocation() throws InterruptedException
+    {
+        final TableIdAllocator allocator = new TableIdAllocator(new TableGeneratorDiscriptor("KunderaTest", "seq"));
+        final Set<Long> ids = Collections.synchronizedSet(new HashSet<Long>());
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < 500; j++)
+                    {
+                        ids.add(allocator.next(source));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        Assert.assertEquals(2000, ids.size());
+        Assert.assertEquals(40, counter.get());
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.graph;
+
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.query.Person;
+import com.impetus.kundera.query.Person.Day;
+
+/**
+ * Junit for {@link DirtyChecker}
+ */
+public class DirtyCheckerTest
+{
+    private EntityManagerFactory emf;
+
+    @Before
+    public void setUp()
+    {
+        emf = Persistence.createEntityManagerFactory("patest");
+    }
+
+    @Test
+    public void testGetChangedAttributes()
+    {
+        EntityMetadata m = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person snapshot = getPerson();
+        Person entity = getPerson();
+
+        Assert.assertTrue(DirtyChecker.getChangedAttributes(m, snapshot, entity).isEmpty());
+        Assert.assertFalse(DirtyChecker.isRelationChanged(m, snapshot, entity));
+
+        entity.setAge(33);
+        entity.setPersonName(null);
+        Set<String> changed = DirtyChecker.getChangedAttributes(m, snapshot, entity);
+        Assert.assertEquals(2, changed.size());
+        Assert.assertTrue(changed.contains("age"));
+        Assert.assertTrue(changed.contains("personName"));
+    }
+
+    private Person getPerson()
+    {
+        Person p = new Person();
+        p.setPersonId("p1");
+        p.setPersonName("vivek");
+        p.setAge(32);
+        p.setDay(Day.TUESDAY);
+        return p;
+    }
+
+    @After
+    public void tearDown()
+    {
+        emf.close();
+    }
+}
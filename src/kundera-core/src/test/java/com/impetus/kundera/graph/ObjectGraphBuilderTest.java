@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.graph;
+
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.lifecycle.states.ManagedState;
+import com.impetus.kundera.persistence.context.PersistenceCache;
+import com.impetus.kundera.query.Person;
+import com.impetus.kundera.query.Person.Day;
+
+/**
+ * Junit for changed fields tracked by {@link ObjectGraphBuilder} on
+ * {@link Node}.
+ */
+public class ObjectGraphBuilderTest
+{
+    private EntityManagerFactory emf;
+
+    private PersistenceCache pc;
+
+    private Node node;
+
+    @Before
+    public void setUp()
+    {
+        emf = Persistence.createEntityManagerFactory("patest");
+        pc = new PersistenceCache();
+
+        // node of a loaded entity.
+        node = new Node(ObjectGraphUtils.getNodeId("p1", Person.class), getPerson(), new ManagedState(), pc, "p1");
+        node.setDirty(false);
+        pc.getMainCache().addNodeToCache(node);
+    }
+
+    @Test
+    public void testUnchangedEntity()
+    {
+        getObjectGraph(getPerson());
+
+        Assert.assertFalse(node.isDirty());
+        Assert.assertNull(node.getChangedFields());
+    }
+
+    @Test
+    public void testChangedFields()
+    {
+        Person person = getPerson();
+        person.setAge(33);
+        getObjectGraph(person);
+
+        Assert.assertTrue(node.isDirty());
+        Assert.assertSame(person, node.getData());
+        Set<String> changedFields = node.getChangedFields();
+        Assert.assertEquals(1, changedFields.size());
+        Assert.assertTrue(changedFields.contains("age"));
+
+        // changes not flushed yet are accumulated.
+        person = getPerson();
+        person.setAge(33);
+        person.setPersonName(null);
+        getObjectGraph(person);
+
+        changedFields = node.getChangedFields();
+        Assert.assertEquals(2, changedFields.size());
+        Assert.assertTrue(changedFields.contains("age"));
+        Assert.assertTrue(changedFields.contains("personName"));
+    }
+
+    @Test
+    public void testUnknownChangesAreKept()
+    {
+        // dirty node, to be written as a whole.
+        node.setDirty(true);
+        node.setChangedFields(null);
+
+        Person person = getPerson();
+        person.setAge(33);
+        getObjectGraph(person);
+
+        Assert.assertTrue(node.isDirty());
+        Assert.assertNull(node.getChangedFields());
+    }
+
+    private ObjectGraph getObjectGraph(Person person)
+    {
+        return new ObjectGraphBuilder(pc, null).getObjectGraph(person, new ManagedState());
+    }
+
+    private Person getPerson()
+    {
+        Person p = new Person();
+        p.setPersonId("p1");
+        p.setPersonName("vivek");
+        p.setAge(32);
+        p.setDay(Day.TUESDAY);
+        return p;
+    }
+
+    @After
+    public void tearDown()
+    {
+        emf.close();
+    }
+}
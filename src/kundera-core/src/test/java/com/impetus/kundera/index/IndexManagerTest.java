@@ -104,6 +104,143 @@ public class IndexManagerTest
     }
 
 
+    @Test
+    public void testAsyncCRUD()
+    {
+        LuceneIndexer indexer = LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_34), LUCENE_DIR_PATH);
+        IndexManager ixManager = new IndexManager(indexer, 2, true);
+        Assert.assertTrue(ixManager.isFlushOnCommit());
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person p = new Person();
+        p.setAge(32);
+        p.setDay(Day.TUESDAY);
+        p.setPersonId("p1");
+
+        ixManager.write(metadata, p);
+        ixManager.flush();
+
+        String luceneQuery = "+Person.AGE:32 AND +entity.class:com.impetus.kundera.query.Person";
+        Map<String, Object> results = ixManager.search(metadata.getEntityClazz(), luceneQuery, 0, 10, false);
+        Assert.assertFalse(results.isEmpty());
+
+        Person updated = new Person();
+        updated.setAge(35);
+        updated.setDay(Day.TUESDAY);
+        updated.setPersonId("p1");
+        ixManager.update(metadata, updated, null, Person.class);
+        ixManager.flush();
+
+        results = ixManager.search(metadata.getEntityClazz(), luceneQuery, 0, 10, false);
+        Assert.assertTrue(results.isEmpty());
+        luceneQuery = "+Person.AGE:35 AND +entity.class:com.impetus.kundera.query.Person";
+        results = ixManager.search(metadata.getEntityClazz(), luceneQuery, 0, 10, false);
+        Assert.assertFalse(results.isEmpty());
+
+        ixManager.remove(metadata, updated, "p1");
+        ixManager.close();
+
+        results = ixManager.search(metadata.getEntityClazz(), luceneQuery, 0, 10, false);
+        Assert.assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testAsyncSnapshot()
+    {
+        LuceneIndexer indexer = LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_34), LUCENE_DIR_PATH);
+        IndexManager ixManager = new IndexManager(indexer, 10, true);
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person p = new Person();
+        p.setAge(32);
+        p.setDay(Day.TUESDAY);
+        p.setPersonId("p1");
+
+        // changes made after queuing are not indexed.
+        ixManager.write(metadata, p);
+        p.setAge(40);
+        ixManager.flush();
+
+        Map<String, Object> results = ixManager.search(metadata.getEntityClazz(),
+                "+Person.AGE:32 AND +entity.class:com.impetus.kundera.query.Person", 0, 10, false);
+        Assert.assertEquals(1, results.size());
+        results = ixManager.search(metadata.getEntityClazz(),
+                "+Person.AGE:40 AND +entity.class:com.impetus.kundera.query.Person", 0, 10, false);
+        Assert.assertTrue(results.isEmpty());
+
+        ixManager.remove(metadata, p, "p1");
+        ixManager.close();
+    }
+
+    @Test
+    public void testAsyncBulk()
+    {
+        LuceneIndexer indexer = LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_34), LUCENE_DIR_PATH);
+        IndexManager ixManager = new IndexManager(indexer, 10, true);
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        for (int i = 1; i <= 3; i++)
+        {
+            Person p = new Person();
+            p.setAge(32);
+            p.setDay(Day.TUESDAY);
+            p.setPersonId("p" + i);
+            ixManager.write(metadata, p);
+        }
+
+        // update queued along with write must delete buffered document.
+        Person updated = new Person();
+        updated.setAge(35);
+        updated.setDay(Day.TUESDAY);
+        updated.setPersonId("p1");
+        ixManager.update(metadata, updated, null, Person.class);
+        ixManager.flush();
+
+        Map<String, Object> results = ixManager.search(metadata.getEntityClazz(),
+                "+Person.AGE:32 AND +entity.class:com.impetus.kundera.query.Person", 0, 10, false);
+        Assert.assertEquals(2, results.size());
+        results = ixManager.search(metadata.getEntityClazz(),
+                "+Person.AGE:35 AND +entity.class:com.impetus.kundera.query.Person", 0, 10, false);
+        Assert.assertEquals(1, results.size());
+
+        for (int i = 1; i <= 3; i++)
+        {
+            ixManager.remove(metadata, updated, "p" + i);
+        }
+        ixManager.close();
+    }
+
+    @Test
+    public void testAsyncFailure()
+    {
+        IndexManager ixManager = new IndexManager(new CoreTestIndexer()
+        {
+            @Override
+            public void unIndex(Class entityClazz, Object entity)
+            {
+                throw new IndexingException("unIndex failed");
+            }
+        }, 10, true);
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person p = new Person();
+        p.setPersonId("p1");
+        ixManager.remove(metadata, p, "p1");
+        try
+        {
+            ixManager.flush();
+            Assert.fail("Failure of queued operation must be reported on flush");
+        }
+        catch (IndexingException iex)
+        {
+            Assert.assertEquals("unIndex failed", iex.getMessage());
+        }
+
+        // reported once, queue keeps working.
+        ixManager.flush();
+        ixManager.close();
+    }
+
     @Test
     public void testEmbeddable()
     {
@@ -132,6 +132,59 @@ public class LuceneIndexerTest
         indexer.close();
     }
     
+    @Test
+    public void testUnindexWithoutFlush()
+    {
+        LuceneIndexer indexer = LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_34), LUCENE_DIR_PATH);
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person p = new Person();
+        p.setAge(33);
+        p.setDay(Day.TUESDAY);
+        p.setPersonId("p2");
+        indexer.index(metadata, p);
+
+        String luceneQuery = "+Person.AGE:33 AND +entity.class:com.impetus.kundera.query.Person";
+
+        // Near real time search, no flush required.
+        Assert.assertEquals(1, indexer.search(luceneQuery, 0, 10, false).size());
+
+        indexer.unindex(metadata, "p2");
+        Assert.assertTrue(indexer.search(luceneQuery, 0, 10, false).isEmpty());
+
+        indexer.close();
+    }
+
+    @Test
+    public void testSearchWithinBulk()
+    {
+        LuceneIndexer indexer = LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_34), LUCENE_DIR_PATH);
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person p = new Person();
+        p.setAge(34);
+        p.setDay(Day.TUESDAY);
+        p.setPersonId("p3");
+
+        String luceneQuery = "+Person.AGE:34 AND +entity.class:com.impetus.kundera.query.Person";
+
+        indexer.beginBulk();
+        indexer.index(metadata, p);
+
+        // document is buffered till end of bulk, search refreshes searcher.
+        Assert.assertTrue(indexer.search(luceneQuery, 0, 10, false).isEmpty());
+
+        indexer.endBulk();
+
+        // document added by bulk must be visible without flush.
+        Assert.assertEquals(1, indexer.search(luceneQuery, 0, 10, false).size());
+
+        indexer.unindex(metadata, "p3");
+        Assert.assertTrue(indexer.search(luceneQuery, 0, 10, false).isEmpty());
+
+        indexer.close();
+    }
+
     @Test
     public void testOnUnsupportedMethods()
     {
@@ -16,8 +16,10 @@
 
 package com.impetus.kundera.persistence;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,9 +34,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.impetus.kundera.CoreTestUtilities;
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.client.CoreTestClient;
+import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.polyglot.entities.AddressB11FK;
 import com.impetus.kundera.polyglot.entities.AddressB1M;
 import com.impetus.kundera.polyglot.entities.AddressBM1;
@@ -317,6 +323,105 @@ public class EntityReaderTest
 
     }
 
+    @Test
+    public void testBatchFetchManyToOne()
+    {
+        List<EnhanceEntity> entities = persistManyToOne();
+        PersistenceDelegator delegator = CoreTestUtilities.getDelegator(em);
+        CoreTestClient client = (CoreTestClient) delegator.getClient(KunderaMetadataManager
+                .getEntityMetadata(AddressUM1.class));
+        int findAlls = client.getFindAlls();
+        int finds = client.getFinds();
+
+        assertBatchFetchManyToOne(entities, delegator);
+
+        // two distinct addresses fit in one batch of 10.
+        Assert.assertEquals(findAlls + 1, client.getFindAlls());
+        Assert.assertEquals(finds, client.getFinds());
+    }
+
+    @Test
+    public void testBatchFetchManyToOneWithoutFindAll()
+    {
+        List<EnhanceEntity> entities = persistManyToOne();
+        PersistenceDelegator delegator = CoreTestUtilities.getDelegator(em);
+        CoreTestClient client = (CoreTestClient) delegator.getClient(KunderaMetadataManager
+                .getEntityMetadata(AddressUM1.class));
+        client.setFindAllSupported(false);
+        try
+        {
+            int findAlls = client.getFindAlls();
+            int finds = client.getFinds();
+
+            assertBatchFetchManyToOne(entities, delegator);
+
+            // findAll returned null, so each address is found by id once.
+            Assert.assertEquals(findAlls + 1, client.getFindAlls());
+            Assert.assertEquals(finds + 2, client.getFinds());
+        }
+        finally
+        {
+            client.setFindAllSupported(true);
+        }
+    }
+
+    private List<EnhanceEntity> persistManyToOne()
+    {
+        AddressUM1 address1 = new AddressUM1();
+        address1.setAddressId("addr1");
+        address1.setStreet("street1");
+
+        AddressUM1 address2 = new AddressUM1();
+        address2.setAddressId("addr2");
+        address2.setStreet("street2");
+
+        List<EnhanceEntity> entities = new ArrayList<EnhanceEntity>();
+        for (int i = 1; i <= 3; i++)
+        {
+            PersonUM1 person = new PersonUM1();
+            person.setPersonId("person" + i);
+            person.setPersonName("vivek");
+            person.setAddress(i == 3 ? address2 : address1);
+            em.persist(person);
+
+            Map<String, Object> relationMap = new HashMap<String, Object>();
+            relationMap.put("ADDRESS_ID", person.getAddress().getAddressId());
+            person.setAddress(null);
+            entities.add(new EnhanceEntity(person, person.getPersonId(), relationMap));
+        }
+        return entities;
+    }
+
+    private void assertBatchFetchManyToOne(List<EnhanceEntity> entities, PersistenceDelegator delegator)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(PU);
+        puMetadata.getProperties().setProperty(PersistenceProperties.KUNDERA_BATCH_FETCH_SIZE, "10");
+        try
+        {
+            EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(PersonUM1.class);
+
+            List<Object> results = new CoreTestEntityReader().recursivelyFindEntities(entities, metadata,
+                    delegator, true);
+
+            Assert.assertEquals(3, results.size());
+            PersonUM1 person1 = (PersonUM1) results.get(0);
+            PersonUM1 person2 = (PersonUM1) results.get(1);
+            PersonUM1 person3 = (PersonUM1) results.get(2);
+            Assert.assertEquals("person1", person1.getPersonId());
+            Assert.assertEquals("addr1", person1.getAddress().getAddressId());
+            Assert.assertEquals("street1", person1.getAddress().getStreet());
+            Assert.assertEquals("addr1", person2.getAddress().getAddressId());
+            Assert.assertEquals("addr2", person3.getAddress().getAddressId());
+            Assert.assertFalse(ProxyHelper.isKunderaProxy(person3.getAddress()));
+
+            // shared association is copied, so rows don't share instances.
+            Assert.assertNotSame(person1.getAddress(), person2.getAddress());
+        }
+        finally
+        {
+            puMetadata.getProperties().remove(PersistenceProperties.KUNDERA_BATCH_FETCH_SIZE);
+        }
+    }
 
     @Test
     public void testBiManyToOne() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
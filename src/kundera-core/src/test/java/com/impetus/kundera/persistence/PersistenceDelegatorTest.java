@@ -33,6 +33,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.impetus.kundera.KunderaException;
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.CoreTestClient;
 import com.impetus.kundera.configure.CoreEntityAddressUni1To1;
@@ -184,6 +185,38 @@ public class PersistenceDelegatorTest
         List<PersonnelDTO> persons = pd.find(PersonnelDTO.class, new String[] { "111", "222", "333" });
         Assert.assertNotNull(persons);
         Assert.assertEquals(3, persons.size());
+
+        // Not in persistence cache any more, fetched in bulk from database.
+        em.clear();
+        persons = pd.find(PersonnelDTO.class, new String[] { "111", "222", "333", "444" });
+        Assert.assertNotNull(persons);
+        Assert.assertEquals(3, persons.size());
+        Assert.assertTrue(em.contains(persons.get(0)));
+
+        // Mix of cached and non-cached keys.
+        em.detach(persons.get(1));
+        persons = pd.find(PersonnelDTO.class, new String[] { "111", "222", "333" });
+        Assert.assertEquals(3, persons.size());
+    }
+
+    @Test
+    public void testFindWithSkipCopyOnRead()
+    {
+        PersonnelDTO dto = new PersonnelDTO();
+        dto.setPersonId("555");
+        em.persist(dto);
+
+        PersonnelDTO first = em.find(PersonnelDTO.class, "555");
+        PersonnelDTO second = em.find(PersonnelDTO.class, "555");
+        Assert.assertNotSame(first, second);
+
+        em.setProperty(PersistenceProperties.KUNDERA_SKIP_COPY_ON_READ, "true");
+        first = em.find(PersonnelDTO.class, "555");
+        second = em.find(PersonnelDTO.class, "555");
+        Assert.assertSame(first, second);
+
+        em.setProperty(PersistenceProperties.KUNDERA_SKIP_COPY_ON_READ, "false");
+        Assert.assertNotSame(first, em.find(PersonnelDTO.class, "555"));
     }
 
     @Test
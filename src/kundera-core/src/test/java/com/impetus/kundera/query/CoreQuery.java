@@ -108,7 +108,8 @@ public class CoreQuery<E> extends QueryImpl<E>
     @Override
     protected int onExecuteUpdate()
     {
-        return getResultList().size();
+        EntityMetadata m = getEntityMetadata();
+        return deleteOrUpdate(m, persistenceDelegeator.getClient(m));
     }
 
     @Override
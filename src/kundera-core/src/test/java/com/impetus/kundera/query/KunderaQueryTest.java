@@ -16,6 +16,7 @@
 package com.impetus.kundera.query;
 
 import java.util.Iterator;
+import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -416,6 +417,106 @@ public class KunderaQueryTest
 
     }
 
+    @Test
+    public void testAggregate()
+    {
+        String query = "Select p.age, count(p), sum(p.age), max(p.personName) from Person p "
+                + "where p.age > 10 group by p.age";
+        KunderaQuery kunderaQuery = new KunderaQuery();
+        KunderaQueryParser queryParser = new KunderaQueryParser(kunderaQuery, query);
+        queryParser.parse();
+        kunderaQuery.postParsingInit();
+        Assert.assertTrue(kunderaQuery.isAggregated());
+        Assert.assertTrue(kunderaQuery.isAliasOnly());
+        Assert.assertEquals(4, kunderaQuery.getAggregateClauses().size());
+        Assert.assertEquals(1, kunderaQuery.getGroupingClauses().size());
+        Assert.assertNull(kunderaQuery.getAggregateClauses().get(0).getFunction());
+        Assert.assertEquals("AGE", kunderaQuery.getAggregateClauses().get(0).getColumnName());
+        Assert.assertEquals(KunderaQuery.AggregateFunction.COUNT, kunderaQuery.getAggregateClauses().get(1)
+                .getFunction());
+        Assert.assertNull(kunderaQuery.getAggregateClauses().get(1).getColumnName());
+        Assert.assertEquals("PERSON_NAME", kunderaQuery.getAggregateClauses().get(3).getColumnName());
+        Assert.assertEquals(1, kunderaQuery.getFilterClauseQueue().size());
+
+        Aggregator aggregator = new Aggregator(kunderaQuery);
+        aggregator.add(newPerson("1", "amresh", 32));
+        aggregator.add(newPerson("2", "vivek", 32));
+        aggregator.add(newPerson("3", "kuldeep", 25));
+        List<Object> results = aggregator.getResults();
+        Assert.assertEquals(2, results.size());
+        Object[] row = (Object[]) results.get(0);
+        Assert.assertEquals(32, row[0]);
+        Assert.assertEquals(2L, row[1]);
+        Assert.assertEquals(64L, row[2]);
+        Assert.assertEquals("vivek", row[3]);
+
+        query = "Select count(p), avg(p.age) from Person p";
+        kunderaQuery = new KunderaQuery();
+        queryParser = new KunderaQueryParser(kunderaQuery, query);
+        queryParser.parse();
+        kunderaQuery.postParsingInit();
+        row = (Object[]) new Aggregator(kunderaQuery).getResults().get(0);
+        Assert.assertEquals(0L, row[0]);
+        Assert.assertNull(row[1]);
+
+        try
+        {
+            query = "Select p.personName, count(p) from Person p";
+            kunderaQuery = new KunderaQuery();
+            queryParser = new KunderaQueryParser(kunderaQuery, query);
+            queryParser.parse();
+            kunderaQuery.postParsingInit();
+            Assert.fail();
+        }
+        catch (JPQLParseException e)
+        {
+            Assert.assertTrue(e.getMessage().startsWith(
+                    "Bad query format: p.personName must be an aggregate or a grouped attribute"));
+        }
+
+        try
+        {
+            query = "Select sum(p.personName) from Person p";
+            kunderaQuery = new KunderaQuery();
+            queryParser = new KunderaQueryParser(kunderaQuery, query);
+            queryParser.parse();
+            kunderaQuery.postParsingInit();
+            Assert.fail();
+        }
+        catch (JPQLParseException e)
+        {
+            Assert.assertTrue(e.getMessage().startsWith(
+                    "Bad query format: SUM(p.personName), SUM applies to numeric attributes only"));
+        }
+    }
+
+    @Test
+    public void testAggregateResultValue()
+    {
+        String query = "Select min(p.age), max(p.age), sum(p.age), avg(p.age) from Person p";
+        KunderaQuery kunderaQuery = new KunderaQuery();
+        KunderaQueryParser queryParser = new KunderaQueryParser(kunderaQuery, query);
+        queryParser.parse();
+        kunderaQuery.postParsingInit();
+        List<KunderaQuery.AggregateClause> aggregates = kunderaQuery.getAggregateClauses();
+
+        // data stores computing statistics return doubles for int attributes.
+        Assert.assertEquals(Integer.valueOf(25), Aggregator.toResultValue(aggregates.get(0), 25.0d));
+        Assert.assertEquals(Integer.valueOf(32), Aggregator.toResultValue(aggregates.get(1), 32.0d));
+        Assert.assertEquals(Integer.valueOf(32), Aggregator.toResultValue(aggregates.get(1), 32L));
+        Assert.assertEquals(Long.valueOf(57), Aggregator.toResultValue(aggregates.get(2), 57.0d));
+        Assert.assertEquals(Double.valueOf(28.5), Aggregator.toResultValue(aggregates.get(3), 28.5d));
+        Assert.assertNull(Aggregator.toResultValue(aggregates.get(0), null));
+    }
+
+    private Person newPerson(String id, String name, int age)
+    {
+        Person person = new Person();
+        person.setPersonId(id);
+        person.setPersonName(name);
+        person.setAge(age);
+        return person;
+    }
 
     private class JPAParameter implements Parameter<String>
     {
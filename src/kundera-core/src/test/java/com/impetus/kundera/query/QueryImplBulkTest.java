@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.query;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.CoreTestUtilities;
+import com.impetus.kundera.cache.SecondLevelCache;
+import com.impetus.kundera.client.CoreTestClient;
+import com.impetus.kundera.client.DummyDatabase;
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.polyglot.entities.AddressBM1;
+import com.impetus.kundera.polyglot.entities.PersonBM1;
+import com.impetus.kundera.query.Person.Day;
+import com.impetus.kundera.utils.LuceneCleanupUtilities;
+
+/**
+ * junit for JPQL bulk delete/update of {@link QueryImpl}, applied through
+ * {@link com.impetus.kundera.persistence.api.BulkWriter} when possible.
+ */
+public class QueryImplBulkTest
+{
+    private static final String PU = "patest";
+
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    private PersistenceDelegator delegator;
+
+    private CoreTestClient client;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        emf = Persistence.createEntityManagerFactory(PU);
+        KunderaMetadataManager.getEntityMetadata(Person.class).setCacheable(true);
+        em = emf.createEntityManager();
+        delegator = CoreTestUtilities.getDelegator(em);
+        client = (CoreTestClient) delegator.getClient(KunderaMetadataManager.getEntityMetadata(Person.class));
+    }
+
+    @After
+    public void tearDown()
+    {
+        KunderaMetadataManager.getEntityMetadata(Person.class).setCacheable(false);
+        ((SecondLevelCache) emf.getCache()).evictAll();
+        em.close();
+        emf.close();
+        DummyDatabase.INSTANCE.dropDatabase();
+        LuceneCleanupUtilities.cleanLuceneDirectory(PU);
+    }
+
+    @Test
+    public void testBulkDelete()
+    {
+        Person p = persistPerson("1", "Amresh");
+        Assert.assertTrue(em.contains(p));
+        Assert.assertTrue(cacheFromOtherContext());
+
+        Assert.assertEquals(1, executeUpdate("Delete from Person p where p.personId = 1"));
+
+        Assert.assertEquals(1, client.getBulkDeletes());
+        Assert.assertNull(client.find(Person.class, "1"));
+
+        // deleted entity is detached and evicted from second level cache.
+        Assert.assertFalse(em.contains(p));
+        Assert.assertFalse(emf.getCache().contains(Person.class, "1"));
+    }
+
+    @Test
+    public void testBulkUpdate()
+    {
+        persistPerson("1", "Amresh");
+        Assert.assertTrue(cacheFromOtherContext());
+
+        Assert.assertEquals(1, executeUpdate("Update Person p set p.personName=Vivek where p.personId = 1"));
+
+        Assert.assertEquals(1, client.getBulkUpdates());
+        Assert.assertEquals(0, client.getBulkDeletes());
+        Assert.assertEquals("Vivek", ((Person) client.find(Person.class, "1")).getPersonName());
+
+        // stale cached copy is evicted, next find reads updated row.
+        Assert.assertFalse(emf.getCache().contains(Person.class, "1"));
+        EntityManager em2 = emf.createEntityManager();
+        Assert.assertEquals("Vivek", em2.find(Person.class, "1").getPersonName());
+        em2.close();
+    }
+
+    @Test
+    public void testPerEntityDeleteOfRelatedEntity()
+    {
+        PersonBM1 person = new PersonBM1();
+        person.setPersonId("personBiM11");
+        person.setPersonName("impetus-opensource");
+        AddressBM1 address = new AddressBM1();
+        address.setAddressId("addrBiM11");
+        address.setStreet("meri gali");
+        person.setAddress(address);
+        em.persist(person);
+        em.clear();
+
+        // entity holding relations is removed one by one, with cascades.
+        executeUpdate("Delete from PersonBM1 p where p.personId = 'personBiM11'");
+
+        Assert.assertEquals(0, client.getBulkDeletes());
+        Assert.assertNull(em.find(PersonBM1.class, "personBiM11"));
+    }
+
+    @Test
+    public void testPerEntityUpdateOfRelatedEntity()
+    {
+        PersonBM1 person = new PersonBM1();
+        person.setPersonId("personBiM12");
+        person.setPersonName("impetus-opensource");
+        AddressBM1 address = new AddressBM1();
+        address.setAddressId("addrBiM12");
+        address.setStreet("meri gali");
+        person.setAddress(address);
+        em.persist(person);
+        em.clear();
+
+        // entity holding relations is merged one by one.
+        Assert.assertEquals(1,
+                executeUpdate("Update PersonBM1 p set p.personName = kundera where p.personId = 'personBiM12'"));
+
+        Assert.assertEquals(0, client.getBulkUpdates());
+        em.clear();
+        PersonBM1 found = em.find(PersonBM1.class, "personBiM12");
+        Assert.assertNotNull(found);
+        Assert.assertEquals("kundera", found.getPersonName());
+        Assert.assertNotNull(found.getAddress());
+    }
+
+    private Person persistPerson(String id, String name)
+    {
+        Person p = new Person();
+        p.setPersonId(id);
+        p.setPersonName(name);
+        p.setAge(32);
+        p.setDay(Day.MONDAY);
+        em.persist(p);
+        return p;
+    }
+
+    /**
+     * Finds person 1 in another persistence context, to put it in second
+     * level cache.
+     */
+    private boolean cacheFromOtherContext()
+    {
+        EntityManager em2 = emf.createEntityManager();
+        Assert.assertNotNull(em2.find(Person.class, "1"));
+        em2.close();
+        return emf.getCache().contains(Person.class, "1");
+    }
+
+    private int executeUpdate(String query)
+    {
+        KunderaQuery kunderaQuery = new KunderaQuery();
+        KunderaQueryParser queryParser = new KunderaQueryParser(kunderaQuery, query);
+        queryParser.parse();
+        kunderaQuery.postParsingInit();
+        return new CoreQuery(query, kunderaQuery, delegator).executeUpdate();
+    }
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ *  * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.query;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.query.KunderaQuery.FilterClause;
+
+/**
+ * Junit for {@link QueryPlanCache}.
+ */
+public class QueryPlanCacheTest
+{
+
+    private static final String PU = "patest";
+
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        emf = Persistence.createEntityManagerFactory(PU);
+        em = emf.createEntityManager();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void testParameterBindingIsolation()
+    {
+        String query = "Select p from Person p where p.personName = :name and p.age = :age";
+        QueryPlanCache cache = new QueryPlanCache(10);
+
+        KunderaQuery first = cache.getQuery(query);
+        KunderaQuery second = cache.getQuery(query);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(Person.class, second.getEntityClass());
+        Assert.assertEquals(PU, second.getPersistenceUnit());
+        Assert.assertEquals(2, second.getParameters().size());
+
+        first.setParameter("name", "vivek");
+        first.setParameter("age", 32);
+        second.setParameter("name", "amresh");
+
+        Assert.assertEquals("vivek", first.getClauseValue(":name"));
+        Assert.assertEquals(32, first.getClauseValue(":age"));
+        Assert.assertEquals("amresh", second.getClauseValue(":name"));
+        Assert.assertEquals(":age", second.getClauseValue(":age"));
+
+        FilterClause clause = (FilterClause) cache.getQuery(query).getFilterClauseQueue().peek();
+        Assert.assertEquals(":name", clause.getValue());
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCreateQueryWithCache()
+    {
+        String query = "Select p from Person p where p.age = ?1";
+        javax.persistence.Query q1 = em.createQuery(query);
+        javax.persistence.Query q2 = em.createQuery(query);
+        q1.setParameter(1, 10);
+        q2.setParameter(1, 20);
+        Assert.assertEquals(10, q1.getParameterValue(1));
+        Assert.assertEquals(20, q2.getParameterValue(1));
+    }
+}
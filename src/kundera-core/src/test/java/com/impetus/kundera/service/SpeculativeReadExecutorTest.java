@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.impetus.kundera.service.SpeculativeReadExecutor.Read;
+import com.impetus.kundera.service.SpeculativeReadExecutor.SpeculativeRetry;
+
+/**
+ * junit for {@link SpeculativeReadExecutor}.
+ */
+public class SpeculativeReadExecutorTest
+{
+    private SpeculativeReadExecutor executor = new SpeculativeReadExecutor();
+
+    @Test
+    public void testSpeculativeRetry()
+    {
+        Assert.assertFalse(SpeculativeRetry.valueOf(null).isEnabled());
+        Assert.assertFalse(SpeculativeRetry.valueOf("NONE").isEnabled());
+        Assert.assertTrue(SpeculativeRetry.valueOf("99percentile").isEnabled());
+        Assert.assertTrue(SpeculativeRetry.valueOf(" 50ms ").isEnabled());
+        Assert.assertEquals("50ms", SpeculativeRetry.valueOf("50ms").toString());
+
+        for (String invalid : new String[] { "always", "0percentile", "101percentile", "-1ms", "xms" })
+        {
+            try
+            {
+                SpeculativeRetry.valueOf(invalid);
+                Assert.fail("Should have failed for " + invalid);
+            }
+            catch (IllegalArgumentException iaex)
+            {
+                Assert.assertTrue(iaex.getMessage().contains(invalid));
+            }
+        }
+    }
+
+    @Test
+    public void testExecuteInline() throws Exception
+    {
+        final Thread caller = Thread.currentThread();
+        Thread executedBy = executor.execute("get", new Read<Thread>()
+        {
+            @Override
+            public Thread execute(boolean speculative)
+            {
+                return Thread.currentThread();
+            }
+        }, SpeculativeRetry.NONE, 0, true);
+        Assert.assertSame(caller, executedBy);
+    }
+
+    @Test
+    public void testSpeculativeRead() throws Exception
+    {
+        long start = System.currentTimeMillis();
+        String result = executor.execute("get", new Read<String>()
+        {
+            @Override
+            public String execute(boolean speculative) throws Exception
+            {
+                if (!speculative)
+                {
+                    Thread.sleep(5000);
+                }
+                return speculative ? "speculative" : "first";
+            }
+        }, SpeculativeRetry.valueOf("10ms"), 0, true);
+        Assert.assertEquals("speculative", result);
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+
+        // no second request if there is nowhere to send it.
+        result = executor.execute("get", new Read<String>()
+        {
+            @Override
+            public String execute(boolean speculative) throws Exception
+            {
+                Thread.sleep(50);
+                return speculative ? "speculative" : "first";
+            }
+        }, SpeculativeRetry.valueOf("10ms"), 0, false);
+        Assert.assertEquals("first", result);
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception
+    {
+        try
+        {
+            executor.execute("get", new Read<String>()
+            {
+                @Override
+                public String execute(boolean speculative) throws Exception
+                {
+                    Thread.sleep(5000);
+                    return "late";
+                }
+            }, SpeculativeRetry.NONE, 100, true);
+            Assert.fail("Should have timed out");
+        }
+        catch (TimeoutException tex)
+        {
+            Assert.assertTrue(tex.getMessage().contains("100 ms"));
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception
+    {
+        try
+        {
+            executor.execute("get", new Read<String>()
+            {
+                @Override
+                public String execute(boolean speculative)
+                {
+                    throw new IllegalStateException("failed");
+                }
+            }, SpeculativeRetry.NONE, 1000, true);
+            Assert.fail("Should have failed");
+        }
+        catch (IllegalStateException isex)
+        {
+            Assert.assertEquals("failed", isex.getMessage());
+        }
+    }
+
+    @Test
+    public void testBoundedPool() throws Exception
+    {
+        SpeculativeReadExecutor bounded = new SpeculativeReadExecutor(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch abandoned = new CountDownLatch(1);
+        final Thread caller = Thread.currentThread();
+        try
+        {
+            try
+            {
+                bounded.execute("get", new Read<String>()
+                {
+                    @Override
+                    public String execute(boolean speculative) throws Exception
+                    {
+                        try
+                        {
+                            // ignores interrupt, like a blocked socket read.
+                            while (!release.await(10, TimeUnit.MILLISECONDS))
+                            {
+                                Thread.interrupted();
+                            }
+                            return "late";
+                        }
+                        finally
+                        {
+                            abandoned.countDown();
+                        }
+                    }
+                }, SpeculativeRetry.NONE, 50, true);
+                Assert.fail("Should have timed out");
+            }
+            catch (TimeoutException tex)
+            {
+                // abandoned read still holds the only thread.
+            }
+
+            // Neither a deadline nor a second request is applied while pool
+            // is exhausted.
+            Thread executedBy = bounded.execute("get", new Read<Thread>()
+            {
+                @Override
+                public Thread execute(boolean speculative)
+                {
+                    Assert.assertFalse(speculative);
+                    return Thread.currentThread();
+                }
+            }, SpeculativeRetry.valueOf("0ms"), 50, true);
+            Assert.assertSame(caller, executedBy);
+
+            release.countDown();
+            Assert.assertTrue(abandoned.await(5, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            release.countDown();
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    public void testLatencyPercentile() throws Exception
+    {
+        Assert.assertEquals(-1, executor.getLatency("multiget", 99));
+        for (int i = 0; i < 200; i++)
+        {
+            executor.execute("multiget", new Read<Integer>()
+            {
+                @Override
+                public Integer execute(boolean speculative)
+                {
+                    return 0;
+                }
+            }, SpeculativeRetry.valueOf("99percentile"), 0, false);
+        }
+        Assert.assertTrue(executor.getLatency("multiget", 99) >= 0);
+        Assert.assertTrue(executor.getLatency("multiget", 50) <= executor.getLatency("multiget", 99));
+        Assert.assertEquals(-1, executor.getLatency("get_slice", 99));
+    }
+}
@@ -52,6 +52,10 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.impetus.kundera.Constants;
 import com.impetus.kundera.KunderaException;
 import com.impetus.kundera.PersistenceProperties;
@@ -90,6 +94,8 @@ public class CouchDBClient extends ClientBase implements Client<CouchDBQuery>, B
 
     private Gson gson = new Gson();
 
+    private JsonParser jsonParser = new JsonParser();
+
     private HttpClient httpClient;
 
     private Map<String, Object> externalProperty;
@@ -123,22 +129,7 @@ public class CouchDBClient extends ClientBase implements Client<CouchDBQuery>, B
                 entityMetadata.getPersistenceUnit());
         try
         {
-            if (key instanceof JsonElement)
-            {
-                key = ((JsonElement) key).getAsString();
-            }
-            String _id = null;
-            if (metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
-            {
-                Field field = (Field) entityMetadata.getIdAttribute().getJavaMember();
-                EmbeddableType embeddableType = metaModel.embeddable(entityMetadata.getIdAttribute()
-                        .getBindableJavaType());
-                _id = CouchDBObjectMapper.get_Id(field, key, embeddableType, entityMetadata.getTableName());
-            }
-            else
-            {
-                _id = entityMetadata.getTableName() + PropertyAccessorHelper.getString(key);
-            }
+            String _id = get_Id(entityMetadata, metaModel, key);
 
             URI uri = new URI(CouchDBConstants.PROTOCOL, null, httpHost.getHostName(), httpHost.getPort(),
                     CouchDBConstants.URL_SAPRATOR + entityMetadata.getSchema().toLowerCase()
@@ -176,15 +167,130 @@ public class CouchDBClient extends ClientBase implements Client<CouchDBQuery>, B
     public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... keys)
     {
         List results = new ArrayList();
-        for (Object key : keys)
+        if (keys == null || keys.length == 0)
         {
-            Object object = find(entityClass, key);
-            if (object != null)
+            return results;
+        }
+
+        HttpResponse response = null;
+        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        try
+        {
+            JsonArray _ids = new JsonArray();
+            for (Object key : keys)
             {
-                results.add(object);
+                _ids.add(new JsonPrimitive(get_Id(entityMetadata, metaModel, key)));
             }
+            JsonObject body = new JsonObject();
+            body.add("keys", _ids);
+
+            URI uri = new URI(CouchDBConstants.PROTOCOL, null, httpHost.getHostName(), httpHost.getPort(),
+                    CouchDBConstants.URL_SAPRATOR + entityMetadata.getSchema().toLowerCase()
+                            + CouchDBConstants.URL_SAPRATOR + "_all_docs", "include_docs=true", null);
+            HttpPost post = new HttpPost(uri);
+            post.addHeader("Accept", "application/json");
+            StringEntity entity = new StringEntity(body.toString(), Constants.CHARSET_UTF8);
+            entity.setContentType("application/json");
+            post.setEntity(entity);
+            response = httpClient.execute(httpHost, post, CouchDBUtils.getContext(httpHost));
+
+            JsonReader reader = new JsonReader(new InputStreamReader(response.getEntity().getContent(),
+                    Constants.CHARSET_UTF8));
+            readAllDocs(reader, entityClass, entityMetadata, results);
+            return results;
         }
-        return results;
+        catch (Exception e)
+        {
+            log.error("Error while finding objects by keys {}, Caused by {}.", Arrays.toString(keys), e);
+            throw new KunderaException(e);
+        }
+        finally
+        {
+            closeContent(response);
+        }
+    }
+
+    /**
+     * Reads response of _all_docs, document by document. Only one document is
+     * held as json tree at a time, rows of missing or deleted documents are
+     * skipped.
+     * 
+     * @param reader
+     *            json reader over response content.
+     * @param entityClass
+     *            entity class.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param results
+     *            list to add entities to.
+     * @throws IOException
+     */
+    private void readAllDocs(JsonReader reader, Class entityClass, EntityMetadata entityMetadata, List results)
+            throws IOException
+    {
+        String idColumnName = ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName();
+        reader.beginObject();
+        while (reader.hasNext())
+        {
+            if (!"rows".equals(reader.nextName()))
+            {
+                reader.skipValue();
+                continue;
+            }
+
+            reader.beginArray();
+            while (reader.hasNext())
+            {
+                JsonObject document = null;
+                reader.beginObject();
+                while (reader.hasNext())
+                {
+                    if ("doc".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT)
+                    {
+                        document = jsonParser.parse(reader).getAsJsonObject();
+                    }
+                    else
+                    {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                // Check for deleted object.
+                if (document != null && document.get(idColumnName) != null)
+                {
+                    Object entity = CouchDBObjectMapper.getEntityFromJson(entityClass, entityMetadata, document,
+                            entityMetadata.getRelationNames());
+                    if (entity != null)
+                    {
+                        results.add(entity);
+                    }
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Returns couchdb document id for given entity key.
+     */
+    private String get_Id(EntityMetadata entityMetadata, MetamodelImpl metaModel, Object key)
+    {
+        if (key instanceof JsonElement)
+        {
+            key = ((JsonElement) key).getAsString();
+        }
+        if (metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
+        {
+            Field field = (Field) entityMetadata.getIdAttribute().getJavaMember();
+            EmbeddableType embeddableType = metaModel.embeddable(entityMetadata.getIdAttribute()
+                    .getBindableJavaType());
+            return CouchDBObjectMapper.get_Id(field, key, embeddableType, entityMetadata.getTableName());
+        }
+        return entityMetadata.getTableName() + PropertyAccessorHelper.getString(key);
     }
 
     @Override
@@ -474,14 +580,7 @@ public class CouchDBClient extends ClientBase implements Client<CouchDBQuery>, B
         List<Object> resultSet = new ArrayList<Object>();
         if (ids != null)
         {
-            for (Object id : new HashSet(Arrays.asList(ids)))
-            {
-                Object object = find(entityClazz, id);
-                if (object != null)
-                {
-                    resultSet.add(object);
-                }
-            }
+            resultSet.addAll(findAll(entityClazz, null, new HashSet(Arrays.asList(ids)).toArray()));
         }
         return resultSet;
     }
@@ -120,7 +120,7 @@ public class CouchDBQuery extends QueryImpl
     {
         return new ResultIterator((CouchDBClient) persistenceDelegeator.getClient(getEntityMetadata()),
                 getEntityMetadata(), persistenceDelegeator, onTranslation(getKunderaQuery().getFilterClauseQueue(),
-                        getEntityMetadata()), getFetchSize() != null ? getFetchSize() : this.maxResult);
+                        getEntityMetadata()), getIterationLimit());
     }
 
     /**
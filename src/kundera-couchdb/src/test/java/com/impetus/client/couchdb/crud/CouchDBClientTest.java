@@ -152,6 +152,60 @@ public class CouchDBClientTest
         em = null;
     }
 
+    @Test
+    public void testFindAll()
+    {
+        EntityManager em = emf.createEntityManager();
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        CouchDBClient client = (CouchDBClient) clients.get(_PU);
+
+        for (int i = 0; i < 3; i++)
+        {
+            PersonCouchDB object = new PersonCouchDB();
+            object.setAge(30 + i);
+            object.setPersonId(ROW_KEY + i);
+            object.setPersonName("vivek" + i);
+            object.setDay(Day.MONDAY);
+            object.setMonth(Month.JAN);
+
+            Node node = new Node("node" + i, PersonCouchDB.class, new TransientState(), null, ROW_KEY + i);
+            node.setData(object);
+            client.persist(node);
+        }
+
+        PersonCouchDB deleted = (PersonCouchDB) client.find(PersonCouchDB.class, ROW_KEY + 2);
+        Assert.assertNotNull(deleted);
+        client.delete(deleted, ROW_KEY + 2);
+
+        // Missing and deleted keys come back from _all_docs without a doc and
+        // must be skipped.
+        List<PersonCouchDB> results = client.findAll(PersonCouchDB.class, null, ROW_KEY + 0, "missing", ROW_KEY + 2,
+                ROW_KEY + 1);
+        Assert.assertNotNull(results);
+        Assert.assertEquals(2, results.size());
+
+        Map<String, PersonCouchDB> byId = new HashMap<String, PersonCouchDB>();
+        for (PersonCouchDB result : results)
+        {
+            byId.put(result.getPersonId(), result);
+        }
+        for (int i = 0; i < 2; i++)
+        {
+            PersonCouchDB result = byId.get(ROW_KEY + i);
+            Assert.assertNotNull(result);
+            Assert.assertEquals(new Integer(30 + i), result.getAge());
+            Assert.assertEquals("vivek" + i, result.getPersonName());
+            Assert.assertEquals(Day.MONDAY, result.getDay());
+            Assert.assertEquals(Month.JAN, result.getMonth());
+        }
+
+        Assert.assertTrue(client.findAll(PersonCouchDB.class, null, "missing").isEmpty());
+
+        client.delete(byId.get(ROW_KEY + 0), ROW_KEY + 0);
+        client.delete(byId.get(ROW_KEY + 1), ROW_KEY + 1);
+        em.close();
+    }
+
     @Test
     public void testPersistJoinTableData() throws ClientProtocolException, URISyntaxException, IOException
     {
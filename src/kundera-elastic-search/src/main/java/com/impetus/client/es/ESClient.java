@@ -36,18 +36,26 @@ import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryRequestBuilder;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequestBuilder;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.FilterBuilders;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.TermFilterBuilder;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHitField;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.facet.FacetBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +76,7 @@ import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.metadata.model.type.AbstractManagedType;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.api.Batcher;
+import com.impetus.kundera.persistence.api.BulkWriter;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.PropertyAccessorHelper;
@@ -78,7 +87,7 @@ import com.impetus.kundera.utils.KunderaCoreUtils;
  * @author vivek.mishra Elastic search client implementation on {@link Client}
  * 
  */
-public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, ClientPropertiesSetter
+public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, ClientPropertiesSetter, BulkWriter
 {
 
     private ESClientFactory factory;
@@ -100,6 +109,9 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     
     private static final String KEY_SEPERATOR = "\001";
 
+    /** Time a scroll is kept alive between two scroll requests. */
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
 
     ESClient(final ESClientFactory factory, final TransportClient client, final Map<String, Object> externalProperties)
     {
@@ -213,15 +225,18 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
             throw new PersistenceException(eex);
         }
 
-        Map<String, Object> results = get.getSource();
+        return toEntity(get, entityType, metadata, key);
+    }
 
+    private Object toEntity(GetResponse get, EntityType entityType, EntityMetadata metadata, Object key)
+    {
         Object result = null;
 
         if (get.isExists())
         {
-            result = getInstance(entityClass, result);
+            result = getInstance(metadata.getEntityClazz(), result);
             PropertyAccessorHelper.setId(result, metadata, key);
-            result = wrap(results, entityType, result, metadata, true);
+            result = wrap(get.getSource(), entityType, result, metadata, true);
         }
 
         return result;
@@ -246,7 +261,7 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
         return result;
     }
 
-    List executeQuery(FilterBuilder filter, final EntityMetadata entityMetadata)
+    List executeQuery(FilterBuilder filter, final EntityMetadata entityMetadata, final int maxResults)
     {
 
         
@@ -259,22 +274,91 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
 
         List results = new ArrayList();
 
+        // Without size, search returns only first page (10 hits) of result.
         SearchResponse response = txClient.prepareSearch(entityMetadata.getSchema().toLowerCase())
-                .setTypes(entityMetadata.getTableName()).setFilter(filter).execute().actionGet();
+                .setTypes(entityMetadata.getTableName()).setFilter(filter).setSize(maxResults).execute().actionGet();
         SearchHits hits = response.getHits();
 
-        Object entity = null;
-
         for (SearchHit hit : hits.getHits())
         {
-            entity = getInstance(clazz, entity);
-            Map<String, Object> hitResult = hit.sourceAsMap();
-            results.add(wrap(hitResult, entityType, entity,entityMetadata, false));
+            results.add(wrap(hit, entityType, entityMetadata));
         }
 
         return results;
     }
 
+    /**
+     * Runs a search returning no hits but total hit count and given facets,
+     * computed over documents matching given filter.
+     * 
+     * @param filter
+     *            filter, may be null.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param facets
+     *            facets to compute.
+     * @return search response.
+     */
+    SearchResponse executeFacets(FilterBuilder filter, final EntityMetadata entityMetadata,
+            final List<FacetBuilder> facets)
+    {
+        // facets ignore search filter, so filter is applied as query.
+        SearchRequestBuilder builder = txClient.prepareSearch(entityMetadata.getSchema().toLowerCase())
+                .setTypes(entityMetadata.getTableName()).setSize(0)
+                .setQuery(filter != null ? QueryBuilders.constantScoreQuery(filter) : QueryBuilders.matchAllQuery());
+        for (FacetBuilder facet : facets)
+        {
+            builder.addFacet(facet);
+        }
+        return builder.execute().actionGet();
+    }
+
+    /**
+     * Starts scrolling over all documents matching given filter, hits are
+     * returned by {@link #scroll(String)} in pages of given size (per shard).
+     * 
+     * @param filter
+     *            filter, may be null.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param fetchSize
+     *            number of hits per shard returned by each scroll request.
+     * @return search response holding scroll id, with no hits.
+     */
+    SearchResponse startScroll(FilterBuilder filter, final EntityMetadata entityMetadata, final int fetchSize)
+    {
+        SearchRequestBuilder builder = txClient.prepareSearch(entityMetadata.getSchema().toLowerCase())
+                .setTypes(entityMetadata.getTableName()).setSearchType(SearchType.SCAN)
+                .setScroll(SCROLL_KEEP_ALIVE).setSize(fetchSize);
+        if (filter != null)
+        {
+            builder.setFilter(filter);
+        }
+        return builder.execute().actionGet();
+    }
+
+    /**
+     * Returns next page of hits of scroll.
+     * 
+     * @param scrollId
+     *            scroll id of previous response.
+     * @return search response, with no hits if scroll is complete.
+     */
+    SearchResponse scroll(String scrollId)
+    {
+        return txClient.prepareSearchScroll(scrollId).setScroll(SCROLL_KEEP_ALIVE).execute().actionGet();
+    }
+
+    /**
+     * Converts search hit into entity, or enhance entity if entity holds
+     * relations.
+     */
+    Object wrap(SearchHit hit, EntityType entityType, EntityMetadata entityMetadata)
+    {
+        Object entity = getInstance(entityMetadata.getEntityClazz(), null);
+        return wrap(hit.sourceAsMap(), entityType, entity, entityMetadata, false);
+    }
+
     private Object wrap(Map<String, Object> results, EntityType entityType, Object result, EntityMetadata metadata, boolean isIdSet)
     {
 
@@ -318,7 +402,60 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     @Override
     public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... keys)
     {
-        return null;
+        List results = new ArrayList();
+        if (keys == null || keys.length == 0)
+        {
+            return results;
+        }
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(entityClass);
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                metadata.getPersistenceUnit());
+
+        EntityType entityType = metaModel.entity(metadata.getEntityClazz());
+
+        MultiGetRequestBuilder multiGet = txClient.prepareMultiGet();
+        for (Object key : keys)
+        {
+            multiGet.add(metadata.getSchema().toLowerCase(), metadata.getTableName(),
+                    getKeyAsString(key, metadata, metaModel));
+        }
+
+        MultiGetResponse response = null;
+        try
+        {
+            response = multiGet.execute().get();
+        }
+        catch (InterruptedException iex)
+        {
+            log.error("Error while find records of {}, Caused by :.", entityClass.getSimpleName(), iex);
+            throw new PersistenceException(iex);
+        }
+        catch (ExecutionException eex)
+        {
+            log.error("Error while find records of {}, Caused by :.", entityClass.getSimpleName(), eex);
+            throw new PersistenceException(eex);
+        }
+
+        // Responses are in order of requested keys.
+        MultiGetItemResponse[] items = response.getResponses();
+        for (int i = 0; i < items.length; i++)
+        {
+            if (items[i].isFailed())
+            {
+                log.error("Error while find record of {}, Caused by :{}.", entityClass.getSimpleName(),
+                        items[i].getFailure().getMessage());
+                throw new PersistenceException(items[i].getFailure().getMessage());
+            }
+
+            Object result = toEntity(items[i].getResponse(), entityType, metadata, keys[i]);
+            if (result != null)
+            {
+                results.add(result);
+            }
+        }
+        return results;
     }
 
     @Override
@@ -367,6 +504,72 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
 
     }
 
+    @Override
+    public int deleteAll(EntityMetadata m, List<Object> entities)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        BulkRequestBuilder bulkRequest = txClient.prepareBulk();
+        for (Object entity : entities)
+        {
+            String key = getKeyAsString(PropertyAccessorHelper.getId(entity, m), m, metaModel);
+            bulkRequest.add(new DeleteRequest(m.getSchema().toLowerCase(), m.getTableName(), key));
+        }
+        return executeBulk(bulkRequest);
+    }
+
+    @Override
+    public int updateAll(EntityMetadata m, List<Object> entities, Map<String, Object> values)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        BulkRequestBuilder bulkRequest = txClient.prepareBulk();
+        for (Object entity : entities)
+        {
+            String key = getKeyAsString(PropertyAccessorHelper.getId(entity, m), m, metaModel);
+            bulkRequest.add(new UpdateRequest(m.getSchema().toLowerCase(), m.getTableName(), key).doc(values));
+        }
+        return executeBulk(bulkRequest);
+    }
+
+    /**
+     * Deletes documents matching given filter with one delete by query
+     * request. Index entries are not removed, so it is meant for entities
+     * indexed by Elasticsearch itself.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param filter
+     *            filter, may be null.
+     * @return number of documents matching filter before delete, delete by
+     *         query response holds no count.
+     */
+    int deleteAll(final EntityMetadata m, FilterBuilder filter)
+    {
+        String index = m.getSchema().toLowerCase();
+        QueryBuilder query = filter != null ? QueryBuilders.constantScoreQuery(filter) : QueryBuilders
+                .matchAllQuery();
+        long count = txClient.prepareCount(index).setTypes(m.getTableName()).setQuery(query).execute().actionGet()
+                .getCount();
+        txClient.prepareDeleteByQuery(index).setTypes(m.getTableName()).setQuery(query).execute().actionGet();
+        return (int) count;
+    }
+
+    private int executeBulk(BulkRequestBuilder bulkRequest)
+    {
+        if (bulkRequest.numberOfActions() == 0)
+        {
+            return 0;
+        }
+        BulkResponse response = bulkRequest.execute().actionGet();
+        if (response.hasFailures())
+        {
+            log.error("Error while executing bulk request, Caused by: {}.", response.buildFailureMessage());
+            throw new PersistenceException(response.buildFailureMessage());
+        }
+        return response.getItems().length;
+    }
+
     @Override
     public void persistJoinTable(JoinTableData joinTableData)
     {
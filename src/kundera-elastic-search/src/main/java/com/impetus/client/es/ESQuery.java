@@ -15,25 +15,39 @@
  ******************************************************************************/
 package com.impetus.client.es;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 import javax.persistence.Query;
 import javax.persistence.metamodel.EntityType;
 
+import org.apache.commons.lang.ClassUtils;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.AndFilterBuilder;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.OrFilterBuilder;
 import org.elasticsearch.index.query.RangeFilterBuilder;
 import org.elasticsearch.index.query.TermFilterBuilder;
+import org.elasticsearch.search.facet.FacetBuilder;
+import org.elasticsearch.search.facet.FacetBuilders;
+import org.elasticsearch.search.facet.statistical.StatisticalFacet;
 
 import com.impetus.kundera.client.Client;
+import com.impetus.kundera.client.ClientBase;
+import com.impetus.kundera.metadata.MetadataUtils;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.metadata.model.MetamodelImpl;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.query.Aggregator;
 import com.impetus.kundera.query.KunderaQuery;
+import com.impetus.kundera.query.KunderaQuery.AggregateClause;
+import com.impetus.kundera.query.KunderaQuery.AggregateFunction;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.QueryImpl;
 
@@ -74,7 +88,88 @@ public class ESQuery<E> extends QueryImpl
     @Override
     protected List<Object> populateEntities(EntityMetadata m, Client client)
     {
+        return ((ESClient) client).executeQuery(getFilter(m), m, maxResult);
+    }
+
+    /**
+     * Computes ungrouped aggregates with a statistical facet per aggregated
+     * attribute and total hit count for COUNT over entity. Grouped queries and
+     * aggregates over non numeric attributes are streamed instead.
+     */
+    @Override
+    protected List<Object> aggregate(EntityMetadata m, Client client)
+    {
+        List<AggregateClause> aggregates = kunderaQuery.getAggregateClauses();
+        if (!kunderaQuery.getGroupingClauses().isEmpty())
+        {
+            return super.aggregate(m, client);
+        }
+
+        List<FacetBuilder> facets = new ArrayList<FacetBuilder>();
+        for (int i = 0; i < aggregates.size(); i++)
+        {
+            AggregateClause aggregate = aggregates.get(i);
+            if (aggregate.getColumnName() != null)
+            {
+                Class<?> type = ClassUtils.primitiveToWrapper(aggregate.getJavaType());
+                if (!Number.class.isAssignableFrom(type) || BigDecimal.class.equals(type)
+                        || BigInteger.class.equals(type))
+                {
+                    return super.aggregate(m, client);
+                }
+                facets.add(FacetBuilders.statisticalFacet("a" + i).field(aggregate.getColumnName()));
+            }
+        }
 
+        SearchResponse response = ((ESClient) client).executeFacets(getFilter(m), m, facets);
+        Object[] row = new Object[aggregates.size()];
+        for (int i = 0; i < row.length; i++)
+        {
+            AggregateClause aggregate = aggregates.get(i);
+            if (aggregate.getColumnName() == null)
+            {
+                row[i] = response.getHits().getTotalHits();
+                continue;
+            }
+
+            StatisticalFacet facet = response.getFacets().facet(StatisticalFacet.class, "a" + i);
+            Object value = null;
+            if (aggregate.getFunction() == AggregateFunction.COUNT)
+            {
+                value = facet.getCount();
+            }
+            else if (facet.getCount() > 0)
+            {
+                switch (aggregate.getFunction())
+                {
+                case SUM:
+                    value = facet.getTotal();
+                    break;
+                case MIN:
+                    value = facet.getMin();
+                    break;
+                case MAX:
+                    value = facet.getMax();
+                    break;
+                default:
+                    value = facet.getMean();
+                    break;
+                }
+            }
+            row[i] = Aggregator.toResultValue(aggregate, value);
+        }
+        return Aggregator.toResultList(Collections.singletonList(row));
+    }
+
+    /**
+     * Builds filter for where clause of query.
+     * 
+     * @param m
+     *            entity metadata.
+     * @return filter, null if query has no where clause.
+     */
+    private FilterBuilder getFilter(EntityMetadata m)
+    {
         MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
                 m.getPersistenceUnit());
         EntityType entity = metaModel.entity(m.getEntityClazz());
@@ -112,9 +207,7 @@ public class ESQuery<E> extends QueryImpl
             }
         }
 
-        return ((ESClient) client).executeQuery(preInterFilter != null ? preInterFilter : preIntraFilter, m);
-
-        // return null;
+        return preInterFilter != null ? preInterFilter : preIntraFilter;
     }
 
     /*
@@ -152,6 +245,22 @@ public class ESQuery<E> extends QueryImpl
     @Override
     protected int onExecuteUpdate()
     {
+        if (kunderaQuery.isDeleteUpdate())
+        {
+            EntityMetadata m = getEntityMetadata();
+            Client client = persistenceDelegeator.getClient(m);
+
+            // Without Lucene index to maintain, documents are deleted by query
+            // within Elasticsearch.
+            if (!kunderaQuery.isUpdateClause() && !kunderaQuery.isNative() && isBulkWritable(m)
+                    && MetadataUtils.useSecondryIndex(((ClientBase) client).getClientMetadata()))
+            {
+                int count = ((ESClient) client).deleteAll(m, getFilter(m));
+                persistenceDelegeator.onBulkWrite(m);
+                return count;
+            }
+            return deleteOrUpdate(m, client);
+        }
         return 0;
     }
 
@@ -164,7 +273,9 @@ public class ESQuery<E> extends QueryImpl
     @Override
     public Iterator<E> iterate()
     {
-        return null;
+        EntityMetadata m = getEntityMetadata();
+        return new ResultIterator<E>((ESClient) persistenceDelegeator.getClient(m), m, persistenceDelegeator,
+                getFilter(m), getIterationLimit());
     }
 
     private FilterBuilder getFilter(FilterClause clause, final EntityMetadata metadata, final EntityType entityType)
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.es;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.persistence.metamodel.EntityType;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.query.FilterBuilder;
+import org.elasticsearch.search.SearchHit;
+
+import com.impetus.kundera.client.EnhanceEntity;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.query.IResultIterator;
+
+/**
+ * Implementation of elastic search result iteration. Walks over matching
+ * documents with scan/scroll, holding only current page of hits, which are
+ * converted into entities one at a time. Iteration stops after given number
+ * of entities.
+ *
+ * @param <E>
+ */
+class ResultIterator<E> implements IResultIterator<E>
+{
+    /** Maximum number of hits (per shard) fetched with one scroll request. */
+    static final int MAX_SCROLL_SIZE = 100;
+
+    private final ESClient client;
+
+    private final EntityMetadata m;
+
+    private final EntityType entityType;
+
+    private final PersistenceDelegator persistenceDelegator;
+
+    private String scrollId;
+
+    private Iterator<SearchHit> hits = Collections.<SearchHit> emptyList().iterator();
+
+    private boolean scrollComplete;
+
+    private final int maxResults;
+
+    private int count;
+
+    /**
+     * Constructor with parameters.
+     *
+     * @param client
+     *            elastic search client.
+     * @param m
+     *            entity metadata.
+     * @param pd
+     *            persistence delegator.
+     * @param filter
+     *            query filter, null to iterate over all documents.
+     * @param maxResults
+     *            maximum number of entities to return.
+     */
+    ResultIterator(final ESClient client, final EntityMetadata m, final PersistenceDelegator pd,
+            final FilterBuilder filter, final int maxResults)
+    {
+        this.client = client;
+        this.m = m;
+        this.persistenceDelegator = pd;
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        this.entityType = metaModel.entity(m.getEntityClazz());
+        this.maxResults = maxResults;
+        this.scrollComplete = maxResults <= 0;
+        this.scrollId = client.startScroll(filter, m, Math.max(1, Math.min(maxResults, MAX_SCROLL_SIZE)))
+                .getScrollId();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (count >= maxResults)
+        {
+            return false;
+        }
+        while (!hits.hasNext() && !scrollComplete)
+        {
+            SearchResponse response = client.scroll(scrollId);
+            scrollId = response.getScrollId();
+            SearchHit[] page = response.getHits().getHits();
+            scrollComplete = page.length == 0;
+            hits = Arrays.asList(page).iterator();
+        }
+        return hits.hasNext();
+    }
+
+    @Override
+    public E next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException("Nothing to scroll further for:" + m.getEntityClazz());
+        }
+        count++;
+        return setRelationEntities(client.wrap(hits.next(), entityType, m));
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("remove method is not supported over pagination");
+    }
+
+    @Override
+    public List<E> next(int chunkSize)
+    {
+        List<E> chunk = new ArrayList<E>(chunkSize);
+        while (chunk.size() < chunkSize && hasNext())
+        {
+            chunk.add(next());
+        }
+        return chunk;
+    }
+
+    private E setRelationEntities(Object enhanceEntity)
+    {
+        // Enhance entities can contain or may not contain relation.
+        // if it contain a relation means it is a child
+        // if it does not then it means it is a parent.
+        if (!m.isRelationViaJoinTable() && (m.getRelationNames() == null || (m.getRelationNames().isEmpty())))
+        {
+            return (E) (enhanceEntity instanceof EnhanceEntity ? ((EnhanceEntity) enhanceEntity).getEntity()
+                    : enhanceEntity);
+        }
+
+        if (!(enhanceEntity instanceof EnhanceEntity))
+        {
+            enhanceEntity = new EnhanceEntity(enhanceEntity, PropertyAccessorHelper.getId(enhanceEntity, m), null);
+        }
+        EnhanceEntity ee = (EnhanceEntity) enhanceEntity;
+
+        return (E) client.getReader().recursivelyFindEntities(ee.getEntity(), ee.getRelations(), m,
+                persistenceDelegator, false);
+    }
+}
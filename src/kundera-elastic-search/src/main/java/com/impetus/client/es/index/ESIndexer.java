@@ -11,20 +11,26 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.elasticsearch.action.ListenableActionFuture;
-import org.elasticsearch.action.delete.DeleteResponse;
-import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequestBuilder;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.impetus.kundera.Constants;
 import com.impetus.kundera.KunderaException;
-import com.impetus.kundera.index.Indexer;
+import com.impetus.kundera.index.BulkIndexer;
 import com.impetus.kundera.index.IndexerProperties;
 import com.impetus.kundera.index.IndexerProperties.Node;
 import com.impetus.kundera.index.IndexingException;
@@ -38,10 +44,13 @@ import com.thoughtworks.xstream.XStream;
  * @author vivek.mishra
  * 
  */
-public class ESIndexer implements Indexer
+public class ESIndexer implements BulkIndexer
 {
     private Client client;
 
+    /** Bulk request being built by current thread, if any. */
+    private final ThreadLocal<BulkRequestBuilder> bulkRequest = new ThreadLocal<BulkRequestBuilder>();
+
     /** The Constant UUID. */
     private static final long UUID = 6077004083174677888L;
 
@@ -54,6 +63,12 @@ public class ESIndexer implements Indexer
     /** the log used by this class. */
     private static Log log = LogFactory.getLog(ESIndexer.class);
 
+    /** Number of hits per shard fetched with one scroll request. */
+    private static final int SCROLL_SIZE = 500;
+
+    /** Time a scroll is kept alive between two scroll requests. */
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
     public ESIndexer()
     {
         init();
@@ -89,10 +104,18 @@ public class ESIndexer implements Indexer
             Object id = PropertyAccessorHelper.fromSourceToTargetClass(String.class,
                     ((AbstractAttribute) metadata.getIdAttribute()).getBindableJavaType(), values.get(idColumnName));
 
-            ListenableActionFuture<IndexResponse> listenableActionFuture = client
+            IndexRequestBuilder request = client
                     .prepareIndex(metadata.getSchema().toLowerCase(), entityClazz.getSimpleName(), id.toString())
-                    .setSource(json).execute();
-            IndexResponse response = listenableActionFuture.actionGet();
+                    .setSource(json);
+            BulkRequestBuilder bulk = bulkRequest.get();
+            if (bulk != null)
+            {
+                bulk.add(request);
+            }
+            else
+            {
+                request.execute().actionGet();
+            }
         }
         catch (JsonGenerationException e)
         {
@@ -126,19 +149,40 @@ public class ESIndexer implements Indexer
 
         EntityMetadata m = KunderaMetadataManager.getEntityMetadata(clazz);
 
-        ListenableActionFuture<SearchResponse> listenableActionFuture = client
-                .prepareSearch(m.getSchema().toLowerCase()).setQuery(QueryBuilders.queryString(luceneQuery))
-                .setSize(40000).execute();
-        SearchResponse response = listenableActionFuture.actionGet();
-
         Map<String, Object> results = new HashMap<String, Object>();
+
+        SearchRequestBuilder builder = client.prepareSearch(m.getSchema().toLowerCase()).setQuery(
+                QueryBuilders.queryString(luceneQuery));
+        if (count != Constants.INVALID)
+        {
+            ListenableActionFuture<SearchResponse> listenableActionFuture = builder
+                    .setFrom(start != Constants.INVALID ? start : 0).setSize(count).execute();
+            addIds(m, listenableActionFuture.actionGet(), results);
+            return results;
+        }
+
+        // No limit, scroll over all hits.
+        SearchResponse response = builder.setSearchType(SearchType.SCAN).setScroll(SCROLL_KEEP_ALIVE)
+                .setSize(SCROLL_SIZE).execute().actionGet();
+        do
+        {
+            response = client.prepareSearchScroll(response.getScrollId()).setScroll(SCROLL_KEEP_ALIVE).execute()
+                    .actionGet();
+        }
+        while (addIds(m, response, results));
+
+        return results;
+    }
+
+    private boolean addIds(EntityMetadata m, SearchResponse response, Map<String, Object> results)
+    {
         for (SearchHit hit : response.getHits())
         {
             Object id = PropertyAccessorHelper.fromSourceToTargetClass(
                     ((AbstractAttribute) m.getIdAttribute()).getBindableJavaType(), String.class, hit.getId());
             results.put(hit.getId(), id);
         }
-        return results;
+        return response.getHits().getHits().length > 0;
     }
 
     @Override
@@ -146,9 +190,40 @@ public class ESIndexer implements Indexer
     {
         EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(entityClazz);
         Object id = PropertyAccessorHelper.getId(entity, metadata);
-        DeleteResponse response = client
-                .prepareDelete(metadata.getSchema().toLowerCase(), entityClazz.getSimpleName(), id.toString())
-                .execute().actionGet();
+        DeleteRequestBuilder request = client.prepareDelete(metadata.getSchema().toLowerCase(),
+                entityClazz.getSimpleName(), id.toString());
+        BulkRequestBuilder bulk = bulkRequest.get();
+        if (bulk != null)
+        {
+            bulk.add(request);
+        }
+        else
+        {
+            request.execute().actionGet();
+        }
+    }
+
+    @Override
+    public void beginBulk()
+    {
+        bulkRequest.set(client.prepareBulk());
+    }
+
+    @Override
+    public void endBulk()
+    {
+        BulkRequestBuilder bulk = bulkRequest.get();
+        bulkRequest.remove();
+        if (bulk != null && bulk.numberOfActions() > 0)
+        {
+            BulkResponse response = bulk.execute().actionGet();
+            if (response.hasFailures())
+            {
+                log.error("Error while executing bulk index request, Caused by: " + response.buildFailureMessage());
+                throw new IndexingException("Error while executing bulk index request: "
+                        + response.buildFailureMessage());
+            }
+        }
     }
 
     @Override
@@ -102,6 +102,10 @@ public class ESClientTest
         PersonES invalidResult = (PersonES) client.find(PersonES.class, "2_p");
         Assert.assertNull(invalidResult);
 
+        List<PersonES> results = client.findAll(PersonES.class, null, "1", "2_p");
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals("vivek", results.get(0).getPersonName());
+
         client.delete(result, "1");
         result = (PersonES) client.find(PersonES.class, "1");
         Assert.assertNull(result);
@@ -16,6 +16,7 @@
 package com.impetus.client.es;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +39,7 @@ import org.junit.Test;
 import com.impetus.client.es.PersonES.Day;
 import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.query.QueryImpl;
 
 /**
  * @author vivek.mishra junit to demonstrate ESQuery implementation.
@@ -245,6 +247,63 @@ public class PersonESTest
         // TODO: >,<,>=,<=
     }
 
+    @Test
+    public void testIterate() throws InterruptedException
+    {
+        for (int i = 1; i <= 5; i++)
+        {
+            PersonES person = new PersonES();
+            person.setAge(40);
+            person.setDay(Day.MONDAY);
+            person.setPersonId("iterate" + i);
+            person.setPersonName("vivek" + i);
+            em.persist(person);
+        }
+        waitThread();
+
+        String query = "Select p from PersonES p where p.age = 40";
+
+        // fetch size limits number of entities iterated over.
+        QueryImpl q = (QueryImpl) em.createQuery(query);
+        q.setFetchSize(3);
+        Assert.assertEquals(3, count(q.iterate()));
+
+        // else max results does.
+        q = (QueryImpl) em.createQuery(query);
+        q.setMaxResults(4);
+        Assert.assertEquals(4, count(q.iterate()));
+
+        q = (QueryImpl) em.createQuery(query);
+        q.setFetchSize(10);
+        Iterator<PersonES> persons = q.iterate();
+        int count = 0;
+        while (persons.hasNext())
+        {
+            PersonES person = persons.next();
+            Assert.assertEquals(40, person.getAge());
+            Assert.assertTrue(person.getPersonName().startsWith("vivek"));
+            count++;
+        }
+        Assert.assertEquals(5, count);
+
+        for (int i = 1; i <= 5; i++)
+        {
+            em.remove(em.find(PersonES.class, "iterate" + i));
+        }
+        waitThread();
+    }
+
+    private int count(Iterator<?> iterator)
+    {
+        int count = 0;
+        while (iterator.hasNext())
+        {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+
     @AfterClass
     public static void tearDownAfterClass() throws Exception
     {
@@ -53,6 +53,7 @@ import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.client.ClientPropertiesSetter;
 import com.impetus.kundera.db.RelationHolder;
 import com.impetus.kundera.generator.TableGenerator;
+import com.impetus.kundera.generator.TableIdAllocator;
 import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.index.IndexManager;
 import com.impetus.kundera.lifecycle.states.RemovedState;
@@ -67,8 +68,11 @@ import com.impetus.kundera.metadata.model.TableGeneratorDiscriptor;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.api.Batcher;
+import com.impetus.kundera.persistence.api.BulkWriter;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.service.SpeculativeReadExecutor;
+import com.impetus.kundera.service.SpeculativeReadExecutor.SpeculativeRetry;
 
 /**
  * HBase client.
@@ -76,7 +80,7 @@ import com.impetus.kundera.property.PropertyAccessorHelper;
  * @author impetus
  */
 public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batcher, ClientPropertiesSetter,
-        TableGenerator
+        TableGenerator, BulkWriter
 {
     /** the log used by this class. */
     private static Logger log = LoggerFactory.getLogger(HBaseClient.class);
@@ -93,6 +97,14 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
 
     private Map<String, Object> puProperties;
 
+    private HBaseClientFactory clientFactory;
+
+    /** Scanner settings of this client, query hints are applied over them. */
+    private Map<String, Object> scanProperties = new HashMap<String, Object>();
+
+    /** Deadline of finds by row key in milliseconds, 0 for none. */
+    private long readTimeout;
+
     /**
      * Instantiates a new h base client.
      * 
@@ -107,19 +119,27 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
      * @param persistenceUnit
      *            the persistence unit
      * @param puProperties
+     * @param clientMetadata
+     * @param clientFactory
+     *            the client factory
      */
     public HBaseClient(IndexManager indexManager, HBaseConfiguration conf, HTablePool hTablePool, EntityReader reader,
-            String persistenceUnit, Map<String, Object> puProperties, ClientMetadata clientMetadata)
+            String persistenceUnit, Map<String, Object> puProperties, ClientMetadata clientMetadata,
+            HBaseClientFactory clientFactory)
     {
         this.indexManager = indexManager;
         this.handler = new HBaseDataHandler(conf, hTablePool);
+        ((HBaseDataHandler) this.handler).setReadExecutor(clientFactory.getReadExecutor());
         this.reader = reader;
         this.persistenceUnit = persistenceUnit;
         this.puProperties = puProperties;
 
         this.clientMetadata = clientMetadata;
+        this.clientFactory = clientFactory;
 
         getBatchSize(persistenceUnit, this.puProperties);
+        populateScanProperties(persistenceUnit, this.puProperties);
+        populateReadProperties(persistenceUnit, this.puProperties);
     }
 
     /*
@@ -129,13 +149,13 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
      * java.lang.Object, java.util.List)
      */
     @Override
-    public Object find(Class entityClass, Object rowId)
+    public Object find(Class entityClass, final Object rowId)
     {
-        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
-        List<String> relationNames = entityMetadata.getRelationNames();
+        final EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
+        final List<String> relationNames = entityMetadata.getRelationNames();
         // columnFamily has a different meaning for HBase, so it won't be used
         // here
-        String tableName = entityMetadata.getSchema();
+        final String tableName = entityMetadata.getSchema();
         Object enhancedEntity = null;
         List results = null;
         try
@@ -144,8 +164,16 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
             {
                 return null;
             }
-            results = handler.readData(tableName, entityMetadata.getEntityClazz(), entityMetadata, rowId,
-                    relationNames, null);
+            final DataHandler readHandler = getReadHandler();
+            results = executeRead("get", new SpeculativeReadExecutor.Read<List>()
+            {
+                @Override
+                public List execute(boolean speculative) throws Exception
+                {
+                    return readHandler.readData(tableName, entityMetadata.getEntityClazz(), entityMetadata, rowId,
+                            relationNames, null);
+                }
+            });
             if (results != null)
             {
                 enhancedEntity = results.get(0);
@@ -166,9 +194,9 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
      * java.lang.Object[])
      */
     @Override
-    public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... rowIds)
+    public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, final Object... rowIds)
     {
-        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
+        final EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
         if (rowIds == null)
         {
             return null;
@@ -176,8 +204,16 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         List results;
         try
         {
-            results = handler.readAll(entityMetadata.getSchema(), entityMetadata.getEntityClazz(), entityMetadata,
-                    Arrays.asList(rowIds), entityMetadata.getRelationNames());
+            final DataHandler readHandler = getReadHandler();
+            results = executeRead("multi_get", new SpeculativeReadExecutor.Read<List>()
+            {
+                @Override
+                public List execute(boolean speculative) throws Exception
+                {
+                    return readHandler.readAll(entityMetadata.getSchema(), entityMetadata.getEntityClazz(),
+                            entityMetadata, Arrays.asList(rowIds), entityMetadata.getRelationNames());
+                }
+            });
         }
         catch (IOException ioex)
         {
@@ -428,7 +464,7 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         try
         {
             // Write data to HBase
-            handler.writeData(tableName, entityMetadata, entity, id, relations);
+            handler.writeData(tableName, entityMetadata, entity, id, relations, changedFields);
         }
         catch (IOException e)
         {
@@ -514,6 +550,67 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
                 ((AbstractAttribute) metadata.getIdAttribute()).getJPAColumnName(), pKey);
     }
 
+    @Override
+    public int deleteAll(EntityMetadata m, List<Object> entities)
+    {
+        List<Object> rowKeys = new ArrayList<Object>(entities.size());
+        for (Object entity : entities)
+        {
+            rowKeys.add(PropertyAccessorHelper.getId(entity, m));
+        }
+        try
+        {
+            ((HBaseDataHandler) handler).deleteRows(rowKeys, m.getSchema(), m.getTableName());
+        }
+        catch (IOException ioex)
+        {
+            log.error("Error while executing bulk delete, Caused by: .", ioex);
+            throw new PersistenceException(ioex);
+        }
+        return rowKeys.size();
+    }
+
+    /**
+     * Rewrites rows of given entities with one batch put, entities already
+     * hold updated values.
+     */
+    @Override
+    public int updateAll(EntityMetadata m, List<Object> entities, Map<String, Object> values)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        EntityType entityType = metaModel.entity(m.getEntityClazz());
+        List<HBaseDataWrapper> dataSet = new ArrayList<HBaseDataHandler.HBaseDataWrapper>();
+        try
+        {
+            for (Object entity : entities)
+            {
+                Object rowKey = PropertyAccessorHelper.getId(entity, m);
+                HBaseDataWrapper columnWrapper = new HBaseDataHandler.HBaseDataWrapper(rowKey,
+                        new java.util.HashMap<String, Attribute>(), entity, m.getTableName());
+                List<HBaseDataWrapper> embeddableData = new ArrayList<HBaseDataHandler.HBaseDataWrapper>();
+                ((HBaseDataHandler) handler).preparePersistentData(m.getSchema(), m.getTableName(), entity, rowKey,
+                        metaModel, entityType.getAttributes(), columnWrapper, embeddableData);
+                addRecords(columnWrapper, embeddableData, dataSet);
+            }
+
+            Map<HTableInterface, List<HBaseDataWrapper>> data = new HashMap<HTableInterface, List<HBaseDataWrapper>>();
+            data.put(((HBaseDataHandler) handler).gethTable(m.getSchema()), dataSet);
+            ((HBaseDataHandler) handler).batch_insert(data);
+        }
+        catch (IOException ioex)
+        {
+            log.error("Error while executing bulk update, Caused by: .", ioex);
+            throw new KunderaException(ioex);
+        }
+
+        for (Object entity : entities)
+        {
+            indexEntity(m, entity);
+        }
+        return entities.size();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -527,6 +624,19 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
 
         EntityMetadata m = KunderaMetadataManager.getEntityMetadata(entityClazz);
 
+        if (((HBaseDataHandler) handler).isRelationIndex())
+        {
+            try
+            {
+                return ((HBaseDataHandler) handler).findByRelationIndex(m, colName, colValue);
+            }
+            catch (IOException ioe)
+            {
+                log.error("Error during find By Relation, Caused by: .", ioe);
+                throw new KunderaException(ioe);
+            }
+        }
+
         String columnFamilyName = m.getTableName();
 
         byte[] valueInBytes = HBaseUtils.getBytes(colValue);
@@ -779,6 +889,190 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         this.batchSize = batch_Size;
     }
 
+    /**
+     * Reads scanner caching, batch and block cache settings from external or
+     * persistence unit properties.
+     * 
+     * @param persistenceUnit
+     * @param puProperties
+     */
+    private void populateScanProperties(String persistenceUnit, Map<String, Object> puProperties)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+        for (String name : new String[] { HBaseConstants.SCANNER_CACHING, HBaseConstants.SCANNER_BATCH,
+                HBaseConstants.CACHE_BLOCKS })
+        {
+            Object value = puProperties != null ? puProperties.get(name) : null;
+            if (value == null && puMetadata != null)
+            {
+                value = puMetadata.getProperty(name);
+            }
+            if (value != null)
+            {
+                setScanProperty(name, value);
+            }
+        }
+    }
+
+    /**
+     * Sets a scanner setting of this client.
+     * 
+     * @param name
+     *            one of {@link HBaseConstants#SCANNER_CACHING},
+     *            {@link HBaseConstants#SCANNER_BATCH} or
+     *            {@link HBaseConstants#CACHE_BLOCKS}.
+     * @param value
+     *            setting value.
+     */
+    void setScanProperty(String name, Object value)
+    {
+        scanProperties.put(name, value);
+        applyScanProperty(name, value);
+    }
+
+    /**
+     * Applies scanner settings given as query hints until called again with
+     * null, which restores settings of this client.
+     * 
+     * @param hints
+     *            query hints, or null.
+     */
+    public void setScanHints(Map<String, Object> hints)
+    {
+        if (hints == null)
+        {
+            HBaseDataHandler dataHandler = (HBaseDataHandler) handler;
+            dataHandler.setScannerCaching(HBaseConstants.DEFAULT_SCANNER_CACHING);
+            dataHandler.setScannerBatch(0);
+            dataHandler.setCacheBlocks(true);
+            hints = scanProperties;
+        }
+        for (Map.Entry<String, Object> hint : hints.entrySet())
+        {
+            if (hint.getValue() != null)
+            {
+                applyScanProperty(hint.getKey(), hint.getValue());
+            }
+        }
+    }
+
+    private void applyScanProperty(String name, Object value)
+    {
+        HBaseDataHandler dataHandler = (HBaseDataHandler) handler;
+        if (HBaseConstants.SCANNER_CACHING.equals(name))
+        {
+            dataHandler.setScannerCaching(toInt(value));
+        }
+        else if (HBaseConstants.SCANNER_BATCH.equals(name))
+        {
+            dataHandler.setScannerBatch(toInt(value));
+        }
+        else if (HBaseConstants.CACHE_BLOCKS.equals(name))
+        {
+            dataHandler.setCacheBlocks(value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value
+                    .toString().trim()));
+        }
+    }
+
+    /**
+     * Reads multi get chunk size, relation index and read timeout settings
+     * from external or persistence unit properties.
+     * 
+     * @param persistenceUnit
+     * @param puProperties
+     */
+    private void populateReadProperties(String persistenceUnit, Map<String, Object> puProperties)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+        HBaseDataHandler dataHandler = (HBaseDataHandler) handler;
+
+        Object chunkSize = getProperty(puMetadata, puProperties, HBaseConstants.MULTIGET_CHUNK_SIZE);
+        if (chunkSize != null)
+        {
+            dataHandler.setMultiGetChunkSize(toInt(chunkSize));
+        }
+
+        Object relationIndex = getProperty(puMetadata, puProperties, HBaseConstants.RELATION_INDEX);
+        if (relationIndex != null)
+        {
+            dataHandler.setRelationIndex(relationIndex instanceof Boolean ? (Boolean) relationIndex : Boolean
+                    .parseBoolean(relationIndex.toString().trim()));
+        }
+
+        Object timeout = getProperty(puMetadata, puProperties, PersistenceProperties.KUNDERA_READ_TIMEOUT);
+        if (timeout != null)
+        {
+            setReadTimeout(toInt(timeout));
+        }
+    }
+
+    /**
+     * Executes given read within read timeout of this client, if any. Reads
+     * are not retried speculatively, as a row is served by a single region
+     * server.
+     */
+    private <T> T executeRead(String operation, SpeculativeReadExecutor.Read<T> read) throws IOException
+    {
+        try
+        {
+            return clientFactory.getSpeculativeReadExecutor().execute(operation, read, SpeculativeRetry.NONE,
+                    readTimeout, false);
+        }
+        catch (IOException ioex)
+        {
+            throw ioex;
+        }
+        catch (RuntimeException rex)
+        {
+            throw rex;
+        }
+        catch (Exception ex)
+        {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Returns handler for a find by row key. Reads with a deadline run on
+     * executor's threads and may outlive the find, so they get a copy of
+     * handler, which is not thread safe.
+     */
+    private DataHandler getReadHandler()
+    {
+        return readTimeout > 0 ? ((HBaseDataHandler) handler).getReadHandle() : handler;
+    }
+
+    /**
+     * Sets deadline of finds by row key in milliseconds, 0 for none.
+     * 
+     * @param readTimeout
+     *            the read timeout.
+     */
+    void setReadTimeout(long readTimeout)
+    {
+        if (readTimeout < 0)
+        {
+            throw new IllegalArgumentException(PersistenceProperties.KUNDERA_READ_TIMEOUT
+                    + " property must be numeric and >= 0.");
+        }
+        this.readTimeout = readTimeout;
+    }
+
+    private Object getProperty(PersistenceUnitMetadata puMetadata, Map<String, Object> puProperties, String name)
+    {
+        Object value = puProperties != null ? puProperties.get(name) : null;
+        if (value == null && puMetadata != null)
+        {
+            value = puMetadata.getProperty(name);
+        }
+        return value;
+    }
+
+    private int toInt(Object value)
+    {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+    }
+
     @Override
     public void populateClientProperties(Client client, Map<String, Object> properties)
     {
@@ -786,21 +1080,32 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
     }
 
     @Override
-    public Long generate(TableGeneratorDiscriptor discriptor)
+    public Long generate(final TableGeneratorDiscriptor discriptor)
     {
-        try
+        return clientFactory.getTableIdAllocator(discriptor).next(new TableIdAllocator.BlockSource()
         {
-            HTableInterface hTable = ((HBaseDataHandler) handler).gethTable(discriptor.getSchema());
-            Long latestCount = hTable.incrementColumnValue(discriptor.getPkColumnValue().getBytes(), discriptor
-                    .getTable().getBytes(), discriptor.getValueColumnName().getBytes(), 1);
-            if (latestCount == 1)
-            {
-                return (long) discriptor.getInitialValue();
-            }
-            else
+            @Override
+            public long reserveBlock()
             {
-                return (latestCount - 1) * discriptor.getAllocationSize();
+                return reserveIdBlock(discriptor);
             }
+        });
+    }
+
+    /**
+     * Increments counter of given table generator by one, reserving a block
+     * of ids, and returns incremented value.
+     * 
+     * @param discriptor
+     * @return
+     */
+    private long reserveIdBlock(TableGeneratorDiscriptor discriptor)
+    {
+        try
+        {
+            HTableInterface hTable = ((HBaseDataHandler) handler).gethTable(discriptor.getSchema());
+            return hTable.incrementColumnValue(discriptor.getPkColumnValue().getBytes(), discriptor.getTable()
+                    .getBytes(), discriptor.getValueColumnName().getBytes(), 1);
         }
         catch (IOException ioex)
         {
@@ -16,6 +16,8 @@
 package com.impetus.client.hbase;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -24,6 +26,8 @@ import org.apache.hadoop.hbase.client.HTablePool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import com.impetus.client.hbase.config.HBasePropertyReader;
 import com.impetus.client.hbase.schemamanager.HBaseSchemaManager;
 import com.impetus.kundera.PersistenceProperties;
@@ -33,6 +37,7 @@ import com.impetus.kundera.configure.schema.api.SchemaManager;
 import com.impetus.kundera.loader.GenericClientFactory;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
+import com.impetus.kundera.service.SpeculativeReadExecutor;
 
 /**
  * HBaseClientFactory, instantiates client for HBase
@@ -57,6 +62,14 @@ public class HBaseClientFactory extends GenericClientFactory
     /** The pool size. */
     private int poolSize;
 
+    /** Fetches large key sets region by region, shared by all clients. */
+    private ExecutorService readExecutor;
+
+    private int readThreads;
+
+    /** Applies read timeout to finds by row key of all clients. */
+    private final SpeculativeReadExecutor speculativeReadExecutor = new SpeculativeReadExecutor();
+
     @Override
     public void initialize(Map<String, Object> externalProperty)
     {
@@ -68,11 +81,13 @@ public class HBaseClientFactory extends GenericClientFactory
         String node = null;
         String port = null;
         String poolSize = null;
+        String readThreads = null;
         if (externalProperty != null)
         {
             node = (String) externalProperty.get(PersistenceProperties.KUNDERA_NODES);
             port = (String) externalProperty.get(PersistenceProperties.KUNDERA_PORT);
             poolSize = (String) externalProperty.get(PersistenceProperties.KUNDERA_POOL_SIZE_MAX_ACTIVE);
+            readThreads = (String) externalProperty.get(HBaseConstants.READ_THREADS);
         }
         if (node == null)
         {
@@ -87,6 +102,11 @@ public class HBaseClientFactory extends GenericClientFactory
             poolSize = puMetadata.getProperties().getProperty(PersistenceProperties.KUNDERA_POOL_SIZE_MAX_ACTIVE);
         }
 
+        if (readThreads == null)
+        {
+            readThreads = puMetadata.getProperties().getProperty(HBaseConstants.READ_THREADS);
+        }
+
         if (StringUtils.isEmpty(poolSize))
         {
             this.poolSize = DEFAULT_POOL_SIZE;
@@ -96,6 +116,9 @@ public class HBaseClientFactory extends GenericClientFactory
             this.poolSize = Integer.parseInt(poolSize);
         }
 
+        this.readThreads = StringUtils.isEmpty(readThreads) ? HBaseConstants.DEFAULT_READ_THREADS : Integer
+                .parseInt(readThreads.trim());
+
         onValidation(node, port);
 
         Configuration hadoopConf = new Configuration();
@@ -126,13 +149,33 @@ public class HBaseClientFactory extends GenericClientFactory
     protected Object createPoolOrConnection()
     {
         hTablePool = new HTablePool(conf, poolSize);
+        if (readThreads > 0)
+        {
+            readExecutor = Executors.newFixedThreadPool(readThreads, new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("kundera-hbase-reader-%d").build());
+        }
         return hTablePool;
     }
 
     @Override
     protected Client instantiateClient(String persistenceUnit)
     {
-        return new HBaseClient(indexManager, conf, hTablePool, reader, persistenceUnit, externalProperties, clientMetadata);
+        return new HBaseClient(indexManager, conf, hTablePool, reader, persistenceUnit, externalProperties,
+                clientMetadata, this);
+    }
+
+    /**
+     * @return executor fetching large key sets region by region, null if
+     *         parallel reads are disabled.
+     */
+    ExecutorService getReadExecutor()
+    {
+        return readExecutor;
+    }
+
+    SpeculativeReadExecutor getSpeculativeReadExecutor()
+    {
+        return speculativeReadExecutor;
     }
 
     @Override
@@ -148,6 +191,12 @@ public class HBaseClientFactory extends GenericClientFactory
         // hTablePool = null;
 
         // indexManager.close();
+        if (readExecutor != null)
+        {
+            readExecutor.shutdownNow();
+            readExecutor = null;
+        }
+        speculativeReadExecutor.shutdown();
         if (schemaManager != null)
         {
             schemaManager.dropSchema();
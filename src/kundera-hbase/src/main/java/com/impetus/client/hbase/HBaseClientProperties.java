@@ -63,6 +63,15 @@ class HBaseClientProperties
                         setBatchSize(value);
 
                     }
+                    else if (key.equals(HBaseConstants.SCANNER_CACHING) || key.equals(HBaseConstants.SCANNER_BATCH)
+                            || key.equals(HBaseConstants.CACHE_BLOCKS))
+                    {
+                        this.hbaseClient.setScanProperty(key, value);
+                    }
+                    else if (key.equals(PersistenceProperties.KUNDERA_READ_TIMEOUT))
+                    {
+                        this.hbaseClient.setReadTimeout(Long.parseLong(value.toString().trim()));
+                    }
 
                     // Add more
                 }
@@ -28,4 +28,28 @@ public final class HBaseConstants
     public static final String ZOOKEEPER_PORT = "zookeeper.port";
 
     public static final String ZOOKEEPER_HOST = "zookeeper.host";
+
+    /** Number of rows fetched per scanner round trip. */
+    public static final String SCANNER_CACHING = "hbase.scanner.caching";
+
+    /** Maximum number of columns per scanned result, for very wide rows. */
+    public static final String SCANNER_BATCH = "hbase.scanner.batch";
+
+    /** Whether blocks read by scans and gets are cached by region servers. */
+    public static final String CACHE_BLOCKS = "hbase.cache.blocks";
+
+    /** Maximum number of rows fetched with one multi get. */
+    public static final String MULTIGET_CHUNK_SIZE = "hbase.multiget.chunk.size";
+
+    /** Number of threads fetching large key sets region by region. */
+    public static final String READ_THREADS = "hbase.read.threads";
+
+    /** Whether row keys of children are indexed by their relation values. */
+    public static final String RELATION_INDEX = "hbase.relation.index";
+
+    public static final int DEFAULT_SCANNER_CACHING = 100;
+
+    public static final int DEFAULT_MULTIGET_CHUNK_SIZE = 500;
+
+    public static final int DEFAULT_READ_THREADS = 4;
 }
@@ -156,6 +156,32 @@ public interface Writer
      */
     void delete(HTableInterface hTable, Object rowKey, String columnFamily);
 
+    /**
+     * Deletes rows with one batch call.
+     * 
+     * @param hTable
+     *            the h table
+     * @param rowKeys
+     *            the row keys
+     * @param columnFamily
+     *            the column family
+     */
+    void delete(HTableInterface hTable, List<Object> rowKeys, String columnFamily);
+
+    /**
+     * Deletes given columns of a row.
+     * 
+     * @param hTable
+     *            the h table
+     * @param rowKey
+     *            the row key
+     * @param columnFamily
+     *            the column family
+     * @param qualifiers
+     *            qualifiers of columns to delete
+     */
+    void deleteColumns(HTableInterface hTable, Object rowKey, String columnFamily, List<String> qualifiers);
+
     /**
      * method to perform batch insert/update.
      * 
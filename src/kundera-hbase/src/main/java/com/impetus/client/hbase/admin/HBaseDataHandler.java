@@ -16,15 +16,23 @@
 package com.impetus.client.hbase.admin;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.persistence.ElementCollection;
 import javax.persistence.Embedded;
@@ -32,22 +40,32 @@ import javax.persistence.PersistenceException;
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.MasterNotRunningException;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.HTableInterface;
 import org.apache.hadoop.hbase.client.HTablePool;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.jboss.netty.util.internal.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.client.hbase.HBaseConstants;
 import com.impetus.client.hbase.HBaseData;
 import com.impetus.client.hbase.Reader;
 import com.impetus.client.hbase.Writer;
@@ -98,6 +116,22 @@ public class HBaseDataHandler implements DataHandler
 
     private Map<String, FilterList> filters = new ConcurrentHashMap<String, FilterList>();
 
+    private int scannerCaching = HBaseConstants.DEFAULT_SCANNER_CACHING;
+
+    private int scannerBatch;
+
+    private boolean cacheBlocks = true;
+
+    private int multiGetChunkSize = HBaseConstants.DEFAULT_MULTIGET_CHUNK_SIZE;
+
+    /** Executor fetching large key sets region by region, if any. */
+    private ExecutorService readExecutor;
+
+    private boolean relationIndex;
+
+    /** Relation index tables and column families known to exist. */
+    private Set<String> relationIndexes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     /**
      * Instantiates a new h base data handler.
      * 
@@ -203,6 +237,25 @@ public class HBaseDataHandler implements DataHandler
         }
     }
 
+    /**
+     * Copies settings, admin and table pool of given handler.
+     */
+    private HBaseDataHandler(HBaseDataHandler handler)
+    {
+        this.conf = handler.conf;
+        this.hTablePool = handler.hTablePool;
+        this.admin = handler.admin;
+        this.filter = handler.filter;
+        this.filters = handler.filters;
+        this.scannerCaching = handler.scannerCaching;
+        this.scannerBatch = handler.scannerBatch;
+        this.cacheBlocks = handler.cacheBlocks;
+        this.multiGetChunkSize = handler.multiGetChunkSize;
+        this.readExecutor = handler.readExecutor;
+        this.relationIndex = handler.relationIndex;
+        this.relationIndexes = handler.relationIndexes;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -251,19 +304,145 @@ public class HBaseDataHandler implements DataHandler
     public List readAll(final String tableName, Class clazz, EntityMetadata m, final List<Object> rowKey,
             List<String> relationNames, String... columns) throws IOException
     {
+        // Load raw data from HBase
+        List<HBaseData> results = loadAll(tableName, m, rowKey, null, columns);
+        return onRead(tableName, clazz, m, null, null, null, relationNames, results);
+    }
 
-        List output = null;
-
-        Object entity = null;
+    /**
+     * Loads given rows with multi gets. Key sets larger than one multi get
+     * chunk are grouped by region and their chunks are fetched concurrently,
+     * each one served by a single region server.
+     * 
+     * @param tableName
+     *            table name.
+     * @param m
+     *            entity metadata.
+     * @param rowKeys
+     *            row keys.
+     * @param f
+     *            filter applied to each row, if any.
+     * @param columns
+     *            selected columns, if any.
+     * @return loaded rows or null, if none found.
+     * @throws IOException
+     */
+    private List<HBaseData> loadAll(final String tableName, final EntityMetadata m, final List<Object> rowKeys,
+            final Filter f, final String[] columns) throws IOException
+    {
+        final HBaseReader reader = (HBaseReader) hbaseReader;
+        if (readExecutor == null || rowKeys.size() <= multiGetChunkSize)
+        {
+            HTableInterface hTable = gethTable(tableName);
+            try
+            {
+                return reader.loadAll(hTable, rowKeys, m.getTableName(), f, columns);
+            }
+            finally
+            {
+                puthTable(hTable);
+            }
+        }
 
-        HTableInterface hTable = null;
+        List<Future<List<HBaseData>>> chunks = new ArrayList<Future<List<HBaseData>>>();
+        for (List<Object> regionKeys : groupByRegion(tableName, rowKeys))
+        {
+            for (int from = 0; from < regionKeys.size(); from += multiGetChunkSize)
+            {
+                final List<Object> chunk = regionKeys.subList(from,
+                        Math.min(from + multiGetChunkSize, regionKeys.size()));
+                chunks.add(readExecutor.submit(new Callable<List<HBaseData>>()
+                {
+                    @Override
+                    public List<HBaseData> call() throws IOException
+                    {
+                        HTableInterface hTable = gethTable(tableName);
+                        try
+                        {
+                            return reader.loadAll(hTable, chunk, m.getTableName(), f, columns);
+                        }
+                        finally
+                        {
+                            puthTable(hTable);
+                        }
+                    }
+                }));
+            }
+        }
 
-        hTable = gethTable(tableName);
+        List<HBaseData> results = null;
+        try
+        {
+            for (Future<List<HBaseData>> chunk : chunks)
+            {
+                List<HBaseData> rows = chunk.get();
+                if (rows != null)
+                {
+                    if (results == null)
+                    {
+                        results = new ArrayList<HBaseData>(rowKeys.size());
+                    }
+                    results.addAll(rows);
+                }
+            }
+        }
+        catch (InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading rows from " + tableName);
+        }
+        catch (ExecutionException eex)
+        {
+            log.error("Error while reading rows from {}, Caused by: .", tableName, eex.getCause());
+            if (eex.getCause() instanceof IOException)
+            {
+                throw (IOException) eex.getCause();
+            }
+            throw new PersistenceException(eex.getCause());
+        }
+        finally
+        {
+            for (Future<List<HBaseData>> chunk : chunks)
+            {
+                chunk.cancel(true);
+            }
+        }
+        return results;
+    }
 
-        // Load raw data from HBase
-        List<HBaseData> results = ((HBaseReader) hbaseReader).loadAll(hTable, rowKey, m.getTableName(), columns);
-        output = onRead(tableName, clazz, m, output, hTable, entity, relationNames, results);
-        return output;
+    /**
+     * Groups given row keys by regions hosting them, in row key order of
+     * regions.
+     */
+    private Collection<List<Object>> groupByRegion(String tableName, List<Object> rowKeys) throws IOException
+    {
+        Map<String, List<Object>> keysByRegion = new LinkedHashMap<String, List<Object>>();
+        HTable regionLocator = new HTable(conf, tableName);
+        try
+        {
+            for (Object rowKey : rowKeys)
+            {
+                if (rowKey != null)
+                {
+                    // Locations are cached by connection, only first lookup of
+                    // a region goes to META.
+                    String region = regionLocator.getRegionLocation(HBaseUtils.getBytes(rowKey)).getRegionInfo()
+                            .getEncodedName();
+                    List<Object> keys = keysByRegion.get(region);
+                    if (keys == null)
+                    {
+                        keys = new ArrayList<Object>();
+                        keysByRegion.put(region, keys);
+                    }
+                    keys.add(rowKey);
+                }
+            }
+        }
+        finally
+        {
+            regionLocator.close();
+        }
+        return keysByRegion.values();
     }
 
     /*
@@ -306,11 +485,11 @@ public class HBaseDataHandler implements DataHandler
      * @see
      * com.impetus.client.hbase.admin.DataHandler#writeData(java.lang.String,
      * com.impetus.kundera.metadata.model.EntityMetadata, java.lang.Object,
-     * java.lang.String, java.util.List)
+     * java.lang.String, java.util.List, java.util.Set)
      */
     @Override
     public void writeData(String tableName, EntityMetadata m, Object entity, Object rowId,
-            List<RelationHolder> relations) throws IOException
+            List<RelationHolder> relations, Set<String> changedFields) throws IOException
     {
         HTableInterface hTable = gethTable(tableName);
 
@@ -320,6 +499,20 @@ public class HBaseDataHandler implements DataHandler
         EntityType entityType = metaModel.entity(m.getEntityClazz());
 
         Set<Attribute> attributes = entityType.getAttributes();
+        if (changedFields != null)
+        {
+            // Put changed columns only, id is kept to place relations as
+            // usual.
+            Set<Attribute> changedAttributes = new HashSet<Attribute>();
+            for (Attribute attribute : attributes)
+            {
+                if (changedFields.contains(attribute.getName()) || attribute.equals(m.getIdAttribute()))
+                {
+                    changedAttributes.add(attribute);
+                }
+            }
+            attributes = changedAttributes;
+        }
 
         HBaseDataWrapper columnWrapper = new HBaseDataWrapper(rowId, new java.util.HashMap<String, Attribute>(),
                 entity, null);
@@ -331,6 +524,17 @@ public class HBaseDataHandler implements DataHandler
         hbaseWriter.writeColumns(hTable, columnWrapper.getRowKey(), columnWrapper.getColumns(), entity,
                 m.getTableName());
 
+        if (changedFields != null)
+        {
+            // Null values are not put, so columns which have become null are
+            // deleted.
+            List<String> nullifiedColumns = getNullifiedColumns(entity, columnWrapper.getColumns());
+            if (!nullifiedColumns.isEmpty())
+            {
+                hbaseWriter.deleteColumns(hTable, columnWrapper.getRowKey(), m.getTableName(), nullifiedColumns);
+            }
+        }
+
         for (HBaseDataWrapper wrapper : persistentData)
         {
             hbaseWriter.writeColumns(hTable, wrapper.getColumnFamily(), wrapper.getRowKey(), wrapper.getColumns(),
@@ -344,6 +548,13 @@ public class HBaseDataHandler implements DataHandler
         if (relations != null && !relations.isEmpty())
         {
             hbaseWriter.writeRelations(hTable, rowId, containsEmbeddedObjectsOnly, relations, m.getTableName());
+            if (relationIndex)
+            {
+                // Index entry must never be visible before its row, else a
+                // concurrent lookup would take it as stale.
+                hTable.flushCommits();
+                indexRelations(m, rowId, relations);
+            }
         }
         
         // add discriminator column
@@ -361,6 +572,24 @@ public class HBaseDataHandler implements DataHandler
         puthTable(hTable);
     }
 
+    /**
+     * Returns qualifiers of given columns having null value in entity.
+     */
+    private List<String> getNullifiedColumns(Object entity, Map<String, Attribute> columns)
+    {
+        List<String> qualifiers = new ArrayList<String>();
+        for (Map.Entry<String, Attribute> column : columns.entrySet())
+        {
+            Attribute attribute = column.getValue();
+            if (!attribute.isCollection() && !((SingularAttribute) attribute).isId()
+                    && PropertyAccessorHelper.getObject(entity, (Field) attribute.getJavaMember()) == null)
+            {
+                qualifiers.add(column.getKey());
+            }
+        }
+        return qualifiers;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -769,6 +998,30 @@ public class HBaseDataHandler implements DataHandler
         hbaseWriter.delete(gethTable(tableName), rowKey, columnFamilyName);
     }
 
+    /**
+     * Deletes rows with one batch call.
+     * 
+     * @param rowKeys
+     *            row keys.
+     * @param tableName
+     *            table name.
+     * @param columnFamilyName
+     *            column family name.
+     * @throws IOException
+     */
+    public void deleteRows(List<Object> rowKeys, String tableName, String columnFamilyName) throws IOException
+    {
+        HTableInterface hTable = gethTable(tableName);
+        try
+        {
+            hbaseWriter.delete(hTable, rowKeys, columnFamilyName);
+        }
+        finally
+        {
+            puthTable(hTable);
+        }
+    }
+
     @Override
     public List<Object> findParentEntityFromJoinTable(EntityMetadata parentMetadata, String joinTableName,
             String joinColumnName, String inverseJoinColumnName, Object childId)
@@ -1011,6 +1264,178 @@ public class HBaseDataHandler implements DataHandler
         return returnedResults;
     }
 
+    /**
+     * Finds entities related to given value through relation index, with a get
+     * of index row followed by a multi get of indexed rows. Index entries are
+     * not removed when a child is deleted or moved to another parent, so rows
+     * are verified against the relation column and stale entries are dropped.
+     * <p>
+     * Index and data rows can't be changed atomically together, so a child
+     * re-parented to given value while it is looked up could lose its fresh
+     * entry. As entries are written only after their row, stale rows are read
+     * again once their entries are deleted, and entries of rows matching by
+     * then are put back. A row matching given value is thus always indexed.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param colName
+     *            relation column name.
+     * @param colValue
+     *            relation value.
+     * @return related entities.
+     * @throws IOException
+     */
+    public List findByRelationIndex(EntityMetadata m, String colName, Object colValue) throws IOException
+    {
+        String indexTableName = getRelationIndexTableName(m);
+        createRelationIndexIfDoesNotExist(indexTableName, m.getTableName());
+
+        byte[] family = Bytes.toBytes(m.getTableName());
+        byte[] indexKey = getRelationIndexKey(colName, colValue);
+        List output = new ArrayList();
+
+        HTableInterface indexTable = gethTable(indexTableName);
+        try
+        {
+            Get get = new Get(indexKey);
+            get.addFamily(family);
+            Result index = indexTable.get(get);
+            if (index.isEmpty())
+            {
+                return output;
+            }
+
+            List<Object> rowKeys = new ArrayList<Object>(index.size());
+            for (KeyValue entry : index.raw())
+            {
+                rowKeys.add(HBaseUtils.fromBytes(m, entry.getQualifier()));
+            }
+
+            SingleColumnValueFilter f = new SingleColumnValueFilter(family, Bytes.toBytes(colName), CompareOp.EQUAL,
+                    HBaseUtils.getBytes(colValue));
+            f.setFilterIfMissing(true);
+            List<HBaseData> results = loadAll(m.getSchema(), m, rowKeys, f, null);
+
+            Set<byte[]> found = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+            if (results != null)
+            {
+                for (HBaseData data : results)
+                {
+                    found.add(data.getRowKey());
+                }
+            }
+            Delete stale = new Delete(indexKey);
+            List<Object> staleRowKeys = new ArrayList<Object>();
+            for (KeyValue entry : index.raw())
+            {
+                if (!found.contains(entry.getQualifier()))
+                {
+                    // Up to read version only, a concurrent re-index survives.
+                    stale.deleteColumns(family, entry.getQualifier(), entry.getTimestamp());
+                    staleRowKeys.add(HBaseUtils.fromBytes(m, entry.getQualifier()));
+                }
+            }
+            if (!staleRowKeys.isEmpty())
+            {
+                indexTable.delete(stale);
+                results = restoreRelationIndex(m, indexTable, indexKey, staleRowKeys, f, results);
+            }
+
+            return onRead(m.getSchema(), m.getEntityClazz(), m, output, null, null, m.getRelationNames(), results);
+        }
+        finally
+        {
+            puthTable(indexTable);
+        }
+    }
+
+    /**
+     * Reads rows of deleted index entries again and puts entries of those
+     * which match relation filter by now back to index row.
+     * 
+     * @return given results, along with rows matching by now.
+     */
+    private List<HBaseData> restoreRelationIndex(EntityMetadata m, HTableInterface indexTable, byte[] indexKey,
+            List<Object> staleRowKeys, Filter f, List<HBaseData> results) throws IOException
+    {
+        List<HBaseData> matching = loadAll(m.getSchema(), m, staleRowKeys, f, null);
+        if (matching != null)
+        {
+            Put put = new Put(indexKey);
+            for (HBaseData data : matching)
+            {
+                put.add(Bytes.toBytes(m.getTableName()), data.getRowKey(), HConstants.EMPTY_BYTE_ARRAY);
+            }
+            indexTable.put(put);
+
+            if (results == null)
+            {
+                return matching;
+            }
+            results.addAll(matching);
+        }
+        return results;
+    }
+
+    /**
+     * Adds row key of given entity to index rows of its relation values.
+     */
+    private void indexRelations(EntityMetadata m, Object rowId, List<RelationHolder> relations) throws IOException
+    {
+        byte[] family = Bytes.toBytes(m.getTableName());
+        byte[] rowKey = HBaseUtils.getBytes(rowId);
+
+        List<Put> puts = new ArrayList<Put>(relations.size());
+        for (RelationHolder relation : relations)
+        {
+            if (relation != null && relation.getRelationValue() != null)
+            {
+                Put put = new Put(getRelationIndexKey(relation.getRelationName(), relation.getRelationValue()));
+                put.add(family, rowKey, HConstants.EMPTY_BYTE_ARRAY);
+                puts.add(put);
+            }
+        }
+
+        if (!puts.isEmpty())
+        {
+            String indexTableName = getRelationIndexTableName(m);
+            createRelationIndexIfDoesNotExist(indexTableName, m.getTableName());
+            HTableInterface indexTable = gethTable(indexTableName);
+            try
+            {
+                indexTable.put(puts);
+            }
+            finally
+            {
+                puthTable(indexTable);
+            }
+        }
+    }
+
+    private void createRelationIndexIfDoesNotExist(String indexTableName, String columnFamily) throws IOException
+    {
+        String key = indexTableName + "." + columnFamily;
+        if (!relationIndexes.contains(key))
+        {
+            createTableIfDoesNotExist(indexTableName, columnFamily);
+            addColumnFamilyToTable(indexTableName, columnFamily);
+            relationIndexes.add(key);
+        }
+    }
+
+    private String getRelationIndexTableName(EntityMetadata m)
+    {
+        return m.getSchema() + Constants.INDEX_TABLE_SUFFIX;
+    }
+
+    /**
+     * Index row key, relation name and value separated by a zero byte.
+     */
+    private byte[] getRelationIndexKey(String relationName, Object relationValue)
+    {
+        return Bytes.add(Bytes.toBytes(relationName), new byte[] { 0 }, HBaseUtils.getBytes(relationValue));
+    }
+
     @Override
     public Object[] scanRowyKeys(FilterList filterList, String tableName, String columnFamilyName, String columnName,
             final Class rowKeyClazz) throws IOException
@@ -1202,6 +1627,46 @@ public class HBaseDataHandler implements DataHandler
         ((HBaseReader) hbaseReader).setFetchSize(fetchSize);
     }
 
+    public void setScannerCaching(final int scannerCaching)
+    {
+        this.scannerCaching = scannerCaching;
+        ((HBaseReader) hbaseReader).setScannerCaching(scannerCaching);
+    }
+
+    public void setScannerBatch(final int scannerBatch)
+    {
+        this.scannerBatch = scannerBatch;
+        ((HBaseReader) hbaseReader).setScannerBatch(scannerBatch);
+    }
+
+    public void setCacheBlocks(final boolean cacheBlocks)
+    {
+        this.cacheBlocks = cacheBlocks;
+        ((HBaseReader) hbaseReader).setCacheBlocks(cacheBlocks);
+    }
+
+    public void setMultiGetChunkSize(final int multiGetChunkSize)
+    {
+        this.multiGetChunkSize = multiGetChunkSize > 0 ? multiGetChunkSize
+                : HBaseConstants.DEFAULT_MULTIGET_CHUNK_SIZE;
+        ((HBaseReader) hbaseReader).setMultiGetChunkSize(this.multiGetChunkSize);
+    }
+
+    public void setReadExecutor(final ExecutorService readExecutor)
+    {
+        this.readExecutor = readExecutor;
+    }
+
+    public void setRelationIndex(final boolean relationIndex)
+    {
+        this.relationIndex = relationIndex;
+    }
+
+    public boolean isRelationIndex()
+    {
+        return relationIndex;
+    }
+
     public Object next(EntityMetadata m)
     {
         Object entity = null;
@@ -1264,9 +1729,28 @@ public class HBaseDataHandler implements DataHandler
         HBaseDataHandler handler = new HBaseDataHandler(this.conf, this.hTablePool);
         handler.filter = this.filter;
         handler.filters = this.filters;
+        handler.setScannerCaching(this.scannerCaching);
+        handler.setScannerBatch(this.scannerBatch);
+        handler.setCacheBlocks(this.cacheBlocks);
+        handler.setMultiGetChunkSize(this.multiGetChunkSize);
+        handler.readExecutor = this.readExecutor;
+        handler.relationIndex = this.relationIndex;
+        handler.relationIndexes = this.relationIndexes;
         return handler;
     }
 
+    /**
+     * Returns a handler for a read executed off client's thread. It shares
+     * admin and table pool of this handler, but has its own reader, so that a
+     * read abandoned on deadline does not interfere with later ones.
+     * 
+     * @return read handler.
+     */
+    public HBaseDataHandler getReadHandle()
+    {
+        return new HBaseDataHandler(this);
+    }
+
     private Filter getFilter(final String columnFamily)
     {
         FilterList filter = filters.get(columnFamily);
@@ -37,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.impetus.client.hbase.HBaseClient;
+import com.impetus.client.hbase.HBaseConstants;
 import com.impetus.client.hbase.HBaseEntityReader;
 import com.impetus.client.hbase.utils.HBaseUtils;
 import com.impetus.kundera.client.Client;
@@ -97,7 +98,7 @@ public class HBaseQuery extends QueryImpl
     @Override
     protected List<Object> populateEntities(EntityMetadata m, Client client)
     {
-        List results = onQuery(m, client);
+        List results = onQueryWithHints(m, client);
         return results;
     }
 
@@ -113,7 +114,7 @@ public class HBaseQuery extends QueryImpl
     protected List<Object> recursivelyPopulateEntities(EntityMetadata m, Client client)
     {
         // required in case of associated entities.
-        List ls = onQuery(m, client);
+        List ls = onQueryWithHints(m, client);
         return setRelationEntities(ls, client, m);
     }
 
@@ -138,12 +139,35 @@ public class HBaseQuery extends QueryImpl
     {
         if (kunderaQuery.isDeleteUpdate())
         {
-            List result = getResultList();
-            return result != null ? result.size() : 0;
+            EntityMetadata m = getEntityMetadata();
+            return deleteOrUpdate(m, persistenceDelegeator.getClient(m));
         }
         return 0;
     }
 
+    /**
+     * Executes query with scanner settings given as query hints (see
+     * {@link HBaseConstants}) applied on top of those of client.
+     * 
+     * @param m
+     *            Entity metadata
+     * @param client
+     *            hbase client
+     * @return list of entities.
+     */
+    private List onQueryWithHints(EntityMetadata m, Client client)
+    {
+        ((HBaseClient) client).setScanHints(getHints());
+        try
+        {
+            return onQuery(m, client);
+        }
+        finally
+        {
+            ((HBaseClient) client).setScanHints(null);
+        }
+    }
+
     /**
      * Parses and translates query into HBase filter and invokes client's method
      * to return list of entities.
@@ -584,7 +608,17 @@ public class HBaseQuery extends QueryImpl
         // start with 1 as first element is alias.
         List<String> columns = getTranslatedColumns(m, getKunderaQuery().getResult(), 1);
 
-        return new ResultIterator((HBaseClient) client, m, persistenceDelegeator,
-                getFetchSize() != null ? getFetchSize() : this.maxResult, translator, columns);
+        // Iterator scans using a copy of client's handler, hence hints are
+        // needed only while it is created.
+        ((HBaseClient) client).setScanHints(getHints());
+        try
+        {
+            return new ResultIterator((HBaseClient) client, m, persistenceDelegeator,
+                    getIterationLimit(), translator, columns);
+        }
+        finally
+        {
+            ((HBaseClient) client).setScanHints(null);
+        }
     }
 }
@@ -87,8 +87,8 @@ class ResultIterator<E> implements IResultIterator<E>
     public boolean hasNext()
     {
 
-        boolean available = handler.hasNext();
-        if (!available || fetchSize == 0)
+        boolean available = count < fetchSize && handler.hasNext();
+        if (!available)
         {
             scrollComplete = true;
             handler.reset();
@@ -29,6 +29,7 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.util.Bytes;
 
+import com.impetus.client.hbase.HBaseConstants;
 import com.impetus.client.hbase.HBaseData;
 import com.impetus.client.hbase.Reader;
 import com.impetus.client.hbase.utils.HBaseUtils;
@@ -46,7 +47,20 @@ public class HBaseReader implements Reader
 
     private Integer fetchSize;
 
-    private Integer counter = 0;
+    /** Number of rows fetched per scanner round trip. */
+    private int scannerCaching = HBaseConstants.DEFAULT_SCANNER_CACHING;
+
+    /** Maximum number of columns per scanned result, 0 for whole rows. */
+    private int scannerBatch;
+
+    /** Whether blocks read by scans and gets are cached by region servers. */
+    private boolean cacheBlocks = true;
+
+    /** Maximum number of rows fetched with one multi get. */
+    private int multiGetChunkSize = HBaseConstants.DEFAULT_MULTIGET_CHUNK_SIZE;
+
+    /** Result read ahead while assembling a row split into batches. */
+    private Result lookAhead;
 
     /*
      * (non-Javadoc)
@@ -107,6 +121,7 @@ public class HBaseReader implements Reader
                 {
                     g.setFilter(filter);
                 }
+                setGetCriteria(columnFamily, g, columns);
                 Result result = hTable.get(g);
 
                 if (result != null && result.list() != null)
@@ -229,6 +244,53 @@ public class HBaseReader implements Reader
                 }
             }
         }
+        setScanProperties(s);
+    }
+
+    /**
+     * Applies scanner caching, batch and block cache settings to given scan.
+     * Batch is not applied to scans filtering on whole rows, as HBase doesn't
+     * allow it.
+     * 
+     * @param s
+     *            scan.
+     */
+    private void setScanProperties(Scan s)
+    {
+        if (scannerCaching > 0)
+        {
+            s.setCaching(scannerCaching);
+        }
+        if (scannerBatch > 0 && !(s.hasFilter() && s.getFilter().hasFilterRow()))
+        {
+            s.setBatch(scannerBatch);
+        }
+        s.setCacheBlocks(cacheBlocks);
+    }
+
+    /**
+     * Restricts given get to selected columns and applies block cache setting.
+     * 
+     * @param columnFamily
+     *            column family.
+     * @param g
+     *            get.
+     * @param columns
+     *            selected columns, if any.
+     */
+    private void setGetCriteria(String columnFamily, Get g, String[] columns)
+    {
+        if (columnFamily != null && columns != null)
+        {
+            for (String columnName : columns)
+            {
+                if (columnName != null)
+                {
+                    g.addColumn(Bytes.toBytes(columnFamily), Bytes.toBytes(columnName));
+                }
+            }
+        }
+        g.setCacheBlocks(cacheBlocks);
     }
 
     /**
@@ -249,9 +311,9 @@ public class HBaseReader implements Reader
 
         if (fetchSize == null)
         {
-            for (Result result : scanner)
+            while (hasNextRow())
             {
-                List<KeyValue> values = result.list();
+                List<KeyValue> values = nextRow();
                 for (KeyValue value : values)
                 {
                     data = new HBaseData(columnFamily != null ? columnFamily : new String(value.getFamily()),
@@ -272,6 +334,43 @@ public class HBaseReader implements Reader
         return results;
     }
 
+    /**
+     * Returns true, if scanner has more rows.
+     */
+    private boolean hasNextRow()
+    {
+        return lookAhead != null || resultsIter.hasNext();
+    }
+
+    /**
+     * Returns columns of next scanned row. With scanner batch set, a wide row
+     * comes in several results, which are put together here.
+     * 
+     * @return columns of next row.
+     */
+    private List<KeyValue> nextRow()
+    {
+        Result result = lookAhead != null ? lookAhead : resultsIter.next();
+        lookAhead = null;
+        if (scannerBatch <= 0)
+        {
+            return result.list();
+        }
+
+        List<KeyValue> values = new ArrayList<KeyValue>(result.list());
+        while (resultsIter.hasNext())
+        {
+            Result next = resultsIter.next();
+            if (!Bytes.equals(result.getRow(), next.getRow()))
+            {
+                lookAhead = next;
+                break;
+            }
+            values.addAll(next.list());
+        }
+        return values;
+    }
+
     @Override
     public Object[] scanRowKeys(final HTableInterface hTable, final Filter filter, final String columnFamilyName,
             final String columnName, final Class rowKeyClazz) throws IOException
@@ -283,6 +382,7 @@ public class HBaseReader implements Reader
             Scan s = new Scan();
             s.setFilter(filter);
             s.addColumn(Bytes.toBytes(columnFamilyName), Bytes.toBytes(columnName));
+            setScanProperties(s);
             scanner = hTable.getScanner(s);
             resultsIter = scanner.iterator();
         }
@@ -306,6 +406,29 @@ public class HBaseReader implements Reader
 
     public List<HBaseData> loadAll(final HTableInterface hTable, final List<Object> rows, final String columnFamily,
             final String[] columns) throws IOException
+    {
+        return loadAll(hTable, rows, columnFamily, null, columns);
+    }
+
+    /**
+     * Loads given rows with multi gets of at most multi get chunk size rows
+     * each.
+     * 
+     * @param hTable
+     *            h table.
+     * @param rows
+     *            row keys.
+     * @param columnFamily
+     *            column family.
+     * @param filter
+     *            filter applied to each get, rows not passing it are skipped.
+     * @param columns
+     *            selected columns, if any.
+     * @return loaded rows or null, if none found.
+     * @throws IOException
+     */
+    public List<HBaseData> loadAll(final HTableInterface hTable, final List<Object> rows, final String columnFamily,
+            final Filter filter, final String[] columns) throws IOException
     {
         List<HBaseData> results = null;
 
@@ -318,30 +441,40 @@ public class HBaseReader implements Reader
             {
                 byte[] rowKeyBytes = HBaseUtils.getBytes(rowKey);
                 Get request = new Get(rowKeyBytes);
+                setGetCriteria(columnFamily, request, columns);
+                if (filter != null)
+                {
+                    request.setFilter(filter);
+                }
                 getRequest.add(request);
             }
         }
-        Result[] rawResult = hTable.get(getRequest);
 
-        for (Result result : rawResult)
+        for (int from = 0; from < getRequest.size(); from += multiGetChunkSize)
         {
-            List<KeyValue> values = result.list();
+            Result[] rawResult = hTable.get(getRequest.subList(from,
+                    Math.min(from + multiGetChunkSize, getRequest.size())));
 
-            if (values != null)
+            for (Result result : rawResult)
             {
-                for (KeyValue value : values)
-                {
-                    data = new HBaseData(columnFamily != null ? columnFamily : new String(value.getFamily()),
-                            value.getRow());
-                    break;
-                }
+                List<KeyValue> values = result.list();
 
-                data.setColumns(values);
-                if (results == null)
+                if (values != null)
                 {
-                    results = new ArrayList<HBaseData>();
+                    for (KeyValue value : values)
+                    {
+                        data = new HBaseData(columnFamily != null ? columnFamily : new String(value.getFamily()),
+                                value.getRow());
+                        break;
+                    }
+
+                    data.setColumns(values);
+                    if (results == null)
+                    {
+                        results = new ArrayList<HBaseData>();
+                    }
+                    results.add(data);
                 }
-                results.add(data);
             }
         }
         return results;
@@ -352,6 +485,45 @@ public class HBaseReader implements Reader
         this.fetchSize = fetchSize;
     }
 
+    /**
+     * @param scannerCaching
+     *            number of rows fetched per scanner round trip.
+     */
+    public void setScannerCaching(final int scannerCaching)
+    {
+        this.scannerCaching = scannerCaching;
+    }
+
+    /**
+     * @param scannerBatch
+     *            maximum number of columns per scanned result, 0 for whole
+     *            rows.
+     */
+    public void setScannerBatch(final int scannerBatch)
+    {
+        this.scannerBatch = scannerBatch;
+    }
+
+    /**
+     * @param cacheBlocks
+     *            whether blocks read by scans and gets are cached by region
+     *            servers.
+     */
+    public void setCacheBlocks(final boolean cacheBlocks)
+    {
+        this.cacheBlocks = cacheBlocks;
+    }
+
+    /**
+     * @param multiGetChunkSize
+     *            maximum number of rows fetched with one multi get.
+     */
+    public void setMultiGetChunkSize(final int multiGetChunkSize)
+    {
+        this.multiGetChunkSize = multiGetChunkSize > 0 ? multiGetChunkSize
+                : HBaseConstants.DEFAULT_MULTIGET_CHUNK_SIZE;
+    }
+
     /**
      * 
      * @return next element of HbaseData.
@@ -359,8 +531,7 @@ public class HBaseReader implements Reader
     public HBaseData next()
     {
         HBaseData data = null;
-        Result result = resultsIter.next();
-        List<KeyValue> values = result.list();
+        List<KeyValue> values = nextRow();
         for (KeyValue value : values)
         {
             data = new HBaseData(new String(value.getFamily()), value.getRow());
@@ -389,26 +560,9 @@ public class HBaseReader implements Reader
 
     public boolean hasNext()
     {
-        if (scanner == null)
-        {
-            return false;
-        }
-        else
-        {
-            if (fetchSize != null)
-            {
-                if (counter < fetchSize)
-                {
-                    counter++;
-                    return resultsIter.hasNext();
-                }
-            }
-            else
-            {
-                return resultsIter.hasNext();
-            }
-        }
-        return false;
+        // number of rows returned is limited by caller, hence only scanner is
+        // checked.
+        return scanner != null && hasNextRow();
     }
 
     public void reset()
@@ -416,6 +570,6 @@ public class HBaseReader implements Reader
         scanner = null;
         fetchSize = null;
         resultsIter = null;
-        counter = 0;
+        lookAhead = null;
     }
 }
@@ -286,6 +286,59 @@ public class HBaseWriter implements Writer
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.client.hbase.Writer#delete(org.apache.hadoop.hbase.client
+     * .HTableInterface, java.util.List, java.lang.String)
+     */
+    @Override
+    public void delete(HTableInterface hTable, List<Object> rowKeys, String columnFamily)
+    {
+        List<Delete> deletes = new ArrayList<Delete>(rowKeys.size());
+        for (Object rowKey : rowKeys)
+        {
+            deletes.add(new Delete(HBaseUtils.getBytes(rowKey)));
+        }
+        try
+        {
+            hTable.delete(deletes);
+        }
+        catch (IOException e)
+        {
+            log.error("Error while batch delete on hbase for " + rowKeys.size() + " rows");
+            throw new PersistenceException(e);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.client.hbase.Writer#deleteColumns(org.apache.hadoop.hbase
+     * .client.HTableInterface, java.lang.Object, java.lang.String,
+     * java.util.List)
+     */
+    @Override
+    public void deleteColumns(HTableInterface hTable, Object rowKey, String columnFamily, List<String> qualifiers)
+    {
+        Delete delete = new Delete(HBaseUtils.getBytes(rowKey));
+        for (String qualifier : qualifiers)
+        {
+            delete.deleteColumns(Bytes.toBytes(columnFamily), Bytes.toBytes(qualifier));
+        }
+        try
+        {
+            hTable.delete(delete);
+        }
+        catch (IOException e)
+        {
+            log.error("Error while deleting columns on hbase for : " + rowKey);
+            throw new PersistenceException(e);
+        }
+    }
+
     /*
      * (non-Javadoc)
      * 
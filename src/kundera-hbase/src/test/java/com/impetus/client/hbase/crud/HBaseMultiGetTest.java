@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.hbase.crud;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.hbase.HBaseClient;
+import com.impetus.client.hbase.HBaseConstants;
+import com.impetus.client.hbase.junits.HBaseCli;
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.utils.LuceneCleanupUtilities;
+
+/**
+ * Test case for multi gets of key sets larger than one chunk, which are
+ * grouped by region and fetched in parallel, and for finds with a read
+ * timeout.
+ */
+public class HBaseMultiGetTest extends BaseTest
+{
+    private static final String TABLE = "KunderaExamples";
+
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    private HBaseCli cli;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        cli = new HBaseCli();
+        cli.startCluster();
+        Map<String, Object> puProperties = new HashMap<String, Object>();
+        puProperties.put(HBaseConstants.MULTIGET_CHUNK_SIZE, "2");
+        puProperties.put(HBaseConstants.READ_THREADS, "2");
+        puProperties.put(PersistenceProperties.KUNDERA_READ_TIMEOUT, "60000");
+        emf = Persistence.createEntityManagerFactory("hbaseTest", puProperties);
+        em = emf.createEntityManager();
+
+        for (int i = 1; i <= 9; i++)
+        {
+            em.persist(prepareHbaseInstance("" + i, 10 + i));
+        }
+        em.clear();
+    }
+
+    @Test
+    public void onFindAllAcrossRegions() throws Exception
+    {
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        HBaseClient client = (HBaseClient) clients.get("hbaseTest");
+
+        assertPersons(client.findAll(PersonHBase.class, null, "3", "1", "missing", "9", "5", "7", "2", "8", "4", "6"));
+
+        // Split the table, so that keys are spread over two regions.
+        HBaseAdmin admin = HBaseCli.utility.getHBaseAdmin();
+        admin.split(TABLE, "5");
+        for (int i = 0; i < 60 && admin.getTableRegions(Bytes.toBytes(TABLE)).size() < 2; i++)
+        {
+            Thread.sleep(500);
+        }
+        Assert.assertEquals(2, admin.getTableRegions(Bytes.toBytes(TABLE)).size());
+
+        assertPersons(client.findAll(PersonHBase.class, null, "3", "1", "missing", "9", "5", "7", "2", "8", "4", "6"));
+    }
+
+    @Test
+    public void onFindWithReadTimeout() throws Exception
+    {
+        // Each find runs on executor's thread, over a copy of client's handler.
+        for (int i = 1; i <= 9; i++)
+        {
+            PersonHBase person = em.find(PersonHBase.class, "" + i);
+            Assert.assertNotNull(person);
+            Assert.assertEquals(10 + i, person.getAge().intValue());
+        }
+        Assert.assertNull(em.find(PersonHBase.class, "missing"));
+
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        HBaseClient client = (HBaseClient) clients.get("hbaseTest");
+        assertPersons(client.findAll(PersonHBase.class, null, "3", "1", "missing", "9", "5", "7", "2", "8", "4", "6"));
+    }
+
+    private void assertPersons(List<PersonHBase> results)
+    {
+        Assert.assertNotNull(results);
+        Assert.assertEquals(9, results.size());
+        boolean[] found = new boolean[10];
+        for (PersonHBase person : results)
+        {
+            int id = Integer.parseInt(person.getPersonId());
+            Assert.assertFalse(found[id]);
+            found[id] = true;
+            Assert.assertEquals("vivek", person.getPersonName());
+            Assert.assertEquals(10 + id, person.getAge().intValue());
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        em.close();
+        emf.close();
+        if (cli != null)
+        {
+            cli.dropTable(TABLE);
+            cli.stopCluster(TABLE);
+        }
+        LuceneCleanupUtilities.cleanLuceneDirectory("hbaseTest");
+    }
+}
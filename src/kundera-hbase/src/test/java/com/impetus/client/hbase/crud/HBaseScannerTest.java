@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.hbase.crud;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.Query;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.hbase.HBaseConstants;
+import com.impetus.client.hbase.crud.PersonHBase.Day;
+import com.impetus.client.hbase.junits.HBaseCli;
+import com.impetus.kundera.utils.LuceneCleanupUtilities;
+
+/**
+ * Test case for scanner caching and batch settings. With a batch of one
+ * column, every row is scanned as several results, which must be put back
+ * together into one entity.
+ */
+public class HBaseScannerTest extends BaseTest
+{
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    private HBaseCli cli;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        cli = new HBaseCli();
+        cli.startCluster();
+        Map<String, Object> puProperties = new HashMap<String, Object>();
+        puProperties.put(HBaseConstants.SCANNER_CACHING, "1");
+        puProperties.put(HBaseConstants.SCANNER_BATCH, "1");
+        emf = Persistence.createEntityManagerFactory("hbaseTest", puProperties);
+        em = emf.createEntityManager();
+
+        em.persist(prepareHbaseInstance("1", 10));
+        em.persist(prepareHbaseInstance("2", 20));
+        em.persist(prepareHbaseInstance("3", 15));
+        em.clear();
+    }
+
+    @Test
+    public void onScanWithBatch()
+    {
+        Query q = em.createQuery("Select p from PersonHBase p");
+        List<PersonHBase> results = q.getResultList();
+        assertPersons(results, 3);
+
+        // Filters on whole rows are scanned without batch.
+        q = em.createQuery("Select p from PersonHBase p where p.personName = vivek");
+        results = q.getResultList();
+        assertPersons(results, 3);
+    }
+
+    @Test
+    public void onIterateWithBatch()
+    {
+        com.impetus.kundera.query.Query queryObject = (com.impetus.kundera.query.Query) em
+                .createQuery("Select p from PersonHBase p");
+        queryObject.setFetchSize(2);
+
+        Iterator<PersonHBase> resultIterator = queryObject.iterate();
+        int counter = 0;
+        while (resultIterator.hasNext())
+        {
+            counter++;
+            assertPerson(resultIterator.next());
+        }
+        Assert.assertEquals(2, counter);
+    }
+
+    @Test
+    public void onScanWithHints()
+    {
+        Query q = em.createQuery("Select p from PersonHBase p");
+        q.setHint(HBaseConstants.SCANNER_BATCH, 2);
+        q.setHint(HBaseConstants.SCANNER_CACHING, 2);
+        q.setHint(HBaseConstants.CACHE_BLOCKS, false);
+        List<PersonHBase> results = q.getResultList();
+        assertPersons(results, 3);
+
+        // Settings of client are restored after the query.
+        results = em.createQuery("Select p from PersonHBase p").getResultList();
+        assertPersons(results, 3);
+    }
+
+    private void assertPersons(List<PersonHBase> results, int count)
+    {
+        Assert.assertNotNull(results);
+        Assert.assertEquals(count, results.size());
+        for (PersonHBase person : results)
+        {
+            assertPerson(person);
+        }
+    }
+
+    private void assertPerson(PersonHBase person)
+    {
+        Assert.assertNotNull(person.getPersonId());
+        Assert.assertEquals("vivek", person.getPersonName());
+        Assert.assertEquals(Day.MONDAY, person.getDay());
+        Assert.assertEquals(Month.MARCH, person.getMonth());
+        int id = Integer.parseInt(person.getPersonId());
+        Assert.assertEquals(id == 1 ? 10 : id == 2 ? 20 : 15, person.getAge().intValue());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        em.clear();
+        for (String id : new String[] { "1", "2", "3" })
+        {
+            PersonHBase person = em.find(PersonHBase.class, id);
+            if (person != null)
+            {
+                em.remove(person);
+            }
+        }
+        em.close();
+        emf.close();
+        if (cli != null)
+        {
+            cli.dropTable("KunderaExamples");
+            cli.stopCluster("KunderaExamples");
+        }
+        LuceneCleanupUtilities.cleanLuceneDirectory("hbaseTest");
+    }
+}
@@ -252,6 +252,40 @@ public class PersonHBaseTest extends BaseTest
         Assert.assertEquals(3, results.size());
     }
 
+    /**
+     * On merge, only qualifiers of changed fields are written.
+     */
+    @Test
+    public void onPartialMergeHbase()
+    {
+        PersonHBase p1 = prepareHbaseInstance("1", 10);
+        em.persist(p1);
+        col.put("1", p1);
+        em.clear();
+
+        PersonHBase p = findById(PersonHBase.class, "1", em);
+
+        // concurrent update of another field.
+        EntityManager em2 = emf.createEntityManager();
+        PersonHBase other = findById(PersonHBase.class, "1", em2);
+        other.setDay(Day.FRIDAY);
+        em2.merge(other);
+        em2.close();
+
+        p.setAge(20);
+        p.setMonth(null);
+        em.merge(p);
+        em.clear();
+
+        PersonHBase found = findById(PersonHBase.class, "1", em);
+        Assert.assertEquals(new Integer(20), found.getAge());
+        // nulled field is deleted.
+        Assert.assertNull(found.getMonth());
+        // unchanged fields are not overwritten.
+        Assert.assertEquals(Day.FRIDAY, found.getDay());
+        Assert.assertEquals("vivek", found.getPersonName());
+    }
+
     // @Test
     // public void onMergeHbase() {
     // em.persist(prepareHbaseInstance("1", 10));
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.hbase.crud.association;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.hbase.HBaseClient;
+import com.impetus.client.hbase.HBaseConstants;
+import com.impetus.client.hbase.junits.HBaseCli;
+import com.impetus.client.hbase.utils.HBaseUtils;
+import com.impetus.kundera.Constants;
+import com.impetus.kundera.client.Client;
+
+/**
+ * Test case for finding children by relation through relation index, and for
+ * dropping index entries of rows deleted or moved to another parent.
+ */
+public class HBaseRelationIndexTest
+{
+    private static final String HBASE_PU = "hbaseTest";
+
+    private static final String INDEX_TABLE = "KunderaExamples" + Constants.INDEX_TABLE_SUFFIX;
+
+    private EntityManagerFactory emf;
+
+    private EntityManager em;
+
+    private HBaseClient client;
+
+    private HBaseCli cli;
+
+    @Before
+    public void setUp()
+    {
+        cli = new HBaseCli();
+        cli.startCluster();
+        Map<String, Object> puProperties = new HashMap<String, Object>();
+        puProperties.put(HBaseConstants.RELATION_INDEX, "true");
+        emf = Persistence.createEntityManagerFactory(HBASE_PU, puProperties);
+        em = emf.createEntityManager();
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        client = (HBaseClient) clients.get(HBASE_PU);
+    }
+
+    @Test
+    public void testFindByRelationIndex() throws Exception
+    {
+        AddressOTOHbase address1 = new AddressOTOHbase(12.23);
+        address1.setAddress("india");
+        AddressOTOHbase address2 = new AddressOTOHbase(13.0);
+        address2.setAddress("uk");
+        em.persist(preparePerson("1", address1));
+        em.persist(preparePerson("2", address2));
+        em.clear();
+
+        assertPersons(client.findByRelation("ADDRESS_ID", 12.23, PersonOTOHbase.class), "1");
+        assertPersons(client.findByRelation("ADDRESS_ID", 13.0, PersonOTOHbase.class), "2");
+
+        // Moving a child to another parent leaves a stale entry behind, which
+        // is dropped by next lookup.
+        PersonOTOHbase person = em.find(PersonOTOHbase.class, "2");
+        person.setAddress(em.find(AddressOTOHbase.class, 12.23));
+        em.merge(person);
+        em.clear();
+
+        assertPersons(client.findByRelation("ADDRESS_ID", 13.0, PersonOTOHbase.class));
+        Assert.assertTrue(getIndexEntries(13.0).isEmpty());
+        assertPersons(client.findByRelation("ADDRESS_ID", 12.23, PersonOTOHbase.class), "1", "2");
+
+        // So is an entry of a deleted row.
+        HTable indexTable = new HTable(HBaseCli.utility.getConfiguration(), INDEX_TABLE);
+        try
+        {
+            Put put = new Put(getIndexKey(12.23));
+            put.add(Bytes.toBytes("PERSON"), Bytes.toBytes("3"), HConstants.EMPTY_BYTE_ARRAY);
+            indexTable.put(put);
+        }
+        finally
+        {
+            indexTable.close();
+        }
+        Assert.assertEquals(3, getIndexEntries(12.23).size());
+        assertPersons(client.findByRelation("ADDRESS_ID", 12.23, PersonOTOHbase.class), "1", "2");
+        Assert.assertEquals(2, getIndexEntries(12.23).size());
+    }
+
+    private PersonOTOHbase preparePerson(String personId, AddressOTOHbase address)
+    {
+        PersonOTOHbase person = new PersonOTOHbase(personId);
+        person.setAge(32);
+        person.setPersonName("vivek");
+        person.setAddress(address);
+        return person;
+    }
+
+    private void assertPersons(List<Object> results, String... personIds)
+    {
+        Assert.assertNotNull(results);
+        Assert.assertEquals(personIds.length, results.size());
+        Set<String> found = new HashSet<String>();
+        for (Object result : results)
+        {
+            found.add(((PersonOTOHbase) result).getPersonId());
+        }
+        for (String personId : personIds)
+        {
+            Assert.assertTrue(found.contains(personId));
+        }
+    }
+
+    private Set<String> getIndexEntries(Object relationValue) throws Exception
+    {
+        Set<String> entries = new HashSet<String>();
+        HTable indexTable = new HTable(HBaseCli.utility.getConfiguration(), INDEX_TABLE);
+        try
+        {
+            Map<byte[], byte[]> columns = indexTable.get(new Get(getIndexKey(relationValue))).getFamilyMap(
+                    Bytes.toBytes("PERSON"));
+            if (columns != null)
+            {
+                for (byte[] qualifier : columns.keySet())
+                {
+                    entries.add(Bytes.toString(qualifier));
+                }
+            }
+        }
+        finally
+        {
+            indexTable.close();
+        }
+        return entries;
+    }
+
+    private byte[] getIndexKey(Object relationValue)
+    {
+        return Bytes.add(Bytes.toBytes("ADDRESS_ID"), new byte[] { 0 }, HBaseUtils.getBytes(relationValue));
+    }
+
+    @After
+    public void tearDown()
+    {
+        em.close();
+        emf.close();
+        cli.dropTable(INDEX_TABLE);
+        cli.dropTable("KunderaExamples");
+    }
+}
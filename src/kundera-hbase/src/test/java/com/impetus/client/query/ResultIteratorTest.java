@@ -193,6 +193,8 @@ public class ResultIteratorTest extends BaseTest
 
         while (iter.hasNext())
         {
+            // repeated hasNext() calls must not consume rows.
+            Assert.assertTrue(iter.hasNext());
             Assert.assertNotNull(iter.next());
             counter++;
         }
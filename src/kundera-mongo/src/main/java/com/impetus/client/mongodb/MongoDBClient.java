@@ -16,12 +16,16 @@
 package com.impetus.client.mongodb;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+
 import org.apache.commons.lang.NotImplementedException;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
@@ -43,10 +47,14 @@ import com.impetus.kundera.metadata.model.ClientMetadata;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.api.Batcher;
+import com.impetus.kundera.persistence.api.BulkWriter;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.mongodb.AggregationOutput;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
@@ -62,7 +70,7 @@ import com.mongodb.WriteConcern;
  * @author impetusopensource
  */
 public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, Batcher, ClientPropertiesSetter,
-        AutoGenerator
+        AutoGenerator, BulkWriter
 {
     /** The mongo db. */
     private DB mongoDb;
@@ -355,6 +363,27 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
         return entities;
     }
 
+    /**
+     * Runs an aggregation framework pipeline over collection of given entity.
+     * 
+     * @param entityMetadata
+     *            entity metadata
+     * @param firstOp
+     *            first pipeline operator
+     * @param additionalOps
+     *            further pipeline operators
+     * @return aggregated documents
+     */
+    public Iterable<DBObject> aggregate(EntityMetadata entityMetadata, DBObject firstOp, DBObject... additionalOps)
+    {
+        DBCollection dbCollection = mongoDb.getCollection(entityMetadata.getTableName());
+        log.debug("Aggregating " + entityMetadata.getTableName() + " over " + firstOp + " "
+                + Arrays.toString(additionalOps));
+        AggregationOutput output = dbCollection.aggregate(firstOp, additionalOps);
+        output.getCommandResult().throwOnError();
+        return output.results();
+    }
+
     public DBCursor getDBCursorInstance(BasicDBObject mongoQuery, BasicDBObject orderBy, int maxResult,
             BasicDBObject keys, String documentName)
     {
@@ -397,6 +426,130 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
 
     }
 
+    @Override
+    public int deleteAll(EntityMetadata m, List<Object> entities)
+    {
+        DBCollection dbCollection = mongoDb.getCollection(m.getTableName());
+        dbCollection.remove(getIdsQuery(m, entities), getWriteConcern(), encoder);
+        for (Object entity : entities)
+        {
+            getIndexManager().remove(m, entity, PropertyAccessorHelper.getId(entity, m).toString());
+        }
+        return entities.size();
+    }
+
+    @Override
+    public int updateAll(EntityMetadata m, List<Object> entities, Map<String, Object> values)
+    {
+        DBCollection dbCollection = mongoDb.getCollection(m.getTableName());
+        dbCollection.update(getIdsQuery(m, entities), getUpdate(values), false, true, getWriteConcern(), encoder);
+        for (Object entity : entities)
+        {
+            indexEntity(m, entity);
+        }
+        return entities.size();
+    }
+
+    /**
+     * Deletes documents matching given query, with one call. Index entries are
+     * not removed, so it is meant for entities indexed by MongoDB itself.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param query
+     *            query on documents to delete.
+     * @return number of documents deleted.
+     */
+    public int deleteAll(EntityMetadata m, DBObject query)
+    {
+        DBCollection dbCollection = mongoDb.getCollection(m.getTableName());
+        return dbCollection.remove(query, getWriteConcern(), encoder).getN();
+    }
+
+    /**
+     * Sets given column values on documents matching given query, with one
+     * multi update. Index entries are not updated, so it is meant for entities
+     * indexed by MongoDB itself.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param query
+     *            query on documents to update.
+     * @param values
+     *            new values of basic attributes, keyed by column name.
+     * @return number of documents updated.
+     */
+    public int updateAll(EntityMetadata m, DBObject query, Map<String, Object> values)
+    {
+        DBCollection dbCollection = mongoDb.getCollection(m.getTableName());
+        return dbCollection.update(query, getUpdate(values), false, true, getWriteConcern(), encoder).getN();
+    }
+
+    /**
+     * Returns $set of given non null values and $unset of null ones.
+     */
+    private DBObject getUpdate(Map<String, Object> values)
+    {
+        BasicDBObject set = new BasicDBObject();
+        BasicDBObject unset = new BasicDBObject();
+        for (Map.Entry<String, Object> value : values.entrySet())
+        {
+            if (value.getValue() != null)
+            {
+                set.put(value.getKey(), MongoDBUtils.populateValue(value.getValue(), value.getValue().getClass()));
+            }
+            else
+            {
+                unset.put(value.getKey(), 1);
+            }
+        }
+
+        BasicDBObject update = new BasicDBObject();
+        if (!set.isEmpty())
+        {
+            update.put("$set", set);
+        }
+        if (!unset.isEmpty())
+        {
+            update.put("$unset", unset);
+        }
+        return update;
+    }
+
+    /**
+     * Returns query matching documents of given entities.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param entities
+     *            entities.
+     * @return query on _id.
+     */
+    private DBObject getIdsQuery(EntityMetadata m, List<Object> entities)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        boolean isCompoundKey = metaModel.isEmbeddable(m.getIdAttribute().getBindableJavaType());
+
+        List<Object> ids = new ArrayList<Object>(entities.size());
+        for (Object entity : entities)
+        {
+            Object id = PropertyAccessorHelper.getId(entity, m);
+            if (isCompoundKey)
+            {
+                BasicDBObject compoundKey = new BasicDBObject();
+                MongoDBUtils.populateCompoundKey(compoundKey, m, metaModel, id);
+                ids.add(compoundKey);
+            }
+            else
+            {
+                ids.add(MongoDBUtils.populateValue(id, id.getClass()));
+            }
+        }
+        return isCompoundKey ? new BasicDBObject("$or", ids) : new BasicDBObject("_id", new BasicDBObject("$in",
+                ids));
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -535,7 +688,7 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
     protected void onPersist(EntityMetadata entityMetadata, Object entity, Object id, List<RelationHolder> rlHolders)
     {
         Map<String, List<DBObject>> collections = new HashMap<String, List<DBObject>>();
-        collections = onPersist(collections, entity, id, entityMetadata, rlHolders, isUpdate);
+        collections = onPersist(collections, entity, id, entityMetadata, rlHolders, isUpdate, changedFields);
         onFlushCollection(collections);
     }
 
@@ -607,7 +760,7 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
                     List<RelationHolder> relationHolders = getRelationHolders(node);
                     EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
                     collections = onPersist(collections, node.getData(), node.getEntityId(), metadata, relationHolders,
-                            node.isUpdate());
+                            node.isUpdate(), node.getChangedFields());
                     indexNode(node, metadata);
                 }
                 node.handlePostEvent();
@@ -651,10 +804,12 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
      *            relation holders.
      * @param isUpdate
      *            if it is an update
+     * @param changedFields
+     *            attributes changed by update, null to update all of them.
      * @return collection of DB objects.
      */
     private Map<String, List<DBObject>> onPersist(Map<String, List<DBObject>> collections, Object entity, Object id,
-            EntityMetadata metadata, List<RelationHolder> relationHolders, boolean isUpdate)
+            EntityMetadata metadata, List<RelationHolder> relationHolders, boolean isUpdate, Set<String> changedFields)
     {
         persistenceUnit = metadata.getPersistenceUnit();
         String documentName = metadata.getTableName();
@@ -678,19 +833,10 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
                 query.put("_id", MongoDBUtils.populateValue(id, id.getClass()));
             }
             DBCollection dbCollection = mongoDb.getCollection(documentName);
-            // dbCollection.findAndModify(query, document);
-
-            DBObject obj = dbCollection.findOne(query);
-            if (obj != null)
-            {
-                obj.putAll(document);
-
-                dbCollection.save(obj);
-            }
-            else
-            {
-                dbCollection.save(document);
-            }
+            // changed fields are known only for entities loaded from store,
+            // so their document is updated but never created.
+            dbCollection.update(query, getUpdateDocument(metadata, metaModel, document, changedFields),
+                    changedFields == null, false, getWriteConcern(), encoder);
         }
         else
         {
@@ -713,6 +859,61 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
         return collections;
     }
 
+    /**
+     * Returns modifier document to update an existing document in place,
+     * without reading it first. Only columns of changed attributes are set,
+     * or unset if they have become null. Relation and discriminator columns
+     * are always set.
+     * 
+     * @param metadata
+     *            entity metadata.
+     * @param metaModel
+     *            metamodel.
+     * @param document
+     *            document populated from entity.
+     * @param changedFields
+     *            attributes changed by update, null to set all columns.
+     * @return modifier document.
+     */
+    private DBObject getUpdateDocument(EntityMetadata metadata, MetamodelImpl metaModel, DBObject document,
+            Set<String> changedFields)
+    {
+        document.removeField("_id");
+        BasicDBObject unset = new BasicDBObject();
+
+        if (changedFields != null)
+        {
+            EntityType entityType = metaModel.entity(metadata.getEntityClazz());
+            for (Object attribute : entityType.getAttributes())
+            {
+                Attribute column = (Attribute) attribute;
+                if (!column.isAssociation() && !column.equals(metadata.getIdAttribute()))
+                {
+                    String columnName = ((AbstractAttribute) column).getJPAColumnName();
+                    if (!changedFields.contains(column.getName()))
+                    {
+                        document.removeField(columnName);
+                    }
+                    else if (!document.containsField(columnName))
+                    {
+                        unset.put(columnName, 1);
+                    }
+                }
+            }
+        }
+
+        BasicDBObject update = new BasicDBObject();
+        if (!document.keySet().isEmpty())
+        {
+            update.put("$set", document);
+        }
+        if (!unset.isEmpty())
+        {
+            update.put("$unset", unset);
+        }
+        return update;
+    }
+
     /**
      * Check on batch limit.
      */
@@ -20,6 +20,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
 import java.util.List;
@@ -30,6 +31,7 @@ import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
 
+import org.apache.commons.lang.ClassUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,9 +41,11 @@ import com.impetus.client.mongodb.MongoEntityReader;
 import com.impetus.client.mongodb.query.gis.GeospatialQueryFactory;
 import com.impetus.client.mongodb.utils.MongoDBUtils;
 import com.impetus.kundera.client.Client;
+import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.gis.geometry.Point;
 import com.impetus.kundera.gis.query.GeospatialQuery;
+import com.impetus.kundera.metadata.MetadataUtils;
 import com.impetus.kundera.metadata.model.ApplicationMetadata;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
@@ -51,13 +55,17 @@ import com.impetus.kundera.metadata.model.type.AbstractManagedType;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
 import com.impetus.kundera.property.PropertyAccessorFactory;
+import com.impetus.kundera.query.Aggregator;
 import com.impetus.kundera.query.KunderaQuery;
+import com.impetus.kundera.query.KunderaQuery.AggregateClause;
+import com.impetus.kundera.query.KunderaQuery.AggregateFunction;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.KunderaQuery.SortOrder;
 import com.impetus.kundera.query.KunderaQuery.SortOrdering;
 import com.impetus.kundera.query.QueryHandlerException;
 import com.impetus.kundera.query.QueryImpl;
 import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
 
 /**
  * Query class for MongoDB data store.
@@ -186,6 +194,117 @@ public class MongoDBQuery extends QueryImpl
         return setRelationEntities(ls, client, m);
     }
 
+    /**
+     * Computes aggregates with aggregation framework, as a $match over query
+     * filter followed by a $group. Falls back to streaming aggregation for
+     * attributes not stored in their natural type and for COUNT over an
+     * attribute, which $group can not distinguish from COUNT over entity.
+     */
+    @Override
+    protected List<Object> aggregate(EntityMetadata m, Client client)
+    {
+        List<AggregateClause> aggregates = kunderaQuery.getAggregateClauses();
+        List<AggregateClause> groupings = kunderaQuery.getGroupingClauses();
+        if (!isAggregatedInStore(m))
+        {
+            return super.aggregate(m, client);
+        }
+
+        BasicDBObject groupKey = new BasicDBObject();
+        for (int i = 0; i < groupings.size(); i++)
+        {
+            groupKey.put("g" + i, "$" + getDocumentField(m, groupings.get(i)));
+        }
+        BasicDBObject group = new BasicDBObject("_id", groupings.isEmpty() ? null : groupKey);
+        for (int i = 0; i < aggregates.size(); i++)
+        {
+            AggregateClause aggregate = aggregates.get(i);
+            if (aggregate.getFunction() == null)
+            {
+                continue;
+            }
+            Object operand = aggregate.getFunction() == AggregateFunction.COUNT ? 1 : "$"
+                    + getDocumentField(m, aggregate);
+            String operator = aggregate.getFunction() == AggregateFunction.COUNT ? "$sum" : "$"
+                    + aggregate.getFunction().name().toLowerCase();
+            group.put("a" + i, new BasicDBObject(operator, operand));
+        }
+
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (DBObject document : ((MongoDBClient) client).aggregate(m, new BasicDBObject("$match",
+                createMongoQuery(m, getKunderaQuery().getFilterClauseQueue())), new BasicDBObject("$group", group)))
+        {
+            Object[] row = new Object[aggregates.size()];
+            for (int i = 0; i < row.length; i++)
+            {
+                AggregateClause aggregate = aggregates.get(i);
+                Object value = aggregate.getFunction() != null ? document.get("a" + i) : ((DBObject) document
+                        .get("_id")).get("g" + groupings.indexOf(aggregate));
+                row[i] = Aggregator.toResultValue(aggregate, value);
+            }
+            rows.add(row);
+        }
+
+        // $group emits nothing over empty input, SQL returns a single row.
+        if (rows.isEmpty() && groupings.isEmpty())
+        {
+            Object[] row = new Object[aggregates.size()];
+            for (int i = 0; i < row.length; i++)
+            {
+                row[i] = Aggregator.toResultValue(aggregates.get(i), null);
+            }
+            rows.add(row);
+        }
+        return Aggregator.toResultList(rows);
+    }
+
+    /**
+     * Checks whether aggregate clauses can be evaluated by $group.
+     */
+    private boolean isAggregatedInStore(EntityMetadata m)
+    {
+        if (kunderaQuery.isNative())
+        {
+            return false;
+        }
+        List<AggregateClause> clauses = new ArrayList<AggregateClause>(kunderaQuery.getAggregateClauses());
+        clauses.addAll(kunderaQuery.getGroupingClauses());
+        for (AggregateClause clause : clauses)
+        {
+            if (clause.getColumnName() == null)
+            {
+                continue;
+            }
+            Class<?> type = ClassUtils.primitiveToWrapper(clause.getJavaType());
+            boolean isNumber = Number.class.isAssignableFrom(type) && !BigDecimal.class.equals(type)
+                    && !BigInteger.class.equals(type);
+            if (clause.getFunction() == AggregateFunction.COUNT
+                    || !(isNumber || String.class.equals(type) || Date.class.equals(type) || Boolean.class
+                            .equals(type))
+                    || isEmbeddedId(m) && getDocumentField(m, clause).equals("_id"))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isEmbeddedId(EntityMetadata m)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        return metaModel.isEmbeddable(m.getIdAttribute().getBindableJavaType());
+    }
+
+    /**
+     * Returns document field of aggregated attribute, id is stored as _id.
+     */
+    private String getDocumentField(EntityMetadata m, AggregateClause clause)
+    {
+        return ((AbstractAttribute) m.getIdAttribute()).getJPAColumnName().equals(clause.getColumnName()) ? "_id"
+                : clause.getColumnName();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -468,8 +587,21 @@ public class MongoDBQuery extends QueryImpl
     {
         if (kunderaQuery.isDeleteUpdate())
         {
-            List result = getResultList();
-            return result != null ? result.size() : 0;
+            EntityMetadata m = getEntityMetadata();
+            Client client = persistenceDelegeator.getClient(m);
+
+            // Without Lucene index to maintain, documents are deleted/updated
+            // by query within MongoDB.
+            if (!kunderaQuery.isNative() && isBulkWritable(m)
+                    && MetadataUtils.useSecondryIndex(((ClientBase) client).getClientMetadata()))
+            {
+                BasicDBObject mongoQuery = createMongoQuery(m, getKunderaQuery().getFilterClauseQueue());
+                int count = kunderaQuery.isUpdateClause() ? ((MongoDBClient) client).updateAll(m, mongoQuery,
+                        getUpdateValues(m)) : ((MongoDBClient) client).deleteAll(m, mongoQuery);
+                persistenceDelegeator.onBulkWrite(m);
+                return count;
+            }
+            return deleteOrUpdate(m, client);
         }
 
         return 0;
@@ -510,6 +642,6 @@ public class MongoDBQuery extends QueryImpl
         Client client = persistenceDelegeator.getClient(m);
         return new ResultIterator((MongoDBClient) client, m, createMongoQuery(m, getKunderaQuery()
                 .getFilterClauseQueue()), getOrderByClause(), getKeys(m, getKunderaQuery().getResult()),persistenceDelegeator,
-                getFetchSize() != null ? getFetchSize() : this.maxResult);
+                getIterationLimit());
     }
 }
@@ -15,6 +15,8 @@
  ******************************************************************************/
 package com.impetus.client.crud;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -34,7 +36,10 @@ import com.impetus.client.crud.PersonMongo.Month;
 import com.impetus.client.mongodb.MongoDBClient;
 import com.impetus.client.utils.MongoUtils;
 import com.impetus.kundera.client.Client;
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.mongodb.DBObject;
 
 public class PersonMongoTest extends BaseTest
 {
@@ -271,6 +276,193 @@ public class PersonMongoTest extends BaseTest
         assertOnMerge(em, "PersonMongo", PersonMongo.class, "vivek", "newvivek", "personName");
     }
 
+    /**
+     * On merge mongo, only changed fields are written.
+     */
+    @Test
+    public void onPartialMergeMongo() throws Exception
+    {
+        Object p1 = prepareMongoInstance("1", 10);
+        em.persist(p1);
+        col.put("1", p1);
+        em.clear();
+
+        PersonMongo p = findById(PersonMongo.class, "1", em);
+
+        // concurrent update of another field.
+        EntityManager em2 = emf.createEntityManager();
+        PersonMongo other = findById(PersonMongo.class, "1", em2);
+        other.setDay(Day.MONDAY);
+        em2.merge(other);
+        em2.close();
+
+        p.setAge(20);
+        p.setMonth(null);
+        em.merge(p);
+        em.clear();
+
+        PersonMongo found = findById(PersonMongo.class, "1", em);
+        Assert.assertEquals(new Integer(20), found.getAge());
+        Assert.assertNull(found.getMonth());
+        // unchanged fields are not overwritten.
+        Assert.assertEquals(Day.MONDAY, found.getDay());
+        Assert.assertEquals("vivek", found.getPersonName());
+        Assert.assertEquals(2, found.getMap().size());
+
+        // nulled field is removed from document.
+        Map<String, Client<Query>> clients = (Map<String, Client<Query>>) em.getDelegate();
+        DBObject document = (DBObject) ((MongoDBClient) clients.get(_PU))
+                .executeScript("db.PERSON.findOne({ \"_id\" : \"1\" })");
+        Assert.assertFalse(document.containsField("MONTH_ENUM"));
+        Assert.assertEquals("MONDAY", document.get("DAY_ENUM"));
+    }
+
+    /**
+     * Merge of a removed document does not create it again.
+     */
+    @Test
+    public void onPartialMergeOfRemovedMongo() throws Exception
+    {
+        Object p1 = prepareMongoInstance("1", 10);
+        em.persist(p1);
+        em.clear();
+
+        PersonMongo p = findById(PersonMongo.class, "1", em);
+
+        EntityManager em2 = emf.createEntityManager();
+        em2.remove(findById(PersonMongo.class, "1", em2));
+        em2.close();
+
+        p.setAge(20);
+        em.merge(p);
+        em.clear();
+
+        Assert.assertNull(findById(PersonMongo.class, "1", em));
+    }
+
+    /**
+     * Round trip of {@link MongoDBClient} bulk delete/update of given
+     * entities.
+     */
+    @Test
+    public void onBulkWriteMongo() throws Exception
+    {
+        em.persist(prepareMongoInstance("1", 10));
+        em.persist(prepareMongoInstance("2", 20));
+        em.persist(prepareMongoInstance("3", 15));
+        em.clear();
+
+        Map<String, Client<Query>> clients = (Map<String, Client<Query>>) em.getDelegate();
+        MongoDBClient client = (MongoDBClient) clients.get(_PU);
+        EntityMetadata m = KunderaMetadataManager.getEntityMetadata(PersonMongo.class);
+
+        List<Object> entities = new ArrayList<Object>();
+        entities.add(findById(PersonMongo.class, "1", em));
+        entities.add(findById(PersonMongo.class, "2", em));
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("AGE", 30);
+        values.put("MONTH_ENUM", null);
+        Assert.assertEquals(2, client.updateAll(m, entities, values));
+        em.clear();
+
+        for (String id : new String[] { "1", "2" })
+        {
+            PersonMongo found = findById(PersonMongo.class, id, em);
+            Assert.assertEquals(new Integer(30), found.getAge());
+            Assert.assertNull(found.getMonth());
+            Assert.assertEquals("vivek", found.getPersonName());
+            Assert.assertEquals(Day.FRIDAY, found.getDay());
+        }
+        PersonMongo untouched = findById(PersonMongo.class, "3", em);
+        Assert.assertEquals(new Integer(15), untouched.getAge());
+        Assert.assertEquals(Month.JAN, untouched.getMonth());
+
+        Assert.assertEquals(2, client.deleteAll(m, entities));
+        em.clear();
+        Assert.assertNull(findById(PersonMongo.class, "1", em));
+        Assert.assertNull(findById(PersonMongo.class, "2", em));
+        Assert.assertNotNull(findById(PersonMongo.class, "3", em));
+    }
+
+    /**
+     * Bulk update and delete queries are run by query within MongoDB.
+     */
+    @Test
+    public void onBulkQueryMongo() throws Exception
+    {
+        em.persist(prepareMongoInstance("1", 10));
+        em.persist(prepareMongoInstance("2", 20));
+        em.persist(prepareMongoInstance("3", 15));
+        em.clear();
+
+        PersonMongo managed = findById(PersonMongo.class, "2", em);
+
+        Query query = em.createQuery("Update PersonMongo p set p.personName = kundera where p.age > 12");
+        Assert.assertEquals(2, query.executeUpdate());
+
+        // managed copy is stale, so it is detached.
+        Assert.assertFalse(em.contains(managed));
+        Assert.assertEquals("vivek", findById(PersonMongo.class, "1", em).getPersonName());
+        Assert.assertEquals("kundera", findById(PersonMongo.class, "2", em).getPersonName());
+        Assert.assertEquals("kundera", findById(PersonMongo.class, "3", em).getPersonName());
+        Assert.assertEquals(Month.JAN, findById(PersonMongo.class, "3", em).getMonth());
+
+        query = em.createQuery("Delete from PersonMongo p where p.personName = kundera");
+        Assert.assertEquals(2, query.executeUpdate());
+        em.clear();
+        Assert.assertNotNull(findById(PersonMongo.class, "1", em));
+        Assert.assertNull(findById(PersonMongo.class, "2", em));
+        Assert.assertNull(findById(PersonMongo.class, "3", em));
+    }
+
+    /**
+     * Aggregate queries, computed by $group or by iterating over entities
+     * where $group is not applicable. Max results limits groups only.
+     */
+    @Test
+    public void onAggregateQueryMongo() throws Exception
+    {
+        em.persist(prepareMongoInstance("1", 10));
+        em.persist(prepareMongoInstance("2", 20));
+        em.persist(prepareMongoInstance("3", 15));
+        em.persist(prepareMongoInstance("4", 20));
+        em.clear();
+
+        // computed by $group.
+        Query query = em.createQuery("Select p.age, count(p), sum(p.age) from PersonMongo p "
+                + "where p.age > 12 group by p.age");
+        List<Object[]> rows = query.getResultList();
+        Assert.assertEquals(2, rows.size());
+        Map<Object, Object[]> groups = new HashMap<Object, Object[]>();
+        for (Object[] row : rows)
+        {
+            groups.put(row[0], row);
+        }
+        Assert.assertEquals(2L, groups.get(20)[1]);
+        Assert.assertEquals(40L, groups.get(20)[2]);
+        Assert.assertEquals(1L, groups.get(15)[1]);
+        Assert.assertEquals(15L, groups.get(15)[2]);
+
+        query = em.createQuery("Select count(p), max(p.age) from PersonMongo p");
+        query.setMaxResults(1);
+        Object[] row = (Object[]) query.getResultList().get(0);
+        Assert.assertEquals(4L, row[0]);
+        Assert.assertEquals(20, row[1]);
+
+        // COUNT over attribute is computed by iterating over entities.
+        query = em.createQuery("Select count(p.age), min(p.age) from PersonMongo p");
+        query.setMaxResults(1);
+        row = (Object[]) query.getResultList().get(0);
+        Assert.assertEquals(4L, row[0]);
+        Assert.assertEquals(10, row[1]);
+
+        query = em.createQuery("Select p.age, count(p.personName) from PersonMongo p group by p.age");
+        Assert.assertEquals(3, query.getResultList().size());
+        query.setMaxResults(2);
+        Assert.assertEquals(2, query.getResultList().size());
+    }
+
     /**
      * Tear down.
      * 
@@ -51,6 +51,7 @@ import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.metadata.model.MetamodelImpl;
 import com.impetus.kundera.metadata.model.Relation;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
+import com.impetus.kundera.metadata.model.type.AbstractManagedType;
 import com.impetus.kundera.persistence.EntityReaderException;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.utils.ReflectUtils;
@@ -285,6 +286,13 @@ public final class GraphEntityMapper
                 }
             }
         }
+
+        String discrColumn = ((AbstractManagedType) entityType).getDiscriminatorColumn();
+        String discrValue = ((AbstractManagedType) entityType).getDiscriminatorValue();
+        if (discrColumn != null && discrValue != null)
+        {
+            props.put(discrColumn, discrValue);
+        }
         return props;
     }
 
@@ -318,6 +326,14 @@ public final class GraphEntityMapper
                 }
             }
         }
+
+        // Discriminator value, for queries over inherited entities.
+        String discrColumn = ((AbstractManagedType) entityType).getDiscriminatorColumn();
+        String discrValue = ((AbstractManagedType) entityType).getDiscriminatorValue();
+        if (discrColumn != null && discrValue != null)
+        {
+            node.setProperty(discrColumn, discrValue);
+        }
     }
 
     /**
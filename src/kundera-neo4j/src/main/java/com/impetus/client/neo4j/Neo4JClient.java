@@ -17,7 +17,9 @@ package com.impetus.client.neo4j;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -25,6 +27,7 @@ import java.util.Properties;
 import javax.persistence.PersistenceException;
 
 import org.apache.commons.lang.StringUtils;
+import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.DynamicRelationshipType;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -41,6 +44,8 @@ import org.neo4j.unsafe.batchinsert.LuceneBatchInserterIndexProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.AbstractIterator;
+
 import com.impetus.client.neo4j.config.Neo4JPropertyReader;
 import com.impetus.client.neo4j.config.Neo4JPropertyReader.Neo4JSchemaMetadata;
 import com.impetus.client.neo4j.index.Neo4JIndexManager;
@@ -729,6 +734,75 @@ public class Neo4JClient extends Neo4JClientBase implements Client<Neo4JQuery>,
         return entities;
     }
 
+    /**
+     * Executes Cypher query and lazily converts nodes returned in its first
+     * column into entities, as iterator is advanced.
+     * 
+     * @param m
+     *            entity metadata
+     * @param cypherQuery
+     *            Cypher query
+     * @param parameters
+     *            query parameters, converted to Neo4J compatible values
+     * @return entities, wrapped in {@link EnhanceEntity} if they hold
+     *         relations.
+     */
+    public Iterator<Object> executeCypherQuery(final EntityMetadata m, String cypherQuery,
+            Map<String, Object> parameters)
+    {
+        log.info("Executing Cypher Query on Neo4J:" + cypherQuery);
+
+        Map<String, Object> neo4JParameters = new HashMap<String, Object>();
+        for (String name : parameters.keySet())
+        {
+            Object value = parameters.get(name);
+            if (value instanceof Collection)
+            {
+                List<Object> values = new ArrayList<Object>();
+                for (Object o : (Collection) value)
+                {
+                    values.add(mapper.toNeo4JProperty(o));
+                }
+                value = values;
+            }
+            neo4JParameters.put(name, mapper.toNeo4JProperty(value));
+        }
+
+        ExecutionResult result = factory.getExecutionEngine().execute(cypherQuery, neo4JParameters);
+        final Iterator<Object> nodes = result.columnAs(result.columns().get(0));
+        return new AbstractIterator<Object>()
+        {
+            @Override
+            protected Object computeNext()
+            {
+                while (nodes.hasNext())
+                {
+                    Object node = nodes.next();
+                    Object entity = node instanceof Node ? getEntityWithAssociationFromNode(m, (Node) node) : null;
+                    if (entity != null)
+                    {
+                        return entity;
+                    }
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    /**
+     * Returns name of index holding nodes of given entity, same as used by
+     * {@link #executeLuceneQuery(EntityMetadata, String)}
+     */
+    public String getNodeIndexName(EntityMetadata m)
+    {
+        GraphDatabaseService graphDb = getConnection();
+        if (!indexer.isNodeAutoIndexingEnabled(graphDb) && m.isIndexable())
+        {
+            return m.getIndexName();
+        }
+        return "node_auto_index";
+    }
+
     /**
      * @param m
      * @param entities
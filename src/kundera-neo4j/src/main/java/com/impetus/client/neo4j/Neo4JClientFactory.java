@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.Properties;
 
 import org.apache.commons.lang.StringUtils;
+import org.neo4j.cypher.javacompat.ExecutionEngine;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
 import org.neo4j.graphdb.factory.GraphDatabaseFactory;
@@ -49,6 +50,9 @@ public class Neo4JClientFactory extends GenericClientFactory
     /** The logger. */
     private static Logger log = LoggerFactory.getLogger(Neo4JClientFactory.class);
 
+    /** Cypher execution engine, caches execution plans of queries. */
+    private ExecutionEngine executionEngine;
+
     @Override
     public void initialize(Map<String, Object> puProperties)
     {
@@ -135,6 +139,7 @@ public class Neo4JClientFactory extends GenericClientFactory
     public void destroy()
     {
         this.externalProperties = null;        
+        this.executionEngine = null;
         ((GraphDatabaseService) getConnectionPoolOrConnection()).shutdown();
         // Not required for multithreaded clients
     }
@@ -152,6 +157,21 @@ public class Neo4JClientFactory extends GenericClientFactory
     void setConnection(GraphDatabaseService graphDb)
     {
         setConnectionPoolOrConnection(graphDb);
+        this.executionEngine = null;
+    }
+
+    /**
+     * Retrieves Cypher {@link ExecutionEngine} over graph database instance
+     * 
+     * @return
+     */
+    synchronized ExecutionEngine getExecutionEngine()
+    {
+        if (executionEngine == null)
+        {
+            executionEngine = new ExecutionEngine(getConnection());
+        }
+        return executionEngine;
     }
 
     /**
@@ -30,10 +30,10 @@ public class Neo4JNativeQueryFactory
         {
             return new Neo4JLuceneQuery();
         }
-        /*
-         * else if (queryType.equals(Neo4JQueryType.CYPHER)) { return new
-         * Neo4JCypherQuery(); }
-         */
+        else if (queryType.equals(Neo4JQueryType.CYPHER))
+        {
+            return new Neo4JCypherQuery();
+        }
         /*
          * else if (queryType.equals(Neo4JQueryType.GREMLIN)) {
          * 
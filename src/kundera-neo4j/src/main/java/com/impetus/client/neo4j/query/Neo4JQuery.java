@@ -15,21 +15,35 @@
  */
 package com.impetus.client.neo4j.query;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.persistence.metamodel.EntityType;
 
 import com.impetus.client.neo4j.Neo4JClient;
 import com.impetus.client.neo4j.Neo4JEntityReader;
 import com.impetus.kundera.client.Client;
+import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.ApplicationMetadata;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.metadata.model.Relation;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.query.KunderaQuery;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
+import com.impetus.kundera.query.KunderaQuery.SortOrdering;
+import com.impetus.kundera.query.QueryHandlerException;
 import com.impetus.kundera.query.QueryImpl;
 
 /**
@@ -41,6 +55,9 @@ public class Neo4JQuery extends QueryImpl
 {
     private static final String NATIVE_QUERY_TYPE = "native.query.type";
 
+    /** Identifier of queried node in generated Cypher query */
+    private static final String NODE_IDENTIFIER = "n";
+
     Neo4JQueryType queryType;
 
     /** The reader. */
@@ -76,6 +93,24 @@ public class Neo4JQuery extends QueryImpl
     protected List<Object> recursivelyPopulateEntities(EntityMetadata m, Client client)
     {
         List<Object> entities = new ArrayList<Object>();
+        Iterator<Object> iterator = getEntities(m, client, maxResult);
+        while (iterator.hasNext())
+        {
+            entities.add(iterator.next());
+        }
+        return setRelationEntities(entities, client, m);
+    }
+
+    /**
+     * Executes native query, or JPA query translated into Cypher.
+     * 
+     * @param limit
+     *            maximum number of entities returned by JPA query, ignored if
+     *            not positive.
+     * @return entities, relations are not populated.
+     */
+    private Iterator<Object> getEntities(EntityMetadata m, Client client, int limit)
+    {
         ApplicationMetadata appMetadata = KunderaMetadata.INSTANCE.getApplicationMetadata();
 
         String query = appMetadata.getQuery(getJPAQuery());
@@ -84,15 +119,30 @@ public class Neo4JQuery extends QueryImpl
         if (isNative)
         {
             String nativeQuery = query != null ? query : getJPAQuery();
-            Neo4JNativeQuery nativeQueryImpl = Neo4JNativeQueryFactory.getNativeQueryImplementation(queryType);
-            entities = nativeQueryImpl.executeNativeQuery(nativeQuery, (Neo4JClient) client, m);
+            Neo4JNativeQuery nativeQueryImpl = Neo4JNativeQueryFactory.getNativeQueryImplementation(getQueryType());
+            return nativeQueryImpl.executeNativeQuery(nativeQuery, (Neo4JClient) client, m).iterator();
         }
         else
         {
-            String luceneQuery = getLuceneQuery(kunderaQuery);
-            entities = ((Neo4JClient) client).executeLuceneQuery(m, luceneQuery);
+            Map<String, Object> parameters = new HashMap<String, Object>();
+            String cypherQuery = getCypherQuery(m, (Neo4JClient) client, parameters, limit);
+            return ((Neo4JClient) client).executeCypherQuery(m, cypherQuery, parameters);
         }
-        return setRelationEntities(entities, client, m);
+    }
+
+    /**
+     * Returns native query type, hint is read at execution as it is set after
+     * query is created.
+     */
+    private Neo4JQueryType getQueryType()
+    {
+        Object hint = getHints().get(NATIVE_QUERY_TYPE);
+        if (hint != null)
+        {
+            return hint instanceof Neo4JQueryType ? (Neo4JQueryType) hint : Neo4JQueryType.valueOf(hint.toString()
+                    .trim().toUpperCase());
+        }
+        return queryType;
     }
 
     @Override
@@ -117,89 +167,226 @@ public class Neo4JQuery extends QueryImpl
         return 0;
     }
 
-    private String getLuceneQuery(KunderaQuery kunderaQuery)
+    /**
+     * Translates JPA query into Cypher. Nodes are looked up from index, by id
+     * if query is for equality over id, else all nodes of entity. Conditions
+     * over attributes of related entities(e.g. p.address.city) are evaluated
+     * by traversing relationships to them.
+     * 
+     * @param parameters
+     *            populated with values of query parameters.
+     */
+    private String getCypherQuery(EntityMetadata m, Neo4JClient client, Map<String, Object> parameters, int limit)
     {
-        StringBuffer sb = new StringBuffer();
+        String idColumnName = ((AbstractAttribute) m.getIdAttribute()).getJPAColumnName();
 
-        if (kunderaQuery.getFilterClauseQueue().isEmpty())
-        {
-            // Select All query if filter clause is empty
-            String idColumnName = ((AbstractAttribute) kunderaQuery.getEntityMetadata().getIdAttribute())
-                    .getJPAColumnName();
-            sb.append(idColumnName).append(":").append("*");
-        }
-        else
+        // relation field name to identifier of related node.
+        Map<String, String> relationIdentifiers = new LinkedHashMap<String, String>();
+        StringBuilder match = new StringBuilder();
+        StringBuilder where = new StringBuilder();
+        String startParameter = null;
+        boolean isDisjunction = false;
+
+        for (Object object : kunderaQuery.getFilterClauseQueue())
         {
-            for (Object object : kunderaQuery.getFilterClauseQueue())
+            if (object instanceof FilterClause)
             {
-                if (object instanceof FilterClause)
+                FilterClause filter = (FilterClause) object;
+                String property = filter.getProperty();
+                if (property == null)
                 {
-                    boolean appended = false;
-                    FilterClause filter = (FilterClause) object;
-                    // property
-                    sb.append(filter.getProperty());
-
-                    // joiner
-                    String appender = "";
-                    String condition = filter.getCondition().trim();
-                    if (condition.equals("="))
-                    {
-                        sb.append(":");
-                    }
-                    else if (condition.equalsIgnoreCase("like"))
-                    {
-                        sb.append(":");
-                        appender = "*";
-                    }
-                    else if (condition.equalsIgnoreCase(">"))
-                    {
-                        // TODO: Amresh need to look for "String.class"
-                        // parameter.
-                        sb.append(appendRange(filter.getValue().toString(), false, true, String.class));
-                        appended = true;
-                    }
-                    else if (condition.equalsIgnoreCase(">="))
+                    throw new QueryHandlerException("Invalid property in query:" + getJPAQuery());
+                }
+
+                EntityMetadata propertyMetadata = m;
+                String identifier = NODE_IDENTIFIER;
+                String fieldName = property;
+                if (property.indexOf(".") > 0)
+                {
+                    String relationName = property.substring(0, property.indexOf("."));
+                    Relation relation = m.getRelation(relationName);
+                    if (relation == null)
                     {
-                        sb.append(appendRange(filter.getValue().toString(), true, true, String.class));
-                        appended = true;
+                        throw new QueryHandlerException("Condition over:" + property + " not supported for Neo4J");
                     }
-                    else if (condition.equalsIgnoreCase("<"))
+
+                    propertyMetadata = KunderaMetadataManager.getEntityMetadata(relation.getTargetEntity());
+                    identifier = relationIdentifiers.get(relationName);
+                    if (identifier == null)
                     {
-                        sb.append(appendRange(filter.getValue().toString(), false, false, String.class));
-                        appended = true;
+                        identifier = "r" + relationIdentifiers.size();
+                        relationIdentifiers.put(relationName, identifier);
+                        match.append(match.length() > 0 ? ", " : "").append(NODE_IDENTIFIER).append("-[:")
+                                .append(relation.getJoinColumnName()).append("]->").append(identifier);
                     }
-                    else if (condition.equalsIgnoreCase("<="))
+                    fieldName = property.substring(property.indexOf(".") + 1);
+                }
+
+                // discriminator column is not an attribute, its value is
+                // compared as it is.
+                Field field = getField(propertyMetadata, fieldName);
+                String columnName = field != null ? getColumnName(propertyMetadata, field) : fieldName;
+                String parameter = "p" + parameters.size();
+                String condition = filter.getCondition().trim();
+                String propertyName = identifier + "." + columnName + "!";
+
+                if (condition.equals("=") || condition.equals(">") || condition.equals(">=")
+                        || condition.equals("<") || condition.equals("<="))
+                {
+                    parameters.put(parameter, toType(field, filter.getValue()));
+                    where.append(propertyName).append(" ").append(condition).append(" {").append(parameter)
+                            .append("}");
+                    if (condition.equals("=") && identifier.equals(NODE_IDENTIFIER)
+                            && columnName.equals(idColumnName) && startParameter == null)
                     {
-                        sb.append(appendRange(filter.getValue().toString(), true, false, String.class));
-                        appended = true;
+                        startParameter = parameter;
                     }
-
-                    // value. if not already appended.
-                    if (!appended)
+                }
+                else if (condition.equalsIgnoreCase("like"))
+                {
+                    parameters.put(parameter, toRegex(filter.getValue().toString()));
+                    where.append(propertyName).append(" =~ {").append(parameter).append("}");
+                }
+                else if (condition.equalsIgnoreCase("in") && filter.getValue() instanceof Collection)
+                {
+                    List<Object> values = new ArrayList<Object>();
+                    for (Object value : (Collection) filter.getValue())
                     {
-                        if (appender.equals("") && filter.getValue() != null
-                                && filter.getValue().toString().contains(" "))
-                        {
-                            sb.append("\"");
-                            sb.append(filter.getValue().toString());
-                            sb.append("\"");
-                        }
-                        else
-                        {
-                            sb.append(filter.getValue());
-                            sb.append(appender);
-                        }
-
+                        values.add(toType(field, value));
                     }
+                    parameters.put(parameter, values);
+                    where.append("ANY(x IN {").append(parameter).append("} WHERE ").append(propertyName)
+                            .append(" = x)");
                 }
                 else
                 {
-                    sb.append(" " + object + " ");
+                    throw new QueryHandlerException("Condition:" + condition + " not supported for Neo4J");
+                }
+            }
+            else
+            {
+                isDisjunction = isDisjunction || object.toString().trim().equalsIgnoreCase("OR");
+                where.append(" ").append(object.toString().trim().toUpperCase()).append(" ");
+            }
+        }
+
+        StringBuilder cypherQuery = new StringBuilder("START ").append(NODE_IDENTIFIER).append("=node:")
+                .append(client.getNodeIndexName(m));
+        if (startParameter != null && !isDisjunction)
+        {
+            cypherQuery.append("(").append(idColumnName).append("={").append(startParameter).append("})");
+        }
+        else
+        {
+            // Select All query if filter clause is empty
+            cypherQuery.append("(\"").append(idColumnName).append(":*\")");
+        }
+
+        if (match.length() > 0)
+        {
+            cypherQuery.append(" MATCH ").append(match);
+        }
+        if (where.length() > 0)
+        {
+            cypherQuery.append(" WHERE ").append(where);
+        }
+        cypherQuery.append(" RETURN ").append(match.length() > 0 ? "DISTINCT " : "").append(NODE_IDENTIFIER);
+
+        List<SortOrdering> orderings = kunderaQuery.getOrdering();
+        if (orderings != null && !orderings.isEmpty())
+        {
+            cypherQuery.append(" ORDER BY ");
+            for (int i = 0; i < orderings.size(); i++)
+            {
+                String orderBy = orderings.get(i).getColumnName();
+                // strip alias from property name
+                String fieldName = orderBy.indexOf(".") > 0 ? orderBy.substring(orderBy.indexOf(".") + 1) : orderBy;
+                Field field = getField(m, fieldName);
+                if (field == null)
+                {
+                    throw new QueryHandlerException("Invalid order by:" + orderBy + " for entity:" + m.getEntityClazz());
                 }
+                String columnName = getColumnName(m, field);
+                cypherQuery.append(i > 0 ? ", " : "").append(NODE_IDENTIFIER).append(".").append(columnName)
+                        .append("? ").append(orderings.get(i).getOrder());
             }
         }
 
-        return sb.toString();
+        if (limit > 0)
+        {
+            cypherQuery.append(" LIMIT ").append(limit);
+        }
+        return cypherQuery.toString();
+    }
+
+    /**
+     * Returns field of entity by field or column name, null if there is no
+     * such attribute.
+     */
+    private Field getField(EntityMetadata m, String name)
+    {
+        String fieldName = m.getFieldName(name);
+        try
+        {
+            return (Field) getEntityType(m).getAttribute(fieldName != null ? fieldName : name).getJavaMember();
+        }
+        catch (IllegalArgumentException iaex)
+        {
+            return null;
+        }
+    }
+
+    private String getColumnName(EntityMetadata m, Field field)
+    {
+        return ((AbstractAttribute) getEntityType(m).getAttribute(field.getName())).getJPAColumnName();
+    }
+
+    private EntityType getEntityType(EntityMetadata m)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        return metaModel.entity(m.getEntityClazz());
+    }
+
+    /**
+     * Converts query value to type of field, it is converted to Neo4J
+     * compatible value by client. Values not mapped to a field(e.g.
+     * discriminator value) are returned as they are.
+     */
+    private Object toType(Field field, Object value)
+    {
+        return value != null && field != null ? PropertyAccessorHelper.fromSourceToTargetClass(field.getType(),
+                value.getClass(), value) : value;
+    }
+
+    /**
+     * Converts JPA like expression to regular expression.
+     */
+    private String toRegex(String likeExpression)
+    {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : likeExpression.toCharArray())
+        {
+            if (c == '%' || c == '_')
+            {
+                if (literal.length() > 0)
+                {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            }
+            else
+            {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0)
+        {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
     }
 
     @Override
@@ -212,8 +399,10 @@ public class Neo4JQuery extends QueryImpl
     @Override
     public Iterator iterate()
     {
-        // TODO Auto-generated method stub
-        return null;
+        EntityMetadata m = getEntityMetadata();
+        Client client = persistenceDelegeator.getClient(m);
+        int limit = getIterationLimit();
+        return new ResultIterator(this, client, m, getEntities(m, client, limit), limit);
     }
 
 }
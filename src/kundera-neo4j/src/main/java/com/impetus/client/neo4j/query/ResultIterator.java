@@ -0,0 +1,109 @@
+/**
+ * Copyright 2013 Impetus Infotech.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.impetus.client.neo4j.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.query.IResultIterator;
+
+/**
+ * Implementation of Neo4J result iteration. Nodes are pulled from Cypher
+ * result and converted into entities chunk by chunk, relations of each chunk
+ * are populated together.
+ * 
+ * @param <E>
+ */
+class ResultIterator<E> implements IResultIterator<E>
+{
+    private final Neo4JQuery query;
+
+    private final Client client;
+
+    private final EntityMetadata m;
+
+    private final Iterator entities;
+
+    private final int maxResults;
+
+    private int count;
+
+    /**
+     * Constructor with parameters.
+     * 
+     * @param query
+     *            query being iterated.
+     * @param client
+     *            client.
+     * @param m
+     *            entity metadata.
+     * @param entities
+     *            entities, possibly wrapped in enhance entities.
+     * @param maxResults
+     *            maximum number of entities iterated over, native queries are
+     *            not limited within data store.
+     */
+    ResultIterator(final Neo4JQuery query, final Client client, final EntityMetadata m, final Iterator entities,
+            final int maxResults)
+    {
+        this.query = query;
+        this.client = client;
+        this.m = m;
+        this.entities = entities;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return count < maxResults && entities.hasNext();
+    }
+
+    @Override
+    public E next()
+    {
+        List<E> chunk = next(1);
+        if (chunk.isEmpty())
+        {
+            throw new NoSuchElementException("Nothing to iterate further for:" + m.getEntityClazz());
+        }
+        return chunk.get(0);
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("remove method is not supported over pagination");
+    }
+
+    @Override
+    public List<E> next(int chunkSize)
+    {
+        List<Object> chunk = new ArrayList<Object>(chunkSize);
+        while (chunk.size() < chunkSize && hasNext())
+        {
+            chunk.add(entities.next());
+            count++;
+        }
+
+        List<Object> results = chunk.isEmpty() ? null : query.setRelationEntities(chunk, client, m);
+        return results != null ? (List<E>) results : new ArrayList<E>();
+    }
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.neo4j.imdb;
+
+import javax.persistence.DiscriminatorValue;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+/**
+ * Director node entity, an {@link Artist} with discriminator value DIRECTOR.
+ */
+@Entity
+@Table(name = "ARTIST")
+@DiscriminatorValue(value = "DIRECTOR")
+public class Director extends Artist
+{
+    public Director()
+    {
+    }
+
+    public Director(int id, String name)
+    {
+        super(id, name);
+    }
+}
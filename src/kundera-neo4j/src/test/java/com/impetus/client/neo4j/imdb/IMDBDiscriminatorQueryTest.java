@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.neo4j.imdb;
+
+import java.util.List;
+
+import javax.persistence.Query;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for JPA queries over entities told apart by discriminator.
+ */
+public class IMDBDiscriminatorQueryTest extends IMDBTestBase
+{
+    @Before
+    public void setUp() throws Exception
+    {
+        init();
+
+        em.getTransaction().begin();
+        em.persist(new Director(1, "Steven Spielberg"));
+        em.persist(new Director(2, "Brian De Palma"));
+        em.persist(new Producer(3, "Kathleen Kennedy"));
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        clean();
+    }
+
+    @Test
+    public void testSelectAll()
+    {
+        Query query = em.createQuery("select d from Director d");
+        List<Director> directors = query.getResultList();
+        Assert.assertNotNull(directors);
+        Assert.assertEquals(2, directors.size());
+        for (Director director : directors)
+        {
+            Assert.assertTrue(director.getId() == 1 || director.getId() == 2);
+        }
+
+        query = em.createQuery("select p from Producer p");
+        List<Producer> producers = query.getResultList();
+        Assert.assertNotNull(producers);
+        Assert.assertEquals(1, producers.size());
+        Assert.assertEquals(3, producers.get(0).getId());
+        Assert.assertEquals("Kathleen Kennedy", producers.get(0).getName());
+    }
+
+    @Test
+    public void testSelectWithCondition()
+    {
+        Query query = em.createQuery("select d from Director d where d.name = :name");
+        query.setParameter("name", "Brian De Palma");
+        List<Director> directors = query.getResultList();
+        Assert.assertNotNull(directors);
+        Assert.assertEquals(1, directors.size());
+        Assert.assertEquals(2, directors.get(0).getId());
+
+        // producer of same name is not a director.
+        query = em.createQuery("select d from Director d where d.name = :name");
+        query.setParameter("name", "Kathleen Kennedy");
+        directors = query.getResultList();
+        Assert.assertTrue(directors == null || directors.isEmpty());
+
+        query = em.createQuery("select p from Producer p where p.id = :id");
+        query.setParameter("id", 3);
+        List<Producer> producers = query.getResultList();
+        Assert.assertNotNull(producers);
+        Assert.assertEquals(1, producers.size());
+        Assert.assertEquals("Kathleen Kennedy", producers.get(0).getName());
+    }
+}
@@ -24,6 +24,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.impetus.kundera.query.IResultIterator;
+import com.impetus.kundera.query.QueryImpl;
+
 /**
  * * Test case using IMDB example for JPA Queries Demonstrates M-2-M Association
  * between two entitites using Map
@@ -84,6 +87,12 @@ public class IMDBJPAQueriesTest extends IMDBTestBase
         findMoviesGreaterThanLessThanYear();
         findMoviesUsingIdOrTitle();
         findMoviesUsingIdOrTitleOrYear();
+        findActorsByMovieTitle();
+        findMoviesOrderedByYear();
+        findMoviesWithMaxResults();
+        findActorsByNativeCypherQuery();
+        iterateActors();
+        iterateActorsWithMaxResults();
 
         // Delete Queries
         deleteAllActors();
@@ -241,6 +250,109 @@ public class IMDBJPAQueriesTest extends IMDBTestBase
         }
     }
 
+    private void findActorsByMovieTitle()
+    {
+        // Condition over related entity is evaluated by MATCH traversal
+        Query query = em.createQuery("select a from Actor a where a.movies.title = :title");
+        query.setParameter("title", "War of the Worlds");
+        List<Actor> actors = query.getResultList();
+        Assert.assertNotNull(actors);
+        Assert.assertEquals(1, actors.size());
+        assertActor1(actors.get(0));
+
+        // Actor is returned once, however many movies match
+        query = em.createQuery("select a from Actor a where a.movies.title like :title");
+        query.setParameter("title", "%o%");
+        actors = query.getResultList();
+        Assert.assertNotNull(actors);
+        Assert.assertEquals(2, actors.size());
+
+        query = em.createQuery("select a from Actor a where a.movies.year = :year AND a.name = :name");
+        query.setParameter("year", 2009);
+        query.setParameter("name", "Tom Cruise");
+        actors = query.getResultList();
+        Assert.assertTrue(actors == null || actors.isEmpty());
+    }
+
+    private void findMoviesOrderedByYear()
+    {
+        Query query = em.createQuery("select m from Movie m ORDER BY m.year DESC");
+        List<Movie> movies = query.getResultList();
+        Assert.assertNotNull(movies);
+        Assert.assertEquals(3, movies.size());
+        Assert.assertEquals("m3", movies.get(0).getId());
+        Assert.assertEquals("m1", movies.get(1).getId());
+        Assert.assertEquals("m2", movies.get(2).getId());
+
+        query = em.createQuery("select m from Movie m ORDER BY m.year ASC");
+        movies = query.getResultList();
+        Assert.assertNotNull(movies);
+        Assert.assertEquals(3, movies.size());
+        Assert.assertEquals("m2", movies.get(0).getId());
+        Assert.assertEquals("m3", movies.get(2).getId());
+    }
+
+    private void findMoviesWithMaxResults()
+    {
+        Query query = em.createQuery("select m from Movie m ORDER BY m.year DESC");
+        query.setMaxResults(2);
+        List<Movie> movies = query.getResultList();
+        Assert.assertNotNull(movies);
+        Assert.assertEquals(2, movies.size());
+        Assert.assertEquals("m3", movies.get(0).getId());
+        Assert.assertEquals("m1", movies.get(1).getId());
+    }
+
+    private void findActorsByNativeCypherQuery()
+    {
+        Query query = em.createNativeQuery(
+                "START n=node:node_auto_index(\"ACTOR_ID:*\") RETURN n ORDER BY n.ACTOR_ID DESC", Actor.class);
+        query.setHint("native.query.type", "CYPHER");
+        List<Actor> actors = query.getResultList();
+        Assert.assertNotNull(actors);
+        Assert.assertEquals(2, actors.size());
+        assertActor2(actors.get(0));
+        assertActor1(actors.get(1));
+    }
+
+    private void iterateActors()
+    {
+        Query query = em.createQuery("select a from Actor a");
+        IResultIterator<Actor> iter = (IResultIterator<Actor>) ((QueryImpl) query).iterate();
+        Assert.assertTrue(iter.hasNext());
+        List<Actor> actors = iter.next(1);
+        Assert.assertEquals(1, actors.size());
+        Assert.assertTrue(iter.hasNext());
+        Assert.assertNotNull(iter.next());
+        Assert.assertFalse(iter.hasNext());
+    }
+
+    private void iterateActorsWithMaxResults()
+    {
+        Query query = em.createQuery("select a from Actor a");
+        query.setMaxResults(1);
+        IResultIterator<Actor> iter = (IResultIterator<Actor>) ((QueryImpl) query).iterate();
+        Assert.assertTrue(iter.hasNext());
+        Assert.assertNotNull(iter.next());
+        Assert.assertFalse(iter.hasNext());
+
+        // fetch size takes precedence over max results
+        query = em.createQuery("select a from Actor a");
+        query.setMaxResults(1);
+        ((QueryImpl) query).setFetchSize(2);
+        iter = (IResultIterator<Actor>) ((QueryImpl) query).iterate();
+        Assert.assertEquals(2, iter.next(5).size());
+        Assert.assertFalse(iter.hasNext());
+
+        // native query is limited while iterating
+        query = em.createNativeQuery("START n=node:node_auto_index(\"ACTOR_ID:*\") RETURN n", Actor.class);
+        query.setHint("native.query.type", "CYPHER");
+        query.setMaxResults(1);
+        iter = (IResultIterator<Actor>) ((QueryImpl) query).iterate();
+        Assert.assertEquals(1, iter.next(5).size());
+        Assert.assertFalse(iter.hasNext());
+    }
+
     private void deleteAllActors()
     {
         em.getTransaction().begin();
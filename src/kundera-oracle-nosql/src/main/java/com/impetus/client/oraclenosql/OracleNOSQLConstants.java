@@ -42,4 +42,15 @@ public interface OracleNOSQLConstants
 
     public static final String SECONDARY_INDEX_SUFFIX = "_idx";
 
+    /** Number of records fetched per store iterator round trip. */
+    public static final String ITERATOR_BATCH_SIZE = "iterator.batch.size";
+
+    /** Number of threads fetching entities concurrently in findAll. */
+    public static final String READ_THREADS = "read.threads";
+
+    /** Zero leaves the batch size to the store default. */
+    public static final int DEFAULT_ITERATOR_BATCH_SIZE = 0;
+
+    public static final int DEFAULT_READ_THREADS = 4;
+
 }
@@ -27,7 +27,12 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import javax.persistence.PersistenceException;
@@ -110,6 +115,8 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
 
     private Consistency consistency = OracleNOSQLConstants.DEFAULT_CONSISTENCY;
 
+    private int iteratorBatchSize = OracleNOSQLConstants.DEFAULT_ITERATOR_BATCH_SIZE;
+
     /** The log. */
     private static Logger log = LoggerFactory.getLogger(OracleNoSQLClient.class);
 
@@ -134,6 +141,7 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
         this.indexManager = indexManager;
         this.clientMetadata = factory.getClientMetadata();
         setBatchSize(persistenceUnit, puProperties);
+        setIteratorBatchSize(persistenceUnit, puProperties);
     }
 
     @Override
@@ -145,10 +153,6 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
     private Object find(Class entityClass, Object key, List<String> columnsToSelect)
     {
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
-        MetamodelImpl metamodel = (MetamodelImpl) KunderaMetadataManager.getMetamodel(entityMetadata
-                .getPersistenceUnit());
-
-        EntityType entityType = metamodel.entity(entityMetadata.getEntityClazz());
 
         if (log.isDebugEnabled())
         {
@@ -162,6 +166,41 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
 
         Key majorKeyToFind = Key.createKey(majorComponents);
 
+        try
+        {
+            Iterator<KeyValueVersion> iterator = kvStore.multiGetIterator(Direction.FORWARD, 0, majorKeyToFind, null,
+                    null);
+            return populateEntity(entityMetadata, key, iterator, columnsToSelect);
+        }
+        catch (Exception e)
+        {
+            log.error("Error while finding data for Key " + key + ", Caused By :" + e + ".");
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Populates entity from records sharing its major key.
+     * 
+     * @param entityMetadata
+     *            entity metadata
+     * @param key
+     *            entity id
+     * @param iterator
+     *            records of entity
+     * @param columnsToSelect
+     *            columns to populate, all if null or empty
+     * @return entity, wrapped in {@link EnhanceEntity} if it holds relations
+     *         or null if there are no records
+     */
+    private Object populateEntity(EntityMetadata entityMetadata, Object key, Iterator<KeyValueVersion> iterator,
+            List<String> columnsToSelect) throws InstantiationException, IllegalAccessException, IOException
+    {
+        MetamodelImpl metamodel = (MetamodelImpl) KunderaMetadataManager.getMetamodel(entityMetadata
+                .getPersistenceUnit());
+
+        EntityType entityType = metamodel.entity(entityMetadata.getEntityClazz());
+
         Object entity = null;
 
         Map<String, Object> relationMap = null;
@@ -170,96 +209,85 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
             relationMap = new HashMap<String, Object>();
         }
 
-        try
+        // Populate non-ID attributes
+        while (iterator.hasNext())
         {
-            Iterator<KeyValueVersion> iterator = kvStore.multiGetIterator(Direction.FORWARD, 0, majorKeyToFind, null,
-                    null);
+            entity = initializeEntity(entity, key, entityMetadata);
 
-            // Populate non-ID attributes
-            while (iterator.hasNext())
-            {
-                entity = initializeEntity(entity, key, entityMetadata);
-
-                KeyValueVersion keyValueVersion = iterator.next();
+            KeyValueVersion keyValueVersion = iterator.next();
 
-                String minorKeyFirstPart = keyValueVersion.getKey().getMinorPath().get(0);
-                minorKeyFirstPart = handler.removeLOBSuffix(minorKeyFirstPart);
-                String discriminatorColumn = ((AbstractManagedType) entityType).getDiscriminatorColumn();
-                if (minorKeyFirstPart != null && !minorKeyFirstPart.equals(discriminatorColumn))
+            String minorKeyFirstPart = keyValueVersion.getKey().getMinorPath().get(0);
+            minorKeyFirstPart = handler.removeLOBSuffix(minorKeyFirstPart);
+            String discriminatorColumn = ((AbstractManagedType) entityType).getDiscriminatorColumn();
+            if (minorKeyFirstPart != null && !minorKeyFirstPart.equals(discriminatorColumn))
+            {
+                String fieldName = entityMetadata.getFieldName(minorKeyFirstPart);
+                if (fieldName != null)
                 {
-                    String fieldName = entityMetadata.getFieldName(minorKeyFirstPart);
-                    if (fieldName != null)
-                    {
-                        Field f = (Field) entityType.getAttribute(fieldName).getJavaMember();
+                    Field f = (Field) entityType.getAttribute(fieldName).getJavaMember();
 
-                        if (metamodel.isEmbeddable(f.getType()))
+                    if (metamodel.isEmbeddable(f.getType()))
+                    {
+                        // Populate embedded attribute
+                        Class<?> embeddableClass = f.getType();
+                        if (metamodel.isEmbeddable(embeddableClass))
                         {
-                            // Populate embedded attribute
-                            Class<?> embeddableClass = f.getType();
-                            if (metamodel.isEmbeddable(embeddableClass))
-                            {
-                                String minorKeySecondPart = keyValueVersion.getKey().getMinorPath().get(1);
-                                minorKeySecondPart = handler.removeLOBSuffix(minorKeySecondPart);
+                            String minorKeySecondPart = keyValueVersion.getKey().getMinorPath().get(1);
+                            minorKeySecondPart = handler.removeLOBSuffix(minorKeySecondPart);
 
-                                Object embeddedObject = PropertyAccessorHelper.getObject(entity, f);
-                                if (embeddedObject == null)
-                                {
-                                    embeddedObject = embeddableClass.newInstance();
-                                    PropertyAccessorHelper.set(entity, f, embeddedObject);
-                                }
+                            Object embeddedObject = PropertyAccessorHelper.getObject(entity, f);
+                            if (embeddedObject == null)
+                            {
+                                embeddedObject = embeddableClass.newInstance();
+                                PropertyAccessorHelper.set(entity, f, embeddedObject);
+                            }
 
-                                EmbeddableType embeddableType = metamodel.embeddable(embeddableClass);
+                            EmbeddableType embeddableType = metamodel.embeddable(embeddableClass);
 
-                                Attribute columnAttribute = embeddableType.getAttribute(minorKeySecondPart);
-                                Field columnField = (Field) columnAttribute.getJavaMember();
+                            Attribute columnAttribute = embeddableType.getAttribute(minorKeySecondPart);
+                            Field columnField = (Field) columnAttribute.getJavaMember();
 
-                                if (columnField != null)
-                                {
-                                    if (columnsToSelect == null
-                                            || columnsToSelect.isEmpty()
-                                            || columnsToSelect.contains(((AbstractAttribute) columnAttribute)
-                                                    .getJPAColumnName()))
-                                    {
-                                        populateField(embeddedObject, columnField, keyValueVersion, minorKeySecondPart);
-                                    }
-                                }
-                            }
-
-                        }
-                        else if (entityType.getAttribute(fieldName) != null)
-                        {
-                            Value v = keyValueVersion.getValue();
-                            if (f != null && entityMetadata.getRelation(f.getName()) == null)
+                            if (columnField != null)
                             {
                                 if (columnsToSelect == null
                                         || columnsToSelect.isEmpty()
-                                        || columnsToSelect.contains(((AbstractAttribute) entityType
-                                                .getAttribute(fieldName)).getJPAColumnName()))
+                                        || columnsToSelect.contains(((AbstractAttribute) columnAttribute)
+                                                .getJPAColumnName()))
                                 {
-                                    populateField(entity, f, keyValueVersion, minorKeyFirstPart);
-
+                                    populateField(embeddedObject, columnField, keyValueVersion, minorKeySecondPart);
                                 }
                             }
+                        }
 
-                            else if (entityMetadata.getRelationNames() != null
-                                    && entityMetadata.getRelationNames().contains(minorKeyFirstPart))
+                    }
+                    else if (entityType.getAttribute(fieldName) != null)
+                    {
+                        Value v = keyValueVersion.getValue();
+                        if (f != null && entityMetadata.getRelation(f.getName()) == null)
+                        {
+                            if (columnsToSelect == null
+                                    || columnsToSelect.isEmpty()
+                                    || columnsToSelect.contains(((AbstractAttribute) entityType
+                                            .getAttribute(fieldName)).getJPAColumnName()))
                             {
-                                Relation relation = entityMetadata.getRelation(f.getName());
-                                EntityMetadata associationMetadata = KunderaMetadataManager.getEntityMetadata(relation
-                                        .getTargetEntity());
-                                relationMap.put(minorKeyFirstPart, PropertyAccessorHelper.getObject(associationMetadata
-                                        .getIdAttribute().getBindableJavaType(), v.getValue()));
+                                populateField(entity, f, keyValueVersion, minorKeyFirstPart);
+
                             }
                         }
+
+                        else if (entityMetadata.getRelationNames() != null
+                                && entityMetadata.getRelationNames().contains(minorKeyFirstPart))
+                        {
+                            Relation relation = entityMetadata.getRelation(f.getName());
+                            EntityMetadata associationMetadata = KunderaMetadataManager.getEntityMetadata(relation
+                                    .getTargetEntity());
+                            relationMap.put(minorKeyFirstPart, PropertyAccessorHelper.getObject(associationMetadata
+                                    .getIdAttribute().getBindableJavaType(), v.getValue()));
+                        }
                     }
                 }
             }
         }
-        catch (Exception e)
-        {
-            log.error("Error while finding data for Key " + key + ", Caused By :" + e + ".");
-            throw new PersistenceException(e);
-        }
 
         if (relationMap != null && !relationMap.isEmpty())
         {
@@ -652,7 +680,7 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
     }
 
     @Override
-    public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... keys)
+    public <E> List<E> findAll(final Class<E> entityClass, String[] columnsToSelect, Object... keys)
     {
         List<E> results = new ArrayList<E>();
 
@@ -660,10 +688,57 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
         {
             columnsToSelect = new String[0];
         }
+        final List<String> columns = Arrays.asList(columnsToSelect);
+
+        ExecutorService readExecutor = factory.getReadExecutor();
+        if (readExecutor == null || keys.length < 2)
+        {
+            for (Object key : keys)
+            {
+                results.add((E) find(entityClass, key, columns));
+            }
+            return results;
+        }
+
+        // Each find is one multi get of all records under entity's major key,
+        // these are issued concurrently.
+        List<Future<Object>> entities = new ArrayList<Future<Object>>(keys.length);
+        for (final Object key : keys)
+        {
+            entities.add(readExecutor.submit(new Callable<Object>()
+            {
+                @Override
+                public Object call()
+                {
+                    return find(entityClass, key, columns);
+                }
+            }));
+        }
 
-        for (Object key : keys)
+        try
         {
-            results.add((E) find(entityClass, key, Arrays.asList(columnsToSelect)));
+            for (Future<Object> entity : entities)
+            {
+                results.add((E) entity.get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while finding data for " + entityClass, e);
+        }
+        catch (ExecutionException e)
+        {
+            log.error("Error while finding data for " + entityClass + ", Caused By :" + e.getCause() + ".");
+            throw e.getCause() instanceof PersistenceException ? (PersistenceException) e.getCause()
+                    : new PersistenceException(e.getCause());
+        }
+        finally
+        {
+            for (Future<Object> entity : entities)
+            {
+                entity.cancel(true);
+            }
         }
 
         return results;
@@ -685,34 +760,105 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
             primaryKeys.addAll(((OracleNoSQLInvertedIndexer) getIndexManager().getIndexer()).executeQuery(interpreter,
                     entityClass));
 
+            results = findAll(entityClass, interpreter.getSelectColumns(), primaryKeys.toArray());
         }
         else
         {
-            EntityMetadata m = KunderaMetadataManager.getEntityMetadata(entityClass);
+            Iterator<E> entities = iterate(entityClass, interpreter.getSelectColumns(), iteratorBatchSize);
+            while (entities.hasNext())
+            {
+                results.add(entities.next());
+            }
+        }
 
-            ArrayList<String> majorComponents = new ArrayList<String>();
-            majorComponents.add(m.getTableName());
+        return results;
+    }
 
-            Key key = Key.createKey(majorComponents);
+    /**
+     * Iterates over all entities of given class. Keys of table are read with
+     * a store iterator, each entity is read by its major key when its first
+     * key is read, so only one batch of keys is held at a time.
+     * 
+     * @param entityClass
+     *            entity class
+     * @param columnsToSelect
+     *            columns to populate, all if null or empty
+     * @param batchSize
+     *            number of keys fetched per round trip, 0 for store default
+     * @return entities, wrapped in {@link EnhanceEntity} if they hold
+     *         relations
+     */
+    public <E> Iterator<E> iterate(Class<E> entityClass, String[] columnsToSelect, int batchSize)
+    {
+        EntityMetadata m = KunderaMetadataManager.getEntityMetadata(entityClass);
 
-            Iterator<KeyValueVersion> iterator = kvStore.storeIterator(Direction.UNORDERED, 0, key, null, null);
+        Iterator<Key> iterator = kvStore.storeKeysIterator(Direction.UNORDERED, batchSize,
+                Key.createKey(m.getTableName()), null, null);
 
-            Set<Object> keySet = new HashSet<Object>();
+        return new EntityIterator<E>(m, iterator, columnsToSelect != null ? Arrays.asList(columnsToSelect) : null);
+    }
 
-            while (iterator.hasNext())
-            {
-                KeyValueVersion keyValueVersion = iterator.next();
+    /**
+     * Turns keys of a store iterator into entities. Unordered store iteration
+     * does not guarantee that keys sharing a major key are returned together,
+     * hence an entity is read as a whole by its major key when it is first
+     * seen, and ids of entities read are kept to skip their remaining keys.
+     */
+    private class EntityIterator<E> implements Iterator<E>
+    {
+        private final EntityMetadata m;
 
-                String majorKeySecondPart = keyValueVersion.getKey().getMajorPath().get(1);
-                keySet.add(majorKeySecondPart);
-            }
+        private final Iterator<Key> keys;
+
+        private final List<String> columnsToSelect;
+
+        /** Ids of entities read so far. */
+        private final Set<String> ids = new HashSet<String>();
+
+        /** Next entity, read by hasNext(). */
+        private Object next;
+
+        EntityIterator(EntityMetadata m, Iterator<Key> keys, List<String> columnsToSelect)
+        {
+            this.m = m;
+            this.keys = keys;
+            this.columnsToSelect = columnsToSelect;
+        }
 
-            primaryKeys.addAll(keySet);
+        @Override
+        public boolean hasNext()
+        {
+            while (next == null && keys.hasNext())
+            {
+                String id = keys.next().getMajorPath().get(1);
+                if (ids.add(id))
+                {
+                    Object key = PropertyAccessorHelper.fromSourceToTargetClass(m.getIdAttribute().getJavaType(),
+                            String.class, id);
+                    // null if entity has been deleted meanwhile.
+                    next = find(m.getEntityClazz(), key, columnsToSelect);
+                }
+            }
+            return next != null;
         }
 
-        results = findAll(entityClass, interpreter.getSelectColumns(), primaryKeys.toArray());
+        @Override
+        public E next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException("No more records in " + m.getTableName());
+            }
+            E entity = (E) next;
+            next = null;
+            return entity;
+        }
 
-        return results;
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException("remove method is not supported over store iterator");
+        }
     }
 
     @Override
@@ -990,6 +1136,44 @@ public class OracleNoSQLClient extends ClientBase implements Client<OracleNoSQLQ
         this.batchSize = batch_Size;
     }
 
+    /**
+     * @param persistenceUnit
+     * @param puProperties
+     */
+    private void setIteratorBatchSize(String persistenceUnit, Map<String, Object> puProperties)
+    {
+        Object iteratorBatchSize = puProperties != null ? puProperties.get(OracleNOSQLConstants.ITERATOR_BATCH_SIZE)
+                : null;
+        if (iteratorBatchSize == null)
+        {
+            PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+            iteratorBatchSize = puMetadata != null ? puMetadata.getProperty(OracleNOSQLConstants.ITERATOR_BATCH_SIZE)
+                    : null;
+        }
+        if (iteratorBatchSize != null)
+        {
+            setIteratorBatchSize(Integer.parseInt(iteratorBatchSize.toString().trim()));
+        }
+    }
+
+    /**
+     * @param iteratorBatchSize
+     *            number of records fetched per store iterator round trip, 0
+     *            for store default
+     */
+    public void setIteratorBatchSize(int iteratorBatchSize)
+    {
+        this.iteratorBatchSize = iteratorBatchSize;
+    }
+
+    /**
+     * @return number of records fetched per store iterator round trip
+     */
+    public int getIteratorBatchSize()
+    {
+        return iteratorBatchSize;
+    }
+
     @Override
     public void populateClientProperties(Client client, Map<String, Object> properties)
     {
@@ -17,6 +17,8 @@ package com.impetus.client.oraclenosql;
 
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import oracle.kv.KVStore;
 import oracle.kv.KVStoreConfig;
@@ -25,6 +27,7 @@ import oracle.kv.KVStoreFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.impetus.client.oraclenosql.config.OracleNoSQLPropertyReader;
 import com.impetus.client.oraclenosql.index.OracleNoSQLInvertedIndexer;
 import com.impetus.kundera.PersistenceProperties;
@@ -51,6 +54,9 @@ public class OracleNoSQLClientFactory extends GenericClientFactory
     /** The kvstore db. */
     private KVStore kvStore;
 
+    /** Fetches entities of findAll concurrently, shared by all clients. */
+    private ExecutorService readExecutor;
+
     @Override
     public SchemaManager getSchemaManager(Map<String, Object> puProperties)
     {
@@ -96,6 +102,12 @@ public class OracleNoSQLClientFactory extends GenericClientFactory
         schemaManager = null;
         externalProperties = null;
 
+        if (readExecutor != null)
+        {
+            readExecutor.shutdownNow();
+            readExecutor = null;
+        }
+
         if (kvStore != null)
         {
             logger.info("Closing connection to kvStore.");
@@ -113,9 +125,39 @@ public class OracleNoSQLClientFactory extends GenericClientFactory
     {
         kvStore = getConnection();
 
+        int readThreads = getReadThreads();
+        if (readThreads > 0)
+        {
+            readExecutor = Executors.newFixedThreadPool(readThreads, new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("kundera-oraclenosql-reader-%d").build());
+        }
+
         return kvStore;
     }
 
+    /**
+     * @return executor fetching entities of findAll concurrently, null if
+     *         concurrent reads are disabled.
+     */
+    ExecutorService getReadExecutor()
+    {
+        return readExecutor;
+    }
+
+    private int getReadThreads()
+    {
+        Object readThreads = externalProperties != null ? externalProperties.get(OracleNOSQLConstants.READ_THREADS)
+                : null;
+        if (readThreads == null)
+        {
+            readThreads = KunderaMetadata.INSTANCE.getApplicationMetadata()
+                    .getPersistenceUnitMetadata(getPersistenceUnit()).getProperties()
+                    .getProperty(OracleNOSQLConstants.READ_THREADS);
+        }
+        return readThreads != null ? Integer.parseInt(readThreads.toString().trim())
+                : OracleNOSQLConstants.DEFAULT_READ_THREADS;
+    }
+
     /**
      * Populates {@link Indexer} into {@link IndexManager}
      * 
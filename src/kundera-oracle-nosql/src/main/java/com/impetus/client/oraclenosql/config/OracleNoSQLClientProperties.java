@@ -24,6 +24,7 @@ import oracle.kv.Durability;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.client.oraclenosql.OracleNOSQLConstants;
 import com.impetus.client.oraclenosql.OracleNoSQLClient;
 import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
@@ -86,6 +87,10 @@ public class OracleNoSQLClientProperties
                         setBatchSize(value);
 
                     }
+                    else if (key.equals(OracleNOSQLConstants.ITERATOR_BATCH_SIZE))
+                    {
+                        setIteratorBatchSize(value);
+                    }
 
                     // Add more properties as needed
                 }
@@ -143,6 +148,21 @@ public class OracleNoSQLClientProperties
 
     }
 
+    /**
+     * set store iterator batch size
+     */
+    private void setIteratorBatchSize(Object value)
+    {
+        if (value instanceof Integer)
+        {
+            this.oracleNoSQLClient.setIteratorBatchSize((Integer) value);
+        }
+        else if (value instanceof String)
+        {
+            this.oracleNoSQLClient.setIteratorBatchSize(Integer.valueOf((String) value));
+        }
+    }
+
     /**
      * check key value map not null
      */
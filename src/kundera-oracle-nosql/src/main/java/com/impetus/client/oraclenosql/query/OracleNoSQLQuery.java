@@ -190,7 +190,22 @@ public class OracleNoSQLQuery extends QueryImpl
     @Override
     public Iterator iterate()
     {
-        // TODO Auto-generated method stub
-        return null;
+        EntityMetadata m = getEntityMetadata();
+        Client client = persistenceDelegeator.getClient(m);
+        OracleNoSQLQueryInterpreter interpreter = translateQuery(getKunderaQuery().getFilterClauseQueue(), m);
+
+        Iterator entities;
+        if (!interpreter.isFindById() && interpreter.getClauseQueue().isEmpty())
+        {
+            // Select all query, streamed from store.
+            OracleNoSQLClient oracleNoSQLClient = (OracleNoSQLClient) client;
+            entities = oracleNoSQLClient.iterate(m.getEntityClazz(), interpreter.getSelectColumns(),
+                    Math.min(getIterationLimit(), oracleNoSQLClient.getIteratorBatchSize()));
+        }
+        else
+        {
+            entities = populateEntities(m, client).iterator();
+        }
+        return new ResultIterator(this, client, m, entities, getIterationLimit());
     }
 }
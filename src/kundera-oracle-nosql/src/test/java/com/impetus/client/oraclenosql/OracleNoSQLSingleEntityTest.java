@@ -20,8 +20,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
@@ -33,6 +36,7 @@ import org.junit.Test;
 
 import com.impetus.client.oraclenosql.entities.PersonKVStore;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.query.IResultIterator;
 
 /**
  * Test case for CRUD and Queries on a single entity
@@ -159,6 +163,28 @@ public class OracleNoSQLSingleEntityTest extends OracleNoSQLTestBase
         List<PersonKVStore> results = executeSelectQuery(findWithOutWhereClause);
         Assert.assertEquals(4, results.size());
 
+        clearEm();
+        // Iterate over select query without where clause, streamed from store,
+        // fetch size limits number of entities returned
+        Iterator<PersonKVStore> iterator = executeIterateQuery(findWithOutWhereClause, 3);
+        Assert.assertEquals(2, ((IResultIterator<PersonKVStore>) iterator).next(2).size());
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertNotNull(iterator.next().getPersonName());
+        Assert.assertFalse(iterator.hasNext());
+
+        clearEm();
+        // Each entity is returned once, with all of its columns
+        iterator = executeIterateQuery(findWithOutWhereClause, 10);
+        Set<String> ids = new HashSet<String>();
+        while (iterator.hasNext())
+        {
+            PersonKVStore person = iterator.next();
+            Assert.assertEquals("person" + person.getPersonId(), person.getPersonName());
+            Assert.assertEquals(Integer.parseInt(person.getPersonId()) * 10, person.getAge());
+            ids.add(person.getPersonId());
+        }
+        Assert.assertEquals(4, ids.size());
+
         clearEm();
         // Select query with where clause on single non-ID column
         String findByName = "Select p from PersonKVStore p where p.personName=:personName";
@@ -15,6 +15,7 @@
  */
 package com.impetus.client.oraclenosql;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -101,6 +102,13 @@ public class OracleNoSQLTestBase
         return query.getResultList();
     }
 
+    protected <E> Iterator<E> executeIterateQuery(String jpaQuery, int fetchSize)
+    {
+        com.impetus.kundera.query.Query query = (com.impetus.kundera.query.Query) em.createQuery(jpaQuery);
+        query.setFetchSize(fetchSize);
+        return query.iterate();
+    }
+
     protected int executeDMLQuery(String jpaQuery)
     {
         Query query = em.createQuery(jpaQuery);
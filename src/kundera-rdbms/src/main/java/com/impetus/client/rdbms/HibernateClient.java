@@ -19,8 +19,13 @@ import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,28 +39,38 @@ import javax.persistence.PersistenceException;
 import org.apache.commons.lang.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
+import org.hibernate.JDBCException;
 import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.StatelessSession;
 import org.hibernate.Transaction;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jdbc.Work;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.impetus.client.rdbms.query.RDBMSQuery;
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.db.RelationHolder;
+import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.index.IndexManager;
+import com.impetus.kundera.lifecycle.states.RemovedState;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.MetadataUtils;
 import com.impetus.kundera.metadata.model.ClientMetadata;
 import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.metadata.model.Relation;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.EntityReaderException;
+import com.impetus.kundera.persistence.api.Batcher;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessor;
@@ -68,7 +83,7 @@ import com.impetus.kundera.proxy.ProxyHelper;
  * 
  * @author vivek.mishra
  */
-public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
+public class HibernateClient extends ClientBase implements Client<RDBMSQuery>, Batcher
 {
 //    /** The sf. */
 //    private SessionFactory sf;
@@ -83,6 +98,12 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
 
     private Map<String, Object> puProperties;
 
+    /** Nodes waiting for batch flush. */
+    private List<Node> nodes = new ArrayList<Node>();
+
+    /** The batch size. */
+    private int batchSize;
+
     /** The Constant log. */
     private static final Logger log = LoggerFactory.getLogger(HibernateClient.class);
 
@@ -109,6 +130,7 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
         this.reader = reader;
         this.puProperties = puProperties;
         this.clientMetadata = clientMetadata;
+        populateBatchSize(persistenceUnit, puProperties);
     }
 
     /*
@@ -189,17 +211,19 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
     @Override
     public <E> List<E> findAll(Class<E> arg0, String[] columnsToSelect, Object... arg1)
     {
-        // TODO: Vivek correct it. unfortunately i need to open a new session
-        // for each finder to avoid lazy loading.
-        List<E> objs = new ArrayList<E>();
-        Session s = getSession();
-        Transaction tx = s.beginTransaction();
+        if (arg1 == null || arg1.length == 0)
+        {
+            return new ArrayList<E>();
+        }
 
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(getPersistenceUnit(), arg0);
 
         Object[] pKeys = getDataType(entityMetadata, arg1);
         String id = ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName();
 
+        // Stateless session never lazy loads, so it is safe to share it across
+        // finders.
+        s = getStatelessSession();
         Criteria c = s.createCriteria(arg0);
 
         c.add(Restrictions.in(id, pKeys));
@@ -272,10 +296,31 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
 
         Map<Object, Set<Object>> joinTableRecords = joinTableData.getJoinTableRecords();
 
-        for (Object key : joinTableRecords.keySet())
+        s = getStatelessSession();
+        Transaction tx = s.beginTransaction();
+        try
         {
-            Set<Object> values = joinTableRecords.get(key);
-            insertRecordInJoinTable(schemaName, joinTableName, joinColumnName, invJoinColumnName, key, values);
+            List<Object[]> rows = new ArrayList<Object[]>();
+            for (Object key : joinTableRecords.keySet())
+            {
+                Set<Object> values = joinTableRecords.get(key);
+                rows.addAll(getJoinTableRecords(schemaName, joinTableName, joinColumnName, invJoinColumnName, key,
+                        values));
+            }
+
+            if (!rows.isEmpty())
+            {
+                String insertSql = "INSERT INTO " + getFromClause(schemaName, joinTableName) + "(" + joinColumnName
+                        + "," + invJoinColumnName + ") VALUES(?,?)";
+                doWork(new BatchWork(insertSql, rows));
+            }
+            tx.commit();
+        }
+        catch (HibernateException e)
+        {
+            tx.rollback();
+            log.error("Error while persisting records in join table {}", joinTableName, e);
+            throw new PersistenceException(e);
         }
     }
 
@@ -355,7 +400,8 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
     }
 
     /**
-     * Insert record in join table.
+     * Returns join table rows yet to be inserted for given parent. Existing
+     * children of parent are read with one query, instead of one per child.
      * 
      * @param joinTableName
      *            the join table name
@@ -363,50 +409,35 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
      *            the join column name
      * @param inverseJoinColumnName
      *            the inverse join column name
-     * @param relMetadata
-     *            the rel metadata
      * @param parentId
      *            the parent id
      * @param schema
-     * @param child
-     *            the child
+     * @param childrenIds
+     *            the children ids
+     * @return parent and child id pairs.
      */
-    private void insertRecordInJoinTable(String schemaName, String joinTableName, String joinColumnName,
+    private List<Object[]> getJoinTableRecords(String schemaName, String joinTableName, String joinColumnName,
             String inverseJoinColumnName, Object parentId, Set<Object> childrenIds)
     {
-        s = getStatelessSession();
-        Transaction tx = s.beginTransaction();
-        for (Object childId : childrenIds)
-        {
-            StringBuffer query = new StringBuffer();
+        String sqlQuery = "SELECT " + inverseJoinColumnName + " FROM " + getFromClause(schemaName, joinTableName)
+                + " WHERE " + joinColumnName + "=?";
+        List existingRowIds = s.createSQLQuery(sqlQuery).setString(0, parentId.toString()).list();
 
-            // write an update query
-            Object[] existingRowIds = findIdsByColumn(schemaName, joinTableName, joinColumnName, inverseJoinColumnName,
-                    (String) childId, null);
-
-            boolean joinTableRecordsExists = false;
-            if (existingRowIds != null && existingRowIds.length > 0)
-            {
-                for (Object o : existingRowIds)
-                {
-                    if (o.toString().equals(parentId.toString()))
-                    {
-                        joinTableRecordsExists = true;
-                        break;
-                    }
-                }
-            }
+        Set<String> existingChildren = new HashSet<String>();
+        for (Object o : existingRowIds)
+        {
+            existingChildren.add(o.toString());
+        }
 
-            if (!joinTableRecordsExists)
+        List<Object[]> rows = new ArrayList<Object[]>(childrenIds.size());
+        for (Object childId : childrenIds)
+        {
+            if (existingChildren.add(childId.toString()))
             {
-                query.append("INSERT INTO ").append(getFromClause(schemaName, joinTableName)).append("(")
-                        .append(joinColumnName).append(",").append(inverseJoinColumnName).append(")")
-                        .append(" VALUES('").append(parentId).append("','").append(childId).append("')");
-
-                s.createSQLQuery(query.toString()).executeUpdate();
+                rows.add(new Object[] { parentId.toString(), childId.toString() });
             }
         }
-        tx.commit();
+        return rows;
     }
 
     /**
@@ -443,11 +474,73 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
      */
     public List find(String nativeQuery, List<String> relations, EntityMetadata m)
     {
-        List<Object[]> result = new ArrayList<Object[]>();
-
         s = getStatelessSession();
 
         s.beginTransaction();
+        SQLQuery q = createSQLQuery(nativeQuery, relations, m);
+        s.getTransaction().commit();
+        return q.list();
+    }
+
+    /**
+     * Executes native query returning scalar rows, as for aggregates.
+     * 
+     * @param nativeQuery
+     *            the native query
+     * @return rows, each an Object[] of selected values
+     */
+    public List<Object[]> findScalars(String nativeQuery)
+    {
+        s = getStatelessSession();
+
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (Object row : s.createSQLQuery(nativeQuery).list())
+        {
+            rows.add(row instanceof Object[] ? (Object[]) row : new Object[] { row });
+        }
+        return rows;
+    }
+
+    /**
+     * Executes native query over a forward only cursor, fetching given number
+     * of rows per round trip. Each row holds entity followed by values of
+     * given relations.
+     * 
+     * @param nativeQuery
+     *            the native query
+     * @param relations
+     *            the relations
+     * @param m
+     *            the m
+     * @param fetchSize
+     *            JDBC fetch size, ignored if not positive.
+     * @param maxResult
+     *            maximum number of rows, ignored if not positive.
+     * @return scrollable results, to be closed by caller.
+     */
+    public ScrollableResults scroll(String nativeQuery, List<String> relations, EntityMetadata m, int fetchSize,
+            int maxResult)
+    {
+        s = getStatelessSession();
+
+        SQLQuery q = createSQLQuery(nativeQuery, relations, m);
+        if (fetchSize > 0)
+        {
+            q.setFetchSize(fetchSize);
+        }
+        if (maxResult > 0)
+        {
+            q.setMaxResults(maxResult);
+        }
+        return q.setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    /**
+     * Creates native query mapped to entity, with values of unary relations
+     * added as scalars.
+     */
+    private SQLQuery createSQLQuery(String nativeQuery, List<String> relations, EntityMetadata m)
+    {
         SQLQuery q = s.createSQLQuery(nativeQuery).addEntity(m.getEntityClazz());
         if (relations != null)
         {
@@ -468,8 +561,7 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
                 }
             }
         }
-        s.getTransaction().commit();
-        return q.list();
+        return q;
     }
 
     /*
@@ -710,7 +802,7 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
      *            the sql query
      * @return the list
      */
-    private List<EnhanceEntity> populateEnhanceEntities(EntityMetadata m, List<String> relationNames, List result)
+    public List<EnhanceEntity> populateEnhanceEntities(EntityMetadata m, List<String> relationNames, List result)
     {
 
         List<EnhanceEntity> ls = null;
@@ -774,4 +866,302 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
         return relationVal;
     }
 
-}
\ No newline at end of file
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.kundera.persistence.api.Batcher#addBatch(com.impetus.kundera
+     * .graph.Node)
+     */
+    @Override
+    public void addBatch(Node node)
+    {
+        if (node != null)
+        {
+            nodes.add(node);
+        }
+
+        onBatchLimit();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.kundera.persistence.api.Batcher#executeBatch()
+     */
+    @Override
+    public int executeBatch()
+    {
+        if (nodes.isEmpty())
+        {
+            return 0;
+        }
+
+        // pre events are fired once, whether nodes are flushed as a batch or
+        // one by one.
+        List<Node> dirtyNodes = new ArrayList<Node>();
+        for (Node node : nodes)
+        {
+            if (node.isDirty())
+            {
+                node.handlePreEvent();
+                dirtyNodes.add(node);
+            }
+        }
+
+        s = getStatelessSession();
+        Transaction tx = s.beginTransaction();
+        try
+        {
+            Map<String, List<Object[]>> foreignKeys = new LinkedHashMap<String, List<Object[]>>();
+            for (Node node : dirtyNodes)
+            {
+                EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
+                Object entity = node.getData();
+                if (node.isInState(RemovedState.class))
+                {
+                    s.delete(entity);
+                }
+                else
+                {
+                    List<RelationHolder> relationHolders = getRelationHolders(node);
+                    boolean proxyRemoved = removeKunderaProxies(metadata, entity, relationHolders);
+                    if (!node.isUpdate())
+                    {
+                        s.insert(entity);
+                    }
+                    else
+                    {
+                        s.update(entity);
+                    }
+
+                    if (!node.isUpdate() || proxyRemoved)
+                    {
+                        addForeignKeys(foreignKeys, metadata, PropertyAccessorHelper.getId(entity, metadata),
+                                relationHolders);
+                    }
+                }
+            }
+
+            // inserts are grouped in JDBC batches of hibernate.jdbc.batch_size,
+            // pending batch is executed before foreign keys are updated.
+            if (!foreignKeys.isEmpty())
+            {
+                ((SessionImplementor) s).getTransactionCoordinator().getJdbcCoordinator().executeBatch();
+                for (String updateSql : foreignKeys.keySet())
+                {
+                    doWork(new BatchWork(updateSql, foreignKeys.get(updateSql)));
+                }
+            }
+            tx.commit();
+        }
+        catch (HibernateException e)
+        {
+            // A batch fails as a whole, e.g. when a many to one entity is
+            // inserted again, so flush node by node.
+            tx.rollback();
+            log.info("Batch flush failed, flushing one by one, Caused by: {}.", e.getMessage());
+            for (Node node : dirtyNodes)
+            {
+                if (node.isInState(RemovedState.class))
+                {
+                    delete(node.getData(), node.getEntityId());
+                }
+                else
+                {
+                    persist(node);
+                }
+                node.handlePostEvent();
+            }
+            return clearBatch();
+        }
+
+        for (Node node : dirtyNodes)
+        {
+            EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
+            if (node.isInState(RemovedState.class))
+            {
+                if (!MetadataUtils.useSecondryIndex(getClientMetadata()))
+                {
+                    getIndexManager().remove(metadata, node.getData(), node.getEntityId().toString());
+                }
+            }
+            else
+            {
+                node.setEntityId(PropertyAccessorHelper.getId(node.getData(), metadata));
+                indexNode(node, metadata);
+            }
+            node.handlePostEvent();
+        }
+        return clearBatch();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.kundera.persistence.api.Batcher#getBatchSize()
+     */
+    @Override
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.kundera.persistence.api.Batcher#clear()
+     */
+    @Override
+    public void clear()
+    {
+        if (nodes != null)
+        {
+            nodes.clear();
+            nodes = new ArrayList<Node>();
+        }
+    }
+
+    /**
+     * Clears flushed nodes.
+     * 
+     * @return number of nodes flushed.
+     */
+    private int clearBatch()
+    {
+        int flushed = nodes.size();
+        clear();
+        return flushed;
+    }
+
+    /**
+     * Check on batch limit.
+     */
+    private void onBatchLimit()
+    {
+        if (batchSize > 0 && batchSize == nodes.size())
+        {
+            executeBatch();
+        }
+    }
+
+    /**
+     * Adds foreign key updates of an entity, grouped by update statement.
+     * 
+     * @param foreignKeys
+     *            update statements and their parameters.
+     * @param metadata
+     * @param id
+     * @param relationHolders
+     */
+    private void addForeignKeys(Map<String, List<Object[]>> foreignKeys, EntityMetadata metadata, Object id,
+            List<RelationHolder> relationHolders)
+    {
+        for (RelationHolder rh : relationHolders)
+        {
+            String linkName = rh.getRelationName();
+            Object linkValue = rh.getRelationValue();
+            if (linkName != null && linkValue != null)
+            {
+                String clause = getFromClause(metadata.getSchema(), metadata.getTableName());
+                String updateSql = "Update " + clause + " SET " + linkName + "= ? WHERE "
+                        + ((AbstractAttribute) metadata.getIdAttribute()).getJPAColumnName() + " = ?";
+                List<Object[]> rows = foreignKeys.get(updateSql);
+                if (rows == null)
+                {
+                    rows = new ArrayList<Object[]>();
+                    foreignKeys.put(updateSql, rows);
+                }
+                rows.add(new Object[] { linkValue.toString(), id.toString() });
+            }
+        }
+    }
+
+    /**
+     * Executes work over JDBC connection of current stateless session.
+     * 
+     * @param work
+     *            the work
+     */
+    private void doWork(Work work)
+    {
+        try
+        {
+            work.execute(((SessionImplementor) s).connection());
+        }
+        catch (SQLException e)
+        {
+            throw new JDBCException("Error while executing batch", e);
+        }
+    }
+
+    /**
+     * Populates batch size from kundera.batch.size, else from
+     * hibernate.jdbc.batch_size.
+     * 
+     * @param persistenceUnit
+     * @param puProperties
+     */
+    private void populateBatchSize(String persistenceUnit, Map<String, Object> puProperties)
+    {
+        String batch_Size = puProperties != null ? (String) puProperties.get(PersistenceProperties.KUNDERA_BATCH_SIZE)
+                : null;
+        if (batch_Size != null)
+        {
+            batchSize = Integer.valueOf(batch_Size);
+            if (batchSize == 0)
+            {
+                throw new IllegalArgumentException("kundera.batch.size property must be numeric and > 0");
+            }
+        }
+        else
+        {
+            PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+            batchSize = puMetadata != null ? puMetadata.getBatchSize() : 0;
+            if (batchSize == 0)
+            {
+                batchSize = clientFactory.getJdbcBatchSize();
+            }
+        }
+    }
+
+    /**
+     * JDBC batch of one parameterized statement. Values are bound as strings,
+     * as they were inlined as quoted literals before.
+     */
+    private static class BatchWork implements Work
+    {
+        private final String sql;
+
+        private final List<Object[]> rows;
+
+        BatchWork(String sql, List<Object[]> rows)
+        {
+            this.sql = sql;
+            this.rows = rows;
+        }
+
+        @Override
+        public void execute(Connection connection) throws SQLException
+        {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            try
+            {
+                for (Object[] row : rows)
+                {
+                    for (int i = 0; i < row.length; i++)
+                    {
+                        statement.setString(i + 1, (String) row[i]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            finally
+            {
+                statement.close();
+            }
+        }
+    }
+
+}
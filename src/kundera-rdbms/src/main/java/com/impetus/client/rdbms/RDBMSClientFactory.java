@@ -24,6 +24,7 @@ import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.StatelessSession;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.service.ServiceRegistryBuilder;
 import org.slf4j.Logger;
@@ -144,6 +145,15 @@ public class RDBMSClientFactory extends GenericClientFactory
         this.conf = reader.load(getPersistenceUnit());
     }
 
+    /**
+     * Returns configured hibernate.jdbc.batch_size, 0 if not set.
+     */
+    int getJdbcBatchSize()
+    {
+        String batchSize = conf != null ? conf.getProperty(Environment.STATEMENT_BATCH_SIZE) : null;
+        return batchSize != null ? Integer.valueOf(batchSize.trim()) : 0;
+    }
+
     Session getSession()
     {
         if (sf != null)
@@ -57,6 +57,7 @@ import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.EntityReaderException;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.KunderaQuery;
+import com.impetus.kundera.query.KunderaQuery.AggregateClause;
 import com.impetus.kundera.query.QueryHandlerException;
 
 /**
@@ -349,46 +350,7 @@ public class RDBMSEntityReader extends AbstractEntityReader implements EntityRea
 
         if (primaryKeys == null)
         {
-            for (Object o : conditions)
-            {
-
-                if (o instanceof FilterClause)
-                {
-                    FilterClause clause = ((FilterClause) o);
-                    // String fieldName = getColumnName(clause.getProperty());
-                    String fieldName = clause.getProperty();
-                    boolean isString = isStringProperty(entityType, fieldName, entityMetadata);
-
-                    // queryBuilder.append(StringUtils.replace(clause.getProperty(),
-                    // clause.getProperty().substring(0,
-                    // clause.getProperty().indexOf(".")), aliasName));
-                    queryBuilder.append(StringUtils.replace(clause.getProperty(), aliasName, aliasName));
-                    queryBuilder.append(" ");
-                    queryBuilder.append(clause.getCondition());
-
-                    if (clause.getCondition().equalsIgnoreCase("like"))
-                    {
-                        queryBuilder.append("%");
-                    }
-                    queryBuilder.append(" ");
-                    if (clause.getCondition().equalsIgnoreCase("IN"))
-                    {
-                        buildINClause(queryBuilder, clause, isString);
-                    }
-                    else
-                    {
-                        appendStringPrefix(queryBuilder, isString);
-                        queryBuilder.append(clause.getValue());
-                        appendStringPrefix(queryBuilder, isString);
-                    }
-                }
-                else
-                {
-                    queryBuilder.append(" ");
-                    queryBuilder.append(o);
-                    queryBuilder.append(" ");
-                }
-            }
+            appendConditions(queryBuilder, aliasName, entityType, entityMetadata);
         }
         else
         {
@@ -419,6 +381,118 @@ public class RDBMSEntityReader extends AbstractEntityReader implements EntityRea
         return queryBuilder.toString();
     }
 
+    /**
+     * Appends where clause conditions of query.
+     */
+    private void appendConditions(StringBuilder queryBuilder, String aliasName, EntityType entityType,
+            EntityMetadata entityMetadata)
+    {
+        for (Object o : conditions)
+        {
+
+            if (o instanceof FilterClause)
+            {
+                FilterClause clause = ((FilterClause) o);
+                // String fieldName = getColumnName(clause.getProperty());
+                String fieldName = clause.getProperty();
+                boolean isString = isStringProperty(entityType, fieldName, entityMetadata);
+
+                // queryBuilder.append(StringUtils.replace(clause.getProperty(),
+                // clause.getProperty().substring(0,
+                // clause.getProperty().indexOf(".")), aliasName));
+                queryBuilder.append(StringUtils.replace(clause.getProperty(), aliasName, aliasName));
+                queryBuilder.append(" ");
+                queryBuilder.append(clause.getCondition());
+
+                if (clause.getCondition().equalsIgnoreCase("like"))
+                {
+                    queryBuilder.append("%");
+                }
+                queryBuilder.append(" ");
+                if (clause.getCondition().equalsIgnoreCase("IN"))
+                {
+                    buildINClause(queryBuilder, clause, isString);
+                }
+                else
+                {
+                    appendStringPrefix(queryBuilder, isString);
+                    queryBuilder.append(clause.getValue());
+                    appendStringPrefix(queryBuilder, isString);
+                }
+            }
+            else
+            {
+                queryBuilder.append(" ");
+                queryBuilder.append(o);
+                queryBuilder.append(" ");
+            }
+        }
+    }
+
+    /**
+     * Gets SQL query computing aggregates of select clause, grouped as per
+     * GROUP BY clause.
+     * 
+     * @param entityMetadata
+     *            the entity metadata
+     * @return the aggregate sql query
+     */
+    public String getAggregateSqlQueryFromJPA(EntityMetadata entityMetadata)
+    {
+        Metamodel metaModel = KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        String aliasName = "_" + entityMetadata.getTableName();
+
+        StringBuilder queryBuilder = new StringBuilder("Select ");
+        for (AggregateClause aggregate : kunderaQuery.getAggregateClauses())
+        {
+            if (aggregate.getFunction() != null)
+            {
+                queryBuilder.append(aggregate.getFunction().name());
+                queryBuilder.append("(");
+                queryBuilder.append(aggregate.getColumnName() != null ? aliasName + "."
+                        + aggregate.getColumnName() : "*");
+                queryBuilder.append(")");
+            }
+            else
+            {
+                queryBuilder.append(aliasName);
+                queryBuilder.append(".");
+                queryBuilder.append(aggregate.getColumnName());
+            }
+            queryBuilder.append(", ");
+        }
+        queryBuilder.delete(queryBuilder.length() - 2, queryBuilder.length());
+
+        queryBuilder.append(" From ");
+        if (entityMetadata.getSchema() != null && !entityMetadata.getSchema().isEmpty())
+        {
+            queryBuilder.append(entityMetadata.getSchema() + ".");
+        }
+        queryBuilder.append(entityMetadata.getTableName());
+        queryBuilder.append(" ");
+        queryBuilder.append(aliasName);
+        if (filter != null)
+        {
+            queryBuilder.append(" Where ");
+        }
+        appendConditions(queryBuilder, aliasName, metaModel.entity(entityMetadata.getEntityClazz()), entityMetadata);
+
+        if (!kunderaQuery.getGroupingClauses().isEmpty())
+        {
+            queryBuilder.append(" Group By ");
+            for (AggregateClause grouping : kunderaQuery.getGroupingClauses())
+            {
+                queryBuilder.append(aliasName);
+                queryBuilder.append(".");
+                queryBuilder.append(grouping.getColumnName());
+                queryBuilder.append(", ");
+            }
+            queryBuilder.delete(queryBuilder.length() - 2, queryBuilder.length());
+        }
+        return queryBuilder.toString();
+    }
+
     private void buildINClause(StringBuilder queryBuilder, FilterClause clause, boolean isString)
     {
         Object value = clause.getValue();
@@ -32,7 +32,9 @@ import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.query.Aggregator;
 import com.impetus.kundera.query.KunderaQuery;
+import com.impetus.kundera.query.KunderaQuery.AggregateClause;
 import com.impetus.kundera.query.QueryHandlerException;
 import com.impetus.kundera.query.QueryImpl;
 
@@ -49,6 +51,9 @@ public class RDBMSQuery extends QueryImpl
     /** The reader. */
     private EntityReader reader;
 
+    /** iterations over open cursors, closed along with query. */
+    private List<ResultIterator> iterators = new ArrayList<ResultIterator>();
+
     /**
      * Instantiates a new rDBMS query.
      * 
@@ -128,6 +133,40 @@ public class RDBMSQuery extends QueryImpl
         return result;
     }
 
+    /**
+     * Computes aggregates with SQL over secondary index reads; Lucene based
+     * reads and enum attributes, held in their string form, are streamed.
+     */
+    @Override
+    protected List<Object> aggregate(EntityMetadata m, Client client)
+    {
+        List<AggregateClause> aggregates = new ArrayList<AggregateClause>(kunderaQuery.getAggregateClauses());
+        aggregates.addAll(kunderaQuery.getGroupingClauses());
+        boolean isPushDown = !kunderaQuery.isNative()
+                && MetadataUtils.useSecondryIndex(((ClientBase) client).getClientMetadata());
+        for (AggregateClause aggregate : aggregates)
+        {
+            isPushDown &= aggregate.getJavaType() == null || !aggregate.getJavaType().isEnum();
+        }
+        if (!isPushDown)
+        {
+            return super.aggregate(m, client);
+        }
+
+        initializeReader();
+        List<Object[]> rows = ((HibernateClient) client).findScalars(((RDBMSEntityReader) getReader())
+                .getAggregateSqlQueryFromJPA(m));
+        aggregates = kunderaQuery.getAggregateClauses();
+        for (Object[] row : rows)
+        {
+            for (int i = 0; i < row.length; i++)
+            {
+                row[i] = Aggregator.toResultValue(aggregates.get(i), row[i]);
+            }
+        }
+        return Aggregator.toResultList(rows);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -183,15 +222,35 @@ public class RDBMSQuery extends QueryImpl
     @Override
     public void close()
     {
-        // TODO Auto-generated method stub
-        
+        // closes cursors of iterations left open.
+        for (ResultIterator iterator : iterators)
+        {
+            iterator.close();
+        }
+        iterators.clear();
     }
 
     @Override
     public Iterator iterate()
     {
-        // TODO Auto-generated method stub
-        return null;
+        EntityMetadata m = getEntityMetadata();
+        Client client = persistenceDelegeator.getClient(m);
+
+        initializeReader();
+        if (!MetadataUtils.useSecondryIndex(((ClientBase) client).getClientMetadata()))
+        {
+            // Lucene based, keys are searched at once.
+            return new ResultIterator(this, (HibernateClient) client, m, populateEntities(m, client).iterator());
+        }
+
+        List<String> relations = m.isParent() || m.getRelationNames() == null ? new ArrayList<String>() : m
+                .getRelationNames();
+        String sqlQuery = ((RDBMSEntityReader) getReader()).getSqlQueryFromJPA(m, relations, null);
+        ResultIterator iterator = new ResultIterator(this, (HibernateClient) client, m, relations,
+                ((HibernateClient) client).scroll(sqlQuery, relations, m, getFetchSize() != null ? getFetchSize() : 0,
+                        getIterationLimit()));
+        iterators.add(iterator);
+        return iterator;
     }
 
 }
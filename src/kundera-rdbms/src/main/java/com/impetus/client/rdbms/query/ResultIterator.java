@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.rdbms.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.hibernate.ScrollableResults;
+
+import com.impetus.client.rdbms.HibernateClient;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.query.IResultIterator;
+
+/**
+ * Implementation of RDBMS result iteration over a forward only
+ * {@link ScrollableResults}. Rows are read as entities are asked for, and
+ * relations are populated for a chunk at a time. Cursor is closed once
+ * exhausted or once query is closed. Lucene based queries iterate over
+ * entities found at once.
+ * 
+ * @param <E>
+ */
+class ResultIterator<E> implements IResultIterator<E>
+{
+    private final RDBMSQuery query;
+
+    private final HibernateClient client;
+
+    private final EntityMetadata m;
+
+    private final List<String> relations;
+
+    private ScrollableResults results;
+
+    private Iterator rows;
+
+    private Boolean hasNext;
+
+    /**
+     * Constructor with parameters.
+     * 
+     * @param query
+     *            query being iterated.
+     * @param client
+     *            hibernate client.
+     * @param m
+     *            entity metadata.
+     * @param relations
+     *            relations selected along with entity, in order of columns.
+     * @param results
+     *            scrollable results.
+     */
+    ResultIterator(final RDBMSQuery query, final HibernateClient client, final EntityMetadata m,
+            final List<String> relations, final ScrollableResults results)
+    {
+        this.query = query;
+        this.client = client;
+        this.m = m;
+        this.relations = relations;
+        this.results = results;
+    }
+
+    /**
+     * Constructor with parameters.
+     * 
+     * @param query
+     *            query being iterated.
+     * @param client
+     *            hibernate client.
+     * @param m
+     *            entity metadata.
+     * @param rows
+     *            entities found.
+     */
+    ResultIterator(final RDBMSQuery query, final HibernateClient client, final EntityMetadata m, final Iterator rows)
+    {
+        this(query, client, m, new ArrayList<String>(), null);
+        this.rows = rows;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (rows != null)
+        {
+            return rows.hasNext();
+        }
+        else if (hasNext == null)
+        {
+            hasNext = results != null && results.next();
+            if (!hasNext)
+            {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    /**
+     * Closes cursor, if not closed already. Nothing is iterated further.
+     */
+    void close()
+    {
+        if (results != null)
+        {
+            results.close();
+            results = null;
+        }
+        hasNext = false;
+    }
+
+    @Override
+    public E next()
+    {
+        List<E> chunk = next(1);
+        if (chunk.isEmpty())
+        {
+            throw new NoSuchElementException("Nothing to iterate further for:" + m.getEntityClazz());
+        }
+        return chunk.get(0);
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("remove method is not supported over pagination");
+    }
+
+    @Override
+    public List<E> next(int chunkSize)
+    {
+        List<Object> chunk = new ArrayList<Object>(chunkSize);
+        while (chunk.size() < chunkSize && hasNext())
+        {
+            if (rows != null)
+            {
+                chunk.add(rows.next());
+            }
+            else
+            {
+                Object[] row = results.get();
+                chunk.add(row.length == 1 ? row[0] : row);
+                hasNext = null;
+            }
+        }
+
+        List<Object> entities = chunk.isEmpty() ? null : query.setRelationEntities(
+                client.populateEnhanceEntities(m, relations, chunk), client, m);
+        return entities != null ? (List<E>) entities : new ArrayList<E>();
+    }
+}
@@ -30,6 +30,9 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.impetus.kundera.query.IResultIterator;
+import com.impetus.kundera.query.QueryImpl;
+
 public class PersonRdbmsTest extends BaseTest
 {
 
@@ -183,6 +186,14 @@ public class PersonRdbmsTest extends BaseTest
         Assert.assertNotNull(allPersons);
         Assert.assertEquals(2, allPersons.size());
 
+        // iterate over scrollable results.
+        findQuery = em.createQuery("Select p from PersonRDBMS p");
+        ((QueryImpl) findQuery).setFetchSize(2);
+        IResultIterator<PersonRDBMS> iterator = (IResultIterator<PersonRDBMS>) ((QueryImpl) findQuery).iterate();
+        Assert.assertEquals(2, iterator.next(2).size());
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertNotNull(iterator.next());
+        Assert.assertFalse(iterator.hasNext());
     }
 
     // @Test
@@ -41,9 +41,13 @@ import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Response;
 import redis.clients.jedis.Transaction;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.util.SafeEncoder;
 
 import com.impetus.client.redis.RedisQueryInterpreter.Clause;
 import com.impetus.kundera.Constants;
+import com.impetus.kundera.KunderaException;
 import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientBase;
@@ -67,6 +71,7 @@ import com.impetus.kundera.persistence.KunderaTransactionException;
 import com.impetus.kundera.persistence.TransactionBinder;
 import com.impetus.kundera.persistence.TransactionResource;
 import com.impetus.kundera.persistence.api.Batcher;
+import com.impetus.kundera.persistence.api.BulkWriter;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.PropertyAccessorHelper;
@@ -79,7 +84,7 @@ import com.impetus.kundera.utils.KunderaCoreUtils;
  * @author vivek.mishra
  */
 public class RedisClient extends ClientBase implements Client<RedisQuery>, Batcher, ClientPropertiesSetter,
-        TransactionBinder, SequenceGenerator
+        TransactionBinder, SequenceGenerator, BulkWriter
 {
     /**
      * Reference to redis client factory.
@@ -218,25 +223,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
 
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(clazz);
 
-        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
-                entityMetadata.getPersistenceUnit());
-
-        String rowKey = null;
-        if (metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
-        {
-            rowKey = KunderaCoreUtils.prepareCompositeKey(entityMetadata, metaModel, key);
-        }
-        else
-        {
-            ObjectAccessor accessor = new ObjectAccessor();
-
-            rowKey = accessor.toString(key);/*
-                                             * PropertyAccessorHelper.getString(key
-                                             * );
-                                             */
-        }
-
-        String hashKey = getHashKey(entityMetadata.getTableName(), rowKey);
+        String hashKey = getHashKey(entityMetadata, key);
 
         try
         {
@@ -287,6 +274,156 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         return result;
     }
 
+    /**
+     * Retrieves entity instances of given class, row keys and specific fields.
+     * Outside of a transaction, hashes of all keys are requested in one
+     * pipeline, so it costs a single round trip instead of one per key.
+     * 
+     * @param clazz
+     *            entity class
+     * @param connection
+     *            connection instance.
+     * @param fields
+     *            fields.
+     * @param keys
+     *            row keys
+     * @return entity instances.
+     * @throws InstantiationException
+     *             throws in case of runtime exception
+     * @throws IllegalAccessException
+     *             throws in case of runtime exception
+     */
+    private List fetchAll(Class clazz, Object connection, byte[][] fields, Collection keys)
+            throws InstantiationException, IllegalAccessException
+    {
+        List results = new ArrayList();
+        if ((resource != null && resource.isActive()) || keys.size() < 2)
+        {
+            for (Object key : keys)
+            {
+                Object result = fetch(clazz, key, connection, fields);
+                if (result != null)
+                {
+                    results.add(result);
+                }
+            }
+            return results;
+        }
+
+        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(clazz);
+
+        // Pipeline responses decode hash values as strings, which breaks
+        // binary column values. So queue commands on underlying client and
+        // read raw replies at once, as Pipeline.sync() does.
+        List<byte[]>[] replies = new List[keys.size()];
+        try
+        {
+            redis.clients.jedis.Client client = ((Jedis) connection).getClient();
+            for (Object key : keys)
+            {
+                byte[] hashKey = getEncodedBytes(getHashKey(entityMetadata, key));
+                if (fields != null)
+                {
+                    client.hmget(hashKey, fields);
+                }
+                else
+                {
+                    client.hgetAll(hashKey);
+                }
+            }
+            readReplies((Jedis) connection, replies);
+        }
+        catch (JedisException jedex)
+        {
+            onBrokenConnection(connection);
+            logger.error("Error while fetching keys {}, Caused by:", keys, jedex);
+            throw new KunderaException(jedex);
+        }
+
+        int index = 0;
+        for (Object key : keys)
+        {
+            List<byte[]> reply = replies[index++];
+            Map<byte[], byte[]> columns = new HashMap<byte[], byte[]>();
+            if (reply != null)
+            {
+                for (int i = 0; i < reply.size(); i++)
+                {
+                    if (fields != null && reply.get(i) != null)
+                    {
+                        columns.put(fields[i], reply.get(i));
+                    }
+                    else if (fields == null)
+                    {
+                        // hgetAll replies with field and value pairs.
+                        columns.put(reply.get(i), reply.get(++i));
+                    }
+                }
+            }
+
+            Object result = unwrap(entityMetadata, columns, key);
+            if (result != null)
+            {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reads raw multi bulk replies of commands queued on connection's client.
+     * An error reply of any command fails whole read, so no partial result is
+     * returned.
+     * 
+     * @param connection
+     *            jedis connection with queued commands.
+     * @param replies
+     *            array to hold reply of each queued command, in queued order.
+     */
+    private void readReplies(Jedis connection, List<byte[]>[] replies)
+    {
+        List<Object> all = connection.getClient().getAll();
+        if (all.size() != replies.length)
+        {
+            throw new JedisConnectionException("Expected " + replies.length + " replies but read " + all.size());
+        }
+        for (int i = 0; i < replies.length; i++)
+        {
+            Object reply = all.get(i);
+            if (reply instanceof JedisDataException)
+            {
+                throw (JedisDataException) reply;
+            }
+            else if (reply != null && !(reply instanceof List))
+            {
+                throw new JedisDataException("Unexpected reply " + reply + " of a multi bulk command");
+            }
+            replies[i] = (List<byte[]>) reply;
+        }
+    }
+
+    /**
+     * Disconnects a connection left with unread or unexpected replies, so
+     * that it is returned to pool as broken resource instead of being reused.
+     * 
+     * @param connection
+     *            redis connection instance.
+     */
+    private void onBrokenConnection(Object connection)
+    {
+        if (resource == null && connection != null)
+        {
+            try
+            {
+                ((Jedis) connection).disconnect();
+            }
+            catch (JedisException jedex)
+            {
+                logger.warn("Error while disconnecting broken connection, Caused by:", jedex);
+            }
+        }
+    }
+
     private Map<byte[], byte[]> getColumns(Object connection, String hashKey, Map<byte[], byte[]> columns)
     {
         if (resource != null && resource.isActive())
@@ -321,17 +458,9 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
     public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... keys)
     {
         Object connection = getConnection();
-        List results = new ArrayList();
         try
         {
-            for (Object key : keys)
-            {
-                Object result = fetch(entityClass, key, connection, null);
-                if (result != null)
-                {
-                    results.add(result);
-                }
-            }
+            return fetchAll(entityClass, connection, null, Arrays.asList(keys));
         }
         catch (InstantiationException e)
         {
@@ -343,7 +472,10 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
             logger.error("Error during find by key:", e);
             throw new PersistenceException(e);
         }
-        return results;
+        finally
+        {
+            onCleanup(connection);
+        }
     }
 
     @Override
@@ -403,6 +535,66 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         }
     }
 
+    @Override
+    public int deleteAll(EntityMetadata m, List<Object> entities)
+    {
+        return onBulkWrite(m, entities, true);
+    }
+
+    @Override
+    public int updateAll(EntityMetadata m, List<Object> entities, Map<String, Object> values)
+    {
+        return onBulkWrite(m, entities, false);
+    }
+
+    /**
+     * Deletes or rewrites hashes and indexes of given entities, sending all
+     * commands with one pipeline.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param entities
+     *            entities, already holding updated values.
+     * @param delete
+     *            true to delete, false to update.
+     * @return number of entities written.
+     */
+    private int onBulkWrite(EntityMetadata m, List<Object> entities, boolean delete)
+    {
+        Object connection = getConnection();
+        Pipeline pipeLine = null;
+        try
+        {
+            Object target = connection;
+            if (resource == null)
+            {
+                pipeLine = ((Jedis) connection).pipelined();
+                target = pipeLine;
+            }
+            for (Object entity : entities)
+            {
+                Object id = PropertyAccessorHelper.getId(entity, m);
+                if (delete)
+                {
+                    onDelete(entity, id, target);
+                }
+                else
+                {
+                    onPersist(m, entity, id, null, target);
+                }
+            }
+        }
+        finally
+        {
+            if (pipeLine != null)
+            {
+                pipeLine.sync();
+            }
+            onCleanup(connection);
+        }
+        return entities.size();
+    }
+
     /**
      * On delete relation.
      * 
@@ -595,34 +787,47 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
      */
     private List fetchColumn(String columnName, Object connection, List results, Set<String> resultKeys)
     {
-        for (String hashKey : resultKeys)
+        if (resource != null && resource.isActive())
         {
-            List columnValues = null;
-            if (resource != null && resource.isActive())
+            for (String hashKey : resultKeys)
             {
                 Response response = ((Transaction) connection).hmget(hashKey, columnName);
                 ((Transaction) connection).exec();
 
-                columnValues = (List) response.get();
+                addColumnValues(results, (List) response.get());
             }
-            else
+        }
+        else
+        {
+            // Pipelined, one round trip for all keys.
+            Pipeline pipeLine = ((Jedis) connection).pipelined();
+            List<Response<List<String>>> responses = new ArrayList<Response<List<String>>>(resultKeys.size());
+            for (String hashKey : resultKeys)
             {
-                columnValues = ((Jedis) connection).hmget(hashKey, columnName);
+                responses.add(pipeLine.hmget(hashKey, columnName));
             }
+            pipeLine.sync();
 
-            if (columnValues != null && !columnValues.isEmpty())
+            for (Response<List<String>> response : responses)
             {
-                results.addAll(columnValues); // Currently returning list of
-                                              // string as known issue
-                                              // with
-                                              // joint table concept!
+                addColumnValues(results, response.get());
             }
-
         }
 
         return results;
     }
 
+    private void addColumnValues(List results, List columnValues)
+    {
+        if (columnValues != null && !columnValues.isEmpty())
+        {
+            results.addAll(columnValues); // Currently returning list of
+                                          // string as known issue
+                                          // with
+                                          // joint table concept!
+        }
+    }
+
     @Override
     public Object[] findIdsByColumn(String schemaName, String tableName, String pKeyName, String columnName,
             Object columnValue, Class entityClazz)
@@ -1012,6 +1217,38 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         return builder.toString();
     }
 
+    /**
+     * Returns hash key for given entity row key.
+     * 
+     * @param entityMetadata
+     *            entity metadata
+     * @param key
+     *            row key, may be a composite key instance
+     * @return concatenated hash key
+     */
+    private String getHashKey(EntityMetadata entityMetadata, Object key)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+
+        String rowKey = null;
+        if (metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
+        {
+            rowKey = KunderaCoreUtils.prepareCompositeKey(entityMetadata, metaModel, key);
+        }
+        else
+        {
+            ObjectAccessor accessor = new ObjectAccessor();
+
+            rowKey = accessor.toString(key);/*
+                                             * PropertyAccessorHelper.getString(key
+                                             * );
+                                             */
+        }
+
+        return getHashKey(entityMetadata.getTableName(), rowKey);
+    }
+
     /**
      * Returns encoded bytes.
      * 
@@ -1110,6 +1347,11 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
     {
         if (resource == null && connection != null)
         {
+            if (!((Jedis) connection).getClient().isConnected())
+            {
+                factory.releaseBrokenConnection((Jedis) connection);
+                return;
+            }
             if (settings != null)
             {
                 ((Jedis) connection).configResetStat();
@@ -1408,197 +1650,319 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         try
         {
             connection = getConnection();
-            Set<String> rowKeys = new HashSet<String>();
-            EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClazz);
-            if (queryParameter.getClause() != null && !queryParameter.isByRange())
+            byte[][] columns = queryParameter.getColumns() != null ? queryParameter.getColumns().toArray(
+                    new byte[][] {}) : null;
+            if (isQueryById(queryParameter))
             {
-                String destStore = entityClazz.getSimpleName() + System.currentTimeMillis();
-
-                Map<String, Object> fieldSets = queryParameter.getFields();
+                results.addAll(fetchAll(entityClazz, connection, columns, queryParameter.getFields().values()));
+            }
+            else
+            {
+                results.addAll(fetchAll(entityClazz, connection, columns,
+                        findRowKeys(connection, queryParameter, KunderaMetadataManager.getEntityMetadata(entityClazz))));
+            }
+        }
+        catch (InstantiationException e)
+        {
+            logger.error("Error during persist, Caused by:", e);
+            throw new PersistenceException(e);
+        }
+        catch (IllegalAccessException e)
+        {
+            logger.error("Error during persist, Caused by:", e);
+            throw new PersistenceException(e);
+        }
+        finally
+        {
+            onCleanup(connection);
 
-                Set<String> keySets = new HashSet<String>(fieldSets.size());
-                // byte[][] keys = new byte[][fieldSets.size()];
-                for (String column : fieldSets.keySet())
-                {
-                    String valueAsStr = PropertyAccessorHelper.getString(fieldSets.get(column));
-                    String key = getHashKey(entityMetadata.getTableName(), getHashKey(column, valueAsStr));
-                    keySets.add(key);
-                }
+        }
 
-                if (queryParameter.getClause().equals(Clause.INTERSECT))
-                {
-                    if (resource != null && resource.isActive())
-                    {
-                        ((Transaction) connection).zinterstore(destStore, keySets.toArray(new String[] {}));
+        return results;
+    }
 
-                    }
-                    else
-                    {
-                        ((Jedis) connection).zinterstore(destStore, keySets.toArray(new String[] {}));
-                    }
-                }
-                else
-                {
-                    if (resource != null && resource.isActive())
-                    {
-                        ((Transaction) connection).zunionstore(destStore, keySets.toArray(new String[] {}));
-                    }
-                    else
-                    {
-                        ((Jedis) connection).zunionstore(destStore, keySets.toArray(new String[] {}));
-                    }
+    /**
+     * Returns true if query is an equality lookup on row key only.
+     */
+    boolean isQueryById(RedisQueryInterpreter queryParameter)
+    {
+        return queryParameter.isById() && queryParameter.getClause() == null && !queryParameter.isByRange();
+    }
 
-                }
+    /**
+     * Returns true if query matches all members of a single sorted set, so it
+     * can be read page by page with LIMIT.
+     */
+    boolean isQueryOnSingleSet(RedisQueryInterpreter queryParameter)
+    {
+        return queryParameter.isByRange() || queryParameter.getClause() == null;
+    }
 
-                if (resource != null && resource.isActive())
-                {
-                    Response response = ((Transaction) connection).zrange(destStore, 0, -1);
-                    ((Transaction) connection).exec();
+    /**
+     * Finds row keys matching given query. Multiple clauses are evaluated on
+     * client side over members of their sorted sets, which are read in one
+     * round trip, so no intermediate store is written to REDIS.
+     * 
+     * @param connection
+     *            redis connection instance.
+     * @param queryParameter
+     *            query interpreter.
+     * @param entityMetadata
+     *            entity metadata.
+     * @return row keys.
+     */
+    private Set<String> findRowKeys(Object connection, RedisQueryInterpreter queryParameter,
+            EntityMetadata entityMetadata)
+    {
+        Set<String> rowKeys = new HashSet<String>();
+        if (queryParameter.getClause() != null && !queryParameter.isByRange())
+        {
+            Map<String, Object> fieldSets = queryParameter.getFields();
 
-                    rowKeys = (Set<String>) response.get();
-                    //
-                    // ((Transaction) connection).del(destStore);
+            Set<String> keySets = new HashSet<String>(fieldSets.size());
+            for (String column : fieldSets.keySet())
+            {
+                String valueAsStr = PropertyAccessorHelper.getString(fieldSets.get(column));
+                String key = getHashKey(entityMetadata.getTableName(), getHashKey(column, valueAsStr));
+                keySets.add(key);
+            }
 
+            List<Set<String>> memberSets = getMembers(connection, keySets);
+            if (queryParameter.getClause().equals(Clause.INTERSECT))
+            {
+                // Retain over smallest set, to compare as few members as
+                // possible.
+                Set<String> smallest = null;
+                for (Set<String> members : memberSets)
+                {
+                    smallest = smallest == null || members.size() < smallest.size() ? members : smallest;
                 }
-                else
+                rowKeys.addAll(smallest);
+                for (Set<String> members : memberSets)
                 {
-
-                    rowKeys = ((Jedis) connection).zrange(destStore, 0, -1);
-                    ((Jedis) connection).del(destStore);
+                    rowKeys.retainAll(members);
                 }
-
-                // delete intermediate store after find.
-                //
-                // means it is a query over sorted set.
             }
-            else if (queryParameter.isByRange())
+            else
             {
-                // means query over a single sorted set with range
-                Map<String, Double> minimum = queryParameter.getMin();
-                Map<String, Double> maximum = queryParameter.getMax();
-
-                String column = minimum.keySet().iterator().next();
-
-                if (resource != null && resource.isActive())
+                for (Set<String> members : memberSets)
                 {
-                    Response response = ((Transaction) connection)
-                            .zrangeByScore(getHashKey(entityMetadata.getTableName(), column), minimum.get(column),
-                                    maximum.get(column));
-                    ((Transaction) connection).exec();
-
-                    rowKeys = (Set<String>) response.get();
-
+                    rowKeys.addAll(members);
                 }
-                else
-                {
-                    rowKeys = ((Jedis) connection).zrangeByScore(getHashKey(entityMetadata.getTableName(), column),
-                            minimum.get(column), maximum.get(column));
+            }
+            // means it is a query over sorted set.
+        }
+        else if (queryParameter.isByRange())
+        {
+            // means query over a single sorted set with range
+            Map<String, Double> minimum = queryParameter.getMin();
+            Map<String, Double> maximum = queryParameter.getMax();
 
-                }
+            String column = minimum.keySet().iterator().next();
 
-            }
-            else if (queryParameter.isById())
+            if (resource != null && resource.isActive())
             {
-                Map<String, Object> fieldSets = queryParameter.getFields();
+                Response response = ((Transaction) connection).zrangeByScore(
+                        getHashKey(entityMetadata.getTableName(), column), minimum.get(column), maximum.get(column));
+                ((Transaction) connection).exec();
+
+                rowKeys = (Set<String>) response.get();
 
-                results = findAllColumns(entityClazz, (byte[][]) (queryParameter.getColumns() != null ? queryParameter
-                        .getColumns().toArray() : null), fieldSets.values().toArray());
-                return results;
             }
-            else if (queryParameter.getFields() != null)
+            else
             {
-                Set<String> columns = queryParameter.getFields().keySet();
+                rowKeys = ((Jedis) connection).zrangeByScore(getHashKey(entityMetadata.getTableName(), column),
+                        minimum.get(column), maximum.get(column));
 
-                for (String column : columns)
-                {
-                    // ideally it will always be 1 value in map, else it will go
-                    // it queryParameter.getClause() will not be null!
-                    Double value = getDouble(PropertyAccessorHelper.getString(queryParameter.getFields().get(column)));
-                    if (resource != null && resource.isActive())
-                    {
-                        Response response = ((Transaction) connection).zrangeByScore(
-                                getHashKey(entityMetadata.getTableName(), column), value, value);
-                        ((Transaction) connection).exec();
-
-                        rowKeys = (Set<String>) response.get();
-
-                    }
-                    else
-                    {
-                        rowKeys = ((Jedis) connection).zrangeByScore(getHashKey(entityMetadata.getTableName(), column),
-                                value, value);
+            }
 
-                    }
-                }
+        }
+        else if (queryParameter.isById())
+        {
+            rowKeys.addAll((Collection) queryParameter.getFields().values());
+        }
+        else if (queryParameter.getFields() != null)
+        {
+            Set<String> columns = queryParameter.getFields().keySet();
 
-            }
-            else
+            for (String column : columns)
             {
+                // ideally it will always be 1 value in map, else it will go
+                // it queryParameter.getClause() will not be null!
+                Double value = getDouble(PropertyAccessorHelper.getString(queryParameter.getFields().get(column)));
                 if (resource != null && resource.isActive())
                 {
-                    Response response = ((Transaction) connection).zrange(
-                            getHashKey(entityMetadata.getTableName(),
-                                    ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1);
+                    Response response = ((Transaction) connection).zrangeByScore(
+                            getHashKey(entityMetadata.getTableName(), column), value, value);
                     ((Transaction) connection).exec();
 
-                    rowKeys = new HashSet<String>((Collection<? extends String>) response.get());
+                    rowKeys = (Set<String>) response.get();
+
                 }
                 else
                 {
-                    rowKeys = new HashSet<String>(((Jedis) connection).zrange(
-                            getHashKey(entityMetadata.getTableName(),
-                                    ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1));
+                    rowKeys = ((Jedis) connection).zrangeByScore(getHashKey(entityMetadata.getTableName(), column),
+                            value, value);
+
                 }
             }
 
-            // fetch fr
-            for (String k : rowKeys)
+        }
+        else
+        {
+            if (resource != null && resource.isActive())
             {
+                Response response = ((Transaction) connection).zrange(
+                        getHashKey(entityMetadata.getTableName(),
+                                ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1);
+                ((Transaction) connection).exec();
 
-                Object record = fetch(entityClazz, k, connection, (queryParameter.getColumns() != null ? queryParameter
-                        .getColumns().toArray(new byte[][] {}) : null));
-                if (record != null)
-                {
-                    results.add(record);
-                }
+                rowKeys = new HashSet<String>((Collection<? extends String>) response.get());
             }
+            else
+            {
+                rowKeys = new HashSet<String>(((Jedis) connection).zrange(
+                        getHashKey(entityMetadata.getTableName(),
+                                ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1));
+            }
+        }
+        return rowKeys;
+    }
 
+    /**
+     * Finds row keys matching given query.
+     * 
+     * @param queryParameter
+     *            query interpreter.
+     * @param entityClazz
+     *            entity class.
+     * @return row keys.
+     */
+    Set<String> findRowKeys(RedisQueryInterpreter queryParameter, Class entityClazz)
+    {
+        Object connection = getConnection();
+        try
+        {
+            return findRowKeys(connection, queryParameter, KunderaMetadataManager.getEntityMetadata(entityClazz));
         }
-        catch (InstantiationException e)
+        finally
         {
-            logger.error("Error during persist, Caused by:", e);
-            throw new PersistenceException(e);
+            onCleanup(connection);
         }
-        catch (IllegalAccessException e)
+    }
+
+    /**
+     * Reads one page of row keys matching a query on single sorted set (see
+     * {@link #isQueryOnSingleSet(RedisQueryInterpreter)}), with ZRANGEBYSCORE
+     * ... LIMIT or ZRANGE for complete table.
+     * 
+     * @param queryParameter
+     *            query interpreter.
+     * @param entityClazz
+     *            entity class.
+     * @param offset
+     *            offset of page.
+     * @param count
+     *            page size.
+     * @return row keys of page, fewer than page size on last page.
+     */
+    Set<String> findRowKeys(RedisQueryInterpreter queryParameter, Class entityClazz, int offset, int count)
+    {
+        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClazz);
+        Jedis connection = (Jedis) getConnection();
+        try
         {
-            logger.error("Error during persist, Caused by:", e);
-            throw new PersistenceException(e);
+            if (queryParameter.isByRange())
+            {
+                String column = queryParameter.getMin().keySet().iterator().next();
+                return connection.zrangeByScore(getHashKey(entityMetadata.getTableName(), column), queryParameter
+                        .getMin().get(column), queryParameter.getMax().get(column), offset, count);
+            }
+            else if (queryParameter.getFields() != null)
+            {
+                String column = queryParameter.getFields().keySet().iterator().next();
+                Double value = getDouble(PropertyAccessorHelper.getString(queryParameter.getFields().get(column)));
+                return connection.zrangeByScore(getHashKey(entityMetadata.getTableName(), column), value, value,
+                        offset, count);
+            }
+            return connection.zrange(
+                    getHashKey(entityMetadata.getTableName(),
+                            ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), offset, offset
+                            + count - 1);
         }
         finally
         {
             onCleanup(connection);
-
         }
-
-        return results;
     }
 
-    private <E> List<E> findAllColumns(Class<E> entityClass, byte[][] columns, Object... keys)
+    /**
+     * Reads all members of given sorted sets. Outside of a transaction they
+     * are requested in one pipeline.
+     */
+    private List<Set<String>> getMembers(Object connection, Collection<String> keys)
     {
-        Object connection = getConnection();
-        // connection.co
-        List results = new ArrayList();
-        try
+        List<Set<String>> memberSets = new ArrayList<Set<String>>(keys.size());
+        if (resource != null && resource.isActive())
         {
-            for (Object key : keys)
+            List<Response> responses = new ArrayList<Response>(keys.size());
+            for (String key : keys)
             {
-                Object result = fetch(entityClass, key, connection, columns);
-                if (result != null)
+                responses.add(((Transaction) connection).zrange(key, 0, -1));
+            }
+            ((Transaction) connection).exec();
+
+            for (Response response : responses)
+            {
+                memberSets.add(new HashSet<String>((Collection<? extends String>) response.get()));
+            }
+        }
+        else
+        {
+            List<byte[]>[] replies = new List[keys.size()];
+            try
+            {
+                redis.clients.jedis.Client client = ((Jedis) connection).getClient();
+                for (String key : keys)
                 {
-                    results.add(result);
+                    client.zrange(key, 0, -1);
+                }
+                readReplies((Jedis) connection, replies);
+            }
+            catch (JedisException jedex)
+            {
+                onBrokenConnection(connection);
+                logger.error("Error while reading members of {}, Caused by:", keys, jedex);
+                throw new KunderaException(jedex);
+            }
+
+            for (List<byte[]> reply : replies)
+            {
+                Set<String> members = new HashSet<String>();
+                if (reply != null)
+                {
+                    for (byte[] member : reply)
+                    {
+                        members.add(SafeEncoder.encode(member));
+                    }
                 }
+                memberSets.add(members);
             }
         }
+        return memberSets;
+    }
+
+    /**
+     * Retrieves entity instances of given class and row keys, all columns are
+     * fetched if no column is given.
+     */
+    List findAllColumns(Class entityClass, byte[][] columns, Collection keys)
+    {
+        Object connection = getConnection();
+        try
+        {
+            return fetchAll(entityClass, connection, columns, keys);
+        }
         catch (InstantiationException e)
         {
             logger.error("Error during find by key:", e);
@@ -1609,7 +1973,18 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
             logger.error("Error during find by key:", e);
             throw new PersistenceException(e);
         }
-        return results;
+        finally
+        {
+            onCleanup(connection);
+        }
+    }
+
+    /**
+     * Returns true if a transaction is active on this client.
+     */
+    boolean isTransactionActive()
+    {
+        return resource != null && resource.isActive();
     }
 
     /*
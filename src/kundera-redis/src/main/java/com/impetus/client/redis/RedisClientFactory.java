@@ -300,6 +300,24 @@ public class RedisClientFactory extends GenericClientFactory
         }
     }
 
+    /**
+     * Return broken connection to pool, so that it is destroyed instead of
+     * being borrowed again.
+     * 
+     * @param res
+     *            jedis resource
+     */
+    void releaseBrokenConnection(Jedis res)
+    {
+        if (logger.isDebugEnabled())
+            logger.info("releasing broken connection from pool");
+        Object poolOrConnection = getConnectionPoolOrConnection();
+        if (poolOrConnection instanceof JedisPool)
+        {
+            ((JedisPool) poolOrConnection).returnBrokenResource(res);
+        }
+    }
+
     IndexManager getIndexManager()
     {
         return indexManager;
@@ -60,10 +60,10 @@ public class RedisQuery extends QueryImpl
     protected List<Object> populateEntities(EntityMetadata entityMetadata, Client client)
     {
         /**
-         * Multiple clause: like two columns with and cluase For multiple
-         * andTranslate jpa clause into temp store based on clause if it is for
-         * multiple data set. and fetch from there and then finally delete that
-         * temp storage. Query translator will translate queries into key value
+         * Multiple clause: like two columns with and cluase. Members of sorted
+         * set for each column value are read in one round trip and
+         * intersected/united on client side. Query translator will translate
+         * queries into key value
          */
 
         /**
@@ -120,13 +120,23 @@ public class RedisQuery extends QueryImpl
     {
         if (kunderaQuery.isDeleteUpdate())
         {
-            List result = getResultList();
-            return result != null ? result.size() : 0;
+            EntityMetadata m = getEntityMetadata();
+            return deleteOrUpdate(m, persistenceDelegeator.getClient(m));
         }
 
         return 0;
     }
 
+    /**
+     * Iteration pages over row keys by offset, which shifts as rows are
+     * deleted, so entities to be deleted or updated are loaded in full.
+     */
+    @Override
+    protected Iterator<Object> iterateForDeleteOrUpdate()
+    {
+        return null;
+    }
+
     private RedisQueryInterpreter onTranslation(Queue clauseQueue, EntityMetadata entityMetadata)
     {
         RedisQueryInterpreter interpreter = new RedisQueryInterpreter(getColumns(getKunderaQuery().getResult(),
@@ -259,8 +269,10 @@ public class RedisQuery extends QueryImpl
     @Override
     public Iterator iterate()
     {
-        // TODO Auto-generated method stub
-        return null;
+        EntityMetadata m = getEntityMetadata();
+        RedisQueryInterpreter interpreter = onTranslation(getKunderaQuery().getFilterClauseQueue(), m);
+        return new ResultIterator(this, (RedisClient) persistenceDelegeator.getClient(m), m, interpreter,
+                getIterationLimit());
     }
 
 }
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.redis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.query.IResultIterator;
+
+/**
+ * Implementation of REDIS result iteration. Row keys are read page by page
+ * from index sorted set with ZRANGEBYSCORE ... LIMIT (or ZRANGE for complete
+ * table) and each page is loaded with pipelined HGETALL. Queries with AND/OR
+ * clause, by row key or within a transaction resolve their row keys once and
+ * are paged over on client side. Iteration stops after given number of
+ * entities.
+ * 
+ * @param <E>
+ */
+class ResultIterator<E> implements IResultIterator<E>
+{
+    /** Maximum number of entities loaded per round trip. */
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final RedisQuery query;
+
+    private final RedisClient client;
+
+    private final EntityMetadata m;
+
+    private final RedisQueryInterpreter interpreter;
+
+    private final byte[][] columns;
+
+    private final int pageSize;
+
+    private final int maxResults;
+
+    private int count;
+
+    private Iterator rowKeys;
+
+    private int offset;
+
+    private boolean lastPage;
+
+    private Iterator<E> entities = Collections.<E> emptyList().iterator();
+
+    /**
+     * Constructor with parameters.
+     * 
+     * @param query
+     *            query being iterated.
+     * @param client
+     *            redis client.
+     * @param m
+     *            entity metadata.
+     * @param interpreter
+     *            translated query.
+     * @param maxResults
+     *            maximum number of entities to return.
+     */
+    ResultIterator(final RedisQuery query, final RedisClient client, final EntityMetadata m,
+            final RedisQueryInterpreter interpreter, final int maxResults)
+    {
+        this.query = query;
+        this.client = client;
+        this.m = m;
+        this.interpreter = interpreter;
+        this.columns = interpreter.getColumns() != null ? interpreter.getColumns().toArray(new byte[][] {}) : null;
+        this.maxResults = maxResults;
+        this.pageSize = Math.max(1, Math.min(maxResults, MAX_PAGE_SIZE));
+        this.lastPage = maxResults <= 0;
+
+        if (client.isQueryById(interpreter))
+        {
+            rowKeys = interpreter.getFields().values().iterator();
+        }
+        else if (!client.isQueryOnSingleSet(interpreter) || client.isTransactionActive())
+        {
+            rowKeys = client.findRowKeys(interpreter, m.getEntityClazz()).iterator();
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (count >= maxResults)
+        {
+            return false;
+        }
+        while (!entities.hasNext() && !lastPage)
+        {
+            fetchPage();
+        }
+        return entities.hasNext();
+    }
+
+    @Override
+    public E next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException("Nothing to iterate further for:" + m.getEntityClazz());
+        }
+        count++;
+        return entities.next();
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("remove method is not supported over pagination");
+    }
+
+    @Override
+    public List<E> next(int chunkSize)
+    {
+        List<E> chunk = new ArrayList<E>(chunkSize);
+        while (chunk.size() < chunkSize && hasNext())
+        {
+            chunk.add(next());
+        }
+        return chunk;
+    }
+
+    private void fetchPage()
+    {
+        List<Object> page = new ArrayList<Object>(pageSize);
+        if (rowKeys != null)
+        {
+            while (page.size() < pageSize && rowKeys.hasNext())
+            {
+                page.add(rowKeys.next());
+            }
+            lastPage = !rowKeys.hasNext();
+        }
+        else
+        {
+            Set<String> keys = client.findRowKeys(interpreter, m.getEntityClazz(), offset, pageSize);
+            page.addAll(keys);
+            offset += pageSize;
+            lastPage = keys.size() < pageSize;
+        }
+
+        List<Object> results = page.isEmpty() ? null : query.setRelationEntities(
+                client.findAllColumns(m.getEntityClazz(), columns, page), client, m);
+        entities = results != null ? ((List<E>) results).iterator() : Collections.<E> emptyList().iterator();
+    }
+}
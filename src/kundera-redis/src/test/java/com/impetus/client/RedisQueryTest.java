@@ -32,7 +32,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.impetus.client.entities.PersonRedis;
+import com.impetus.kundera.query.IResultIterator;
 import com.impetus.kundera.query.QueryHandlerException;
+import com.impetus.kundera.query.QueryImpl;
 
 /**
  * @author vivek
@@ -237,6 +239,37 @@ public class RedisQueryTest
 
         // TODOOOO: selective column search
 
+        // Iterate over all, fetch size limits number of entities returned.
+        query = em.createQuery(findWithOutWhereClause);
+        ((QueryImpl) query).setFetchSize(2);
+        IResultIterator<PersonRedis> iterator = (IResultIterator<PersonRedis>) ((QueryImpl) query).iterate();
+        Assert.assertEquals(1, iterator.next(1).size());
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertNotNull(iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+
+        // else max results does.
+        query = em.createQuery(findWithOutWhereClause);
+        query.setMaxResults(2);
+        iterator = (IResultIterator<PersonRedis>) ((QueryImpl) query).iterate();
+        Assert.assertEquals(2, iterator.next(5).size());
+        Assert.assertFalse(iterator.hasNext());
+
+        query = em.createQuery(findWithOutWhereClause);
+        iterator = (IResultIterator<PersonRedis>) ((QueryImpl) query).iterate();
+        Assert.assertEquals(3, iterator.next(5).size());
+        Assert.assertFalse(iterator.hasNext());
+
+        // Iterate over OR clause.
+        query = em.createQuery(findByIdMoreOrAge);
+        query.setParameter("personId", ROW_KEY);
+        query.setParameter("age", 29);
+        query.setParameter("personName", originalName);
+        ((QueryImpl) query).setFetchSize(2);
+        iterator = (IResultIterator<PersonRedis>) ((QueryImpl) query).iterate();
+        Assert.assertEquals(2, iterator.next(5).size());
+        Assert.assertFalse(iterator.hasNext());
+
         // Delete by query.
         String deleteQuery = "Delete from PersonRedis p";
         query = em.createQuery(deleteQuery);